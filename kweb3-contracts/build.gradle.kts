@@ -1,3 +1,11 @@
 dependencies {
     implementation(projects.kweb3Core)
+    annotationProcessor(projects.kweb3Processor)
+
+    testImplementation(platform(libs.junit.bom))
+    testImplementation(libs.junit.jupiter)
+}
+
+tasks.test {
+    useJUnitPlatform()
 }
\ No newline at end of file
@@ -0,0 +1,130 @@
+package dev.klepto.kweb3.contracts;
+
+import dev.klepto.kweb3.core.Web3Client;
+import dev.klepto.kweb3.core.Web3Error;
+import dev.klepto.kweb3.core.Web3Result;
+import dev.klepto.kweb3.core.chain.endpoint.PublicNode;
+import dev.klepto.kweb3.core.contract.*;
+import dev.klepto.kweb3.core.ethereum.type.primitive.EthAddress;
+import dev.klepto.kweb3.core.ethereum.type.primitive.EthArray;
+import lombok.val;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+
+import static dev.klepto.kweb3.core.ethereum.type.primitive.EthAddress.address;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for contract bindings generated by <code>kweb3-processor</code>.
+ *
+ * @author <a href="http://github.com/klepto">Augustinas R.</a>
+ */
+public class ContractBindingTest {
+
+    private static final EthAddress TOKEN = address("0xc02aaa39b223fe8d0a0e5c4f27ead9083c756cc2");
+    private static final EthAddress ACCOUNT = address("0xd8da6bf26964af9d7eed9e03e53415d37aa96045");
+
+    @Test
+    public void testSelectors() throws NoSuchMethodException {
+        val parser = new ReflectionContractParser();
+        assertEquals("balanceOf(address)", Erc20Binding.BALANCE_OF_SIGNATURE);
+        assertEquals("0x70a08231", Erc20Binding.BALANCE_OF_SELECTOR);
+        assertEquals(
+                parser.parseFunction(Erc20.class.getMethod("decimals")).signature(),
+                Erc20Binding.DECIMALS_SELECTOR
+        );
+        assertEquals("aggregate3((address,bool,bytes)[])", Multicall3Binding.AGGREGATE3_SIGNATURE);
+        assertEquals(
+                parser.parseFunction(Multicall3.class.getMethod("aggregate3", EthArray.class)).signature(),
+                Multicall3Binding.AGGREGATE3_SELECTOR
+        );
+    }
+
+    @Test
+    public void testBindingExecution() {
+        val executor = new RecordingContractExecutor();
+        val client = new Web3Client(new ContractProxyProvider(), executor, new ReflectionContractParser(),
+                PublicNode.ETHEREUM);
+        try {
+            val token = client.contract(Erc20.class, TOKEN);
+            assertInstanceOf(Erc20Binding.class, token);
+            assertEquals(Erc20.class, token.getContractClass());
+            assertEquals(TOKEN, token.getAddress());
+            assertSame(client, token.getClient());
+            assertEquals(client.contract(Erc20.class, TOKEN), token);
+
+            token.balanceOf(ACCOUNT);
+            assertEquals(1, executor.calls.size());
+            val call = executor.calls.get(0);
+            assertEquals(Erc20Binding.BALANCE_OF_SELECTOR, call.function().signature());
+            assertArrayEquals(new Object[]{ACCOUNT}, call.args());
+            assertSame(token.getProxy(), call.proxy());
+        } finally {
+            client.close();
+        }
+    }
+
+    @Test
+    public void testSelectorMismatch() {
+        val executor = new RecordingContractExecutor();
+        val client = new Web3Client(new ContractProxyProvider(), executor, new ZeroSelectorParser(),
+                PublicNode.ETHEREUM);
+        try {
+            val token = client.contract(Erc20.class, TOKEN);
+            assertInstanceOf(Erc20Binding.class, token);
+            assertThrows(Web3Error.class, () -> token.balanceOf(ACCOUNT));
+            assertTrue(executor.calls.isEmpty());
+        } finally {
+            client.close();
+        }
+    }
+
+    /**
+     * Parser that resolves every function to a zero selector, disagreeing with the selectors of bindings.
+     */
+    private static class ZeroSelectorParser extends ReflectionContractParser {
+
+        @Override
+        public ContractFunction createFunction(Method method) {
+            val function = super.createFunction(method);
+            return new ContractFunction(function.method(), function.name(), "0x00000000",
+                    function.parametersDescriptor(), function.returnDescriptor(), function.returnType(),
+                    function.returnTuple(), function.costParameterIndex());
+        }
+
+    }
+
+    /**
+     * Executor that records contract calls without executing them.
+     */
+    private static class RecordingContractExecutor implements ContractExecutor {
+
+        private final List<ContractCall> calls = new ArrayList<>();
+
+        @Override
+        public Object execute(ContractCall call) {
+            calls.add(call);
+            return null;
+        }
+
+        @Override
+        public String encode(ContractCall call) {
+            return "";
+        }
+
+        @Override
+        public Web3Result<String> request(ContractCall call, String data) {
+            return new Web3Result<>();
+        }
+
+        @Override
+        public Object decode(ContractCall call, Web3Result<String> result) {
+            return null;
+        }
+
+    }
+
+}
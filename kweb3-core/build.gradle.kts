@@ -1,3 +1,7 @@
+plugins {
+    alias(libs.plugins.jmh)
+}
+
 dependencies {
     api(libs.unreflect)
     api(libs.google.guava)
@@ -5,6 +9,7 @@ dependencies {
     implementation(libs.jetbrains.annotations)
     implementation(libs.google.gson)
     implementation(libs.headlong)
+    implementation(libs.asm)
     implementation(libs.java.websocket)
     implementation(libs.bundles.slf4j)
 
@@ -17,8 +22,16 @@ dependencies {
 
     testImplementation(platform(libs.junit.bom))
     testImplementation(libs.junit.jupiter)
+
+    jmh(libs.jetty.server)
+    jmh(libs.jetty.http2.server)
+    jmh(libs.jetty.alpn.server)
 }
 
 tasks.test {
     useJUnitPlatform()
+}
+
+jmh {
+    jmhVersion = libs.versions.jmh
 }
\ No newline at end of file
@@ -0,0 +1,89 @@
+package dev.klepto.kweb3.contract;
+
+import dev.klepto.kweb3.core.Web3Client;
+import dev.klepto.kweb3.core.Web3Result;
+import dev.klepto.kweb3.core.chain.endpoint.PublicNode;
+import dev.klepto.kweb3.core.contract.*;
+import dev.klepto.kweb3.core.contract.annotation.View;
+import dev.klepto.kweb3.core.ethereum.type.primitive.EthAddress;
+import dev.klepto.kweb3.core.ethereum.type.primitive.EthUint;
+import lombok.val;
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+import static dev.klepto.kweb3.core.ethereum.type.primitive.EthAddress.address;
+
+/**
+ * Measures per-call overhead of resolving the {@link ContractFunction} of a contract interface method, with and
+ * without the function cache of {@link ReflectionContractParser}. The <code>invoke</code> benchmark calls a contract
+ * proxy with an executor that does nothing, so it measures everything the proxy does before execution.
+ *
+ * @author <a href="http://github.com/klepto">Augustinas R.</a>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContractFunctionBenchmark {
+
+    private static final EthAddress ACCOUNT = address("0xd8da6bf26964af9d7eed9e03e53415d37aa96045");
+
+    @Param({"cached", "uncached"})
+    private String parser;
+
+    private final ReflectionContractParser contractParser = new ReflectionContractParser();
+    private Method method;
+    private Web3Client client;
+    private Token token;
+
+    @Setup
+    public void setup() throws NoSuchMethodException {
+        method = Token.class.getMethod("balanceOf", EthAddress.class);
+        val parser = this.parser.equals("cached") ? contractParser : new UncachedContractParser();
+        client = new Web3Client(new ContractProxyProvider(), new NoopContractExecutor(), parser, PublicNode.ETHEREUM);
+        token = client.contract(Token.class, "0xc02aaa39b223fe8d0a0e5c4f27ead9083c756cc2");
+    }
+
+    @TearDown
+    public void tearDown() {
+        client.close();
+    }
+
+    @Benchmark
+    public ContractFunction parse() {
+        return parser.equals("cached") ? contractParser.parseFunction(method) : contractParser.createFunction(method);
+    }
+
+    @Benchmark
+    public Object invoke() {
+        return token.balanceOf(ACCOUNT);
+    }
+
+    /**
+     * Contract interface used by the benchmark.
+     */
+    public interface Token extends Web3Contract {
+
+        @View
+        Web3Result<EthUint> balanceOf(EthAddress account);
+
+    }
+
+    /**
+     * Parser that parses the function on every call, the way functions were resolved before they were cached.
+     */
+    private static class UncachedContractParser extends ReflectionContractParser {
+
+        @Override
+        public @NotNull ContractFunction parseFunction(@NotNull Method method) {
+            return createFunction(method);
+        }
+
+    }
+
+}
@@ -0,0 +1,78 @@
+package dev.klepto.kweb3.contract;
+
+import dev.klepto.kweb3.core.Web3Client;
+import dev.klepto.kweb3.core.Web3Result;
+import dev.klepto.kweb3.core.chain.endpoint.PublicNode;
+import dev.klepto.kweb3.core.contract.*;
+import dev.klepto.kweb3.core.contract.annotation.View;
+import dev.klepto.kweb3.core.ethereum.type.primitive.EthAddress;
+import dev.klepto.kweb3.core.ethereum.type.primitive.EthUint;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+import static dev.klepto.kweb3.core.ethereum.type.primitive.EthAddress.address;
+
+/**
+ * Compares contract instances of {@link ContractProxyProvider}, backed by {@link java.lang.reflect.Proxy}, with the
+ * hidden classes of {@link HiddenClassContractProvider}. The executor does nothing, so <code>invoke</code> measures
+ * the dispatch from the contract method to the executor and <code>create</code> measures contract instantiation.
+ *
+ * @author <a href="http://github.com/klepto">Augustinas R.</a>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContractProviderBenchmark {
+
+    private static final EthAddress TOKEN = address("0xc02aaa39b223fe8d0a0e5c4f27ead9083c756cc2");
+    private static final EthAddress ACCOUNT = address("0xd8da6bf26964af9d7eed9e03e53415d37aa96045");
+
+    @Param({"proxy", "hidden"})
+    private String provider;
+
+    private Web3Client client;
+    private Token token;
+
+    @Setup
+    public void setup() {
+        ContractProvider contractProvider = provider.equals("proxy")
+                ? new ContractProxyProvider()
+                : new HiddenClassContractProvider();
+        client = new Web3Client(contractProvider, new NoopContractExecutor(), new ReflectionContractParser(),
+                PublicNode.ETHEREUM);
+        token = client.contract(Token.class, TOKEN);
+    }
+
+    @TearDown
+    public void tearDown() {
+        client.close();
+    }
+
+    @Benchmark
+    public Object invoke() {
+        return token.balanceOf(ACCOUNT);
+    }
+
+    @Benchmark
+    public Token create() {
+        return client.contract(Token.class, TOKEN);
+    }
+
+    /**
+     * Contract interface used by the benchmark.
+     */
+    public interface Token extends Web3Contract {
+
+        @View
+        Web3Result<EthUint> balanceOf(EthAddress account);
+
+        @View
+        Web3Result<EthUint> allowance(EthAddress owner, EthAddress spender);
+
+    }
+
+}
@@ -0,0 +1,36 @@
+package dev.klepto.kweb3.contract;
+
+import dev.klepto.kweb3.core.Web3Result;
+import dev.klepto.kweb3.core.contract.ContractCall;
+import dev.klepto.kweb3.core.contract.ContractExecutor;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Executor that skips encoding, requesting and decoding, used to measure the overhead of contract calls themselves.
+ *
+ * @author <a href="http://github.com/klepto">Augustinas R.</a>
+ */
+class NoopContractExecutor implements ContractExecutor {
+
+    @Override
+    public @Nullable Object execute(@NotNull ContractCall call) {
+        return null;
+    }
+
+    @Override
+    public @NotNull String encode(@NotNull ContractCall call) {
+        return "";
+    }
+
+    @Override
+    public @NotNull Web3Result<String> request(@NotNull ContractCall call, @NotNull String data) {
+        return new Web3Result<>();
+    }
+
+    @Override
+    public @Nullable Object decode(@NotNull ContractCall call, @NotNull Web3Result<String> result) {
+        return null;
+    }
+
+}
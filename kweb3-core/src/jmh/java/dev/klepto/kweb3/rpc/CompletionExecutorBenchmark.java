@@ -0,0 +1,98 @@
+package dev.klepto.kweb3.rpc;
+
+import dev.klepto.kweb3.core.chain.Web3Endpoint;
+import dev.klepto.kweb3.core.chain.endpoint.PublicNode;
+import dev.klepto.kweb3.core.ethereum.rpc.RpcClient;
+import dev.klepto.kweb3.core.ethereum.rpc.RpcMessage;
+import dev.klepto.kweb3.core.ethereum.rpc.api.RpcApiResponseMessage;
+import dev.klepto.kweb3.core.ethereum.rpc.io.RpcConnection;
+import dev.klepto.kweb3.core.util.Threads;
+import lombok.val;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Measures head-of-line blocking caused by result callbacks running on the connection thread. Responses are delivered
+ * by a single reader thread, as they are by websocket connections, and every result callback blocks for a millisecond.
+ * Without a completion executor, callbacks run one after another on the reader thread and delay all later responses.
+ *
+ * @author <a href="http://github.com/klepto">Augustinas R.</a>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CompletionExecutorBenchmark {
+
+    private static final long CALLBACK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Param({"INLINE", "BOUNDED", "VIRTUAL"})
+    private String executor;
+
+    @Param({"16"})
+    private int requests;
+
+    private ExecutorService reader;
+    private ExecutorService completionExecutor;
+    private RpcClient client;
+
+    @Setup
+    public void setup() {
+        reader = Executors.newSingleThreadExecutor(Threads.daemonFactory("benchmark-reader"));
+        client = new RpcClient(PublicNode.ETHEREUM, (endpoint, messageCallback, errorCallback, closeCallback) ->
+                new ReaderConnection(endpoint, messageCallback, reader));
+        completionExecutor = switch (executor) {
+            case "BOUNDED" -> Threads.boundedExecutor("benchmark-completion", requests, 1024);
+            case "VIRTUAL" -> Threads.virtualThreadExecutor();
+            default -> null;
+        };
+        client.setCompletionExecutor(completionExecutor);
+    }
+
+    @TearDown
+    public void tearDown() {
+        client.close();
+        reader.shutdown();
+        if (completionExecutor != null) {
+            completionExecutor.shutdown();
+        }
+    }
+
+    @Benchmark
+    public void blockingCallbacks() {
+        val results = new CompletableFuture<?>[requests];
+        for (var i = 0; i < requests; i++) {
+            results[i] = client.ethBlockNumber()
+                    .get(value -> LockSupport.parkNanos(CALLBACK_NANOS))
+                    .toCompletableFuture();
+        }
+        CompletableFuture.allOf(results).join();
+    }
+
+    /**
+     * Connection that answers every request on a single reader thread.
+     */
+    private record ReaderConnection(Web3Endpoint endpoint,
+                                    Consumer<RpcMessage> messageCallback,
+                                    ExecutorService reader) implements RpcConnection {
+
+        @Override
+        public void send(RpcMessage message) {
+            reader.execute(() -> messageCallback.accept(new RpcApiResponseMessage("2.0", message.id(), null, null)));
+        }
+
+        @Override
+        public void close() {
+        }
+
+    }
+
+}
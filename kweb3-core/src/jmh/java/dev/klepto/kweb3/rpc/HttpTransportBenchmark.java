@@ -0,0 +1,195 @@
+package dev.klepto.kweb3.rpc;
+
+import com.google.gson.JsonParser;
+import dev.klepto.kweb3.core.chain.Web3Endpoint;
+import dev.klepto.kweb3.core.chain.Web3Transport;
+import dev.klepto.kweb3.core.chain.endpoint.PublicNode;
+import dev.klepto.kweb3.core.ethereum.rpc.RpcClient;
+import dev.klepto.kweb3.core.ethereum.rpc.io.Http2RpcConnection;
+import dev.klepto.kweb3.core.util.Threads;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import kong.unirest.core.Unirest;
+import lombok.val;
+import org.eclipse.jetty.alpn.server.ALPNServerConnectionFactory;
+import org.eclipse.jetty.http2.server.HTTP2ServerConnectionFactory;
+import org.eclipse.jetty.server.*;
+import org.eclipse.jetty.server.handler.AbstractHandler;
+import org.eclipse.jetty.util.ssl.SslContextFactory;
+import org.openjdk.jmh.annotations.*;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.TrustManagerFactory;
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyStore;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link Web3Transport#HTTP} (Unirest) and {@link Web3Transport#HTTP2} (JDK HttpClient) transports against a
+ * local Jetty server that negotiates HTTP/1.1 or HTTP/2 over TLS with ALPN. TLS is required because JDK HttpClient
+ * doesn't upgrade cleartext requests with a body to HTTP/2. Every operation sends a burst of concurrent
+ * <code>eth_blockNumber</code> requests and waits for all of them to complete. The number of requests served over
+ * HTTP/1.1 and HTTP/2 is reported by the {@link Protocols} counters.
+ *
+ * @author <a href="http://github.com/klepto">Augustinas R.</a>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HttpTransportBenchmark {
+
+    @Param({"HTTP", "HTTP2"})
+    private Web3Transport transport;
+
+    @Param({"1", "64"})
+    private int concurrency;
+
+    private static final String KEY_STORE_PASSWORD = "kweb3-benchmark";
+    private static final String HTTP1_RESULT = "0x1";
+    private static final String HTTP2_RESULT = "0x2";
+
+    private Server server;
+    private RpcClient client;
+
+    @Setup
+    public void setup() throws Exception {
+        val keyStore = createKeyStore();
+        server = new Server();
+        val config = new HttpConfiguration();
+        // The benchmark jar keeps a single HttpFieldPreEncoder service file, which breaks HPACK encoding of
+        // pre-encoded fields such as the date header.
+        config.setSendDateHeader(false);
+        config.setSendServerVersion(false);
+        config.addCustomizer(new SecureRequestCustomizer(false));
+        val sslContextFactory = new SslContextFactory.Server();
+        sslContextFactory.setKeyStore(keyStore);
+        sslContextFactory.setKeyStorePassword(KEY_STORE_PASSWORD);
+        val alpn = new ALPNServerConnectionFactory("h2", "http/1.1");
+        alpn.setDefaultProtocol("http/1.1");
+        val connector = new ServerConnector(
+                server,
+                new SslConnectionFactory(sslContextFactory, alpn.getProtocol()),
+                alpn,
+                new HTTP2ServerConnectionFactory(config),
+                new HttpConnectionFactory(config)
+        );
+        connector.setHost("127.0.0.1");
+        server.addConnector(connector);
+        server.setHandler(new EchoHandler());
+        server.start();
+
+        val endpoint = Web3Endpoint.builder()
+                .chain(PublicNode.ETHEREUM.chain())
+                .url("https://127.0.0.1:" + connector.getLocalPort())
+                .transport(transport)
+                .settings(new Web3Endpoint.Settings(null, null, null, null))
+                .build();
+
+        val trustManagers = TrustManagerFactory.getInstance(TrustManagerFactory.getDefaultAlgorithm());
+        trustManagers.init(keyStore);
+        val sslContext = SSLContext.getInstance("TLS");
+        sslContext.init(null, trustManagers.getTrustManagers(), null);
+        Unirest.config().sslContext(sslContext);
+        Http2RpcConnection.configure(endpoint, HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .sslContext(sslContext)
+                .executor(Threads.executor())
+                .build());
+        client = new RpcClient(endpoint);
+    }
+
+    /**
+     * Generates a self-signed certificate for <code>127.0.0.1</code> using <code>keytool</code>.
+     *
+     * @return the key store containing the certificate
+     */
+    private static KeyStore createKeyStore() throws Exception {
+        val file = Files.createTempFile("kweb3-benchmark", ".p12");
+        Files.delete(file);
+        val keytool = Path.of(System.getProperty("java.home"), "bin", "keytool").toString();
+        val process = new ProcessBuilder(
+                keytool, "-genkeypair", "-keystore", file.toString(), "-storetype", "PKCS12",
+                "-storepass", KEY_STORE_PASSWORD, "-keyalg", "EC", "-alias", "server", "-dname", "CN=127.0.0.1",
+                "-ext", "SAN=ip:127.0.0.1", "-validity", "1"
+        ).inheritIO().start();
+        if (process.waitFor() != 0) {
+            throw new IllegalStateException("keytool failed with exit code " + process.exitValue());
+        }
+
+        val keyStore = KeyStore.getInstance("PKCS12");
+        try (val input = Files.newInputStream(file)) {
+            keyStore.load(input, KEY_STORE_PASSWORD.toCharArray());
+        }
+        Files.delete(file);
+        return keyStore;
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        client.close();
+        server.stop();
+    }
+
+    @Benchmark
+    public void burst(Protocols protocols) {
+        val results = new CompletableFuture<?>[concurrency];
+        for (var i = 0; i < concurrency; i++) {
+            results[i] = client.ethBlockNumber().toCompletableFuture();
+        }
+        CompletableFuture.allOf(results).join();
+        for (val result : results) {
+            if (HTTP2_RESULT.equals(result.join())) {
+                protocols.http2++;
+            } else {
+                protocols.http1++;
+            }
+        }
+    }
+
+    /**
+     * Counts the requests served over each protocol, as reported by the result of every response.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Protocols {
+
+        public long http1;
+        public long http2;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            http1 = 0;
+            http2 = 0;
+        }
+
+    }
+
+    /**
+     * Handler that responds to every JSON-RPC request under the request id, with a result that tells which protocol
+     * served the request.
+     */
+    private class EchoHandler extends AbstractHandler {
+
+        @Override
+        public void handle(String target,
+                           Request baseRequest,
+                           HttpServletRequest request,
+                           HttpServletResponse response) throws IOException {
+            val body = new String(request.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+            val id = JsonParser.parseString(body).getAsJsonObject().get("id").getAsLong();
+            val result = request.getProtocol().startsWith("HTTP/2") ? HTTP2_RESULT : HTTP1_RESULT;
+            response.getWriter().write("{\"jsonrpc\":\"2.0\",\"id\":" + id + ",\"result\":\"" + result + "\"}");
+            baseRequest.setHandled(true);
+        }
+
+    }
+
+}
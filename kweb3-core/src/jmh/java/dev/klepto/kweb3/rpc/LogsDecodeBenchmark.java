@@ -0,0 +1,81 @@
+package dev.klepto.kweb3.rpc;
+
+import com.google.gson.JsonElement;
+import dev.klepto.kweb3.core.ethereum.rpc.api.EthGetLogsRequest;
+import dev.klepto.kweb3.core.ethereum.rpc.api.RpcApiMessageDecoder;
+import dev.klepto.kweb3.core.ethereum.rpc.api.RpcApiResponseMessage;
+import lombok.val;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static dev.klepto.kweb3.core.ethereum.rpc.api.RpcApiMessage.GSON;
+
+/**
+ * Compares decoding of a large <code>eth_getLogs</code> response through a string and a {@link JsonElement} tree
+ * against streaming decoding with {@link RpcApiMessageDecoder}. Run with <code>-prof gc</code> to compare the amount
+ * of memory allocated per decoded response.
+ *
+ * @author <a href="http://github.com/klepto">Augustinas R.</a>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class LogsDecodeBenchmark {
+
+    @Param({"50"})
+    private int megabytes;
+
+    private byte[] response;
+
+    @Setup
+    public void setup() {
+        val log = "{\"address\":\"0xc02aaa39b223fe8d0a0e5c4f27ead9083c756cc2\",\"topics\":["
+                + "\"0xddf252ad1be2c89b69c2b068fc378daa952ba7f163c4a11628f55a4df523b3ef\","
+                + "\"0x0000000000000000000000003fc91a3afd70395cd496c647d5a6cc9d4b2b7fad\","
+                + "\"0x000000000000000000000000c2e9f25be6257c210d7adf0d4cd6e3e881ba25f8\"],"
+                + "\"data\":\"0x00000000000000000000000000000000000000000000000002c68af0bb140000\","
+                + "\"blockNumber\":\"0x12a05f2\","
+                + "\"transactionHash\":\"0x5c504ed432cb51138bcf09aa5e8a410dd4a1e204ef84bfed1be16dfba1b22060\","
+                + "\"transactionIndex\":\"0x1f\","
+                + "\"blockHash\":\"0x2b1b4e5cd2e5a79a1e1c8b6e4e7a7fc5e3d0e1c2a3b4c5d6e7f8091a2b3c4d5e\","
+                + "\"logIndex\":\"0x4a\",\"removed\":false}";
+        val builder = new StringBuilder(megabytes * 1024 * 1024 + log.length());
+        builder.append("{\"jsonrpc\":\"2.0\",\"id\":1,\"result\":[");
+        while (builder.length() < megabytes * 1024 * 1024) {
+            builder.append(log).append(',');
+        }
+        builder.append(log).append("]}");
+        response = builder.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Decodes the response the way connections did before streaming decoding: body is read into a string, parsed into
+     * a tree, mapped into a response message and finally mapped into log records.
+     */
+    @Benchmark
+    public List<EthGetLogsRequest.LogResponse> tree() {
+        val string = new String(response, StandardCharsets.UTF_8);
+        val tree = GSON.fromJson(string, JsonElement.class);
+        val message = GSON.fromJson(tree, RpcApiResponseMessage.class);
+        return message.resultAs(EthGetLogsRequest.LogResponse.LIST_TYPE);
+    }
+
+    /**
+     * Decodes the response body stream straight into log records.
+     */
+    @Benchmark
+    public List<EthGetLogsRequest.LogResponse> streaming() {
+        val reader = new InputStreamReader(new ByteArrayInputStream(response), StandardCharsets.UTF_8);
+        val messages = RpcApiMessageDecoder.decode(reader, id -> EthGetLogsRequest.LogResponse.LIST_TYPE);
+        return ((RpcApiResponseMessage) messages.get(0)).resultAs(EthGetLogsRequest.LogResponse.LIST_TYPE);
+    }
+
+}
@@ -0,0 +1,61 @@
+package dev.klepto.kweb3.rpc;
+
+import dev.klepto.kweb3.core.ethereum.rpc.api.EthCallRequest;
+import dev.klepto.kweb3.core.ethereum.rpc.api.RpcApiMessageWriter;
+import dev.klepto.kweb3.core.ethereum.rpc.api.RpcApiRequestMessage;
+import lombok.val;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+import static dev.klepto.kweb3.core.ethereum.rpc.api.RpcApiMessage.GSON;
+
+/**
+ * Compares encoding of an <code>eth_call</code> request with reflective {@link com.google.gson.Gson} serialization
+ * against {@link RpcApiMessageWriter}. Run with <code>-prof gc</code> to compare allocations per request.
+ *
+ * @author <a href="http://github.com/klepto">Augustinas R.</a>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RequestEncodeBenchmark {
+
+    private static final String TO = "0xc02aaa39b223fe8d0a0e5c4f27ead9083c756cc2";
+    private static final String DATA = "0x70a08231000000000000000000000000d8da6bf26964af9d7eed9e03e53415d37aa96045";
+
+    private long id;
+
+    /**
+     * Encodes the request the way it was encoded before {@link RpcApiMessageWriter}: parameters are converted into a
+     * tree and the message is serialized by reflection.
+     */
+    @Benchmark
+    public String gson() {
+        val params = new Object[]{new TransactionParameter(null, TO, null, null, null, DATA), "latest"};
+        val message = new RpcApiRequestMessage("2.0", ++id, "eth_call", GSON.toJsonTree(params));
+        return GSON.toJson(message);
+    }
+
+    @Benchmark
+    public String writer() {
+        return new EthCallRequest(null, TO, null, null, null, DATA, null).encode().withId(++id).serialize();
+    }
+
+    /**
+     * Copy of the private <code>eth_call</code> transaction parameter, serialized by reflection.
+     */
+    private record TransactionParameter(@Nullable String from,
+                                        @NotNull String to,
+                                        @Nullable Integer gas,
+                                        @Nullable String gasPrice,
+                                        @Nullable String value,
+                                        @NotNull String data) {
+    }
+
+}
@@ -0,0 +1,102 @@
+package dev.klepto.kweb3.rpc;
+
+import dev.klepto.kweb3.core.chain.Web3Endpoint;
+import dev.klepto.kweb3.core.chain.endpoint.PublicNode;
+import dev.klepto.kweb3.core.ethereum.rpc.RpcClient;
+import dev.klepto.kweb3.core.ethereum.rpc.RpcMessage;
+import dev.klepto.kweb3.core.ethereum.rpc.RpcRequest;
+import dev.klepto.kweb3.core.ethereum.rpc.api.RpcApiResponseMessage;
+import dev.klepto.kweb3.core.ethereum.rpc.io.RpcConnection;
+import lombok.val;
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Measures per-response cost of {@link RpcClient} pending request table with different amounts of in-flight requests.
+ * Every operation completes the oldest in-flight request and issues a new one, keeping the amount of in-flight
+ * requests constant.
+ *
+ * @author <a href="http://github.com/klepto">Augustinas R.</a>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RpcClientBenchmark {
+
+    @Param({"10", "1000", "10000", "100000"})
+    private int inFlight;
+
+    private final ArrayDeque<Long> pending = new ArrayDeque<>();
+    private Consumer<RpcMessage> messageCallback;
+    private RpcClient client;
+
+    @Setup
+    public void setup() {
+        client = new RpcClient(PublicNode.ETHEREUM, (endpoint, messageCallback, errorCallback, closeCallback) -> {
+            this.messageCallback = messageCallback;
+            return new NoopConnection(endpoint);
+        });
+        for (var i = 0; i < inFlight; i++) {
+            client.request(new PendingRequest());
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        client.close();
+        pending.clear();
+    }
+
+    @Benchmark
+    public void response() {
+        val id = pending.poll();
+        messageCallback.accept(new RpcApiResponseMessage("2.0", id, null, null));
+        client.request(new PendingRequest());
+    }
+
+    /**
+     * Request that doesn't perform any IO and completes on the first matching response.
+     */
+    private class PendingRequest implements RpcRequest {
+
+        @Override
+        public boolean send(@NotNull RpcClient client, long id) {
+            pending.add(id);
+            return true;
+        }
+
+        @Override
+        public boolean isComplete(@NotNull RpcClient client, @NotNull RpcMessage message) {
+            return true;
+        }
+
+        @Override
+        public boolean onError(@NotNull RpcClient client, @NotNull Throwable error) {
+            return true;
+        }
+
+    }
+
+    /**
+     * Connection that discards all messages.
+     */
+    private record NoopConnection(Web3Endpoint endpoint) implements RpcConnection {
+
+        @Override
+        public void send(RpcMessage message) {
+        }
+
+        @Override
+        public void close() {
+        }
+
+    }
+
+}
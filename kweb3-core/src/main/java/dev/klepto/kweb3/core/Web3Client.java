@@ -10,6 +10,7 @@ import lombok.experimental.Delegate;
 import org.jetbrains.annotations.NotNull;
 
 import java.io.Closeable;
+import java.util.List;
 
 import static dev.klepto.kweb3.core.ethereum.type.primitive.EthAddress.address;
 
@@ -53,13 +54,26 @@ public class Web3Client implements Closeable {
      * @param endpoint the endpoints this client connects to
      */
     public Web3Client(@NotNull Web3Endpoint endpoint) {
-        this.contractProvider = new ContractProxyProvider();
+        this.contractProvider = new HiddenClassContractProvider();
         this.contractExecutor = new ReflectionContractExecutor();
         this.contractParser = new ReflectionContractParser();
         this.address = EthAddress.ZERO;
         this.ethereum = new EthereumClient(endpoint);
     }
 
+    /**
+     * Creates a new client instance that distributes requests between the given endpoints of the same chain.
+     *
+     * @param endpoints the endpoints this client connects to
+     */
+    public Web3Client(@NotNull List<Web3Endpoint> endpoints) {
+        this.contractProvider = new HiddenClassContractProvider();
+        this.contractExecutor = new ReflectionContractExecutor();
+        this.contractParser = new ReflectionContractParser();
+        this.address = EthAddress.ZERO;
+        this.ethereum = new EthereumClient(endpoints);
+    }
+
     /**
      * Returns the {@link Web3Endpoint} that the client currently connects to.
      *
@@ -78,12 +78,22 @@ public record Web3Endpoint(@NotNull Web3Chain chain,
      * @param pollingInterval the interval between polling periodic requests to the endpoint
      * @param requestCooldown the minimum duration to wait between requests to the endpoint
      * @param requestTimeout  the maximum duration to wait for a response from the endpoint
+     * @param requestBurst    the number of requests that can be sent without waiting for the cooldown
+     * @param sendQueueSize   the maximum number of requests waiting to be sent due to the cooldown
+     * @param batchWindow     the duration to collect requests for before sending them as a single JSON-RPC batch, or
+     *                        <code>null</code> to disable batching
+     * @param batchSize       the maximum number of requests in a single JSON-RPC batch
      */
+    @Builder
     public record Settings(
             @Nullable EthUint gasLimit,
             @Nullable Duration pollingInterval,
             @Nullable Duration requestCooldown,
-            @Nullable Duration requestTimeout
+            @Nullable Duration requestTimeout,
+            @Nullable Integer requestBurst,
+            @Nullable Integer sendQueueSize,
+            @Nullable Duration batchWindow,
+            @Nullable Integer batchSize
     ) {
 
         /**
@@ -93,6 +103,21 @@ public record Web3Endpoint(@NotNull Web3Chain chain,
             this(null, null, null, null);
         }
 
+        /**
+         * Creates endpoint settings with batching disabled.
+         *
+         * @param gasLimit        the maximum amount of gas allowed by the endpoint
+         * @param pollingInterval the interval between polling periodic requests to the endpoint
+         * @param requestCooldown the minimum duration to wait between requests to the endpoint
+         * @param requestTimeout  the maximum duration to wait for a response from the endpoint
+         */
+        public Settings(@Nullable EthUint gasLimit,
+                        @Nullable Duration pollingInterval,
+                        @Nullable Duration requestCooldown,
+                        @Nullable Duration requestTimeout) {
+            this(gasLimit, pollingInterval, requestCooldown, requestTimeout, null, null, null, null);
+        }
+
         /**
          * Returns the gas limit of the endpoint or a default value of <code>50_000_000</code> if gas limit is not
          * specified.
@@ -120,6 +145,58 @@ public record Web3Endpoint(@NotNull Web3Chain chain,
             return pollingInterval;
         }
 
+        /**
+         * Returns the maximum duration to wait for a response from the endpoint or a default value of
+         * <code>30 seconds</code> if request timeout is not specified.
+         *
+         * @return the request timeout of the endpoint
+         */
+        public Duration requestTimeout() {
+            if (requestTimeout == null) {
+                return Duration.ofSeconds(30);
+            }
+            return requestTimeout;
+        }
+
+        /**
+         * Returns the number of requests that can be sent without waiting for the cooldown or a default value of
+         * <code>1</code> if request burst is not specified.
+         *
+         * @return the request burst of the endpoint
+         */
+        public Integer requestBurst() {
+            if (requestBurst == null) {
+                return 1;
+            }
+            return requestBurst;
+        }
+
+        /**
+         * Returns the maximum number of requests waiting to be sent or a default value of <code>10_000</code> if send
+         * queue size is not specified.
+         *
+         * @return the send queue size of the endpoint
+         */
+        public Integer sendQueueSize() {
+            if (sendQueueSize == null) {
+                return 10_000;
+            }
+            return sendQueueSize;
+        }
+
+        /**
+         * Returns the maximum JSON-RPC batch size of the endpoint or a default value of <code>100</code> if batch size
+         * is not specified.
+         *
+         * @return the maximum JSON-RPC batch size of the endpoint
+         */
+        public Integer batchSize() {
+            if (batchSize == null) {
+                return 100;
+            }
+            return batchSize;
+        }
+
     }
 
 }
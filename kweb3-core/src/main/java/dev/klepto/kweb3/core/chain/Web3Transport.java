@@ -7,6 +7,6 @@ package dev.klepto.kweb3.core.chain;
  */
 public enum Web3Transport {
 
-    HTTP, WEBSOCKET, IPC
+    HTTP, HTTP2, WEBSOCKET, IPC
 
 }
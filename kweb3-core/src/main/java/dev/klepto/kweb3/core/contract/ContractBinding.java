@@ -0,0 +1,186 @@
+package dev.klepto.kweb3.core.contract;
+
+import dev.klepto.kweb3.core.Web3Client;
+import dev.klepto.kweb3.core.Web3Error;
+import dev.klepto.kweb3.core.ethereum.type.primitive.EthAddress;
+import lombok.val;
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.reflect.Method;
+
+import static dev.klepto.kweb3.core.util.Conditions.require;
+
+/**
+ * Base class of contract interface implementations generated at compile time by the <code>kweb3-processor</code>
+ * annotation processor. A binding implements every contract function of the interface directly, each function is
+ * resolved on its first call and calls are handed to {@link ContractProxy#execute(ContractFunction, Object[])}
+ * without going through {@link java.lang.reflect.Proxy}. Function selectors inferred at compile time are checked
+ * against the resolved functions, so a binding never calls a function the runtime parser disagrees on. Bindings are
+ * picked up by {@link ContractProxyProvider} when present on the classpath.
+ *
+ * @author <a href="http://github.com/klepto">Augustinas R.</a>
+ */
+public abstract class ContractBinding implements Web3Contract {
+
+    /**
+     * The suffix appended to the contract interface name to get the name of its generated binding.
+     */
+    public static final String SUFFIX = "Binding";
+
+    private final ContractProxy proxy;
+
+    /**
+     * Creates a new binding that executes contract functions using given contract proxy.
+     *
+     * @param proxy the contract proxy
+     */
+    protected ContractBinding(@NotNull ContractProxy proxy) {
+        this.proxy = proxy;
+    }
+
+    /**
+     * Returns the client that initialized this smart contract and is responsible for its execution.
+     *
+     * @return the client that that is responsible for this smart contract
+     */
+    @Override
+    public @NotNull Web3Client getClient() {
+        return proxy.client();
+    }
+
+    /**
+     * Returns smart contract's blockchain address.
+     *
+     * @return the smart contract address
+     */
+    @Override
+    public @NotNull EthAddress getAddress() {
+        return proxy.address();
+    }
+
+    /**
+     * Returns the contract interface implemented by this binding.
+     *
+     * @return the actual contract class
+     */
+    @Override
+    public @NotNull Class<? extends Web3Contract> getContractClass() {
+        return proxy.type();
+    }
+
+    /**
+     * Returns instance of {@link ContractProxy} associated with this smart contract interface.
+     *
+     * @return the contract proxy associated with this smart contract
+     */
+    @Override
+    public ContractProxy getProxy() {
+        return proxy;
+    }
+
+    /**
+     * Resolves the contract function of a contract interface method using the client's {@link ContractParser}.
+     *
+     * @param method the contract interface method
+     * @return the contract function description
+     */
+    @NotNull
+    protected ContractFunction function(@NotNull Method method) {
+        return proxy.client().getContractParser().parseFunction(method);
+    }
+
+    /**
+     * Resolves the contract function of a contract interface method and checks that its selector matches the selector
+     * inferred at compile time.
+     *
+     * @param method   the contract interface method
+     * @param selector the function selector inferred at compile time
+     * @return the contract function description
+     * @throws Web3Error if the resolved function has a different selector
+     */
+    @NotNull
+    protected ContractFunction function(@NotNull Method method, @NotNull String selector) {
+        val function = function(method);
+        require(selector.equals(function.signature()),
+                "Function {} of {} resolved to selector {}, but {} was inferred at compile time.",
+                function.name(), method.getDeclaringClass().getName(), function.signature(), selector);
+        return function;
+    }
+
+    /**
+     * Executes a contract function with the client's {@link ContractExecutor}.
+     *
+     * @param function the contract function
+     * @param args     the arguments of the contract interface method call
+     * @return the result of the contract function call
+     */
+    protected Object execute(@NotNull ContractFunction function, @NotNull Object... args) {
+        return proxy.execute(function, args);
+    }
+
+    /**
+     * Looks up a public method of a contract interface.
+     *
+     * @param type           the contract interface
+     * @param name           the method name
+     * @param parameterTypes the method parameter types
+     * @return the contract interface method
+     */
+    @NotNull
+    protected static Method method(@NotNull Class<?> type, @NotNull String name, @NotNull Class<?>... parameterTypes) {
+        try {
+            return type.getMethod(name, parameterTypes);
+        } catch (NoSuchMethodException cause) {
+            throw new Web3Error("Couldn't find contract method {} of {}.", name, type);
+        }
+    }
+
+    /**
+     * Returns the binary name of the binding generated for a contract interface. Bindings are placed in the package of
+     * the interface, nested interfaces have their enclosing class names joined with an underscore.
+     *
+     * @param packageName the package name of the contract interface
+     * @param binaryName  the binary name of the contract interface
+     * @return the binary name of the generated binding
+     */
+    @NotNull
+    public static String bindingName(@NotNull String packageName, @NotNull String binaryName) {
+        if (packageName.isEmpty()) {
+            return binaryName.replace('$', '_') + SUFFIX;
+        }
+        return packageName + "." + binaryName.substring(packageName.length() + 1).replace('$', '_') + SUFFIX;
+    }
+
+    /**
+     * Generates hash code for this contract.
+     *
+     * @return the contract hashcode
+     */
+    @Override
+    public int hashCode() {
+        return proxy.hashCode();
+    }
+
+    /**
+     * Returns true if an object is equal to this contract. Contracts are equal if they are on the same network, have
+     * same type and have same address.
+     *
+     * @param object the object to check
+     * @return true if given object is equal to this contract
+     */
+    @Override
+    public boolean equals(Object object) {
+        return proxy.equals(object);
+    }
+
+    /**
+     * Returns the contract type and address.
+     *
+     * @return the string representation of this contract
+     */
+    @Override
+    public String toString() {
+        return proxy.type().getSimpleName() + "(" + proxy.address().toHex() + ")";
+    }
+
+}
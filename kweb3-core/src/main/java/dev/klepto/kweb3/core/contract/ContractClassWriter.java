@@ -0,0 +1,232 @@
+package dev.klepto.kweb3.core.contract;
+
+import lombok.val;
+import org.jetbrains.annotations.NotNull;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Type;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.objectweb.asm.Opcodes.*;
+
+/**
+ * Writes the bytecode of a {@link ContractBinding} subclass implementing a contract interface. The class is equivalent
+ * to a binding generated by <code>kweb3-processor</code>: a constructor of type <code>(ContractProxy, Method[])</code>
+ * keeps the contract methods, every contract method resolves its {@link ContractFunction} into a field on the first
+ * call and passes the function and arguments directly to {@link ContractBinding#execute(ContractFunction, Object...)}.
+ * Resolving lazily means that an interface method the parser rejects only fails once it's called.
+ *
+ * @author <a href="http://github.com/klepto">Augustinas R.</a>
+ */
+final class ContractClassWriter {
+
+    private static final String BINDING = Type.getInternalName(ContractBinding.class);
+    private static final String FUNCTION = Type.getDescriptor(ContractFunction.class);
+    private static final String METHODS = Type.getDescriptor(Method[].class);
+    private static final String CONSTRUCTOR = Type.getMethodDescriptor(
+            Type.VOID_TYPE, Type.getType(ContractProxy.class), Type.getType(Method[].class)
+    );
+    private static final String SUPER_CONSTRUCTOR = Type.getMethodDescriptor(
+            Type.VOID_TYPE, Type.getType(ContractProxy.class)
+    );
+    private static final String RESOLVE = Type.getMethodDescriptor(
+            Type.getType(ContractFunction.class), Type.getType(Method.class)
+    );
+    private static final String EXECUTE = Type.getMethodDescriptor(
+            Type.getType(Object.class), Type.getType(ContractFunction.class), Type.getType(Object[].class)
+    );
+
+    private ContractClassWriter() {
+    }
+
+    /**
+     * Writes the class file of a contract class. The class is named after the contract interface and placed in its
+     * package, so that it can be defined as a hidden class with a lookup on the interface.
+     *
+     * @param type    the contract interface
+     * @param methods the contract methods, in the order of the <code>Method[]</code> passed to the constructor
+     * @return the class file bytes
+     */
+    static byte @NotNull [] write(@NotNull Class<?> type, @NotNull List<Method> methods) {
+        val className = Type.getInternalName(type) + "$$Contract";
+        val writer = new ClassWriter(ClassWriter.COMPUTE_FRAMES) {
+            @Override
+            protected String getCommonSuperClass(String type1, String type2) {
+                // Frames only merge identical types, classes of the contract must not be loaded by the writer.
+                return Type.getInternalName(Object.class);
+            }
+        };
+        writer.visit(V17, ACC_PUBLIC | ACC_FINAL | ACC_SUPER, className, null, BINDING,
+                new String[]{Type.getInternalName(type)});
+
+        writer.visitField(ACC_PRIVATE | ACC_FINAL, "methods", METHODS, null, null).visitEnd();
+        for (var i = 0; i < methods.size(); i++) {
+            writer.visitField(ACC_PRIVATE, "function" + i, FUNCTION, null, null).visitEnd();
+        }
+
+        writeConstructor(writer, className);
+        for (var i = 0; i < methods.size(); i++) {
+            writeMethod(writer, className, methods.get(i), i);
+        }
+
+        writer.visitEnd();
+        return writer.toByteArray();
+    }
+
+    /**
+     * Writes the constructor that keeps the contract methods for resolving their functions later.
+     *
+     * @param writer    the class writer
+     * @param className the internal name of the class
+     */
+    private static void writeConstructor(ClassWriter writer, String className) {
+        val method = writer.visitMethod(ACC_PUBLIC, "<init>", CONSTRUCTOR, null, null);
+        method.visitCode();
+        method.visitVarInsn(ALOAD, 0);
+        method.visitVarInsn(ALOAD, 1);
+        method.visitMethodInsn(INVOKESPECIAL, BINDING, "<init>", SUPER_CONSTRUCTOR, false);
+        method.visitVarInsn(ALOAD, 0);
+        method.visitVarInsn(ALOAD, 2);
+        method.visitFieldInsn(PUTFIELD, className, "methods", METHODS);
+        method.visitInsn(RETURN);
+        method.visitMaxs(0, 0);
+        method.visitEnd();
+    }
+
+    /**
+     * Writes the implementation of a contract method. The contract function is read from the field of the method, and
+     * resolved into it on the first call. Arguments are boxed into an array and executed with the contract function,
+     * the result is cast or unboxed to the method return type.
+     *
+     * @param writer    the class writer
+     * @param className the internal name of the class
+     * @param contract  the contract method
+     * @param index     the index of the contract function field
+     */
+    private static void writeMethod(ClassWriter writer, String className, Method contract, int index) {
+        val exceptions = Arrays.stream(contract.getExceptionTypes()).map(Type::getInternalName).toArray(String[]::new);
+        val method = writer.visitMethod(ACC_PUBLIC, contract.getName(), Type.getMethodDescriptor(contract), null,
+                exceptions.length > 0 ? exceptions : null);
+        method.visitCode();
+        val parameters = Type.getArgumentTypes(contract);
+        val function = 1 + Arrays.stream(parameters).mapToInt(Type::getSize).sum();
+        val resolved = new Label();
+        method.visitVarInsn(ALOAD, 0);
+        method.visitFieldInsn(GETFIELD, className, "function" + index, FUNCTION);
+        method.visitVarInsn(ASTORE, function);
+        method.visitVarInsn(ALOAD, function);
+        method.visitJumpInsn(IFNONNULL, resolved);
+        method.visitVarInsn(ALOAD, 0);
+        method.visitVarInsn(ALOAD, 0);
+        method.visitFieldInsn(GETFIELD, className, "methods", METHODS);
+        pushInt(method, index);
+        method.visitInsn(AALOAD);
+        method.visitMethodInsn(INVOKEVIRTUAL, BINDING, "function", RESOLVE, false);
+        method.visitVarInsn(ASTORE, function);
+        method.visitVarInsn(ALOAD, 0);
+        method.visitVarInsn(ALOAD, function);
+        method.visitFieldInsn(PUTFIELD, className, "function" + index, FUNCTION);
+        method.visitLabel(resolved);
+
+        method.visitVarInsn(ALOAD, 0);
+        method.visitVarInsn(ALOAD, function);
+        pushInt(method, parameters.length);
+        method.visitTypeInsn(ANEWARRAY, Type.getInternalName(Object.class));
+        var slot = 1;
+        for (var i = 0; i < parameters.length; i++) {
+            val parameter = parameters[i];
+            method.visitInsn(DUP);
+            pushInt(method, i);
+            method.visitVarInsn(parameter.getOpcode(ILOAD), slot);
+            box(method, parameter);
+            method.visitInsn(AASTORE);
+            slot += parameter.getSize();
+        }
+        method.visitMethodInsn(INVOKEVIRTUAL, BINDING, "execute", EXECUTE, false);
+
+        val returnType = Type.getReturnType(contract);
+        if (returnType.getSort() == Type.VOID) {
+            method.visitInsn(POP);
+        } else {
+            unbox(method, returnType);
+        }
+        method.visitInsn(returnType.getOpcode(IRETURN));
+        method.visitMaxs(0, 0);
+        method.visitEnd();
+    }
+
+    /**
+     * Boxes a primitive value on top of the stack, references are left as is.
+     *
+     * @param method the method visitor
+     * @param type   the type of the value
+     */
+    private static void box(MethodVisitor method, Type type) {
+        val wrapper = wrapper(type);
+        if (wrapper == null) {
+            return;
+        }
+        val descriptor = Type.getMethodDescriptor(wrapper, type);
+        method.visitMethodInsn(INVOKESTATIC, wrapper.getInternalName(), "valueOf", descriptor, false);
+    }
+
+    /**
+     * Casts the reference on top of the stack to given type, unboxing it if the type is primitive.
+     *
+     * @param method the method visitor
+     * @param type   the expected type
+     */
+    private static void unbox(MethodVisitor method, Type type) {
+        val wrapper = wrapper(type);
+        if (wrapper == null) {
+            method.visitTypeInsn(CHECKCAST, type.getInternalName());
+            return;
+        }
+        method.visitTypeInsn(CHECKCAST, wrapper.getInternalName());
+        val name = type.getClassName() + "Value";
+        method.visitMethodInsn(INVOKEVIRTUAL, wrapper.getInternalName(), name, Type.getMethodDescriptor(type), false);
+    }
+
+    /**
+     * Returns the wrapper type of a primitive type.
+     *
+     * @param type the type
+     * @return the wrapper type, or <code>null</code> if the type is not primitive
+     */
+    private static Type wrapper(Type type) {
+        return switch (type.getSort()) {
+            case Type.BOOLEAN -> Type.getType(Boolean.class);
+            case Type.BYTE -> Type.getType(Byte.class);
+            case Type.CHAR -> Type.getType(Character.class);
+            case Type.SHORT -> Type.getType(Short.class);
+            case Type.INT -> Type.getType(Integer.class);
+            case Type.LONG -> Type.getType(Long.class);
+            case Type.FLOAT -> Type.getType(Float.class);
+            case Type.DOUBLE -> Type.getType(Double.class);
+            default -> null;
+        };
+    }
+
+    /**
+     * Pushes an integer constant using the shortest instruction.
+     *
+     * @param method the method visitor
+     * @param value  the integer value
+     */
+    private static void pushInt(MethodVisitor method, int value) {
+        if (value >= -1 && value <= 5) {
+            method.visitInsn(ICONST_0 + value);
+        } else if (value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE) {
+            method.visitIntInsn(BIPUSH, value);
+        } else if (value >= Short.MIN_VALUE && value <= Short.MAX_VALUE) {
+            method.visitIntInsn(SIPUSH, value);
+        } else {
+            method.visitLdcInsn(value);
+        }
+    }
+
+}
@@ -5,9 +5,11 @@ import dev.klepto.kweb3.core.Web3Error;
 import dev.klepto.kweb3.core.Web3Result;
 import dev.klepto.kweb3.core.contract.annotation.ArraySize;
 import dev.klepto.kweb3.core.contract.annotation.ValueSize;
+import dev.klepto.kweb3.core.contract.type.ContainerAccessor;
 import dev.klepto.kweb3.core.contract.type.EthStructContainer;
 import dev.klepto.kweb3.core.contract.type.EthTupleContainer;
 import dev.klepto.kweb3.core.contract.type.EthVoid;
+import dev.klepto.kweb3.core.contract.type.FieldAccessor;
 import dev.klepto.kweb3.core.ethereum.abi.descriptor.*;
 import dev.klepto.kweb3.core.ethereum.type.EthSizedValue;
 import dev.klepto.kweb3.core.ethereum.type.EthValue;
@@ -25,7 +27,6 @@ import static com.google.common.collect.ImmutableList.toImmutableList;
 import static dev.klepto.kweb3.core.ethereum.type.primitive.EthArray.array;
 import static dev.klepto.kweb3.core.ethereum.type.primitive.EthTuple.tuple;
 import static dev.klepto.kweb3.core.util.Conditions.require;
-import static dev.klepto.unreflect.Unreflect.reflect;
 
 /**
  * Handles encoding/decoding of {@link EthValue} types for use with {@link ContractExecutor}.<br>
@@ -50,6 +51,14 @@ import static dev.klepto.unreflect.Unreflect.reflect;
  */
 public final class ContractCodec {
 
+    private static final ClassValue<EthTupleTypeDescriptor> TUPLE_CONTAINER_DESCRIPTORS = new ClassValue<>() {
+        @Override
+        protected EthTupleTypeDescriptor computeValue(Class<?> type) {
+            val fields = ContainerAccessor.of(type).fields().stream().map(FieldAccessor::field).toList();
+            return parseTupleDescriptor(fields);
+        }
+    };
+
     private ContractCodec() {
     }
 
@@ -116,7 +125,7 @@ public final class ContractCodec {
         }
 
         if (type.matches(EthArray.class)) {
-            return parseArrayDescriptor(type, arraySize, valueSize);
+            return parseArrayDescriptor(type, valueSize, arraySize);
         }
 
         if (type.matches(EthTupleContainer.class)) {
@@ -147,14 +156,13 @@ public final class ContractCodec {
 
     /**
      * Parses a tuple type descriptor for any JVM type based on its fields. Used for converting between JVM and ethereum
-     * data types during contract calls.
+     * data types during contract calls. Descriptors are cached per container class.
      *
      * @param type the JVM type containing ethereum data fields
      * @return the ABI-compatible array type descriptor
      */
     private static EthTupleTypeDescriptor parseTupleContainerDescriptor(UnreflectType type) {
-        val fields = type.reflect().fields().filter(field -> !field.isStatic()).toList();
-        return parseTupleDescriptor(fields);
+        return TUPLE_CONTAINER_DESCRIPTORS.get(type.toClass());
     }
 
     /**
@@ -232,12 +240,12 @@ public final class ContractCodec {
      * @return normalized parameter value ready to be used with ABI encoding
      */
     public static EthTuple encodeTupleParameterValue(EthTupleTypeDescriptor descriptor, EthTupleContainer value) {
-        val fields = reflect(value).fields().filter(field -> !field.isStatic()).toList();
-        require(fields.size() == descriptor.children().size(), "Tuple field size mismatch.");
+        val accessor = ContainerAccessor.of(value.getClass());
+        require(accessor.size() == descriptor.children().size(), "Tuple field size mismatch.");
 
-        val result = new ArrayList<EthValue>();
-        for (var i = 0; i < fields.size(); i++) {
-            result.add(encodeParameterValue(descriptor.children().get(i), fields.get(i).get()));
+        val result = new ArrayList<EthValue>(accessor.size());
+        for (var i = 0; i < accessor.size(); i++) {
+            result.add(encodeParameterValue(descriptor.children().get(i), accessor.get(value, i)));
         }
 
         return tuple(result);
@@ -250,7 +258,7 @@ public final class ContractCodec {
      * @return normalized value ready to be used with ABI encoding
      */
     public static EthTuple encodeTupleContainerValue(EthTupleContainer value) {
-        val descriptor = parseTupleContainerDescriptor(UnreflectType.of(value));
+        val descriptor = TUPLE_CONTAINER_DESCRIPTORS.get(value.getClass());
         return encodeTupleParameterValue(descriptor, value);
     }
 
@@ -300,21 +308,23 @@ public final class ContractCodec {
      * @return the decoded JVM container containing tuple values
      */
     public static EthValue decodeTupleContainer(UnreflectType type, EthTuple tuple) {
-        require(type.matches(EthTupleContainer.class), "Given type {} is not a {} or {}", type, EthTupleContainer.class, EthStructContainer.class);
+        val containerClass = type.toClass();
+        require(EthTupleContainer.class.isAssignableFrom(containerClass), "Given type {} is not a {} or {}",
+                type, EthTupleContainer.class, EthStructContainer.class);
 
-        val classAccess = type.reflect();
-        val fields = classAccess.fields().filter(field -> !field.isStatic()).toList();
+        val accessor = ContainerAccessor.of(containerClass);
+        val fields = accessor.fields();
         require(fields.size() == tuple.size(), "Tuple container size mismatch: {}", type);
 
-        val values = new ArrayList<>();
-        for (var i = 0; i < tuple.size(); i++) {
-            val field = fields.get(i);
+        val values = new Object[tuple.size()];
+        for (var i = 0; i < values.length; i++) {
             val value = tuple.get(i);
-            val decodedValue = value instanceof EthTuple valueTuple ? decodeTupleContainer(field.type(), valueTuple) : value;
-            values.add(decodedValue);
+            values[i] = value instanceof EthTuple valueTuple
+                    ? decodeTupleContainer(fields.get(i).field().type(), valueTuple)
+                    : value;
         }
 
-        return (EthValue) classAccess.create(values.toArray());
+        return accessor.create(values);
     }
 
 }
@@ -3,6 +3,8 @@ package dev.klepto.kweb3.core.contract;
 import dev.klepto.kweb3.core.Web3Client;
 import dev.klepto.kweb3.core.Web3Error;
 import dev.klepto.kweb3.core.ethereum.type.primitive.EthAddress;
+import dev.klepto.kweb3.core.metrics.jfr.ContractCallEvent;
+import lombok.SneakyThrows;
 import lombok.val;
 import org.jetbrains.annotations.NotNull;
 
@@ -61,13 +63,32 @@ public record ContractProxy(@NotNull Web3Client client,
             case "getProxy":
                 return this;
             default:
-                val function = client.getContractParser().parseFunction(method);
-                val call = new ContractCall(this, function, args);
-                try {
-                    return client.getContractExecutor().execute(call);
-                } catch (Throwable throwable) {
-                    throw Web3Error.unwrap(throwable);
-                }
+                return execute(client.getContractParser().parseFunction(method), args);
+        }
+    }
+
+    /**
+     * Executes a contract function with the client's {@link ContractExecutor}. Used by the proxy for intercepted calls
+     * and by generated {@link ContractBinding contract bindings} that resolve their functions ahead of time. Errors are
+     * unwrapped with {@link Web3Error#unwrap(Throwable)} and rethrown as is.
+     *
+     * @param function the contract function
+     * @param args     the arguments of the contract interface method call
+     * @return the result of the contract function call
+     */
+    @SneakyThrows
+    public Object execute(@NotNull ContractFunction function, @NotNull Object[] args) {
+        val event = ContractCallEvent.start();
+        val call = new ContractCall(this, function, args);
+        var failed = true;
+        try {
+            val result = client.getContractExecutor().execute(call);
+            failed = false;
+            return result;
+        } catch (Throwable throwable) {
+            throw Web3Error.unwrap(throwable);
+        } finally {
+            event.complete(type, address, function.name(), failed);
         }
     }
 
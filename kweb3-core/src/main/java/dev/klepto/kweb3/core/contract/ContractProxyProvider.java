@@ -1,20 +1,37 @@
 package dev.klepto.kweb3.core.contract;
 
 import dev.klepto.kweb3.core.Web3Client;
+import dev.klepto.kweb3.core.Web3Error;
 import dev.klepto.kweb3.core.ethereum.type.primitive.EthAddress;
 import lombok.RequiredArgsConstructor;
+import lombok.val;
 import org.jetbrains.annotations.NotNull;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Proxy;
 
 /**
- * Provides contract proxy instances.
+ * Provides contract proxy instances. Contract interfaces compiled with the <code>kweb3-processor</code> annotation
+ * processor are served by their generated {@link ContractBinding}, other interfaces by {@link Proxy} with
+ * {@link ContractProxy} as the invocation handler.
  *
  * @author <a href="http://github.com/klepto">Augustinas R.</a>
  */
 @RequiredArgsConstructor
 public class ContractProxyProvider implements ContractProvider {
 
+    private static final MethodType BINDING_CONSTRUCTOR = MethodType.methodType(void.class, ContractProxy.class);
+    static final MethodType BINDING_FACTORY = MethodType.methodType(Web3Contract.class, ContractProxy.class);
+
+    private static final ClassValue<MethodHandle> BINDINGS = new ClassValue<>() {
+        @Override
+        protected MethodHandle computeValue(Class<?> type) {
+            return findBinding(type);
+        }
+    };
+
     /**
      * Creates a blockchain contract proxy that binds java interface functions directly to blockchain transactions.
      *
@@ -27,10 +44,67 @@ public class ContractProxyProvider implements ContractProvider {
     public <T extends Web3Contract> T provide(@NotNull Web3Client client,
                                               @NotNull Class<T> type,
                                               @NotNull EthAddress address) {
+        val proxy = new ContractProxy(client, type, address);
+        val binding = BINDINGS.get(type);
+        if (binding != null) {
+            return create(binding, proxy);
+        }
+
         return (T) Proxy.newProxyInstance(
                 ContractProxyProvider.class.getClassLoader(),
                 new Class[]{type},
-                new ContractProxy(client, type, address)
+                proxy
         );
     }
+
+    /**
+     * Returns the constructor of the binding generated for a contract interface.
+     *
+     * @param type the contract interface
+     * @return the binding constructor, or <code>null</code> if the interface has no generated binding
+     */
+    static MethodHandle binding(@NotNull Class<?> type) {
+        return BINDINGS.get(type);
+    }
+
+    /**
+     * Creates a contract instance with a contract factory.
+     *
+     * @param factory the factory of type <code>(ContractProxy)Web3Contract</code>
+     * @param proxy   the contract proxy
+     * @return the contract instance
+     */
+    @NotNull
+    @SuppressWarnings("unchecked")
+    static <T extends Web3Contract> T create(@NotNull MethodHandle factory, @NotNull ContractProxy proxy) {
+        try {
+            return (T) (Web3Contract) factory.invokeExact(proxy);
+        } catch (RuntimeException | Error error) {
+            throw error;
+        } catch (Throwable throwable) {
+            throw new Web3Error(throwable);
+        }
+    }
+
+    /**
+     * Looks up the constructor of the binding generated for a contract interface.
+     *
+     * @param type the contract interface
+     * @return the binding constructor, or <code>null</code> if the interface has no generated binding
+     */
+    private static MethodHandle findBinding(Class<?> type) {
+        val name = ContractBinding.bindingName(type.getPackageName(), type.getName());
+        try {
+            val binding = Class.forName(name, true, type.getClassLoader());
+            if (!ContractBinding.class.isAssignableFrom(binding) || !type.isAssignableFrom(binding)) {
+                return null;
+            }
+            return MethodHandles.publicLookup()
+                    .findConstructor(binding, BINDING_CONSTRUCTOR)
+                    .asType(BINDING_FACTORY);
+        } catch (ClassNotFoundException | NoSuchMethodException | IllegalAccessException cause) {
+            return null;
+        }
+    }
+
 }
@@ -0,0 +1,130 @@
+package dev.klepto.kweb3.core.contract;
+
+import dev.klepto.kweb3.core.Web3Client;
+import dev.klepto.kweb3.core.ethereum.type.primitive.EthAddress;
+import lombok.val;
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * Provides contract instances of classes generated at runtime. On first use of a contract interface without a binding
+ * generated by <code>kweb3-processor</code>, a {@link ContractBinding} subclass implementing the interface is written
+ * by {@link ContractClassWriter} and defined as a hidden class in the package of the interface. Contract methods call
+ * {@link ContractProxy#execute(ContractFunction, Object[])} directly with functions resolved on their first call, so
+ * calls don't go through {@link java.lang.reflect.Proxy} and can be inlined by the JIT. As with the proxy, invalid
+ * interface methods only fail once they're called. Interfaces that can't be implemented this way fall back to
+ * {@link ContractProxyProvider}.
+ *
+ * @author <a href="http://github.com/klepto">Augustinas R.</a>
+ */
+public class HiddenClassContractProvider extends ContractProxyProvider {
+
+    private static final MethodType CONSTRUCTOR = MethodType.methodType(
+            void.class, ContractProxy.class, Method[].class
+    );
+
+    private static final ClassValue<MethodHandle> FACTORIES = new ClassValue<>() {
+        @Override
+        protected MethodHandle computeValue(Class<?> type) {
+            val binding = binding(type);
+            return binding != null ? binding : defineContractClass(type);
+        }
+    };
+
+    /**
+     * Creates a contract instance that binds java interface functions directly to blockchain transactions.
+     *
+     * @param type    the type of the contract interface
+     * @param address the blockchain address of the contract
+     * @return the contract instance
+     */
+    @Override
+    public @NotNull <T extends Web3Contract> T provide(@NotNull Web3Client client,
+                                                       @NotNull Class<T> type,
+                                                       @NotNull EthAddress address) {
+        val factory = FACTORIES.get(type);
+        if (factory == null) {
+            return super.provide(client, type, address);
+        }
+        return create(factory, new ContractProxy(client, type, address));
+    }
+
+    /**
+     * Defines a hidden contract class implementing a contract interface and returns its factory.
+     *
+     * @param type the contract interface
+     * @return the factory of type <code>(ContractProxy)Web3Contract</code>, or <code>null</code> if the contract
+     * class can't be defined for the interface
+     */
+    private static MethodHandle defineContractClass(Class<?> type) {
+        if (!type.isInterface() || type.isHidden() || type.getTypeParameters().length > 0) {
+            return null;
+        }
+
+        val methods = contractMethods(type);
+        if (methods == null) {
+            return null;
+        }
+
+        try {
+            val lookup = MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+            val bytes = ContractClassWriter.write(type, methods);
+            val contractLookup = lookup.defineHiddenClass(bytes, true);
+            val constructor = contractLookup.findConstructor(contractLookup.lookupClass(), CONSTRUCTOR);
+            return MethodHandles.insertArguments(constructor, 1, (Object) methods.toArray(Method[]::new))
+                    .asType(BINDING_FACTORY);
+        } catch (ReflectiveOperationException | RuntimeException | LinkageError error) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns the abstract methods of a contract interface that are contract functions, including inherited ones. The
+     * methods of {@link Web3Contract} and {@link Object} are implemented by {@link ContractBinding} and are excluded.
+     *
+     * @param type the contract interface
+     * @return the list of contract methods, or <code>null</code> if the interface overrides a method with a different
+     * return type, which would require bridge methods
+     */
+    private static List<Method> contractMethods(Class<?> type) {
+        val methods = new ArrayList<Method>();
+        val signatures = new HashSet<String>();
+        for (val method : type.getMethods()) {
+            if (!Modifier.isAbstract(method.getModifiers())
+                    || method.getDeclaringClass() == Web3Contract.class
+                    || isObjectMethod(method)) {
+                continue;
+            }
+            if (!signatures.add(method.getName() + Arrays.toString(method.getParameterTypes()))) {
+                return null;
+            }
+            methods.add(method);
+        }
+        return methods;
+    }
+
+    /**
+     * Returns true if a method overrides a public method of {@link Object}.
+     *
+     * @param method the method
+     * @return true if the method is declared by object
+     */
+    private static boolean isObjectMethod(Method method) {
+        try {
+            Object.class.getMethod(method.getName(), method.getParameterTypes());
+            return true;
+        } catch (NoSuchMethodException exception) {
+            return false;
+        }
+    }
+
+}
@@ -7,6 +7,7 @@ import dev.klepto.kweb3.core.ethereum.abi.AbiCodec;
 import dev.klepto.kweb3.core.ethereum.abi.HeadlongCodec;
 import dev.klepto.kweb3.core.ethereum.abi.descriptor.EthTupleTypeDescriptor;
 import dev.klepto.kweb3.core.ethereum.type.EthValue;
+import dev.klepto.kweb3.core.metrics.Metrics;
 import lombok.val;
 import one.util.streamex.StreamEx;
 import org.jetbrains.annotations.NotNull;
@@ -46,13 +47,15 @@ public class ReflectionContractExecutor implements ContractExecutor {
 
     /**
      * Encodes contract function call by ensuring to exclude {@link Cost} arguments and any non-ethereum related
-     * arguments (which can be result of bytecode transformations, such as suspend functions).
+     * arguments (which can be result of bytecode transformations, such as suspend functions). Encoding time is
+     * reported to {@link Metrics}.
      *
      * @param call the contract interface method call
      * @return the string containing argument call data
      */
     @Override
     public @NotNull String encode(@NotNull ContractCall call) {
+        val startTime = System.nanoTime();
         // Remove cost argument as it's only used to send value with transactions and is not encoded in the call data.
         val argsWithoutCost = arrayRemove(call.args(), call.function().costParameterIndex());
 
@@ -65,11 +68,14 @@ public class ReflectionContractExecutor implements ContractExecutor {
 
         val descriptor = (EthTupleTypeDescriptor) call.function().parametersDescriptor();
         val normalizedArgs = ContractCodec.encodeParameterValues(descriptor, dataArgs);
-        return codec.encode(normalizedArgs, descriptor);
+        val data = codec.encode(normalizedArgs, descriptor);
+        Metrics.get().functionEncoded(call.function(), System.nanoTime() - startTime);
+        return data;
     }
 
     /**
-     * Creates an RPC request using information available in {@link ContractCall#proxy()}.
+     * Creates an RPC request using information available in {@link ContractCall#proxy()}. If metrics are enabled,
+     * latency of the request is reported to {@link Metrics} once it completes.
      *
      * @param call the contract interface method call
      * @param data the ABI-compatible call data
@@ -81,7 +87,16 @@ public class ReflectionContractExecutor implements ContractExecutor {
         val clientAddress = client.getAddress() != null ? client.getAddress().toHex() : null;
         val contractAddress = call.proxy().address().toHex();
         val callData = call.function().signature() + data;
-        return client.getRpc().ethCall(clientAddress, contractAddress, null, null, null, callData, null);
+        val startTime = System.nanoTime();
+        val result = client.getRpc().ethCall(clientAddress, contractAddress, null, null, null, callData, null);
+        if (Metrics.isEnabled()) {
+            result.whenComplete((value, error) -> Metrics.get().functionCompleted(
+                    call.function(),
+                    System.nanoTime() - startTime,
+                    error != null
+            ));
+        }
+        return result;
     }
 
     /**
@@ -97,7 +112,8 @@ public class ReflectionContractExecutor implements ContractExecutor {
     }
 
     /**
-     * Decodes RPC result string into contract return type using default codec.
+     * Decodes RPC result string into contract return type using default codec. Decoding time is reported to
+     * {@link Metrics}.
      *
      * @param call   the contract interface method call
      * @param result the result string of the RPC call
@@ -105,6 +121,23 @@ public class ReflectionContractExecutor implements ContractExecutor {
      */
     @Nullable
     public Object decodeResult(@NotNull ContractCall call, @Nullable String result) {
+        val startTime = System.nanoTime();
+        try {
+            return decodeValue(call, result);
+        } finally {
+            Metrics.get().functionDecoded(call.function(), System.nanoTime() - startTime);
+        }
+    }
+
+    /**
+     * Decodes RPC result string into contract return type using default codec.
+     *
+     * @param call   the contract interface method call
+     * @param result the result string of the RPC call
+     * @return the decoded contract result
+     */
+    @Nullable
+    private Object decodeValue(@NotNull ContractCall call, @Nullable String result) {
         val function = call.function();
         val type = function.returnType();
         if (EthVoid.isVoid(type)) {
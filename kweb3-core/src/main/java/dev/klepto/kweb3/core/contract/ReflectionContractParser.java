@@ -15,6 +15,8 @@ import lombok.val;
 import org.jetbrains.annotations.NotNull;
 
 import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static com.google.common.collect.ImmutableList.toImmutableList;
 import static dev.klepto.kweb3.core.util.Conditions.require;
@@ -23,20 +25,57 @@ import static dev.klepto.unreflect.Unreflect.reflect;
 
 /**
  * Default implementation of {@link ContractParser}. Uses {@link Unreflect} to infer smart-contract function ABI types
- * to be used with contract interface call encoding/decoding.
+ * to be used with contract interface call encoding/decoding. Parsed functions are cached per {@link Method} and shared
+ * by all instances of the same parser class, so reflection and selector hashing happen once per contract interface
+ * method. Subclasses that override parsing keep functions of their own, so parsers of different classes never see
+ * each other's results. The cache is attached to the declaring interface with a {@link ClassValue} and doesn't prevent
+ * the interface from being unloaded.
  *
  * @author <a href="http://github.com/klepto">Augustinas R.</a>
  */
 public class ReflectionContractParser implements ContractParser {
 
+    private static final ClassValue<Map<Class<?>, Map<Method, ContractFunction>>> FUNCTIONS = new ClassValue<>() {
+        @Override
+        protected Map<Class<?>, Map<Method, ContractFunction>> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
     /**
-     * Parses contract function using {@link Unreflect} API and caches it for future use.
+     * Returns the contract function of the method, parsing it using {@link Unreflect} API and caching it for future
+     * use by parsers of the same class on the first call.
      *
      * @param method the contract interface method
      * @return the contract function description
      */
     @Override
     public @NotNull ContractFunction parseFunction(@NotNull Method method) {
+        val functions = functions(method.getDeclaringClass());
+        val function = functions.get(method);
+        return function != null ? function : functions.computeIfAbsent(method, this::createFunction);
+    }
+
+    /**
+     * Returns the cached functions of a contract interface parsed by parsers of this class.
+     *
+     * @param type the contract interface
+     * @return the functions by method
+     */
+    @NotNull
+    private Map<Method, ContractFunction> functions(@NotNull Class<?> type) {
+        val parsers = FUNCTIONS.get(type);
+        val functions = parsers.get(getClass());
+        return functions != null ? functions : parsers.computeIfAbsent(getClass(), key -> new ConcurrentHashMap<>());
+    }
+
+    /**
+     * Parses contract function using {@link Unreflect} API, bypassing the cache.
+     *
+     * @param method the contract interface method
+     * @return the contract function description
+     */
+    public @NotNull ContractFunction createFunction(@NotNull Method method) {
         val methodAccess = reflect(method);
         val name = parseFunctionName(methodAccess);
         val parametersDescriptor = parseParametersTypeDescriptor(method);
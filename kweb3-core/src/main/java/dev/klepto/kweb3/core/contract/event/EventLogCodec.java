@@ -1,13 +1,18 @@
 package dev.klepto.kweb3.core.contract.event;
 
 import dev.klepto.kweb3.core.contract.ContractCodec;
+import dev.klepto.kweb3.core.contract.type.ContainerAccessor;
+import dev.klepto.kweb3.core.contract.type.FieldAccessor;
 import dev.klepto.kweb3.core.ethereum.abi.AbiCodec;
 import dev.klepto.kweb3.core.ethereum.abi.HeadlongCodec;
 import dev.klepto.unreflect.ClassAccess;
+import dev.klepto.unreflect.FieldAccess;
 import dev.klepto.unreflect.Unreflect;
 import lombok.val;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.List;
+
 import static dev.klepto.kweb3.core.ethereum.type.primitive.EthAddress.address;
 import static dev.klepto.kweb3.core.util.Collections.arrayRemove;
 import static dev.klepto.kweb3.core.util.Conditions.require;
@@ -23,7 +28,8 @@ public class EventLogCodec {
     private static final AbiCodec abiCodec = new HeadlongCodec();
 
     /**
-     * Decodes the log data into a log container instance.
+     * Decodes the log data into a log container instance. Fields are written with the method handles of the
+     * {@link ContainerAccessor} of the container.
      *
      * @param descriptor the log container descriptor
      * @param topics     the log topics
@@ -44,20 +50,18 @@ public class EventLogCodec {
             val valueDescriptor = descriptor.indexedDescriptor().children().get(i);
             val value = abiCodec.decode(encodedIndexedValues[i], valueDescriptor);
             require(value != null, "Failed to decode log data for {}.", descriptor.type());
-            field.bind(result).set(value);
+            field.set(result, value);
         }
 
         val values = abiCodec.decode(data, descriptor.valueDescriptor());
         require(values != null, "Failed to decode log data for {}.", descriptor.type());
         for (var i = 0; i < values.size(); i++) {
             val field = descriptor.valueFields().get(i);
-            field.bind(result).set(values.get(i));
+            field.set(result, values.get(i));
         }
 
         if (descriptor.addressField() != null) {
-            descriptor.addressField()
-                    .bind(result)
-                    .set(address(address));
+            descriptor.addressField().set(result, address(address));
         }
 
         return (Web3EventLog) result;
@@ -73,22 +77,22 @@ public class EventLogCodec {
     public static EventLogDescriptor parseDescriptor(Class<? extends Web3EventLog> type) {
         val classAccess = Unreflect.reflect(type);
         val name = parseEventName(classAccess);
-        val fields = classAccess.fields().toList();
+        val fields = ContainerAccessor.of(type).fields();
         val addressField = fields.stream()
-                .filter(field -> field.containsAnnotation(Web3EventLog.Address.class))
+                .filter(field -> field.field().containsAnnotation(Web3EventLog.Address.class))
                 .findFirst().orElse(null);
         val nonAddressFields = fields.stream()
-                .filter(field -> !field.containsAnnotation(Web3EventLog.Address.class))
+                .filter(field -> !field.field().containsAnnotation(Web3EventLog.Address.class))
                 .toList();
         val valueFields = nonAddressFields.stream()
-                .filter(field -> !field.containsAnnotation(Web3EventLog.Indexed.class))
+                .filter(field -> !field.field().containsAnnotation(Web3EventLog.Indexed.class))
                 .toList();
         val indexedFields = nonAddressFields.stream()
-                .filter(field -> field.containsAnnotation(Web3EventLog.Indexed.class))
+                .filter(field -> field.field().containsAnnotation(Web3EventLog.Indexed.class))
                 .toList();
-        val descriptor = ContractCodec.parseTupleDescriptor(nonAddressFields);
-        val valueDescriptor = ContractCodec.parseTupleDescriptor(valueFields);
-        val indexedDescriptor = ContractCodec.parseTupleDescriptor(indexedFields);
+        val descriptor = ContractCodec.parseTupleDescriptor(accessed(nonAddressFields));
+        val valueDescriptor = ContractCodec.parseTupleDescriptor(accessed(valueFields));
+        val indexedDescriptor = ContractCodec.parseTupleDescriptor(accessed(indexedFields));
         val signature = name + descriptor.toAbiDescriptor();
         val signatureHash = "0x" + keccak256(signature).toLowerCase();
         return new EventLogDescriptor(
@@ -103,6 +107,17 @@ public class EventLogCodec {
         );
     }
 
+    /**
+     * Returns the fields of given field accessors.
+     *
+     * @param fields the field accessors
+     * @return the list of fields
+     */
+    @NotNull
+    private static List<FieldAccess> accessed(List<FieldAccessor> fields) {
+        return fields.stream().map(FieldAccessor::field).toList();
+    }
+
     /**
      * Parses the event name of the log container.
      *
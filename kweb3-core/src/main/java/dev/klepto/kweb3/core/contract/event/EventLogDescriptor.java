@@ -1,7 +1,7 @@
 package dev.klepto.kweb3.core.contract.event;
 
+import dev.klepto.kweb3.core.contract.type.FieldAccessor;
 import dev.klepto.kweb3.core.ethereum.abi.descriptor.EthTupleTypeDescriptor;
-import dev.klepto.unreflect.FieldAccess;
 import dev.klepto.unreflect.UnreflectType;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -24,9 +24,9 @@ import java.util.List;
 public record EventLogDescriptor(@NotNull UnreflectType type,
                                  @NotNull String name,
                                  @NotNull String signature,
-                                 @Nullable FieldAccess addressField,
-                                 @NotNull List<FieldAccess> valueFields,
-                                 @NotNull List<FieldAccess> indexedFields,
+                                 @Nullable FieldAccessor addressField,
+                                 @NotNull List<FieldAccessor> valueFields,
+                                 @NotNull List<FieldAccessor> indexedFields,
                                  @NotNull EthTupleTypeDescriptor valueDescriptor,
                                  @NotNull EthTupleTypeDescriptor indexedDescriptor) {
 }
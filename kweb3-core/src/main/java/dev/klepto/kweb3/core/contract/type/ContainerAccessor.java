@@ -0,0 +1,150 @@
+package dev.klepto.kweb3.core.contract.type;
+
+import dev.klepto.kweb3.core.Web3Error;
+import lombok.val;
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.List;
+
+import static dev.klepto.unreflect.Unreflect.reflect;
+
+/**
+ * Accessor plan of a container class such as {@link EthTupleContainer}, {@link EthStructContainer} or
+ * {@link dev.klepto.kweb3.core.contract.event.Web3EventLog}. Fields and the constructor taking all fields in order
+ * are resolved to {@link MethodHandle method handles} once per class, so encoding and decoding containers doesn't look
+ * anything up with reflection. Plans are attached to the container class with a {@link ClassValue}.
+ *
+ * @author <a href="http://github.com/klepto">Augustinas R.</a>
+ */
+public final class ContainerAccessor {
+
+    private static final MethodType CONSTRUCTOR = MethodType.methodType(Object.class, Object[].class);
+
+    private static final ClassValue<ContainerAccessor> ACCESSORS = new ClassValue<>() {
+        @Override
+        protected ContainerAccessor computeValue(Class<?> type) {
+            return new ContainerAccessor(type);
+        }
+    };
+
+    private final Class<?> type;
+    private final List<FieldAccessor> fields;
+    private final MethodHandle constructor;
+
+    /**
+     * Resolves the accessor plan of a container class.
+     *
+     * @param type the container class
+     */
+    private ContainerAccessor(Class<?> type) {
+        this.type = type;
+        this.fields = reflect(type).fields()
+                .filter(field -> !field.isStatic())
+                .map(FieldAccessor::new)
+                .toList();
+        this.constructor = findConstructor(type, fields);
+    }
+
+    /**
+     * Returns the accessor plan of a container class, resolving it on first use.
+     *
+     * @param type the container class
+     * @return the container accessor
+     */
+    @NotNull
+    public static ContainerAccessor of(@NotNull Class<?> type) {
+        return ACCESSORS.get(type);
+    }
+
+    /**
+     * Returns the non-static fields of the container in declaration order.
+     *
+     * @return the list of field accessors
+     */
+    @NotNull
+    public List<FieldAccessor> fields() {
+        return fields;
+    }
+
+    /**
+     * Returns the number of non-static fields of the container.
+     *
+     * @return the number of fields
+     */
+    public int size() {
+        return fields.size();
+    }
+
+    /**
+     * Returns the value of a field in a container.
+     *
+     * @param container the container
+     * @param index     the field index
+     * @return the field value
+     */
+    public <T> T get(@NotNull Object container, int index) {
+        return fields.get(index).get(container);
+    }
+
+    /**
+     * Creates a new container with the constructor that takes all fields in order. Containers without such
+     * constructor are created with {@link dev.klepto.unreflect.Unreflect} constructor lookup.
+     *
+     * @param values the field values
+     * @return the new container instance
+     */
+    @NotNull
+    @SuppressWarnings("unchecked")
+    public <T> T create(@NotNull Object... values) {
+        if (constructor == null) {
+            return (T) reflect(type).create(values);
+        }
+        try {
+            return (T) constructor.invokeExact(values);
+        } catch (Throwable throwable) {
+            throw rethrow(throwable);
+        }
+    }
+
+    /**
+     * Looks up the constructor of a container that takes all fields in order.
+     *
+     * @param type   the container class
+     * @param fields the non-static fields of the container
+     * @return the constructor of type <code>(Object[])Object</code>, or <code>null</code> if the container doesn't
+     * declare such constructor
+     */
+    private static MethodHandle findConstructor(Class<?> type, List<FieldAccessor> fields) {
+        val parameterTypes = fields.stream().map(field -> field.field().source().getType()).toArray(Class[]::new);
+        try {
+            val constructor = type.getDeclaredConstructor(parameterTypes);
+            constructor.setAccessible(true);
+            return MethodHandles.lookup()
+                    .unreflectConstructor(constructor)
+                    .asSpreader(Object[].class, parameterTypes.length)
+                    .asType(CONSTRUCTOR);
+        } catch (NoSuchMethodException | IllegalAccessException | RuntimeException cause) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns a throwable thrown by a method handle as an unchecked exception.
+     *
+     * @param throwable the throwable
+     * @return the runtime exception to throw
+     */
+    static RuntimeException rethrow(Throwable throwable) {
+        if (throwable instanceof RuntimeException exception) {
+            return exception;
+        }
+        if (throwable instanceof Error error) {
+            throw error;
+        }
+        return new Web3Error(throwable);
+    }
+
+}
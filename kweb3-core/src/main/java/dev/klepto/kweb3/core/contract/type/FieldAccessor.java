@@ -0,0 +1,114 @@
+package dev.klepto.kweb3.core.contract.type;
+
+import dev.klepto.kweb3.core.Web3Error;
+import dev.klepto.unreflect.FieldAccess;
+import lombok.val;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+import static dev.klepto.kweb3.core.util.Conditions.require;
+
+/**
+ * Reads and writes a single field of a container with {@link MethodHandle method handles} resolved once per field.
+ * Created by {@link ContainerAccessor}.
+ *
+ * @author <a href="http://github.com/klepto">Augustinas R.</a>
+ */
+public final class FieldAccessor {
+
+    private static final MethodType GETTER = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SETTER = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private final FieldAccess field;
+    private final MethodHandle getter;
+    private final MethodHandle setter;
+
+    /**
+     * Resolves the getter and setter of a field. The setter is not available for fields that can't be written, such
+     * as fields of records.
+     *
+     * @param field the field
+     */
+    FieldAccessor(@NotNull FieldAccess field) {
+        val source = field.source();
+        source.setAccessible(true);
+        val lookup = MethodHandles.lookup();
+        this.field = field;
+        try {
+            this.getter = lookup.unreflectGetter(source).asType(GETTER);
+        } catch (IllegalAccessException cause) {
+            throw new Web3Error("Field {} is not readable.", field);
+        }
+        this.setter = findSetter(lookup, field);
+    }
+
+    /**
+     * Returns the field, used for inspecting its type and annotations.
+     *
+     * @return the field
+     */
+    @NotNull
+    public FieldAccess field() {
+        return field;
+    }
+
+    /**
+     * Returns the value of this field in a container.
+     *
+     * @param container the container
+     * @return the field value
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(@NotNull Object container) {
+        try {
+            return (T) (Object) getter.invokeExact(container);
+        } catch (Throwable throwable) {
+            throw ContainerAccessor.rethrow(throwable);
+        }
+    }
+
+    /**
+     * Sets the value of this field in a container.
+     *
+     * @param container the container
+     * @param value     the field value
+     */
+    public void set(@NotNull Object container, @Nullable Object value) {
+        require(setter != null, "Field {} is not writable.", field);
+        try {
+            setter.invokeExact(container, value);
+        } catch (Throwable throwable) {
+            throw ContainerAccessor.rethrow(throwable);
+        }
+    }
+
+    /**
+     * Returns the string representation of the field.
+     *
+     * @return the field description
+     */
+    @Override
+    public String toString() {
+        return field.toString();
+    }
+
+    /**
+     * Resolves the setter of a field.
+     *
+     * @param lookup the lookup
+     * @param field  the field
+     * @return the setter, or <code>null</code> if the field can't be written
+     */
+    private static MethodHandle findSetter(MethodHandles.Lookup lookup, FieldAccess field) {
+        try {
+            return lookup.unreflectSetter(field.source()).asType(SETTER);
+        } catch (IllegalAccessException cause) {
+            return null;
+        }
+    }
+
+}
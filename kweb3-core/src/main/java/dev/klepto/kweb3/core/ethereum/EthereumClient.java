@@ -3,11 +3,24 @@ package dev.klepto.kweb3.core.ethereum;
 import dev.klepto.kweb3.core.Web3Result;
 import dev.klepto.kweb3.core.chain.Web3Endpoint;
 import dev.klepto.kweb3.core.ethereum.rpc.RpcClient;
+import dev.klepto.kweb3.core.ethereum.rpc.RpcClientPool;
+import dev.klepto.kweb3.core.ethereum.rpc.RpcProvider;
+import dev.klepto.kweb3.core.ethereum.rpc.api.EthBlockRequest.BlockResponse;
+import dev.klepto.kweb3.core.ethereum.rpc.api.EthGetLogsRequest.LogResponse;
+import dev.klepto.kweb3.core.ethereum.store.BlockStore;
 import dev.klepto.kweb3.core.ethereum.type.data.EthBlock;
 import dev.klepto.kweb3.core.ethereum.type.primitive.EthUint;
+import dev.klepto.kweb3.core.util.Threads;
+import lombok.AccessLevel;
 import lombok.Getter;
+import lombok.val;
+import org.jetbrains.annotations.Nullable;
 
 import java.io.Closeable;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 /**
  * A client for interacting with a blockchain metadata related RPC methods.
@@ -17,15 +30,92 @@ import java.io.Closeable;
 @Getter
 public class EthereumClient implements Closeable {
 
-    private final RpcClient rpc;
+    private final RpcProvider rpc;
+    private volatile BlockStore blockStore;
+    private volatile HeadTracker headTracker;
+    @Getter(AccessLevel.NONE)
+    private ScheduledFuture<?> finalizedPolling;
 
     /**
-     * Creates a new ethereum client that connects to given RPC endpoints.
+     * Creates a new ethereum client that connects to given RPC endpoint.
      *
-     * @param endpoint the RPC endpoints
+     * @param endpoint the RPC endpoint
      */
     public EthereumClient(Web3Endpoint endpoint) {
-        this.rpc = new RpcClient(endpoint);
+        this(new RpcClient(endpoint));
+    }
+
+    /**
+     * Creates a new ethereum client that distributes requests between given RPC endpoints of the same chain.
+     *
+     * @param endpoints the RPC endpoints
+     */
+    public EthereumClient(List<Web3Endpoint> endpoints) {
+        this(endpoints.size() == 1 ? new RpcClient(endpoints.get(0)) : new RpcClientPool(endpoints));
+    }
+
+    /**
+     * Creates a new ethereum client that sends requests to given RPC provider.
+     *
+     * @param rpc the RPC provider
+     */
+    public EthereumClient(RpcProvider rpc) {
+        this.rpc = rpc;
+    }
+
+    /**
+     * Sets the executor that results are completed on, so that callbacks registered on results don't run on
+     * connection threads. Results are completed on the connection threads if the executor is <code>null</code>.
+     *
+     * @param executor the completion executor, or <code>null</code>
+     * @see dev.klepto.kweb3.core.util.Threads#virtualThreadExecutor()
+     * @see dev.klepto.kweb3.core.util.Threads#boundedExecutor(String, int, int)
+     */
+    public void setCompletionExecutor(@Nullable Executor executor) {
+        rpc.setCompletionExecutor(executor);
+    }
+
+    /**
+     * Enables or disables deduplication of identical read-only requests that are in flight at the same time.
+     *
+     * @param enabled true to enable deduplication
+     * @see RpcProvider#singleFlight()
+     */
+    public void setDeduplication(boolean enabled) {
+        rpc.singleFlight().setEnabled(enabled);
+    }
+
+    /**
+     * Sets the persistent store that finalized blocks and logs are looked up in before requesting them from the
+     * network, and stored into once received. While a store is set, the latest finalized block is polled every
+     * {@link Web3Endpoint.Settings#pollingInterval()} to advance the finalized block number of the store.
+     *
+     * @param blockStore the block store, or <code>null</code> to always request blocks and logs from the network
+     */
+    public synchronized void setBlockStore(@Nullable BlockStore blockStore) {
+        this.blockStore = blockStore;
+        if (finalizedPolling != null) {
+            finalizedPolling.cancel(false);
+            finalizedPolling = null;
+        }
+        if (blockStore != null) {
+            val interval = rpc.endpoint().settings().pollingInterval().toMillis();
+            finalizedPolling = Threads.scheduler().scheduleWithFixedDelay(
+                    this::finalizedBlock,
+                    0,
+                    interval,
+                    TimeUnit.MILLISECONDS
+            );
+        }
+    }
+
+    /**
+     * Sets the head tracker that the current block number is read from, instead of requesting it from the network.
+     *
+     * @param headTracker the started head tracker, or <code>null</code> to always request the block number
+     */
+    public void setHeadTracker(@Nullable HeadTracker headTracker) {
+        this.headTracker = headTracker;
     }
 
     /**
@@ -38,11 +128,15 @@ public class EthereumClient implements Closeable {
     }
 
     /**
-     * Gets the current block number.
+     * Gets the current block number, from memory if a head tracker is set and has received a header.
      *
      * @return the current block number
      */
     public Web3Result<EthUint> blockNumber() {
+        val tracker = headTracker;
+        if (tracker != null && tracker.blockNumber() >= 0) {
+            return completed(EthUint.uint256(tracker.blockNumber()));
+        }
         return rpc.ethBlockNumber().map(EthUint::uint256);
     }
 
@@ -57,25 +151,132 @@ public class EthereumClient implements Closeable {
     }
 
     /**
-     * Gets the block with the specified number.
+     * Gets the latest finalized block. If a block store is set, its finalized block number is advanced to the number of
+     * the block.
+     *
+     * @return the latest finalized block
+     */
+    public Web3Result<EthBlock> finalizedBlock() {
+        return rpc.ethGetBlockByNumber("finalized").map(response -> {
+            val store = blockStore;
+            if (store != null) {
+                store.setFinalizedBlock(EthUint.uint256(response.number()).longValue());
+            }
+            return EthBlock.parse(response);
+        });
+    }
+
+    /**
+     * Gets the block with the specified number, from the block store if it's set and contains the block.
      *
      * @param blockNumber the block number
      * @return the block
      */
     public Web3Result<EthBlock> blockByNumber(EthUint blockNumber) {
+        val store = blockStore;
+        if (store != null) {
+            val stored = store.block(blockNumber.longValue());
+            if (stored != null) {
+                return completed(EthBlock.parse(stored));
+            }
+        }
         return rpc.ethGetBlockByNumber(blockNumber.toHex())
-                .map(EthBlock::parse);
+                .map(response -> storeBlock(response, true));
     }
 
     /**
-     * Gets the block with the specified hash.
+     * Gets the block with the specified hash, from the block store if it's set and contains the block. The block may
+     * not be canonical, so it's stored by hash only.
      *
      * @param blockHash the block hash
      * @return the block
      */
     public Web3Result<EthBlock> blockByHash(String blockHash) {
+        val store = blockStore;
+        if (store != null) {
+            val stored = store.block(blockHash);
+            if (stored != null) {
+                return completed(EthBlock.parse(stored));
+            }
+        }
         return rpc.ethGetBlockByHash(blockHash)
-                .map(EthBlock::parse);
+                .map(response -> storeBlock(response, false));
+    }
+
+    /**
+     * Gets logs matching the filter within the specified block range, from the block store if it's set and contains
+     * the whole range.
+     *
+     * @param addresses the array of smart contract address filters or <code>null</code>
+     * @param topics    the array of topics filters or <code>null</code>
+     * @param fromBlock the first block of the range
+     * @param toBlock   the last block of the range, inclusive
+     * @return the logs
+     */
+    public Web3Result<List<LogResponse>> logs(@Nullable String[] addresses,
+                                              @Nullable String[] topics,
+                                              EthUint fromBlock,
+                                              EthUint toBlock) {
+        val store = blockStore;
+        if (store != null) {
+            val stored = store.logs(addresses, topics, fromBlock.longValue(), toBlock.longValue());
+            if (stored != null) {
+                return completed(stored);
+            }
+        }
+        return rpc.ethGetLogs(addresses, fromBlock.toHex(), toBlock.toHex(), topics, null).map(logs -> {
+            if (store != null) {
+                store.putLogs(addresses, topics, fromBlock.longValue(), toBlock.longValue(), logs);
+            }
+            return logs;
+        });
+    }
+
+    /**
+     * Gets logs of the block matching the filter. If the <code>logsBloom</code> of the block rules out matching logs,
+     * an empty list is returned without requesting logs from the network. Logs are requested by block hash, or by
+     * block number if the block has no hash yet, as is the case for pending blocks.
+     *
+     * @param block  the block
+     * @param filter the log filter
+     * @return the logs
+     */
+    public Web3Result<List<LogResponse>> logs(EthBlock block, LogsBloomFilter filter) {
+        if (!filter.mightMatch(block)) {
+            return completed(List.of());
+        }
+        if (block.hash() == null) {
+            val blockNumber = block.number().toHex();
+            return rpc.ethGetLogs(filter.addresses(), blockNumber, blockNumber, filter.topics(), null);
+        }
+        return rpc.ethGetLogs(filter.addresses(), null, null, filter.topics(), block.hash());
+    }
+
+    /**
+     * Stores the block in the block store if it's set, and parses it.
+     *
+     * @param response  the block response
+     * @param canonical true if the block was fetched by its number
+     * @return the parsed block
+     */
+    private EthBlock storeBlock(BlockResponse response, boolean canonical) {
+        val store = blockStore;
+        if (store != null) {
+            store.putBlock(response, canonical);
+        }
+        return EthBlock.parse(response);
+    }
+
+    /**
+     * Returns a result that is already completed with the given value.
+     *
+     * @param value the value
+     * @return the completed result
+     */
+    private static <T> Web3Result<T> completed(T value) {
+        val result = new Web3Result<T>();
+        result.complete(value);
+        return result;
     }
 
     /**
@@ -83,6 +284,11 @@ public class EthereumClient implements Closeable {
      */
     @Override
     public void close() {
+        synchronized (this) {
+            if (finalizedPolling != null) {
+                finalizedPolling.cancel(false);
+            }
+        }
         rpc.close();
     }
 
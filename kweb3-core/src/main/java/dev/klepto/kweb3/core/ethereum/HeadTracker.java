@@ -0,0 +1,398 @@
+package dev.klepto.kweb3.core.ethereum;
+
+import com.google.gson.JsonElement;
+import dev.klepto.kweb3.core.chain.Web3Transport;
+import dev.klepto.kweb3.core.ethereum.rpc.RpcProvider;
+import dev.klepto.kweb3.core.ethereum.rpc.api.EthBlockRequest.BlockResponse;
+import dev.klepto.kweb3.core.util.SerialExecutor;
+import dev.klepto.kweb3.core.util.Threads;
+import lombok.val;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Closeable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import static dev.klepto.kweb3.core.util.Conditions.require;
+
+/**
+ * Tracks the head of the canonical chain. Headers are received from a <code>newHeads</code> subscription on websocket
+ * endpoints, or by polling the latest block every
+ * {@link dev.klepto.kweb3.core.chain.Web3Endpoint.Settings#pollingInterval()} on other transports. The most recent
+ * headers are kept in a fixed-size ring buffer, so the current block number and timestamp are readable from memory
+ * without a round trip.
+ * <p>
+ * Every new header is connected to the buffered chain through its parent hash, missing parents are fetched by hash.
+ * If the new header doesn't extend the current head, the chain was reorganized: buffered headers after the common
+ * ancestor are replaced and a {@link Reorg} event is emitted. Headers lower than the current head are ignored, as
+ * they're usually reported by lagging nodes.
+ *
+ * @author <a href="http://github.com/klepto">Augustinas R.</a>
+ */
+public class HeadTracker implements Closeable {
+
+    /**
+     * The default number of recent headers kept in memory.
+     */
+    public static final int DEFAULT_CAPACITY = 128;
+
+    private final RpcProvider rpc;
+    private final int capacity;
+    private final AtomicReferenceArray<Header> headers;
+    private final SerialExecutor executor = new SerialExecutor(Threads.executor());
+    private final List<Consumer<Header>> headListeners = new CopyOnWriteArrayList<>();
+    private final List<Consumer<Reorg>> reorgListeners = new CopyOnWriteArrayList<>();
+    private final LongAdder reorgCount = new LongAdder();
+    private final LongAdder errorCount = new LongAdder();
+    private volatile Header head;
+    private long tail = -1;
+    private volatile String subscriptionId;
+    private volatile ScheduledFuture<?> polling;
+    private volatile boolean closed;
+
+    /**
+     * Constructs a new {@link HeadTracker} with {@link #DEFAULT_CAPACITY}.
+     *
+     * @param rpc the provider headers are received from
+     */
+    public HeadTracker(@NotNull RpcProvider rpc) {
+        this(rpc, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs a new {@link HeadTracker}.
+     *
+     * @param rpc      the provider headers are received from
+     * @param capacity the number of recent headers kept in memory, which is also the deepest reorg that can be
+     *                 resolved to a common ancestor
+     */
+    public HeadTracker(@NotNull RpcProvider rpc, int capacity) {
+        require(capacity > 1, "Capacity must be greater than 1: {}", capacity);
+        this.rpc = rpc;
+        this.capacity = capacity;
+        this.headers = new AtomicReferenceArray<>(capacity);
+    }
+
+    /**
+     * Starts tracking the head, subscribing to <code>newHeads</code> on websocket endpoints and polling the latest block
+     * on other transports.
+     *
+     * @return this tracker
+     */
+    public HeadTracker start() {
+        require(!closed, "Head tracker is closed.");
+        if (rpc.endpoint().transport() == Web3Transport.WEBSOCKET) {
+            rpc.ethSubscribe("newHeads", null, null, this::onNotification).whenComplete((id, error) -> {
+                if (error != null) {
+                    errorCount.increment();
+                    return;
+                }
+                subscriptionId = id;
+                if (closed) {
+                    rpc.ethUnsubscribe(id);
+                }
+            });
+            poll();
+        } else {
+            val interval = rpc.endpoint().settings().pollingInterval().toMillis();
+            polling = Threads.scheduler().scheduleWithFixedDelay(this::poll, 0, interval, TimeUnit.MILLISECONDS);
+        }
+        return this;
+    }
+
+    /**
+     * Registers a listener that is called for every header that becomes part of the canonical chain, in block order.
+     * Listeners are called one at a time, off the connection thread.
+     *
+     * @param listener the header listener
+     */
+    public void onHead(@NotNull Consumer<Header> listener) {
+        headListeners.add(listener);
+    }
+
+    /**
+     * Registers a listener that is called for every detected reorg, before head listeners are called for the headers
+     * of the new chain.
+     *
+     * @param listener the reorg listener
+     */
+    public void onReorg(@NotNull Consumer<Reorg> listener) {
+        reorgListeners.add(listener);
+    }
+
+    /**
+     * Returns the current head header.
+     *
+     * @return the head header, or <code>null</code> if no header has been received yet
+     */
+    @Nullable
+    public Header head() {
+        return head;
+    }
+
+    /**
+     * Returns the current head block number.
+     *
+     * @return the head block number, or <code>-1</code> if no header has been received yet
+     */
+    public long blockNumber() {
+        val head = this.head;
+        return head != null ? head.number() : -1;
+    }
+
+    /**
+     * Returns the timestamp of the current head block.
+     *
+     * @return the unix timestamp of the head block, or <code>-1</code> if no header has been received yet
+     */
+    public long timestamp() {
+        val head = this.head;
+        return head != null ? head.timestamp() : -1;
+    }
+
+    /**
+     * Returns the buffered canonical header with the given block number.
+     *
+     * @param blockNumber the block number
+     * @return the header, or <code>null</code> if the header is not buffered
+     */
+    @Nullable
+    public Header header(long blockNumber) {
+        if (blockNumber < 0) {
+            return null;
+        }
+        val header = headers.get(slot(blockNumber));
+        return header != null && header.number() == blockNumber ? header : null;
+    }
+
+    /**
+     * Returns the number of detected reorgs.
+     *
+     * @return the number of reorgs
+     */
+    public long reorgCount() {
+        return reorgCount.sum();
+    }
+
+    /**
+     * Returns the number of failed requests and listener invocations.
+     *
+     * @return the number of errors
+     */
+    public long errorCount() {
+        return errorCount.sum();
+    }
+
+    /**
+     * Stops tracking the head, unsubscribing from <code>newHeads</code> or cancelling polling.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        val polling = this.polling;
+        if (polling != null) {
+            polling.cancel(false);
+        }
+        val id = subscriptionId;
+        if (id != null) {
+            rpc.ethUnsubscribe(id);
+        }
+    }
+
+    /**
+     * Requests the latest block and queues its header for processing.
+     */
+    private void poll() {
+        if (closed) {
+            return;
+        }
+        rpc.ethGetBlockByNumber("latest").whenComplete((block, error) -> {
+            if (error != null || block == null || block.hash() == null) {
+                errorCount.increment();
+                return;
+            }
+            executor.execute(() -> onHeader(Header.of(block)));
+        });
+    }
+
+    /**
+     * Queues the header of a <code>newHeads</code> notification for processing.
+     *
+     * @param result the notification result
+     */
+    private void onNotification(@NotNull JsonElement result) {
+        executor.execute(() -> onHeader(Header.of(result)));
+    }
+
+    /**
+     * Connects a new header to the buffered chain and advances the head. Runs on the serial executor, so every parent
+     * fetch is bounded by the polling interval; a header whose parents can't be fetched in time is dropped and counted
+     * as an error, the chain is connected again by the next header.
+     *
+     * @param header the new header
+     */
+    private void onHeader(@NotNull Header header) {
+        val current = head;
+        if (closed || (current != null && header.number() < current.number())) {
+            return;
+        }
+        val known = header(header.number());
+        if (known != null && known.hash().equals(header.hash())) {
+            return;
+        }
+
+        val segment = new ArrayDeque<Header>();
+        segment.addFirst(header);
+        Header ancestor = null;
+        if (current != null) {
+            try {
+                val oldest = Math.max(tail, current.number() - capacity + 1);
+                val timeout = rpc.endpoint().settings().pollingInterval().toNanos();
+                var cursor = header;
+                while (cursor.number() > oldest && segment.size() < capacity) {
+                    val parent = header(cursor.number() - 1);
+                    if (parent != null && parent.hash().equals(cursor.parentHash())) {
+                        ancestor = parent;
+                        break;
+                    }
+                    val parentBlock = rpc.ethGetBlockByHash(cursor.parentHash()).toCompletableFuture();
+                    cursor = Header.of(parentBlock.get(timeout, TimeUnit.NANOSECONDS));
+                    segment.addFirst(cursor);
+                }
+            } catch (Throwable cause) {
+                errorCount.increment();
+                return;
+            }
+        }
+
+        val removed = new ArrayList<Header>();
+        if (current != null) {
+            val first = ancestor != null ? ancestor.number() + 1 : segment.getFirst().number();
+            for (var number = Math.max(first, current.number() - capacity + 1); number <= current.number(); number++) {
+                val previous = header(number);
+                if (previous != null) {
+                    removed.add(previous);
+                }
+                headers.set(slot(number), null);
+            }
+        }
+        for (val added : segment) {
+            headers.set(slot(added.number()), added);
+        }
+        head = header;
+        if (tail < 0) {
+            tail = header.number();
+        }
+
+        if (!removed.isEmpty()) {
+            reorgCount.increment();
+            val reorg = new Reorg(ancestor, List.copyOf(removed), List.copyOf(segment));
+            for (val listener : reorgListeners) {
+                notify(listener, reorg);
+            }
+        }
+        for (val added : segment) {
+            for (val listener : headListeners) {
+                notify(listener, added);
+            }
+        }
+    }
+
+    /**
+     * Calls the listener, counting exceptions it throws as errors.
+     *
+     * @param listener the listener
+     * @param event    the event
+     */
+    private <T> void notify(@NotNull Consumer<T> listener, @NotNull T event) {
+        try {
+            listener.accept(event);
+        } catch (Throwable cause) {
+            errorCount.increment();
+        }
+    }
+
+    /**
+     * Returns the ring buffer slot of the block number.
+     *
+     * @param blockNumber the block number
+     * @return the slot index
+     */
+    private int slot(long blockNumber) {
+        return (int) (blockNumber % capacity);
+    }
+
+    /**
+     * Represents a block header of the canonical chain.
+     *
+     * @param number     the block number
+     * @param hash       the block hash
+     * @param parentHash the hash of the parent block
+     * @param timestamp  the unix timestamp of the block
+     */
+    public record Header(long number, @NotNull String hash, @NotNull String parentHash, long timestamp) {
+
+        /**
+         * Creates a header from a block response.
+         *
+         * @param block the block response
+         * @return the header
+         */
+        public static Header of(@NotNull BlockResponse block) {
+            require(block.hash() != null, "Block {} has no hash.", block.number());
+            return new Header(
+                    parseHex(block.number()),
+                    block.hash().toLowerCase(),
+                    block.parentHash().toLowerCase(),
+                    parseHex(block.timestamp())
+            );
+        }
+
+        /**
+         * Creates a header from the result of a <code>newHeads</code> notification.
+         *
+         * @param result the notification result
+         * @return the header
+         */
+        public static Header of(@NotNull JsonElement result) {
+            val object = result.getAsJsonObject();
+            return new Header(
+                    parseHex(object.get("number").getAsString()),
+                    object.get("hash").getAsString().toLowerCase(),
+                    object.get("parentHash").getAsString().toLowerCase(),
+                    parseHex(object.get("timestamp").getAsString())
+            );
+        }
+
+        /**
+         * Parses a hexadecimal quantity.
+         *
+         * @param hex the quantity in hexadecimal format
+         * @return the quantity
+         */
+        private static long parseHex(@NotNull String hex) {
+            return Long.parseLong(hex.startsWith("0x") ? hex.substring(2) : hex, 16);
+        }
+
+    }
+
+    /**
+     * Represents a reorganization of the canonical chain.
+     *
+     * @param ancestor the last header shared by both chains, or <code>null</code> if the reorg is deeper than the
+     *                 buffered headers
+     * @param removed  the headers of the previous chain after the ancestor, in block order
+     * @param added    the headers of the new chain after the ancestor, in block order
+     */
+    public record Reorg(@Nullable Header ancestor, @NotNull List<Header> removed, @NotNull List<Header> added) {
+    }
+
+}
@@ -0,0 +1,213 @@
+package dev.klepto.kweb3.core.ethereum;
+
+import dev.klepto.kweb3.core.ethereum.type.data.EthBlock;
+import dev.klepto.kweb3.core.ethereum.type.primitive.EthBytes;
+import dev.klepto.kweb3.core.util.Hex;
+import dev.klepto.kweb3.core.util.hash.Keccak;
+import lombok.val;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Log filter that tests the 2048-bit <code>logsBloom</code> of a block to rule out blocks that cannot contain matching
+ * logs, so that <code>eth_getLogs</code> can be skipped for them. Every address and topic sets 3 bits of the bloom,
+ * derived from its Keccak-256 hash. Bit positions are computed once when the filter is created, testing a bloom
+ * doesn't allocate.
+ * <p>
+ * Filter semantics follow <code>eth_getLogs</code>: a block may match if it contains any of the addresses, or no
+ * addresses are given, and every non-null topic. Since the bloom is probabilistic and doesn't tell which log an address
+ * or topic belongs to, blocks that pass the filter may still contain no matching logs, but blocks that fail it never
+ * do.
+ *
+ * @author <a href="http://github.com/klepto">Augustinas R.</a>
+ */
+public final class LogsBloomFilter {
+
+    /**
+     * The size of the bloom in bytes.
+     */
+    public static final int BLOOM_SIZE = 256;
+
+    private static final int BITS_PER_VALUE = 3;
+
+    private final String[] addresses;
+    private final String[] topics;
+    private final int[][] addressBits;
+    private final int[][] topicBits;
+
+    /**
+     * Constructs a new {@link LogsBloomFilter}.
+     *
+     * @param addresses the array of smart contract address filters or <code>null</code>
+     * @param topics    the array of positional topic filters or <code>null</code>, <code>null</code> topics match any
+     *                  topic
+     */
+    public LogsBloomFilter(@Nullable String[] addresses, @Nullable String[] topics) {
+        this.addresses = addresses;
+        this.topics = topics;
+        this.addressBits = bits(addresses);
+        this.topicBits = bits(topics);
+    }
+
+    /**
+     * Returns the smart contract address filters.
+     *
+     * @return the address filters or <code>null</code>
+     */
+    @Nullable
+    public String[] addresses() {
+        return addresses;
+    }
+
+    /**
+     * Returns the positional topic filters.
+     *
+     * @return the topic filters or <code>null</code>
+     */
+    @Nullable
+    public String[] topics() {
+        return topics;
+    }
+
+    /**
+     * Returns true if the block may contain logs matching this filter.
+     *
+     * @param block the block
+     * @return false if the block cannot contain matching logs
+     */
+    public boolean mightMatch(@NotNull EthBlock block) {
+        return mightMatch(block.logsBloom());
+    }
+
+    /**
+     * Returns true if the bloom may contain logs matching this filter.
+     *
+     * @param logsBloom the 256-byte logs bloom
+     * @return false if the bloom cannot contain matching logs
+     */
+    public boolean mightMatch(@NotNull EthBytes logsBloom) {
+        if (logsBloom.length() != BLOOM_SIZE) {
+            return true;
+        }
+
+        if (addressBits.length > 0) {
+            var found = false;
+            for (val bits : addressBits) {
+                if (bits != null && contains(logsBloom, bits)) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) {
+                return false;
+            }
+        }
+
+        for (val bits : topicBits) {
+            if (bits != null && !contains(logsBloom, bits)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns true if the bloom may contain logs matching this filter.
+     *
+     * @param logsBloom the logs bloom as a 512-digit hexadecimal string, may contain <code>0x</code> prefix
+     * @return false if the bloom cannot contain matching logs
+     */
+    public boolean mightMatch(@NotNull String logsBloom) {
+        val offset = logsBloom.startsWith("0x") || logsBloom.startsWith("0X") ? 2 : 0;
+        if (logsBloom.length() - offset != BLOOM_SIZE * 2) {
+            return true;
+        }
+
+        if (addressBits.length > 0) {
+            var found = false;
+            for (val bits : addressBits) {
+                if (bits != null && contains(logsBloom, offset, bits)) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) {
+                return false;
+            }
+        }
+
+        for (val bits : topicBits) {
+            if (bits != null && !contains(logsBloom, offset, bits)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns true if all bits of a value are set in the bloom.
+     *
+     * @param logsBloom the logs bloom
+     * @param bits      the bits of the value
+     * @return true if the bloom contains the value
+     */
+    private static boolean contains(@NotNull EthBytes logsBloom, int @NotNull [] bits) {
+        for (val bit : bits) {
+            if ((logsBloom.byteAt(bit >>> 8) & bit & 0xFF) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns true if all bits of a value are set in the hexadecimal bloom.
+     *
+     * @param logsBloom the logs bloom as a hexadecimal string
+     * @param offset    the offset of the first digit
+     * @param bits      the bits of the value
+     * @return true if the bloom contains the value
+     */
+    private static boolean contains(@NotNull String logsBloom, int offset, int @NotNull [] bits) {
+        for (val bit : bits) {
+            val index = offset + ((bit >>> 8) << 1);
+            val high = Character.digit(logsBloom.charAt(index), 16);
+            val low = Character.digit(logsBloom.charAt(index + 1), 16);
+            if ((((high << 4) | low) & bit & 0xFF) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Computes the bloom bits of every value. Each bit is encoded as the byte index in the bloom shifted left by 8,
+     * combined with the bit mask within the byte.
+     *
+     * @param values the hexadecimal values, or <code>null</code>
+     * @return the bits of every value, <code>null</code> for <code>null</code> values
+     */
+    private static int[][] bits(@Nullable String[] values) {
+        if (values == null) {
+            return new int[0][];
+        }
+
+        val result = new int[values.length][];
+        for (var i = 0; i < values.length; i++) {
+            if (values[i] == null) {
+                continue;
+            }
+
+            val hash = new Keccak(256).digest(Hex.toByteArray(values[i]));
+            val bits = new int[BITS_PER_VALUE];
+            for (var j = 0; j < BITS_PER_VALUE; j++) {
+                val bit = (((hash[j * 2] & 0xFF) << 8) | (hash[j * 2 + 1] & 0xFF)) & 2047;
+                val index = BLOOM_SIZE - 1 - (bit >>> 3);
+                bits[j] = (index << 8) | (1 << (bit & 7));
+            }
+            result[i] = bits;
+        }
+        return result;
+    }
+
+}
@@ -11,6 +11,7 @@ import dev.klepto.kweb3.core.ethereum.type.EthNumericValue;
 import dev.klepto.kweb3.core.ethereum.type.EthSizedValue;
 import dev.klepto.kweb3.core.ethereum.type.EthValue;
 import dev.klepto.kweb3.core.ethereum.type.primitive.*;
+import dev.klepto.kweb3.core.metrics.jfr.CodecEvent;
 import io.ethers.core.FastHex;
 import lombok.val;
 import org.jetbrains.annotations.NotNull;
@@ -49,18 +50,21 @@ public class HeadlongCodec implements AbiCodec {
     @Override
     @Nullable
     public EthTuple decode(@NotNull String abi, @NotNull TypeDescriptor descriptor) {
+        val event = CodecEvent.start();
         descriptor = descriptor instanceof EthTupleTypeDescriptor
                 ? descriptor
                 : descriptor.wrap();
 
-        val tuple = TupleType.parse(descriptor.toAbiDescriptor());
+        val abiDescriptor = descriptor.toAbiDescriptor();
+        val tuple = TupleType.parse(abiDescriptor);
         val data = toByteArray(abi);
         if (data.length == 0) {
             return null;
         }
 
-        val result = tuple.decode(data);
-        return (EthTuple) decodeValue(result, descriptor);
+        val result = (EthTuple) decodeValue(tuple.decode(data), descriptor);
+        event.decoded(abiDescriptor, data.length);
+        return result;
     }
 
     /**
@@ -208,9 +212,13 @@ public class HeadlongCodec implements AbiCodec {
      * @return the ABI encoded string containing the ethereum value
      */
     private String encode(EthTuple value, TypeDescriptor descriptor) {
-        val tupleType = TupleType.parse(descriptor.toAbiDescriptor());
+        val event = CodecEvent.start();
+        val abiDescriptor = descriptor.toAbiDescriptor();
+        val tupleType = TupleType.parse(abiDescriptor);
         val result = tupleType.encode((Tuple) encodeValue(value)).array();
-        return FastHex.encodeWithoutPrefix(result);
+        val abi = FastHex.encodeWithoutPrefix(result);
+        event.encoded(abiDescriptor, result.length);
+        return abi;
     }
 
     /**
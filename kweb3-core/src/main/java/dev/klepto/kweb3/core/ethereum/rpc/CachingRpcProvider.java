@@ -0,0 +1,500 @@
+package dev.klepto.kweb3.core.ethereum.rpc;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import dev.klepto.kweb3.core.Web3Result;
+import dev.klepto.kweb3.core.chain.Web3Endpoint;
+import dev.klepto.kweb3.core.ethereum.rpc.api.EthGetLogsRequest.LogResponse;
+import dev.klepto.kweb3.core.ethereum.rpc.api.RpcApiMessageWriter;
+import dev.klepto.kweb3.core.ethereum.rpc.api.RpcApiRequest;
+import dev.klepto.kweb3.core.ethereum.rpc.api.RpcApiRequestMessage;
+import dev.klepto.kweb3.core.ethereum.rpc.api.RpcApiResponseMessage;
+import lombok.val;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import static dev.klepto.kweb3.core.ethereum.rpc.api.RpcApiMessage.GSON;
+import static dev.klepto.kweb3.core.util.Conditions.require;
+
+/**
+ * Implementation of {@link RpcProvider} that caches responses of another provider. Responses of
+ * <code>eth_call</code>, <code>eth_estimateGas</code>, <code>eth_getBlockByNumber</code>,
+ * <code>eth_getBlockByHash</code> and <code>eth_getLogs</code> are cached by the method and parameters of the request.
+ * <p>
+ * Responses pinned to a concrete block number or hash are immutable and are kept until evicted. Responses for
+ * <code>latest</code>, <code>safe</code> or <code>finalized</code> blocks are only valid until the next head is seen,
+ * or until the latest response TTL elapses if no head is seen in the meantime. Heads are observed from
+ * <code>eth_blockNumber</code> responses, from a <code>newHeads</code> subscription started with
+ * {@link #followHeads()}, or reported with {@link #advanceHead(long)}. Responses for <code>pending</code> blocks and
+ * error responses are never cached.
+ * <p>
+ * The cache is bounded by the estimated size of cached responses in bytes, least recently used responses are evicted
+ * first. Cached responses are shared by every request they answer, so list results decoded while reading the response
+ * are cached as immutable copies.
+ *
+ * @author <a href="http://github.com/klepto">Augustinas R.</a>
+ */
+public class CachingRpcProvider implements RpcProvider {
+
+    /**
+     * The default time after which responses for the latest block expire if no new head is seen.
+     */
+    public static final Duration DEFAULT_LATEST_TTL = Duration.ofSeconds(12);
+
+    private static final long PINNED = Long.MIN_VALUE;
+
+    private final RpcProvider delegate;
+    private final Cache<String, Entry> cache;
+    private final long latestTtl;
+    private final AtomicLong head = new AtomicLong(-1);
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Constructs a new {@link CachingRpcProvider} with {@link #DEFAULT_LATEST_TTL}.
+     *
+     * @param delegate      the provider requests are sent to on cache miss
+     * @param maximumWeight the maximum estimated size of cached responses in bytes
+     */
+    public CachingRpcProvider(@NotNull RpcProvider delegate, long maximumWeight) {
+        this(delegate, maximumWeight, DEFAULT_LATEST_TTL);
+    }
+
+    /**
+     * Constructs a new {@link CachingRpcProvider}.
+     *
+     * @param delegate      the provider requests are sent to on cache miss
+     * @param maximumWeight the maximum estimated size of cached responses in bytes
+     * @param latestTtl     the time after which responses for the latest block expire if no new head is seen
+     */
+    public CachingRpcProvider(@NotNull RpcProvider delegate, long maximumWeight, @NotNull Duration latestTtl) {
+        require(maximumWeight > 0, "Maximum weight must be positive: {}", maximumWeight);
+        this.delegate = delegate;
+        this.latestTtl = latestTtl.toNanos();
+        this.cache = CacheBuilder.newBuilder()
+                .maximumWeight(maximumWeight)
+                .weigher((String key, Entry entry) -> entry.weight())
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Returns the provider requests are sent to on cache miss.
+     *
+     * @return the delegate provider
+     */
+    public RpcProvider delegate() {
+        return delegate;
+    }
+
+    /**
+     * Returns the number of requests that were answered from the cache.
+     *
+     * @return the number of cache hits
+     */
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the number of cacheable requests that were sent to the delegate provider.
+     *
+     * @return the number of cache misses
+     */
+    public long missCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns the ratio of cacheable requests that were answered from the cache, or <code>1.0</code> if there were no
+     * cacheable requests.
+     *
+     * @return the cache hit ratio
+     */
+    public double hitRate() {
+        val hits = hitCount();
+        val total = hits + missCount();
+        return total == 0 ? 1.0 : (double) hits / total;
+    }
+
+    /**
+     * Returns the number of responses evicted due to the size bound of the cache.
+     *
+     * @return the number of evicted responses
+     */
+    public long evictionCount() {
+        return cache.stats().evictionCount();
+    }
+
+    /**
+     * Returns the number of cached responses.
+     *
+     * @return the number of cached responses
+     */
+    public long size() {
+        return cache.size();
+    }
+
+    /**
+     * Returns the highest block number seen, or <code>-1</code> if no head has been seen yet.
+     *
+     * @return the current head block number
+     */
+    public long head() {
+        return head.get();
+    }
+
+    /**
+     * Reports a new head block. Cached responses for the latest block are invalidated if the block is higher than the
+     * current head.
+     *
+     * @param blockNumber the head block number
+     */
+    public void advanceHead(long blockNumber) {
+        val previous = head.getAndAccumulate(blockNumber, Math::max);
+        if (blockNumber > previous) {
+            cache.asMap().values().removeIf(entry -> entry.head() != PINNED);
+        }
+    }
+
+    /**
+     * Subscribes to <code>newHeads</code> and advances the head on every notification.
+     *
+     * @return the subscription id
+     */
+    public Web3Result<String> followHeads() {
+        return delegate.ethSubscribe("newHeads", null, null, result -> {
+            if (result.isJsonObject() && result.getAsJsonObject().has("number")) {
+                advanceHead(parseBlockNumber(result.getAsJsonObject().get("number").getAsString()));
+            }
+        });
+    }
+
+    /**
+     * Removes all cached responses.
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * Answers cacheable requests from the cache if possible, otherwise sends the request to the delegate provider and
+     * caches the successful response.
+     *
+     * @param request the request to send
+     */
+    @Override
+    public void request(@NotNull RpcRequest request) {
+        if (!(request instanceof RpcApiRequest apiRequest)) {
+            delegate.request(request);
+            return;
+        }
+
+        val message = apiRequest.encode();
+        if (message.method().equals("eth_blockNumber")) {
+            delegate.request(request);
+            apiRequest.result().whenComplete((response, error) -> {
+                if (response != null && response.resultAsString() != null) {
+                    advanceHead(parseBlockNumber(response.resultAsString()));
+                }
+            });
+            return;
+        }
+
+        val pinning = pinning(message);
+        if (pinning == Pinning.NONE) {
+            delegate.request(request);
+            return;
+        }
+
+        val key = RpcApiMessageWriter.write(message.withId(null));
+        val entry = cache.getIfPresent(key);
+        if (entry != null && isValid(entry)) {
+            hits.increment();
+            apiRequest.result().complete(entry.response());
+            return;
+        }
+
+        misses.increment();
+        val requestHead = pinning == Pinning.PINNED ? PINNED : head.get();
+        val requestTime = System.nanoTime();
+        delegate.request(request);
+        apiRequest.result().whenComplete((response, error) -> {
+            if (response == null || response.error() != null || !hasResult(response)) {
+                return;
+            }
+            if (requestHead != PINNED && requestHead != head.get()) {
+                return;
+            }
+            val cached = immutable(response);
+            cache.put(key, new Entry(cached, requestHead, requestTime, weigh(key, cached)));
+        });
+    }
+
+    /**
+     * Returns true if the cached entry may still be served.
+     *
+     * @param entry the cached entry
+     * @return true if the entry is valid
+     */
+    private boolean isValid(@NotNull Entry entry) {
+        if (entry.head() == PINNED) {
+            return true;
+        }
+        return entry.head() == head.get() && System.nanoTime() - entry.time() < latestTtl;
+    }
+
+    /**
+     * Returns the endpoint requests of the delegate provider are currently sent to.
+     *
+     * @return the current endpoint
+     */
+    @NotNull
+    @Override
+    public Web3Endpoint endpoint() {
+        return delegate.endpoint();
+    }
+
+    /**
+     * Sets the executor that results of the delegate provider are completed on. Results answered from the cache are
+     * completed on the calling thread.
+     *
+     * @param executor the completion executor, or <code>null</code>
+     */
+    @Override
+    public void setCompletionExecutor(@Nullable Executor executor) {
+        delegate.setCompletionExecutor(executor);
+    }
+
+    /**
+     * Returns the deduplication layer of the delegate provider, which deduplicates requests that missed the cache.
+     *
+     * @return the request deduplication layer
+     */
+    @NotNull
+    @Override
+    public SingleFlight singleFlight() {
+        return delegate.singleFlight();
+    }
+
+    /**
+     * Closes the delegate provider.
+     */
+    @Override
+    public void close() {
+        delegate.close();
+    }
+
+    /**
+     * Determines how long the response of the request may be cached for, based on the blocks the request refers to.
+     *
+     * @param message the request message
+     * @return the pinning of the request
+     */
+    private static Pinning pinning(@NotNull RpcApiRequestMessage message) {
+        val params = message.params();
+        if (params == null || !params.isJsonArray()) {
+            return Pinning.NONE;
+        }
+
+        val array = params.getAsJsonArray();
+        return switch (message.method()) {
+            case "eth_call", "eth_estimateGas" -> array.size() > 1 ? blockPinning(array.get(1)) : Pinning.LATEST;
+            case "eth_getBlockByNumber" -> array.size() > 0 ? blockPinning(array.get(0)) : Pinning.NONE;
+            case "eth_getBlockByHash" -> Pinning.PINNED;
+            case "eth_getLogs" -> array.size() > 0 && array.get(0).isJsonObject()
+                    ? logsPinning(array.get(0).getAsJsonObject())
+                    : Pinning.NONE;
+            default -> Pinning.NONE;
+        };
+    }
+
+    /**
+     * Determines the pinning of <code>eth_getLogs</code> filter, which is pinned only if it refers to a block hash or
+     * to a range of concrete blocks.
+     *
+     * @param filter the log filter
+     * @return the pinning of the filter
+     */
+    private static Pinning logsPinning(@NotNull JsonObject filter) {
+        val blockHash = filter.get("blockHash");
+        if (blockHash != null && !blockHash.isJsonNull()) {
+            return Pinning.PINNED;
+        }
+
+        val from = blockPinning(filter.get("fromBlock"));
+        val to = blockPinning(filter.get("toBlock"));
+        if (from == Pinning.NONE || to == Pinning.NONE) {
+            return Pinning.NONE;
+        }
+        return from == Pinning.PINNED && to == Pinning.PINNED ? Pinning.PINNED : Pinning.LATEST;
+    }
+
+    /**
+     * Determines the pinning of a block parameter, which is either a block number, a block hash, a block tag, or an
+     * object with <code>blockNumber</code> or <code>blockHash</code> as specified by EIP-1898. Missing block defaults
+     * to <code>latest</code>.
+     *
+     * @param block the block parameter or <code>null</code>
+     * @return the pinning of the block
+     */
+    private static Pinning blockPinning(@Nullable JsonElement block) {
+        if (block == null || block.isJsonNull()) {
+            return Pinning.LATEST;
+        }
+        if (block.isJsonObject()) {
+            val object = block.getAsJsonObject();
+            return object.has("blockHash") || object.has("blockNumber") ? Pinning.PINNED : Pinning.NONE;
+        }
+        if (!block.isJsonPrimitive()) {
+            return Pinning.NONE;
+        }
+
+        val tag = block.getAsString();
+        if (tag.startsWith("0x") || tag.equals("earliest")) {
+            return Pinning.PINNED;
+        }
+        return tag.equals("pending") ? Pinning.NONE : Pinning.LATEST;
+    }
+
+    /**
+     * Returns true if the response carries a non-null result.
+     *
+     * @param response the response
+     * @return true if the response has a result
+     */
+    private static boolean hasResult(@NotNull RpcApiResponseMessage response) {
+        return response.decoded() != null || (response.result() != null && !response.result().isJsonNull());
+    }
+
+    /**
+     * Returns the response with its decoded list result replaced by an immutable copy, so that callers modifying the
+     * list don't affect the cached response.
+     *
+     * @param response the response
+     * @return the response with an immutable result
+     */
+    private static RpcApiResponseMessage immutable(@NotNull RpcApiResponseMessage response) {
+        return response.decoded() instanceof List<?> list ? response.withDecoded(List.copyOf(list)) : response;
+    }
+
+    /**
+     * Parses a hexadecimal block number.
+     *
+     * @param blockNumber the block number in hexadecimal format
+     * @return the block number
+     */
+    private static long parseBlockNumber(@NotNull String blockNumber) {
+        return Long.parseLong(blockNumber.startsWith("0x") ? blockNumber.substring(2) : blockNumber, 16);
+    }
+
+    /**
+     * Estimates the memory footprint of a cached response in bytes.
+     *
+     * @param key      the cache key
+     * @param response the response
+     * @return the estimated size in bytes
+     */
+    private static int weigh(@NotNull String key, @NotNull RpcApiResponseMessage response) {
+        val result = response.decoded() != null ? response.decoded() : response.result();
+        return (int) Math.min(Integer.MAX_VALUE, 64 + weigh(key) + weigh(result));
+    }
+
+    /**
+     * Estimates the memory footprint of a response result in bytes. Strings are assumed to be stored in a single byte
+     * per character, as is the case for hexadecimal values.
+     *
+     * @param value the value
+     * @return the estimated size in bytes
+     */
+    private static long weigh(@Nullable Object value) {
+        if (value == null) {
+            return 0;
+        }
+        if (value instanceof String string) {
+            return 40 + string.length();
+        }
+        if (value instanceof String[] strings) {
+            var weight = 16L + 4L * strings.length;
+            for (val string : strings) {
+                weight += weigh(string);
+            }
+            return weight;
+        }
+        if (value instanceof JsonElement element) {
+            if (element.isJsonPrimitive()) {
+                return 16 + weigh(element.getAsString());
+            }
+            if (element.isJsonArray()) {
+                var weight = 32L;
+                for (val item : element.getAsJsonArray()) {
+                    weight += 8 + weigh(item);
+                }
+                return weight;
+            }
+            if (element.isJsonObject()) {
+                var weight = 48L;
+                for (val member : element.getAsJsonObject().entrySet()) {
+                    weight += 32 + weigh(member.getKey()) + weigh(member.getValue());
+                }
+                return weight;
+            }
+            return 16;
+        }
+        if (value instanceof List<?> list) {
+            var weight = 24L;
+            for (val item : list) {
+                weight += 8 + weigh(item);
+            }
+            return weight;
+        }
+        if (value instanceof LogResponse log) {
+            return 48 + weigh(log.address()) + weigh(log.topics()) + weigh(log.data()) + weigh(log.blockNumber())
+                    + weigh(log.transactionHash()) + weigh(log.transactionIndex()) + weigh(log.blockHash())
+                    + weigh(log.logIndex());
+        }
+        return 64 + GSON.toJson(value).length();
+    }
+
+    /**
+     * Represents how long the response of a request may be cached for.
+     */
+    private enum Pinning {
+
+        /**
+         * The response must not be cached.
+         */
+        NONE,
+
+        /**
+         * The response is valid until the next head is seen.
+         */
+        LATEST,
+
+        /**
+         * The response is immutable.
+         */
+        PINNED
+
+    }
+
+    /**
+     * Represents a cached response.
+     *
+     * @param response the response
+     * @param head     the head the response is valid for, or {@link #PINNED} if the response is immutable
+     * @param time     the {@link System#nanoTime()} at which the request was sent
+     * @param weight   the estimated size of the entry in bytes
+     */
+    private record Entry(@NotNull RpcApiResponseMessage response, long head, long time, int weight) {
+    }
+
+}
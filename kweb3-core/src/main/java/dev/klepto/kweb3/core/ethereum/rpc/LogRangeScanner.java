@@ -0,0 +1,432 @@
+package dev.klepto.kweb3.core.ethereum.rpc;
+
+import dev.klepto.kweb3.core.ethereum.rpc.api.EthGetLogsRequest.LogResponse;
+import dev.klepto.kweb3.core.ethereum.rpc.api.EthProtocol;
+import dev.klepto.kweb3.core.util.Threads;
+import lombok.val;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import static dev.klepto.kweb3.core.util.Conditions.require;
+
+/**
+ * {@link Flow.Publisher} of logs within a block range that is fetched with multiple <code>eth_getLogs</code> requests.
+ * The range is split into chunks that are fetched in parallel, at most <code>concurrency</code> chunks are fetched or
+ * buffered at a time, and logs are delivered in block order as the subscriber requests them. The size of the next
+ * chunk adapts to the log density observed in completed chunks, aiming for a target number of logs per request. Chunks
+ * that fail because the node rejected the range or the size of the response are bisected and retried.
+ * <p>
+ * Every subscriber gets its own scan of the range.
+ *
+ * @author <a href="http://github.com/klepto">Augustinas R.</a>
+ */
+public class LogRangeScanner implements Flow.Publisher<LogResponse> {
+
+    /**
+     * The default maximum number of chunks that are fetched or buffered at a time.
+     */
+    public static final int DEFAULT_CONCURRENCY = 4;
+
+    /**
+     * The default number of blocks in the first chunk.
+     */
+    public static final long DEFAULT_INITIAL_CHUNK_SIZE = 1000;
+
+    /**
+     * The default number of logs per request the chunk size adapts towards.
+     */
+    public static final int DEFAULT_TARGET_LOGS = 5000;
+
+    /**
+     * The maximum number of blocks in a chunk.
+     */
+    public static final long MAX_CHUNK_SIZE = 100_000;
+
+    /**
+     * Fragments of error messages that nodes return for ranges or responses that are too large, in lower case.
+     */
+    private static final String[] RANGE_ERRORS = {
+            "range", "too many", "more than", "too large", "response size", "query returned", "timeout", "timed out"
+    };
+
+    private final EthProtocol rpc;
+    private final String[] addresses;
+    private final String[] topics;
+    private final long fromBlock;
+    private final long toBlock;
+    private final int concurrency;
+    private final long initialChunkSize;
+    private final int targetLogs;
+    private final Executor executor;
+    private final LongAdder requestCount = new LongAdder();
+    private final LongAdder splitCount = new LongAdder();
+
+    /**
+     * Constructs a new {@link LogRangeScanner} with default concurrency and chunk sizing.
+     *
+     * @param rpc       the provider requests are sent to
+     * @param addresses the array of smart contract address filters or <code>null</code>
+     * @param topics    the array of topics filters or <code>null</code>
+     * @param fromBlock the first block of the range
+     * @param toBlock   the last block of the range, inclusive
+     */
+    public LogRangeScanner(@NotNull EthProtocol rpc,
+                           @Nullable String[] addresses,
+                           @Nullable String[] topics,
+                           long fromBlock,
+                           long toBlock) {
+        this(rpc, addresses, topics, fromBlock, toBlock,
+                DEFAULT_CONCURRENCY, DEFAULT_INITIAL_CHUNK_SIZE, DEFAULT_TARGET_LOGS);
+    }
+
+    /**
+     * Constructs a new {@link LogRangeScanner}.
+     *
+     * @param rpc              the provider requests are sent to
+     * @param addresses        the array of smart contract address filters or <code>null</code>
+     * @param topics           the array of topics filters or <code>null</code>
+     * @param fromBlock        the first block of the range
+     * @param toBlock          the last block of the range, inclusive
+     * @param concurrency      the maximum number of chunks that are fetched or buffered at a time
+     * @param initialChunkSize the number of blocks in the first chunk
+     * @param targetLogs       the number of logs per request the chunk size adapts towards
+     */
+    public LogRangeScanner(@NotNull EthProtocol rpc,
+                           @Nullable String[] addresses,
+                           @Nullable String[] topics,
+                           long fromBlock,
+                           long toBlock,
+                           int concurrency,
+                           long initialChunkSize,
+                           int targetLogs) {
+        require(fromBlock >= 0 && fromBlock <= toBlock, "Invalid block range: {} - {}", fromBlock, toBlock);
+        require(concurrency > 0, "Concurrency must be positive: {}", concurrency);
+        require(initialChunkSize > 0, "Chunk size must be positive: {}", initialChunkSize);
+        require(targetLogs > 0, "Target logs must be positive: {}", targetLogs);
+        this.rpc = rpc;
+        this.addresses = addresses;
+        this.topics = topics;
+        this.fromBlock = fromBlock;
+        this.toBlock = toBlock;
+        this.concurrency = concurrency;
+        this.initialChunkSize = Math.min(initialChunkSize, MAX_CHUNK_SIZE);
+        this.targetLogs = targetLogs;
+        this.executor = Threads.executor();
+    }
+
+    /**
+     * Returns the total number of <code>eth_getLogs</code> requests sent across all scans.
+     *
+     * @return the number of requests
+     */
+    public long requestCount() {
+        return requestCount.sum();
+    }
+
+    /**
+     * Returns the total number of chunks that were bisected after the node rejected them across all scans.
+     *
+     * @return the number of bisected chunks
+     */
+    public long splitCount() {
+        return splitCount.sum();
+    }
+
+    /**
+     * Starts a new scan of the range for the subscriber.
+     *
+     * @param subscriber the subscriber
+     */
+    @Override
+    public void subscribe(@NotNull Flow.Subscriber<? super LogResponse> subscriber) {
+        val scan = new Scan(subscriber);
+        subscriber.onSubscribe(scan);
+        scan.schedule();
+    }
+
+    /**
+     * Returns true if the error indicates that the node rejected the range or the size of the response.
+     *
+     * @param error the error
+     * @return true if the chunk should be bisected
+     */
+    private static boolean isRangeError(@NotNull Throwable error) {
+        for (var cause = error; cause != null; cause = cause.getCause()) {
+            val message = cause.getMessage();
+            if (message == null) {
+                continue;
+            }
+            val lowerCase = message.toLowerCase();
+            for (val fragment : RANGE_ERRORS) {
+                if (lowerCase.contains(fragment)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Encodes the block number as hexadecimal.
+     *
+     * @param blockNumber the block number
+     * @return the hexadecimal block number
+     */
+    private static String toHex(long blockNumber) {
+        return "0x" + Long.toHexString(blockNumber);
+    }
+
+    /**
+     * Represents a block range of the scan and its logs once fetched.
+     */
+    private static final class Chunk {
+
+        private final long fromBlock;
+        private final long toBlock;
+        private boolean fetching;
+        private List<LogResponse> logs;
+        private int index;
+
+        private Chunk(long fromBlock, long toBlock) {
+            this.fromBlock = fromBlock;
+            this.toBlock = toBlock;
+        }
+
+        /**
+         * Returns the number of blocks in the chunk.
+         *
+         * @return the number of blocks
+         */
+        private long size() {
+            return toBlock - fromBlock + 1;
+        }
+
+    }
+
+    /**
+     * Scan of the range for a single subscriber. Chunks are kept ordered by their first block, the first chunk is the
+     * one logs are currently delivered from.
+     */
+    private final class Scan implements Flow.Subscription {
+
+        private final Flow.Subscriber<? super LogResponse> subscriber;
+        private final TreeMap<Long, Chunk> chunks = new TreeMap<>();
+        private final AtomicLong demand = new AtomicLong();
+        private final AtomicInteger pending = new AtomicInteger();
+        private final AtomicBoolean cancelled = new AtomicBoolean();
+        private volatile Throwable error;
+        private long nextBlock = fromBlock;
+        private long chunkSize = initialChunkSize;
+        private int inFlight;
+        private boolean terminated;
+
+        private Scan(@NotNull Flow.Subscriber<? super LogResponse> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        /**
+         * Adds demand for logs. Non-positive demand cancels the scan with {@link IllegalArgumentException}, as required
+         * by the reactive streams specification.
+         *
+         * @param n the number of logs requested
+         */
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                fail(new IllegalArgumentException("Non-positive request: " + n));
+                return;
+            }
+            demand.getAndUpdate(current -> current + n < 0 ? Long.MAX_VALUE : current + n);
+            schedule();
+        }
+
+        /**
+         * Cancels the scan and discards fetched logs. Requests in flight are not cancelled, but their results are
+         * ignored.
+         */
+        @Override
+        public void cancel() {
+            if (!cancelled.compareAndSet(false, true)) {
+                return;
+            }
+            synchronized (chunks) {
+                chunks.clear();
+            }
+        }
+
+        /**
+         * Cancels the scan and signals the error to the subscriber.
+         *
+         * @param cause the error
+         */
+        private void fail(@NotNull Throwable cause) {
+            if (cancelled.get()) {
+                return;
+            }
+            error = cause;
+            cancel();
+            schedule();
+        }
+
+        /**
+         * Starts delivering logs and fetching chunks on the executor, unless it's already in progress.
+         */
+        private void schedule() {
+            if (pending.getAndIncrement() == 0) {
+                executor.execute(this::drain);
+            }
+        }
+
+        /**
+         * Delivers logs and fetches chunks until there is nothing left to do.
+         */
+        private void drain() {
+            var missed = 1;
+            while (true) {
+                if (!terminated) {
+                    deliver();
+                    if (!terminated) {
+                        fetch();
+                    }
+                }
+
+                missed = pending.addAndGet(-missed);
+                if (missed == 0) {
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Delivers as many logs of completed chunks in block order as requested, completes the subscriber once the
+         * whole range is delivered, or signals the error of the scan.
+         */
+        private void deliver() {
+            val cause = error;
+            if (cause != null) {
+                terminated = true;
+                subscriber.onError(cause);
+                return;
+            }
+
+            while (!cancelled.get()) {
+                LogResponse log = null;
+                var complete = false;
+                synchronized (chunks) {
+                    while (!chunks.isEmpty()) {
+                        val chunk = chunks.firstEntry().getValue();
+                        if (chunk.logs == null) {
+                            break;
+                        }
+                        if (chunk.index < chunk.logs.size()) {
+                            if (demand.get() > 0) {
+                                log = chunk.logs.get(chunk.index++);
+                            }
+                            break;
+                        }
+                        chunks.pollFirstEntry();
+                    }
+                    complete = chunks.isEmpty() && nextBlock > toBlock;
+                }
+
+                if (log == null) {
+                    if (complete) {
+                        terminated = true;
+                        subscriber.onComplete();
+                    }
+                    return;
+                }
+
+                demand.decrementAndGet();
+                try {
+                    subscriber.onNext(log);
+                } catch (Throwable failure) {
+                    fail(failure);
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Plans new chunks while fewer than <code>concurrency</code> chunks are fetched or buffered, and sends requests
+         * for planned chunks while fewer than <code>concurrency</code> requests are in flight.
+         */
+        private void fetch() {
+            val requests = new ArrayList<Chunk>();
+            synchronized (chunks) {
+                if (cancelled.get()) {
+                    return;
+                }
+                while (chunks.size() < concurrency && nextBlock <= toBlock) {
+                    val chunk = new Chunk(nextBlock, Math.min(toBlock, nextBlock + chunkSize - 1));
+                    chunks.put(chunk.fromBlock, chunk);
+                    nextBlock = chunk.toBlock + 1;
+                }
+                for (val chunk : chunks.values()) {
+                    if (inFlight >= concurrency) {
+                        break;
+                    }
+                    if (chunk.logs == null && !chunk.fetching) {
+                        chunk.fetching = true;
+                        inFlight++;
+                        requests.add(chunk);
+                    }
+                }
+            }
+
+            for (val chunk : requests) {
+                requestCount.increment();
+                rpc.ethGetLogs(addresses, toHex(chunk.fromBlock), toHex(chunk.toBlock), topics, null)
+                        .whenComplete((logs, cause) -> onChunk(chunk, logs, cause));
+            }
+        }
+
+        /**
+         * Handles the response for a chunk. Successful chunks adapt the size of the next planned chunk to the observed
+         * log density, chunks that were rejected due to their range or response size are replaced with two halves.
+         *
+         * @param chunk the chunk
+         * @param logs  the logs of the chunk, or <code>null</code> if the request failed
+         * @param cause the error of the request, or <code>null</code> if the request succeeded
+         */
+        private void onChunk(@NotNull Chunk chunk, @Nullable List<LogResponse> logs, @Nullable Throwable cause) {
+            synchronized (chunks) {
+                inFlight--;
+                if (cancelled.get()) {
+                    return;
+                }
+
+                if (cause == null) {
+                    chunk.logs = logs != null ? logs : List.of();
+                    val estimate = chunk.logs.isEmpty()
+                            ? chunk.size() * 2
+                            : Math.max(1, (long) ((double) targetLogs * chunk.size() / chunk.logs.size()));
+                    chunkSize = Math.min(MAX_CHUNK_SIZE, Math.min(estimate, chunkSize * 2));
+                } else if (chunk.size() > 1 && isRangeError(cause)) {
+                    splitCount.increment();
+                    val middle = chunk.fromBlock + chunk.size() / 2 - 1;
+                    chunks.put(chunk.fromBlock, new Chunk(chunk.fromBlock, middle));
+                    chunks.put(middle + 1, new Chunk(middle + 1, chunk.toBlock));
+                    chunkSize = Math.max(1, Math.min(chunkSize, chunk.size() / 2));
+                } else {
+                    error = cause;
+                    cancelled.set(true);
+                    chunks.clear();
+                }
+            }
+            schedule();
+        }
+
+    }
+
+}
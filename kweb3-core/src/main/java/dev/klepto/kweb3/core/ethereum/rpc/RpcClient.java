@@ -1,14 +1,27 @@
 package dev.klepto.kweb3.core.ethereum.rpc;
 
+import dev.klepto.kweb3.core.Web3Error;
 import dev.klepto.kweb3.core.chain.Web3Endpoint;
-import dev.klepto.kweb3.core.ethereum.rpc.api.EthProtocol;
+import dev.klepto.kweb3.core.ethereum.rpc.api.RpcApiResponseMessage;
 import dev.klepto.kweb3.core.ethereum.rpc.io.RpcConnection;
+import dev.klepto.kweb3.core.ethereum.rpc.io.RpcSendError;
+import dev.klepto.kweb3.core.metrics.Metrics;
+import dev.klepto.kweb3.core.metrics.Web3Metrics.ErrorType;
+import dev.klepto.kweb3.core.metrics.jfr.RpcRequestEvent;
+import dev.klepto.kweb3.core.util.Threads;
+import dev.klepto.kweb3.core.util.TimerWheel;
 import lombok.Getter;
+import lombok.val;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
-import java.io.Closeable;
-import java.util.Queue;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.lang.reflect.Type;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Implementation of Ethereum RPC API client.
@@ -16,10 +29,20 @@ import java.util.concurrent.ConcurrentLinkedQueue;
  * @author <a href="http://github.com/klepto">Augustinas R.</a>
  */
 @Getter
-public class RpcClient implements Closeable, EthProtocol {
+public class RpcClient implements RpcProvider {
+
+    /**
+     * Timer wheel shared by all clients for expiring requests that didn't receive a response in time.
+     */
+    private static final TimerWheel DEADLINES = TimerWheel.create("kweb3-deadlines");
 
     private final RpcConnection connection;
-    private final Queue<RpcRequest> requests = new ConcurrentLinkedQueue<>();
+    private final Map<Long, PendingRequest> requests = new ConcurrentHashMap<>();
+    private final AtomicLong requestIds = new AtomicLong();
+    private final LongAdder expiredRequests = new LongAdder();
+    private final RpcSubscriptions subscriptions = new RpcSubscriptions(Threads.executor());
+    private final SingleFlight singleFlight = new SingleFlight();
+    private volatile Executor completionExecutor;
 
     /**
      * Constructs a new {@link RpcClient} for the specified endpoint.
@@ -27,7 +50,18 @@ public class RpcClient implements Closeable, EthProtocol {
      * @param endpoint the endpoint
      */
     public RpcClient(Web3Endpoint endpoint) {
-        this.connection = RpcConnection.create(endpoint, this::onMessage, this::onError, this::onClose);
+        this(endpoint, RpcConnection::create);
+    }
+
+    /**
+     * Constructs a new {@link RpcClient} for the specified endpoint using given connection factory.
+     *
+     * @param endpoint          the endpoint
+     * @param connectionFactory the factory used to create the connection to the endpoint
+     */
+    public RpcClient(Web3Endpoint endpoint, RpcConnection.Factory connectionFactory) {
+        this.connection = connectionFactory.create(endpoint, this::onMessage, this::onError, this::onClose);
+        this.connection.resultTypes(this::resultType);
     }
 
     /**
@@ -35,6 +69,8 @@ public class RpcClient implements Closeable, EthProtocol {
      *
      * @return the current endpoint
      */
+    @NotNull
+    @Override
     public Web3Endpoint endpoint() {
         return connection.endpoint();
     }
@@ -49,14 +85,88 @@ public class RpcClient implements Closeable, EthProtocol {
     }
 
     /**
-     * Sends the specified request to the connected node and adds it to the <code>requests</code> queue.
+     * Sets the executor that results of requests are completed on.
+     *
+     * @param executor the completion executor, or <code>null</code> to complete results on the connection thread
+     */
+    @Override
+    public void setCompletionExecutor(@Nullable Executor executor) {
+        this.completionExecutor = executor;
+    }
+
+    /**
+     * Returns the executor that results of requests are completed on.
+     *
+     * @return the completion executor, or <code>null</code> if results are completed on the connection thread
+     */
+    @Nullable
+    public Executor completionExecutor() {
+        return completionExecutor;
+    }
+
+    /**
+     * Returns the registry of subscription handlers. Notifications of registered subscriptions are delivered on the
+     * shared executor, off the thread that received them.
+     *
+     * @return the subscription registry
+     */
+    public RpcSubscriptions subscriptions() {
+        return subscriptions;
+    }
+
+    /**
+     * Returns the deduplication layer of this client.
+     *
+     * @return the request deduplication layer
+     */
+    @NotNull
+    @Override
+    public SingleFlight singleFlight() {
+        return singleFlight;
+    }
+
+    /**
+     * Returns the number of requests that expired without receiving a response within
+     * {@link Web3Endpoint.Settings#requestTimeout()}.
+     *
+     * @return the number of expired requests
+     */
+    public long expiredCount() {
+        return expiredRequests.sum();
+    }
+
+    /**
+     * Sends the specified request to the connected node and adds it to the pending <code>requests</code> table under a
+     * newly generated id. The request is failed with {@link Web3Error} and evicted from the table once
+     * {@link Web3Endpoint.Settings#requestTimeout()} elapses without a response. If the request cannot be sent, for
+     * example because the send queue of a throttled connection is full, the request is failed immediately. If
+     * deduplication is enabled and an identical read-only request is already in flight, the request shares its result
+     * and is not sent. Sent, completed and rejected requests are reported to {@link Metrics}.
      *
      * @param request the request to send
      */
+    @Override
     public void request(@NotNull RpcRequest request) {
-        requests.add(request);
-        if (!request.send(this)) {
-            requests.remove(request);
+        if (singleFlight.join(request)) {
+            return;
+        }
+
+        val id = requestIds.incrementAndGet();
+        val timeout = endpoint().settings().requestTimeout();
+        val deadline = DEADLINES.schedule(() -> onDeadline(id, timeout), timeout);
+        val pending = new PendingRequest(request, deadline, System.nanoTime());
+        requests.put(id, pending);
+        try {
+            if (request.send(this, id)) {
+                Metrics.get().requestSent(endpoint(), request.method());
+            } else {
+                remove(id, pending);
+                Metrics.get().requestRejected(endpoint(), request.method());
+            }
+        } catch (Throwable cause) {
+            remove(id, pending);
+            Metrics.get().requestRejected(endpoint(), request.method());
+            request.onError(this, cause);
         }
     }
 
@@ -71,28 +181,136 @@ public class RpcClient implements Closeable, EthProtocol {
     }
 
     /**
-     * Processes the response message from the connected node.
+     * Processes the message from the connected node. Pending request is looked up by message id, messages without an
+     * id are dispatched to subscription handlers, messages with an unknown id are ignored.
      *
      * @param message the message received from the connected node
      */
     private void onMessage(@NotNull RpcMessage message) {
-        requests.removeIf(request -> request.isComplete(this, message));
+        val id = message.id();
+        if (id == null) {
+            subscriptions.dispatch(message);
+            return;
+        }
+
+        val pending = requests.get(id);
+        if (pending != null && pending.request().isComplete(this, message)) {
+            val failed = message instanceof RpcApiResponseMessage response && response.error() != null;
+            complete(id, pending, failed ? ErrorType.RESPONSE : null);
+        }
+    }
+
+    /**
+     * Returns the result type of the pending request with the given id, used by the connection to decode results
+     * while reading responses.
+     *
+     * @param id the request id
+     * @return the result type, or <code>null</code> if the request is unknown or keeps its result as a JSON tree
+     */
+    @Nullable
+    private Type resultType(long id) {
+        val pending = requests.get(id);
+        return pending != null ? pending.request().resultType() : null;
     }
 
     /**
-     * Called upon IO error.
+     * Called upon IO error. Errors of a single message that could not be sent fail only the requests carried by the
+     * message, other errors fail all pending requests.
      *
      * @param throwable the error that occurred during the connection
      */
     private void onError(@NotNull Throwable throwable) {
-        requests.removeIf(request -> request.onError(this, throwable));
+        if (throwable instanceof RpcSendError sendError) {
+            for (val id : sendError.ids()) {
+                val pending = requests.get(id);
+                if (pending != null && pending.request().onError(this, throwable)) {
+                    complete(id, pending, ErrorType.CONNECTION);
+                }
+            }
+            return;
+        }
+
+        requests.forEach((id, pending) -> {
+            if (pending.request().onError(this, throwable)) {
+                complete(id, pending, ErrorType.CONNECTION);
+            }
+        });
     }
 
     /**
-     * Called when connection is closed.
+     * Called by the deadline timer once request timeout elapses. Fails the request if it's still pending.
+     *
+     * @param id      the request id
+     * @param timeout the request timeout
      */
-    private void onClose() {
+    private void onDeadline(long id, @NotNull Duration timeout) {
+        val pending = requests.remove(id);
+        if (pending == null) {
+            return;
+        }
+
+        connection.untrack(id);
+        expiredRequests.increment();
+        record(id, pending, ErrorType.TIMEOUT);
+        val error = new Web3Error("Request {} timed out after {} ms.", id, timeout.toMillis());
+        pending.request().onError(this, error);
+    }
+
+    /**
+     * Removes the completed request from the pending table and records its completion.
+     *
+     * @param id      the request id
+     * @param pending the pending request
+     * @param error   the type of error the request failed with, or <code>null</code> if the request succeeded
+     */
+    private void complete(long id, @NotNull PendingRequest pending, @Nullable ErrorType error) {
+        if (remove(id, pending)) {
+            record(id, pending, error);
+        }
+    }
+
+    /**
+     * Reports completion of the request to {@link Metrics} and flight recorder.
+     *
+     * @param id      the request id
+     * @param pending the pending request
+     * @param error   the type of error the request failed with, or <code>null</code> if the request succeeded
+     */
+    private void record(long id, @NotNull PendingRequest pending, @Nullable ErrorType error) {
+        val method = pending.request().method();
+        val latency = System.nanoTime() - pending.sendTime();
+        Metrics.get().requestCompleted(endpoint(), method, latency, error);
+        RpcRequestEvent.commit(endpoint(), method, id, latency, error);
+    }
+
+    /**
+     * Removes the request from the pending table, cancels its deadline and notifies the connection that the request
+     * is no longer awaited.
+     *
+     * @param id      the request id
+     * @param pending the pending request
+     * @return true if the request was removed by this call
+     */
+    private boolean remove(long id, @NotNull PendingRequest pending) {
+        if (!requests.remove(id, pending)) {
+            return false;
+        }
+        pending.deadline().cancel();
+        connection.untrack(id);
+        return true;
+    }
 
+    /**
+     * Called when connection is closed. Fails all pending requests, as they can no longer be answered.
+     */
+    private void onClose() {
+        val error = new Web3Error("Connection to {} is closed.", endpoint().url());
+        requests.forEach((id, pending) -> {
+            if (remove(id, pending)) {
+                record(id, pending, ErrorType.CONNECTION);
+                pending.request().onError(this, error);
+            }
+        });
     }
 
     /**
@@ -102,4 +320,15 @@ public class RpcClient implements Closeable, EthProtocol {
     public void close() {
         connection.close();
     }
+
+    /**
+     * Represents a request that has been sent and is awaiting a response.
+     *
+     * @param request  the request
+     * @param deadline the timeout that expires the request
+     * @param sendTime the {@link System#nanoTime()} at which the request was sent
+     */
+    public record PendingRequest(@NotNull RpcRequest request, @NotNull TimerWheel.Timeout deadline, long sendTime) {
+    }
+
 }
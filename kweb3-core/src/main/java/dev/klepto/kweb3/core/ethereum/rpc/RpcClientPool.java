@@ -0,0 +1,562 @@
+package dev.klepto.kweb3.core.ethereum.rpc;
+
+import dev.klepto.kweb3.core.chain.Web3Endpoint;
+import dev.klepto.kweb3.core.ethereum.rpc.api.EthUnsubscribeRequest;
+import dev.klepto.kweb3.core.ethereum.rpc.io.RpcConnection;
+import dev.klepto.kweb3.core.util.Threads;
+import dev.klepto.kweb3.core.util.TimerWheel;
+import lombok.val;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.reflect.Type;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import static dev.klepto.kweb3.core.util.Conditions.require;
+
+/**
+ * Implementation of {@link RpcProvider} that distributes requests between multiple endpoints of the same chain. Every
+ * request is routed to the endpoint with the lowest expected wait time, estimated as the exponentially weighted moving
+ * average of response latency multiplied by the number of requests in-flight on that endpoint.
+ * <p>
+ * Endpoints that fail {@link #ERROR_THRESHOLD} requests in a row are ejected from routing and periodically re-probed
+ * with <code>eth_blockNumber</code>, with the interval between probes doubling on each failed probe. A connection
+ * error that fails all requests in-flight on an endpoint at once counts as a single failure. If every endpoint
+ * is ejected, requests are routed to the endpoint that is due to be re-probed the soonest.
+ * <p>
+ * If hedging is enabled, idempotent requests that aren't answered within the 95th percentile latency of their
+ * endpoint are duplicated to the next best endpoint, and completed with whichever answer arrives first. Requests with
+ * side effects, such as <code>eth_sendRawTransaction</code>, are never hedged.
+ * <p>
+ * Subscriptions only exist on the endpoint that answered <code>eth_subscribe</code>, so <code>eth_unsubscribe</code>
+ * is always sent to the endpoint whose client holds the subscription, regardless of routing.
+ *
+ * @author <a href="http://github.com/klepto">Augustinas R.</a>
+ */
+public class RpcClientPool implements RpcProvider {
+
+    /**
+     * The number of consecutive failed requests after which an endpoint is ejected.
+     */
+    public static final int ERROR_THRESHOLD = 3;
+
+    /**
+     * The delay before the first probe of an ejected endpoint.
+     */
+    public static final Duration MIN_EJECT_DURATION = Duration.ofSeconds(1);
+
+    /**
+     * The maximum delay between probes of an ejected endpoint.
+     */
+    public static final Duration MAX_EJECT_DURATION = Duration.ofMinutes(1);
+
+    /**
+     * Weight of the latest latency sample in the moving average.
+     */
+    private static final double LATENCY_ALPHA = 0.2;
+
+    /**
+     * Latency assumed for endpoints that haven't responded yet, so that traffic is spread across new endpoints.
+     */
+    private static final long INITIAL_LATENCY = TimeUnit.MILLISECONDS.toNanos(100);
+
+    /**
+     * The number of latency samples kept per endpoint for percentile estimation.
+     */
+    private static final int LATENCY_SAMPLES = 128;
+
+    /**
+     * The number of samples between percentile re-estimations, also the minimum number of samples for hedging.
+     */
+    private static final int PERCENTILE_INTERVAL = 16;
+
+    /**
+     * Timer wheel shared by all pools for sending hedged requests.
+     */
+    private static final TimerWheel HEDGES = TimerWheel.create("kweb3-hedges");
+
+    private final List<PooledEndpoint> endpoints;
+    private final LongAdder hedgedRequests = new LongAdder();
+    private final SingleFlight singleFlight = new SingleFlight();
+    private volatile boolean hedging;
+    private volatile boolean closed;
+
+    /**
+     * Constructs a new {@link RpcClientPool} for the specified endpoints.
+     *
+     * @param endpoints the endpoints, all endpoints must belong to the same chain
+     */
+    public RpcClientPool(@NotNull List<Web3Endpoint> endpoints) {
+        this(endpoints, RpcConnection::create);
+    }
+
+    /**
+     * Constructs a new {@link RpcClientPool} for the specified endpoints using given connection factory.
+     *
+     * @param endpoints         the endpoints, all endpoints must belong to the same chain
+     * @param connectionFactory the factory used to create the connection to each endpoint
+     */
+    public RpcClientPool(@NotNull List<Web3Endpoint> endpoints, @NotNull RpcConnection.Factory connectionFactory) {
+        require(!endpoints.isEmpty(), "Client pool requires at least one endpoint.");
+        val chain = endpoints.get(0).chain();
+        endpoints.forEach(endpoint -> require(
+                endpoint.chain().equals(chain),
+                "Endpoint {} does not belong to chain {}.", endpoint.url(), chain.name()
+        ));
+
+        this.endpoints = endpoints.stream()
+                .map(endpoint -> new PooledEndpoint(new RpcClient(endpoint, connectionFactory)))
+                .toList();
+    }
+
+    /**
+     * Returns the pooled endpoints along with their routing statistics.
+     *
+     * @return the pooled endpoints
+     */
+    @NotNull
+    public List<PooledEndpoint> endpoints() {
+        return endpoints;
+    }
+
+    /**
+     * Enables or disables hedging of idempotent requests.
+     *
+     * @param hedging true to enable hedging
+     */
+    public void setHedging(boolean hedging) {
+        this.hedging = hedging;
+    }
+
+    /**
+     * Returns true if hedging of idempotent requests is enabled.
+     *
+     * @return true if hedging is enabled
+     */
+    public boolean isHedging() {
+        return hedging;
+    }
+
+    /**
+     * Returns the number of hedged duplicates sent since this pool was created.
+     *
+     * @return the number of hedged requests
+     */
+    public long hedgedCount() {
+        return hedgedRequests.sum();
+    }
+
+    /**
+     * Returns the deduplication layer of this pool. Requests are deduplicated before being routed, so identical
+     * requests share a result even if they would have been routed to different endpoints.
+     *
+     * @return the request deduplication layer
+     */
+    @NotNull
+    @Override
+    public SingleFlight singleFlight() {
+        return singleFlight;
+    }
+
+    /**
+     * Returns the endpoint the next request would be routed to.
+     *
+     * @return the current endpoint
+     */
+    @NotNull
+    @Override
+    public Web3Endpoint endpoint() {
+        return select().client().endpoint();
+    }
+
+    /**
+     * Sends the specified request to the healthiest endpoint of the pool. If hedging is enabled and the request is
+     * idempotent, schedules a duplicate to be sent once the 95th percentile latency of the endpoint elapses. If
+     * deduplication is enabled and an identical read-only request is already in flight, the request shares its result
+     * and is not sent. Unsubscribe requests are sent to the endpoint that holds the subscription.
+     *
+     * @param request the request to send
+     */
+    @Override
+    public void request(@NotNull RpcRequest request) {
+        if (singleFlight.join(request)) {
+            return;
+        }
+
+        val endpoint = request instanceof EthUnsubscribeRequest unsubscribe
+                ? selectSubscriber(unsubscribe.getSubscriptionId())
+                : select();
+        val tracked = new TrackedRequest(endpoint, request);
+        if (hedging && request.isIdempotent() && endpoints.size() > 1) {
+            val delay = endpoint.percentile95;
+            if (delay != Long.MAX_VALUE) {
+                tracked.hedge = HEDGES.schedule(
+                        () -> Threads.executor().execute(() -> hedge(endpoint, request)),
+                        Duration.ofNanos(delay)
+                );
+            }
+        }
+        endpoint.client().request(tracked);
+    }
+
+    /**
+     * Sends a duplicate of a request that is still awaiting a response to the healthiest endpoint other than the one
+     * the request was originally sent to.
+     *
+     * @param primary the endpoint the request was originally sent to
+     * @param request the request
+     */
+    private void hedge(@NotNull PooledEndpoint primary, @NotNull RpcRequest request) {
+        val endpoint = selectHealthy(primary);
+        if (closed || endpoint == null) {
+            return;
+        }
+
+        val hedge = request.hedge();
+        if (hedge == null) {
+            return;
+        }
+
+        hedgedRequests.increment();
+        endpoint.client().request(new TrackedRequest(endpoint, hedge));
+    }
+
+    /**
+     * Selects the endpoint with the lowest expected wait time out of all healthy endpoints.
+     *
+     * @return the selected endpoint
+     */
+    @NotNull
+    private PooledEndpoint select() {
+        val selected = selectHealthy(null);
+        if (selected != null) {
+            return selected;
+        }
+
+        // All endpoints are ejected, fall back to the one closest to recovery.
+        var fallback = endpoints.get(0);
+        for (val endpoint : endpoints) {
+            if (endpoint.ejectedUntil < fallback.ejectedUntil) {
+                fallback = endpoint;
+            }
+        }
+        return fallback;
+    }
+
+    /**
+     * Selects the endpoint whose client holds the subscription with the given id. Falls back to regular routing if no
+     * client holds the subscription, for example because it was never established.
+     *
+     * @param subscriptionId the subscription id
+     * @return the selected endpoint
+     */
+    @NotNull
+    private PooledEndpoint selectSubscriber(@NotNull String subscriptionId) {
+        for (val endpoint : endpoints) {
+            if (endpoint.client().subscriptions().contains(subscriptionId)) {
+                return endpoint;
+            }
+        }
+        return select();
+    }
+
+    /**
+     * Selects the endpoint with the lowest expected wait time out of all healthy endpoints, except the excluded one.
+     *
+     * @param excluded the endpoint to exclude or <code>null</code>
+     * @return the selected endpoint, or <code>null</code> if there are no healthy endpoints
+     */
+    @Nullable
+    private PooledEndpoint selectHealthy(@Nullable PooledEndpoint excluded) {
+        PooledEndpoint selected = null;
+        var selectedScore = Double.MAX_VALUE;
+        for (val endpoint : endpoints) {
+            if (endpoint == excluded || endpoint.isEjected()) {
+                continue;
+            }
+            val score = endpoint.score();
+            if (score < selectedScore) {
+                selected = endpoint;
+                selectedScore = score;
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * Schedules a probe of an ejected endpoint once its ejection period elapses.
+     *
+     * @param endpoint the ejected endpoint
+     * @param delay    the delay in nanoseconds before the probe
+     */
+    private void scheduleProbe(@NotNull PooledEndpoint endpoint, long delay) {
+        Threads.scheduler().schedule(() -> probe(endpoint), delay, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Sends <code>eth_blockNumber</code> to an ejected endpoint, reinstating it if it responds.
+     *
+     * @param endpoint the ejected endpoint
+     */
+    private void probe(@NotNull PooledEndpoint endpoint) {
+        if (closed || !endpoint.isEjected()) {
+            return;
+        }
+
+        endpoint.client().ethBlockNumber().whenComplete((result, error) -> {
+            if (error == null) {
+                endpoint.reinstate();
+            } else {
+                scheduleProbe(endpoint, endpoint.extendEjection());
+            }
+        });
+    }
+
+    /**
+     * Sets the executor that results of requests are completed on for clients of all endpoints.
+     *
+     * @param executor the completion executor, or <code>null</code> to complete results on the connection threads
+     */
+    @Override
+    public void setCompletionExecutor(@Nullable Executor executor) {
+        endpoints.forEach(endpoint -> endpoint.client().setCompletionExecutor(executor));
+    }
+
+    /**
+     * Closes connections to all endpoints.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        endpoints.forEach(endpoint -> endpoint.client().close());
+    }
+
+    /**
+     * An endpoint of the pool along with its routing statistics.
+     */
+    public final class PooledEndpoint {
+
+        private final RpcClient client;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final long[] samples = new long[LATENCY_SAMPLES];
+        private long sampleCount;
+        private volatile long percentile95 = Long.MAX_VALUE;
+        private double latency = INITIAL_LATENCY;
+        private int consecutiveErrors;
+        private Throwable lastError;
+        private long ejectionDuration;
+        private volatile long ejectedUntil;
+        private volatile boolean ejected;
+
+        private PooledEndpoint(@NotNull RpcClient client) {
+            this.client = client;
+        }
+
+        /**
+         * Returns the client connected to this endpoint.
+         *
+         * @return the client
+         */
+        @NotNull
+        public RpcClient client() {
+            return client;
+        }
+
+        /**
+         * Returns the moving average of response latency of this endpoint.
+         *
+         * @return the average latency
+         */
+        @NotNull
+        public synchronized Duration latency() {
+            return Duration.ofNanos((long) latency);
+        }
+
+        /**
+         * Returns the estimated 95th percentile of response latency of this endpoint, or <code>null</code> if not
+         * enough responses were received yet.
+         *
+         * @return the 95th percentile latency or <code>null</code>
+         */
+        @Nullable
+        public Duration latencyPercentile95() {
+            val percentile = percentile95;
+            return percentile != Long.MAX_VALUE ? Duration.ofNanos(percentile) : null;
+        }
+
+        /**
+         * Returns the number of requests sent to this endpoint that are still awaiting a response.
+         *
+         * @return the number of in-flight requests
+         */
+        public int inFlight() {
+            return inFlight.get();
+        }
+
+        /**
+         * Returns true if this endpoint is currently ejected from routing.
+         *
+         * @return true if this endpoint is ejected
+         */
+        public boolean isEjected() {
+            return ejected;
+        }
+
+        /**
+         * Returns the expected wait time of a new request sent to this endpoint.
+         *
+         * @return the routing score, lower is better
+         */
+        private synchronized double score() {
+            return latency * (inFlight.get() + 1);
+        }
+
+        /**
+         * Records a response received from this endpoint.
+         *
+         * @param elapsed the nanoseconds elapsed since the request was sent
+         */
+        private synchronized void onSuccess(long elapsed) {
+            latency += LATENCY_ALPHA * (elapsed - latency);
+            consecutiveErrors = 0;
+
+            samples[(int) (sampleCount++ % LATENCY_SAMPLES)] = elapsed;
+            if (sampleCount % PERCENTILE_INTERVAL == 0) {
+                val sorted = Arrays.copyOf(samples, (int) Math.min(sampleCount, LATENCY_SAMPLES));
+                Arrays.sort(sorted);
+                percentile95 = sorted[(int) Math.ceil(sorted.length * 0.95) - 1];
+            }
+        }
+
+        /**
+         * Records a failed request, ejecting this endpoint once the error threshold is reached. Requests failed by the
+         * same error, such as a single connection error delivered to every pending request, are counted once.
+         *
+         * @param error the error the request failed with
+         */
+        private void onFailure(@NotNull Throwable error) {
+            synchronized (this) {
+                if (error == lastError) {
+                    return;
+                }
+                lastError = error;
+                if (ejected || ++consecutiveErrors < ERROR_THRESHOLD) {
+                    return;
+                }
+                ejected = true;
+                ejectionDuration = MIN_EJECT_DURATION.toNanos();
+                ejectedUntil = System.nanoTime() + ejectionDuration;
+            }
+            scheduleProbe(this, ejectionDuration);
+        }
+
+        /**
+         * Doubles the ejection period after a failed probe.
+         *
+         * @return the nanoseconds until the next probe
+         */
+        private synchronized long extendEjection() {
+            ejectionDuration = Math.min(ejectionDuration * 2, MAX_EJECT_DURATION.toNanos());
+            ejectedUntil = System.nanoTime() + ejectionDuration;
+            return ejectionDuration;
+        }
+
+        /**
+         * Returns this endpoint back to routing after a successful probe.
+         */
+        private synchronized void reinstate() {
+            consecutiveErrors = 0;
+            ejected = false;
+        }
+
+    }
+
+    /**
+     * Request wrapper that records the outcome of a request in the statistics of the endpoint it was routed to.
+     */
+    private static final class TrackedRequest implements RpcRequest {
+
+        private final PooledEndpoint endpoint;
+        private final RpcRequest request;
+        private volatile long sendTime;
+        private volatile TimerWheel.Timeout hedge;
+
+        private TrackedRequest(@NotNull PooledEndpoint endpoint, @NotNull RpcRequest request) {
+            this.endpoint = endpoint;
+            this.request = request;
+        }
+
+        @Override
+        public boolean send(@NotNull RpcClient client, long id) {
+            endpoint.inFlight.incrementAndGet();
+            sendTime = System.nanoTime();
+            val sent = request.send(client, id);
+            if (!sent) {
+                endpoint.inFlight.decrementAndGet();
+            }
+            return sent;
+        }
+
+        @Override
+        public boolean isComplete(@NotNull RpcClient client, @NotNull RpcMessage message) {
+            if (!request.isComplete(client, message)) {
+                return false;
+            }
+            endpoint.inFlight.decrementAndGet();
+            endpoint.onSuccess(System.nanoTime() - sendTime);
+            cancelHedge();
+            return true;
+        }
+
+        @Override
+        public boolean onError(@NotNull RpcClient client, @NotNull Throwable error) {
+            if (!request.onError(client, error)) {
+                return false;
+            }
+            endpoint.inFlight.decrementAndGet();
+            endpoint.onFailure(error);
+            cancelHedge();
+            return true;
+        }
+
+        @Override
+        public boolean isIdempotent() {
+            return request.isIdempotent();
+        }
+
+        @NotNull
+        @Override
+        public String method() {
+            return request.method();
+        }
+
+        @Override
+        public Type resultType() {
+            return request.resultType();
+        }
+
+        @Nullable
+        @Override
+        public RpcRequest hedge() {
+            return request.hedge();
+        }
+
+        /**
+         * Cancels the scheduled hedge of this request, if any.
+         */
+        private void cancelHedge() {
+            val hedge = this.hedge;
+            if (hedge != null) {
+                hedge.cancel();
+            }
+        }
+
+    }
+
+}
@@ -1,5 +1,7 @@
 package dev.klepto.kweb3.core.ethereum.rpc;
 
+import org.jetbrains.annotations.Nullable;
+
 /**
  * Marker interface for RPC protocol message.
  *
@@ -7,6 +9,14 @@ package dev.klepto.kweb3.core.ethereum.rpc;
  */
 public interface RpcMessage {
 
+    /**
+     * Returns the message id, or <code>null</code> if the message does not have an id.
+     *
+     * @return the message id or <code>null</code>
+     */
+    @Nullable
+    Long id();
+
     /**
      * Serializes the message into a request string.
      */
@@ -0,0 +1,61 @@
+package dev.klepto.kweb3.core.ethereum.rpc;
+
+import dev.klepto.kweb3.core.chain.Web3Endpoint;
+import dev.klepto.kweb3.core.ethereum.rpc.api.EthProtocol;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Closeable;
+import java.util.concurrent.Executor;
+
+/**
+ * Represents a source of Ethereum RPC API that requests can be dispatched to, such as a single {@link RpcClient} or a
+ * {@link RpcClientPool} of multiple endpoints.
+ *
+ * @author <a href="http://github.com/klepto">Augustinas R.</a>
+ */
+public interface RpcProvider extends EthProtocol, Closeable {
+
+    /**
+     * Returns the endpoint requests are currently sent to.
+     *
+     * @return the current endpoint
+     */
+    @NotNull
+    Web3Endpoint endpoint();
+
+    /**
+     * Dispatches the specified request to a connected node.
+     *
+     * @param request the request to send
+     */
+    @Override
+    void request(@NotNull RpcRequest request);
+
+    /**
+     * Sets the executor that results of requests are completed on, so that callbacks registered on results don't run
+     * on connection threads and can't delay other responses. Results are completed directly on the thread that
+     * received the response if the executor is <code>null</code>, which is the default.
+     *
+     * @param executor the completion executor, or <code>null</code>
+     * @see dev.klepto.kweb3.core.util.Threads#virtualThreadExecutor()
+     * @see dev.klepto.kweb3.core.util.Threads#boundedExecutor(String, int, int)
+     */
+    void setCompletionExecutor(@Nullable Executor executor);
+
+    /**
+     * Returns the deduplication layer of this provider. Once enabled, identical read-only requests issued while one of
+     * them is in flight share its result instead of being sent to the node again.
+     *
+     * @return the request deduplication layer
+     */
+    @NotNull
+    SingleFlight singleFlight();
+
+    /**
+     * Closes all connections of this provider.
+     */
+    @Override
+    void close();
+
+}
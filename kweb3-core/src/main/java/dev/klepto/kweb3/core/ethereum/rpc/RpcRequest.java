@@ -1,6 +1,9 @@
 package dev.klepto.kweb3.core.ethereum.rpc;
 
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.reflect.Type;
 
 /**
  * Represents a request to be sent to an <code>ethereum</code> node. Supports arbitrary implementation of requests and
@@ -11,12 +14,14 @@ import org.jetbrains.annotations.NotNull;
 public interface RpcRequest {
 
     /**
-     * Sends this request to the specified {@link RpcClient}.
+     * Sends this request to the specified {@link RpcClient}. The id is generated by the client and is unique for the
+     * lifetime of the client, the response message carrying the same id will be routed back to this request.
      *
      * @param client the client to send the request to
+     * @param id     the client-generated id of this request
      * @return true if the request was successfully sent
      */
-    boolean send(@NotNull RpcClient client);
+    boolean send(@NotNull RpcClient client, long id);
 
     /**
      * Checks if the specified message is a response to this request and returns true if request should be marked as
@@ -38,4 +43,47 @@ public interface RpcRequest {
      */
     boolean onError(@NotNull RpcClient client, @NotNull Throwable error);
 
+    /**
+     * Returns the RPC method of this request, used to aggregate metrics. The method may only be known once the
+     * request has been sent.
+     *
+     * @return the RPC method
+     */
+    @NotNull
+    default String method() {
+        return "unknown";
+    }
+
+    /**
+     * Returns true if this request has no side effects and can safely be sent to multiple nodes at once.
+     *
+     * @return true if this request is idempotent
+     */
+    default boolean isIdempotent() {
+        return false;
+    }
+
+    /**
+     * Returns the type the <code>result</code> of the response to this request is decoded into while the response is
+     * being read, or <code>null</code> if the result should be kept as a JSON tree.
+     *
+     * @return the result type, or <code>null</code>
+     */
+    @Nullable
+    default Type resultType() {
+        return null;
+    }
+
+    /**
+     * Creates a duplicate of this request that can be sent to another node alongside this request. Whichever of the
+     * two is answered first completes this request, the other answer is ignored. Returns <code>null</code> if this
+     * request cannot be hedged or is already complete.
+     *
+     * @return the duplicate request, or <code>null</code> if this request cannot be hedged
+     */
+    @Nullable
+    default RpcRequest hedge() {
+        return null;
+    }
+
 }
@@ -0,0 +1,114 @@
+package dev.klepto.kweb3.core.ethereum.rpc;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import dev.klepto.kweb3.core.ethereum.rpc.api.RpcApiRequestMessage;
+import dev.klepto.kweb3.core.util.SerialExecutor;
+import lombok.val;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+/**
+ * Registry of subscription handlers of a {@link RpcClient}. Incoming <code>eth_subscription</code> notifications are
+ * routed to handlers by their subscription id. Handlers are invoked on the dispatch executor rather than the thread
+ * that received the notification, notifications of the same subscription are delivered one at a time in the order
+ * they were received, while different subscriptions are delivered concurrently.
+ *
+ * @author <a href="http://github.com/klepto">Augustinas R.</a>
+ */
+public class RpcSubscriptions {
+
+    private final Executor executor;
+    private final Map<String, Subscription> subscriptions = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a new {@link RpcSubscriptions} registry.
+     *
+     * @param executor the executor subscription handlers are invoked on
+     */
+    public RpcSubscriptions(@NotNull Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Registers a handler for notifications of the given subscription, replacing the previous handler if any.
+     *
+     * @param subscriptionId the subscription id returned by <code>eth_subscribe</code>
+     * @param handler        the handler that receives the <code>result</code> of every notification
+     */
+    public void register(@NotNull String subscriptionId, @NotNull Consumer<JsonElement> handler) {
+        subscriptions.put(subscriptionId, new Subscription(handler, new SerialExecutor(executor)));
+    }
+
+    /**
+     * Removes the handler of the given subscription. Notifications already queued for the handler are still delivered.
+     *
+     * @param subscriptionId the subscription id
+     * @return true if the subscription had a handler
+     */
+    public boolean unregister(@NotNull String subscriptionId) {
+        return subscriptions.remove(subscriptionId) != null;
+    }
+
+    /**
+     * Returns true if a handler is registered for the given subscription.
+     *
+     * @param subscriptionId the subscription id
+     * @return true if the subscription has a handler
+     */
+    public boolean contains(@NotNull String subscriptionId) {
+        return subscriptions.containsKey(subscriptionId);
+    }
+
+    /**
+     * Returns the number of subscriptions with registered handlers.
+     *
+     * @return the number of subscriptions
+     */
+    public int size() {
+        return subscriptions.size();
+    }
+
+    /**
+     * Queues the notification for delivery to the handler of its subscription.
+     *
+     * @param message the received message
+     * @return true if the message is a notification of a subscription with a registered handler
+     */
+    public boolean dispatch(@NotNull RpcMessage message) {
+        if (!(message instanceof RpcApiRequestMessage notification)
+                || !notification.method().equals("eth_subscription")
+                || !notification.params().isJsonObject()) {
+            return false;
+        }
+
+        val params = notification.params().getAsJsonObject();
+        val subscriptionId = params.get("subscription");
+        if (subscriptionId == null || !subscriptionId.isJsonPrimitive()) {
+            return false;
+        }
+
+        val subscription = subscriptions.get(subscriptionId.getAsString());
+        if (subscription == null) {
+            return false;
+        }
+
+        val result = params.has("result") ? params.get("result") : JsonNull.INSTANCE;
+        subscription.executor().execute(() -> subscription.handler().accept(result));
+        return true;
+    }
+
+    /**
+     * Represents a subscription handler along with the executor that serializes its notifications.
+     *
+     * @param handler  the notification handler
+     * @param executor the serial executor of the handler
+     */
+    private record Subscription(@NotNull Consumer<JsonElement> handler, @NotNull SerialExecutor executor) {
+    }
+
+}
@@ -0,0 +1,103 @@
+package dev.klepto.kweb3.core.ethereum.rpc;
+
+import dev.klepto.kweb3.core.ethereum.rpc.api.RpcApiMessageWriter;
+import dev.klepto.kweb3.core.ethereum.rpc.api.RpcApiRequest;
+import lombok.val;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Deduplicates identical read-only requests while they are in flight. Requests are fingerprinted by their method and
+ * parameters, a request that is identical to one that's already in flight is not sent, instead its result is completed
+ * with the result of the in-flight request. Only idempotent {@link RpcApiRequest}s are deduplicated. Disabled by
+ * default.
+ *
+ * @author <a href="http://github.com/klepto">Augustinas R.</a>
+ */
+public class SingleFlight {
+
+    private final Map<String, RpcApiRequest> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private volatile boolean enabled;
+
+    /**
+     * Enables or disables deduplication of requests.
+     *
+     * @param enabled true to enable deduplication
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Returns true if deduplication of requests is enabled.
+     *
+     * @return true if deduplication is enabled
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns the number of requests that shared the result of an identical in-flight request.
+     *
+     * @return the number of deduplicated requests
+     */
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the number of deduplicable requests that had no identical request in flight and were sent.
+     *
+     * @return the number of sent requests
+     */
+    public long missCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns the number of distinct requests currently in flight.
+     *
+     * @return the number of in-flight requests
+     */
+    public int size() {
+        return inFlight.size();
+    }
+
+    /**
+     * Joins the request to an identical in-flight request if there is one. Otherwise, the request becomes the
+     * in-flight request that later identical requests join until its result is complete.
+     *
+     * @param request the request
+     * @return true if the request joined an in-flight request and must not be sent
+     */
+    public boolean join(@NotNull RpcRequest request) {
+        if (!enabled || !request.isIdempotent() || !(request instanceof RpcApiRequest apiRequest)) {
+            return false;
+        }
+
+        val fingerprint = RpcApiMessageWriter.write(apiRequest.encode().withId(null));
+        val leader = inFlight.putIfAbsent(fingerprint, apiRequest);
+        if (leader == null) {
+            misses.increment();
+            apiRequest.result().whenComplete((response, error) -> inFlight.remove(fingerprint, apiRequest));
+            return false;
+        }
+
+        hits.increment();
+        leader.result().whenComplete((response, error) -> {
+            if (error != null) {
+                apiRequest.result().completeExceptionally(error);
+            } else {
+                apiRequest.result().complete(response);
+            }
+        });
+        return true;
+    }
+
+}
@@ -0,0 +1,315 @@
+package dev.klepto.kweb3.core.ethereum.rpc;
+
+import com.google.gson.JsonElement;
+import dev.klepto.kweb3.core.Web3Error;
+import dev.klepto.kweb3.core.ethereum.rpc.api.EthProtocol;
+import dev.klepto.kweb3.core.util.Threads;
+import lombok.val;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import static dev.klepto.kweb3.core.util.Conditions.require;
+
+/**
+ * {@link Flow.Publisher} of <code>eth_subscribe</code> notifications that respects subscriber demand. Every
+ * subscriber gets its own <code>eth_subscribe</code> subscription and a bounded buffer of notifications that were
+ * received but not yet requested. Once the buffer is full, notifications are handled according to the
+ * {@link OverflowPolicy}. Subscribers are signalled on the shared executor, never on the connection thread, so a slow
+ * subscriber doesn't stall other requests on the same connection. Cancelling a subscription issues
+ * <code>eth_unsubscribe</code>.
+ *
+ * @param <T> the type of notification results
+ * @author <a href="http://github.com/klepto">Augustinas R.</a>
+ */
+public class SubscriptionPublisher<T> implements Flow.Publisher<T> {
+
+    /**
+     * The default maximum number of buffered notifications per subscriber.
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 1024;
+
+    private final EthProtocol rpc;
+    private final String method;
+    private final String address;
+    private final String[] topics;
+    private final Function<JsonElement, T> decoder;
+    private final int bufferSize;
+    private final OverflowPolicy overflowPolicy;
+    private final Executor executor;
+    private final LongAdder droppedCount = new LongAdder();
+
+    /**
+     * Constructs a new {@link SubscriptionPublisher}.
+     *
+     * @param rpc            the provider subscriptions are made with
+     * @param method         the subscription method
+     * @param address        the smart contract address filter or <code>null</code>
+     * @param topics         the array of topics filters or <code>null</code>
+     * @param decoder        the function that decodes notification results
+     * @param bufferSize     the maximum number of buffered notifications per subscriber
+     * @param overflowPolicy the policy for notifications received while the buffer is full
+     */
+    public SubscriptionPublisher(@NotNull EthProtocol rpc,
+                                 @NotNull String method,
+                                 @Nullable String address,
+                                 @Nullable String[] topics,
+                                 @NotNull Function<JsonElement, T> decoder,
+                                 int bufferSize,
+                                 @NotNull OverflowPolicy overflowPolicy) {
+        require(bufferSize > 0, "Buffer size must be positive: {}", bufferSize);
+        this.rpc = rpc;
+        this.method = method;
+        this.address = address;
+        this.topics = topics;
+        this.decoder = decoder;
+        this.bufferSize = bufferSize;
+        this.overflowPolicy = overflowPolicy;
+        this.executor = Threads.executor();
+    }
+
+    /**
+     * Returns the total number of notifications dropped due to full buffers across all subscribers.
+     *
+     * @return the number of dropped notifications
+     */
+    public long droppedCount() {
+        return droppedCount.sum();
+    }
+
+    /**
+     * Subscribes to notifications by issuing a new <code>eth_subscribe</code> request for the subscriber.
+     *
+     * @param subscriber the subscriber
+     */
+    @Override
+    public void subscribe(@NotNull Flow.Subscriber<? super T> subscriber) {
+        val channel = new Channel(subscriber);
+        subscriber.onSubscribe(channel);
+        channel.start();
+    }
+
+    /**
+     * Policy for notifications received while the buffer of a subscriber is full.
+     */
+    public enum OverflowPolicy {
+
+        /**
+         * Discards the oldest buffered notification to make room for the new one.
+         */
+        DROP_OLDEST,
+
+        /**
+         * Discards the new notification.
+         */
+        DROP_NEWEST,
+
+        /**
+         * Cancels the subscription and signals {@link Web3Error} to the subscriber.
+         */
+        CANCEL
+
+    }
+
+    /**
+     * Subscription of a single subscriber, buffers notifications and delivers them as they are requested.
+     */
+    private final class Channel implements Flow.Subscription, Consumer<JsonElement> {
+
+        private final Flow.Subscriber<? super T> subscriber;
+        private final ArrayDeque<T> buffer = new ArrayDeque<>();
+        private final AtomicLong demand = new AtomicLong();
+        private final AtomicInteger pending = new AtomicInteger();
+        private final AtomicBoolean cancelled = new AtomicBoolean();
+        private volatile String subscriptionId;
+        private volatile Throwable error;
+        private boolean terminated;
+
+        private Channel(@NotNull Flow.Subscriber<? super T> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        /**
+         * Issues the <code>eth_subscribe</code> request, unsubscribing right away if the subscriber cancelled before
+         * the subscription was established.
+         */
+        private void start() {
+            if (cancelled.get()) {
+                return;
+            }
+
+            rpc.ethSubscribe(method, address, topics, this).whenComplete((id, cause) -> {
+                if (cause != null) {
+                    fail(cause);
+                    return;
+                }
+
+                subscriptionId = id;
+                if (cancelled.get()) {
+                    rpc.ethUnsubscribe(id);
+                }
+            });
+        }
+
+        /**
+         * Receives a notification from the subscription registry and buffers it according to the overflow policy.
+         *
+         * @param result the notification result
+         */
+        @Override
+        public void accept(JsonElement result) {
+            if (cancelled.get()) {
+                return;
+            }
+
+            final T value;
+            try {
+                value = decoder.apply(result);
+            } catch (Throwable cause) {
+                fail(cause);
+                return;
+            }
+
+            var overflow = false;
+            synchronized (buffer) {
+                if (buffer.size() < bufferSize) {
+                    buffer.add(value);
+                } else {
+                    droppedCount.increment();
+                    switch (overflowPolicy) {
+                        case DROP_OLDEST -> {
+                            buffer.poll();
+                            buffer.add(value);
+                        }
+                        case DROP_NEWEST -> {
+                        }
+                        case CANCEL -> overflow = true;
+                    }
+                }
+            }
+
+            if (overflow) {
+                fail(new Web3Error("Buffer of {} subscription {} overflowed ({} notifications).",
+                        method, subscriptionId, bufferSize));
+                return;
+            }
+            schedule();
+        }
+
+        /**
+         * Adds demand for notifications. Non-positive demand cancels the subscription with
+         * {@link IllegalArgumentException}, as required by the reactive streams specification.
+         *
+         * @param n the number of notifications requested
+         */
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                fail(new IllegalArgumentException("Non-positive request: " + n));
+                return;
+            }
+            demand.getAndUpdate(current -> current + n < 0 ? Long.MAX_VALUE : current + n);
+            schedule();
+        }
+
+        /**
+         * Cancels the subscription, discards buffered notifications and issues <code>eth_unsubscribe</code> if the
+         * subscription has been established.
+         */
+        @Override
+        public void cancel() {
+            if (!cancelled.compareAndSet(false, true)) {
+                return;
+            }
+
+            synchronized (buffer) {
+                buffer.clear();
+            }
+            val id = subscriptionId;
+            if (id != null) {
+                rpc.ethUnsubscribe(id);
+            }
+        }
+
+        /**
+         * Cancels the subscription and signals the error to the subscriber.
+         *
+         * @param cause the error
+         */
+        private void fail(@NotNull Throwable cause) {
+            if (cancelled.get()) {
+                return;
+            }
+            error = cause;
+            cancel();
+            schedule();
+        }
+
+        /**
+         * Starts delivering buffered notifications on the executor, unless delivery is already in progress.
+         */
+        private void schedule() {
+            if (pending.getAndIncrement() == 0) {
+                executor.execute(this::drain);
+            }
+        }
+
+        /**
+         * Delivers buffered notifications while there is demand, signals an error once the subscription failed.
+         */
+        private void drain() {
+            var missed = 1;
+            while (true) {
+                if (!terminated) {
+                    deliver();
+                }
+
+                missed = pending.addAndGet(-missed);
+                if (missed == 0) {
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Delivers as many buffered notifications as requested, or the error of the subscription.
+         */
+        private void deliver() {
+            val cause = error;
+            if (cause != null) {
+                terminated = true;
+                subscriber.onError(cause);
+                return;
+            }
+
+            while (!cancelled.get() && demand.get() > 0) {
+                T value;
+                synchronized (buffer) {
+                    value = buffer.poll();
+                }
+                if (value == null) {
+                    return;
+                }
+
+                demand.decrementAndGet();
+                try {
+                    subscriber.onNext(value);
+                } catch (Throwable failure) {
+                    fail(failure);
+                    return;
+                }
+            }
+        }
+
+    }
+
+}
@@ -10,7 +10,7 @@ import lombok.RequiredArgsConstructor;
  */
 @Getter
 @RequiredArgsConstructor
-public class EthBlockNumberRequest extends RpcApiRequest {
+public class EthBlockNumberRequest extends RpcApiReadRequest {
 
     /**
      * Encodes the request object into an API message.
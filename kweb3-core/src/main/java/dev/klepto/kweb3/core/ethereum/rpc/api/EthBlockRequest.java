@@ -6,6 +6,8 @@ import lombok.RequiredArgsConstructor;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.lang.reflect.Type;
+
 /**
  * Implementation of Ethereum RPC API <code>eth_getBlockByNumber</code> and <code>eth_getBlockByHash</code> methods.
  *
@@ -34,10 +36,20 @@ public interface EthBlockRequest {
      */
     @Getter
     @RequiredArgsConstructor
-    class ByHash extends RpcApiRequest implements EthBlockRequest {
+    class ByHash extends RpcApiReadRequest implements EthBlockRequest {
 
         private final String blockHash;
 
+        /**
+         * Returns the type the block is decoded into while the response is being read.
+         *
+         * @return the block type
+         */
+        @Override
+        public Type resultType() {
+            return BlockResponse.class;
+        }
+
         /**
          * Encodes the request object into an API message.
          *
@@ -56,10 +68,20 @@ public interface EthBlockRequest {
      */
     @Getter
     @RequiredArgsConstructor
-    class ByNumber extends RpcApiRequest implements EthBlockRequest {
+    class ByNumber extends RpcApiReadRequest implements EthBlockRequest {
 
         private final String blockNumber;
 
+        /**
+         * Returns the type the block is decoded into while the response is being read.
+         *
+         * @return the block type
+         */
+        @Override
+        public Type resultType() {
+            return BlockResponse.class;
+        }
+
         /**
          * Encodes the request object into an API message.
          *
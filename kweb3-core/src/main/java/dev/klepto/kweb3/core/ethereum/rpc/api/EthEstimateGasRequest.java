@@ -1,5 +1,7 @@
 package dev.klepto.kweb3.core.ethereum.rpc.api;
 
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.val;
@@ -13,7 +15,7 @@ import org.jetbrains.annotations.Nullable;
  */
 @Getter
 @RequiredArgsConstructor
-public class EthEstimateGasRequest extends RpcApiRequest {
+public class EthEstimateGasRequest extends RpcApiReadRequest {
 
     private final @Nullable String from;
     private final @NotNull String to;
@@ -52,6 +54,20 @@ public class EthEstimateGasRequest extends RpcApiRequest {
                                         @Nullable Integer gas,
                                         @Nullable String gasPrice,
                                         @Nullable String value,
-                                        @NotNull String data) {
+                                        @NotNull String data) implements RpcApiParameter {
+
+        @NotNull
+        @Override
+        public JsonElement toJson() {
+            val object = new JsonObject();
+            object.addProperty("from", from);
+            object.addProperty("to", to);
+            object.addProperty("gas", gas);
+            object.addProperty("gasPrice", gasPrice);
+            object.addProperty("value", value);
+            object.addProperty("data", data);
+            return object;
+        }
+
     }
 }
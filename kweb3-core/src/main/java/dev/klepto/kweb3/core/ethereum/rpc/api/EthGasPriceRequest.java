@@ -10,7 +10,7 @@ import lombok.RequiredArgsConstructor;
  */
 @Getter
 @RequiredArgsConstructor
-public class EthGasPriceRequest extends RpcApiRequest {
+public class EthGasPriceRequest extends RpcApiReadRequest {
 
     /**
      * Encodes the request object into an API message.
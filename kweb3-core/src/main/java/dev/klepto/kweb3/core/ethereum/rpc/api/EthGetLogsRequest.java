@@ -1,6 +1,8 @@
 package dev.klepto.kweb3.core.ethereum.rpc.api;
 
 import com.google.common.reflect.TypeToken;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
 import dev.klepto.kweb3.core.Web3Result;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
@@ -9,7 +11,6 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.lang.reflect.Type;
-import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -19,7 +20,7 @@ import java.util.List;
  */
 @Getter
 @RequiredArgsConstructor
-public class EthGetLogsRequest extends RpcApiRequest {
+public class EthGetLogsRequest extends RpcApiReadRequest {
 
     private final @Nullable String[] addresses;
     private final @Nullable String fromBlock;
@@ -27,6 +28,16 @@ public class EthGetLogsRequest extends RpcApiRequest {
     private final @Nullable String[] topics;
     private final @Nullable String blockHash;
 
+    /**
+     * Returns the type logs are decoded into while the response is being read.
+     *
+     * @return the log list type
+     */
+    @Override
+    public Type resultType() {
+        return LogResponse.LIST_TYPE;
+    }
+
     /**
      * Encodes the request object into an API message.
      *
@@ -64,7 +75,20 @@ public class EthGetLogsRequest extends RpcApiRequest {
                                 @Nullable String fromBlock,
                                 @Nullable String toBlock,
                                 @Nullable String[] topics,
-                                @Nullable String blockHash) {
+                                @Nullable String blockHash) implements RpcApiParameter {
+
+        @NotNull
+        @Override
+        public JsonElement toJson() {
+            val object = new JsonObject();
+            object.add("addresses", RpcApiParameter.array(addresses));
+            object.addProperty("fromBlock", fromBlock);
+            object.addProperty("toBlock", toBlock);
+            object.add("topics", RpcApiParameter.array(topics));
+            object.addProperty("blockHash", blockHash);
+            return object;
+        }
+
     }
 
     /**
@@ -89,7 +113,7 @@ public class EthGetLogsRequest extends RpcApiRequest {
                               @NotNull String blockHash,
                               @NotNull String logIndex,
                               boolean removed) {
-        public final static Type LIST_TYPE = new TypeToken<ArrayList<LogResponse>>() {
+        public final static Type LIST_TYPE = new TypeToken<List<LogResponse>>() {
         }.getType();
     }
 
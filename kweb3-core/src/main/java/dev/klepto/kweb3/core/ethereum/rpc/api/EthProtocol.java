@@ -1,14 +1,18 @@
 package dev.klepto.kweb3.core.ethereum.rpc.api;
 
+import com.google.gson.JsonElement;
 import dev.klepto.kweb3.core.Web3Result;
-import dev.klepto.kweb3.core.ethereum.rpc.RpcClient;
+import dev.klepto.kweb3.core.ethereum.rpc.LogRangeScanner;
+import dev.klepto.kweb3.core.ethereum.rpc.RpcRequest;
+import dev.klepto.kweb3.core.ethereum.rpc.SubscriptionPublisher;
+import dev.klepto.kweb3.core.ethereum.rpc.SubscriptionPublisher.OverflowPolicy;
 import lombok.val;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.List;
-
-import static dev.klepto.kweb3.core.util.Conditions.require;
+import java.util.concurrent.Flow;
+import java.util.function.Consumer;
 
 /**
  * @author <a href="http://github.com/klepto">Augustinas R.</a>
@@ -16,15 +20,11 @@ import static dev.klepto.kweb3.core.util.Conditions.require;
 public interface EthProtocol {
 
     /**
-     * Returns the current client.
+     * Dispatches the specified request to a connected node.
      *
-     * @return the current client
+     * @param request the request to send
      */
-    @NotNull
-    default RpcClient client() {
-        require(this instanceof RpcClient, "EthProtocol must be RpcClient");
-        return (RpcClient) this;
-    }
+    void request(@NotNull RpcRequest request);
 
     /**
      * Returns the current latest block number.
@@ -34,7 +34,7 @@ public interface EthProtocol {
     @NotNull
     default Web3Result<String> ethBlockNumber() {
         val request = new EthBlockNumberRequest();
-        client().request(request);
+        request(request);
         return request.resultAsString();
     }
 
@@ -61,7 +61,7 @@ public interface EthProtocol {
                                        @NotNull String data,
                                        @Nullable String blockNumber) {
         val request = new EthCallRequest(from, to, gas, gasPrice, value, data, blockNumber);
-        client().request(request);
+        request(request);
         return request.resultAsString();
     }
 
@@ -88,7 +88,7 @@ public interface EthProtocol {
                                               @NotNull String data,
                                               @Nullable String blockNumber) {
         val request = new EthEstimateGasRequest(from, to, gas, gasPrice, value, data, blockNumber);
-        client().request(request);
+        request(request);
         return request.resultAsString();
     }
 
@@ -100,7 +100,7 @@ public interface EthProtocol {
     @NotNull
     default Web3Result<String> ethGasPrice() {
         val request = new EthGasPriceRequest();
-        client().request(request);
+        request(request);
         return request.resultAsString();
     }
 
@@ -113,7 +113,7 @@ public interface EthProtocol {
     @NotNull
     default Web3Result<EthBlockRequest.BlockResponse> ethGetBlockByNumber(String blockNumber) {
         val request = new EthBlockRequest.ByNumber(blockNumber);
-        client().request(request);
+        request(request);
         return request.decode();
     }
 
@@ -126,7 +126,7 @@ public interface EthProtocol {
     @NotNull
     default Web3Result<EthBlockRequest.BlockResponse> ethGetBlockByHash(@NotNull String blockHash) {
         val request = new EthBlockRequest.ByHash(blockHash);
-        client().request(request);
+        request(request);
         return request.decode();
     }
 
@@ -148,10 +148,30 @@ public interface EthProtocol {
                                                                        @Nullable String[] topics,
                                                                        @Nullable String blockHash) {
         val request = new EthGetLogsRequest(addresses, fromBlock, toBlock, topics, blockHash);
-        client().request(request);
+        request(request);
         return request.decode();
     }
 
+    /**
+     * Returns a publisher of logs matching the filters within the block range. The range is fetched in chunks with
+     * parallel <code>eth_getLogs</code> requests, chunks rejected by the node are bisected and retried, and logs are
+     * delivered in block order as they are requested.
+     *
+     * @param addresses the array of smart contract address filters or <code>null</code>
+     * @param topics    the array of topics filters or <code>null</code>
+     * @param fromBlock the first block of the range
+     * @param toBlock   the last block of the range, inclusive
+     * @return the publisher of logs
+     * @see LogRangeScanner
+     */
+    @NotNull
+    default Flow.Publisher<EthGetLogsRequest.LogResponse> scanLogs(@Nullable String[] addresses,
+                                                                     @Nullable String[] topics,
+                                                                     long fromBlock,
+                                                                     long toBlock) {
+        return new LogRangeScanner(this, addresses, topics, fromBlock, toBlock);
+    }
+
     /**
      * Submits a pre-signed transaction for broadcast to the Ethereum network.
      *
@@ -162,7 +182,7 @@ public interface EthProtocol {
     @NotNull
     default Web3Result<String> ethSendRawTransaction(@NotNull String signedTransactionData) {
         val request = new EthSendRawTransactionRequest(signedTransactionData);
-        client().request(request);
+        request(request);
         return request.resultAsString();
     }
 
@@ -183,10 +203,114 @@ public interface EthProtocol {
                                             @Nullable String address,
                                             @Nullable String[] topics) {
         val request = new EthSubscribeRequest(method, address, topics);
-        client().request(request);
+        request(request);
         return request.resultAsString();
     }
 
+    /**
+     * Subscribes to specific events on the Ethereum network and delivers every notification of the subscription to the
+     * given handler. Notifications are delivered in order, one at a time, on the shared executor rather than the
+     * connection thread. The handler is removed once the subscription is cancelled using <code>eth_unsubscribe</code>.
+     *
+     * @param method  the subscription method, <code>newHeads</code>, <code>logs</code>,
+     *                <code>newPendingTransactions</code> or <code>syncing</code>
+     * @param address the smart contract address filter or <code>null</code>, only applicable to <code>logs</code>
+     *                method
+     * @param topics  the array of topics filters or <code>null</code>, only applicable to <code>logs</code> method
+     * @param handler the handler that receives the <code>result</code> of every notification
+     * @return a unique subscription id that can be used to unsubscribe
+     */
+    @NotNull
+    default Web3Result<String> ethSubscribe(@NotNull String method,
+                                            @Nullable String address,
+                                            @Nullable String[] topics,
+                                            @NotNull Consumer<JsonElement> handler) {
+        val request = new EthSubscribeRequest(method, address, topics, handler);
+        request(request);
+        return request.resultAsString();
+    }
+
+    /**
+     * Returns a publisher of new block headers, starting a new <code>newHeads</code> subscription for every subscriber.
+     * Up to {@link SubscriptionPublisher#DEFAULT_BUFFER_SIZE} headers are buffered per subscriber, dropping the oldest
+     * ones once the buffer is full.
+     *
+     * @return the publisher of block headers
+     */
+    @NotNull
+    default Flow.Publisher<EthBlockRequest.BlockResponse> newHeadsPublisher() {
+        return newHeadsPublisher(SubscriptionPublisher.DEFAULT_BUFFER_SIZE, OverflowPolicy.DROP_OLDEST);
+    }
+
+    /**
+     * Returns a publisher of new block headers, starting a new <code>newHeads</code> subscription for every subscriber.
+     *
+     * @param bufferSize     the maximum number of buffered headers per subscriber
+     * @param overflowPolicy the policy for headers received while the buffer is full
+     * @return the publisher of block headers
+     */
+    @NotNull
+    default Flow.Publisher<EthBlockRequest.BlockResponse> newHeadsPublisher(int bufferSize,
+                                                                              @NotNull OverflowPolicy overflowPolicy) {
+        return new SubscriptionPublisher<>(
+                this, "newHeads", null, null,
+                result -> RpcApiMessage.GSON.fromJson(result, EthBlockRequest.BlockResponse.class),
+                bufferSize, overflowPolicy
+        );
+    }
+
+    /**
+     * Returns a publisher of logs matching the filters, starting a new <code>logs</code> subscription for every
+     * subscriber.
+     *
+     * @param address        the smart contract address filter or <code>null</code>
+     * @param topics         the array of topics filters or <code>null</code>
+     * @param bufferSize     the maximum number of buffered logs per subscriber
+     * @param overflowPolicy the policy for logs received while the buffer is full
+     * @return the publisher of logs
+     */
+    @NotNull
+    default Flow.Publisher<EthGetLogsRequest.LogResponse> logsPublisher(@Nullable String address,
+                                                                          @Nullable String[] topics,
+                                                                          int bufferSize,
+                                                                          @NotNull OverflowPolicy overflowPolicy) {
+        return new SubscriptionPublisher<>(
+                this, "logs", address, topics,
+                result -> RpcApiMessage.GSON.fromJson(result, EthGetLogsRequest.LogResponse.class),
+                bufferSize, overflowPolicy
+        );
+    }
+
+    /**
+     * Returns a publisher of pending transaction hashes, starting a new <code>newPendingTransactions</code>
+     * subscription for every subscriber. Up to {@link SubscriptionPublisher#DEFAULT_BUFFER_SIZE} hashes are buffered
+     * per subscriber, dropping the oldest ones once the buffer is full.
+     *
+     * @return the publisher of transaction hashes
+     */
+    @NotNull
+    default Flow.Publisher<String> pendingTransactionsPublisher() {
+        return pendingTransactionsPublisher(SubscriptionPublisher.DEFAULT_BUFFER_SIZE, OverflowPolicy.DROP_OLDEST);
+    }
+
+    /**
+     * Returns a publisher of pending transaction hashes, starting a new <code>newPendingTransactions</code>
+     * subscription for every subscriber.
+     *
+     * @param bufferSize     the maximum number of buffered hashes per subscriber
+     * @param overflowPolicy the policy for hashes received while the buffer is full
+     * @return the publisher of transaction hashes
+     */
+    @NotNull
+    default Flow.Publisher<String> pendingTransactionsPublisher(int bufferSize,
+                                                                @NotNull OverflowPolicy overflowPolicy) {
+        return new SubscriptionPublisher<>(
+                this, "newPendingTransactions", null, null,
+                JsonElement::getAsString,
+                bufferSize, overflowPolicy
+        );
+    }
+
     /**
      * Unsubscribes from specific events on the Ethereum network, to which the client has been previously subscribed
      * using <code>eth_subscribe</code>. The client must provide the <code>subscriptionId</code> obtained from
@@ -198,7 +322,7 @@ public interface EthProtocol {
     @NotNull
     default Web3Result<Boolean> ethUnsubscribe(@NotNull String subscriptionId) {
         val request = new EthUnsubscribeRequest(subscriptionId);
-        client().request(request);
+        request(request);
         return request.result().map(response -> response.resultAs(boolean.class));
     }
 
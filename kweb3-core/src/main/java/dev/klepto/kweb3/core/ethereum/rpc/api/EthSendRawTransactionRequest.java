@@ -1,7 +1,10 @@
 package dev.klepto.kweb3.core.ethereum.rpc.api;
 
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
+import lombok.val;
 import org.jetbrains.annotations.NotNull;
 
 /**
@@ -32,7 +35,16 @@ public class EthSendRawTransactionRequest extends RpcApiRequest {
      *
      * @param data the signed transaction data (typically signed with a library, using your private key)
      */
-    private record TransactionParameter(@NotNull String data) {
+    private record TransactionParameter(@NotNull String data) implements RpcApiParameter {
+
+        @NotNull
+        @Override
+        public JsonElement toJson() {
+            val object = new JsonObject();
+            object.addProperty("data", data);
+            return object;
+        }
+
     }
 
 }
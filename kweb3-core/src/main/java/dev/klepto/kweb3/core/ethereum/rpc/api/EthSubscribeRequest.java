@@ -1,12 +1,16 @@
 package dev.klepto.kweb3.core.ethereum.rpc.api;
 
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import dev.klepto.kweb3.core.ethereum.rpc.RpcClient;
+import dev.klepto.kweb3.core.ethereum.rpc.RpcMessage;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.val;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Implementation of Ethereum RPC API <code>eth_subscribe</code> method.
@@ -20,6 +24,18 @@ public class EthSubscribeRequest extends RpcApiRequest {
     private final @NotNull String method;
     private final @Nullable String address;
     private final @Nullable String[] topics;
+    private final @Nullable Consumer<JsonElement> handler;
+
+    /**
+     * Constructs a new {@link EthSubscribeRequest} without a notification handler.
+     *
+     * @param method  the subscription method
+     * @param address the smart contract address filter or <code>null</code>
+     * @param topics  the array of topics filters or <code>null</code>
+     */
+    public EthSubscribeRequest(@NotNull String method, @Nullable String address, @Nullable String[] topics) {
+        this(method, address, topics, null);
+    }
 
     /**
      * Encodes the request object into an API message.
@@ -28,11 +44,34 @@ public class EthSubscribeRequest extends RpcApiRequest {
      */
     @Override
     public RpcApiRequestMessage encode() {
-        val hasParameters = address != null || topics != null;
-        val parameters = hasParameters ? List.of(method, new SubscribeParameters(address, topics)) : method;
-        return new RpcApiRequestMessage()
-                .withMethod("eth_subscribe")
-                .withParams(parameters);
+        val message = new RpcApiRequestMessage().withMethod("eth_subscribe");
+        if (address != null || topics != null) {
+            return message.withParams(method, new SubscribeParameters(address, topics));
+        }
+        return message.withParams(method);
+    }
+
+    /**
+     * Registers the notification handler with the client before completing the request, so that no notification of
+     * the new subscription is missed.
+     *
+     * @param client  the client that received the message
+     * @param message the message to check
+     * @return true if this request should be marked as completed
+     */
+    @Override
+    public boolean isComplete(@NotNull RpcClient client, @NotNull RpcMessage message) {
+        if (handler != null
+                && message instanceof RpcApiResponseMessage response
+                && response.id() != null
+                && response.id() == id()
+                && response.error() == null) {
+            val subscriptionId = response.resultAsString();
+            if (subscriptionId != null) {
+                client.subscriptions().register(subscriptionId, handler);
+            }
+        }
+        return super.isComplete(client, message);
     }
 
     /**
@@ -42,6 +81,16 @@ public class EthSubscribeRequest extends RpcApiRequest {
      * @param topics  the array of topics filters
      */
     private record SubscribeParameters(@Nullable String address,
-                                       @Nullable String[] topics) {
+                                       @Nullable String[] topics) implements RpcApiParameter {
+
+        @NotNull
+        @Override
+        public JsonElement toJson() {
+            val object = new JsonObject();
+            object.addProperty("address", address);
+            object.add("topics", RpcApiParameter.array(topics));
+            return object;
+        }
+
     }
 }
@@ -1,5 +1,7 @@
 package dev.klepto.kweb3.core.ethereum.rpc.api;
 
+import dev.klepto.kweb3.core.ethereum.rpc.RpcClient;
+import dev.klepto.kweb3.core.ethereum.rpc.RpcMessage;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import org.jetbrains.annotations.NotNull;
@@ -27,4 +29,20 @@ public class EthUnsubscribeRequest extends RpcApiRequest {
                 .withParams(subscriptionId);
     }
 
+    /**
+     * Removes the notification handler of the subscription from the client once the request is completed.
+     *
+     * @param client  the client that received the message
+     * @param message the message to check
+     * @return true if this request should be marked as completed
+     */
+    @Override
+    public boolean isComplete(@NotNull RpcClient client, @NotNull RpcMessage message) {
+        if (!super.isComplete(client, message)) {
+            return false;
+        }
+        client.subscriptions().unregister(subscriptionId);
+        return true;
+    }
+
 }
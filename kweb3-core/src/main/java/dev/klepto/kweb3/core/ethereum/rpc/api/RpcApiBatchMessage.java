@@ -0,0 +1,39 @@
+package dev.klepto.kweb3.core.ethereum.rpc.api;
+
+import dev.klepto.kweb3.core.ethereum.rpc.RpcMessage;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+
+/**
+ * Represents ethereum JSON RPC batch request, multiple messages that are sent to the endpoint as a single JSON array.
+ *
+ * @param messages the messages contained in this batch
+ * @author <a href="http://github.com/klepto">Augustinas R.</a>
+ */
+public record RpcApiBatchMessage(@NotNull List<RpcApiMessage> messages) implements RpcMessage {
+
+    /**
+     * Batch messages don't have an id, responses are routed by ids of each contained message.
+     *
+     * @return always <code>null</code>
+     */
+    @Nullable
+    @Override
+    public Long id() {
+        return null;
+    }
+
+    /**
+     * Serializes the batch into a JSON array string.
+     *
+     * @return the JSON array string containing all messages of this batch
+     */
+    @NotNull
+    @Override
+    public String serialize() {
+        return RpcApiMessage.encode(messages);
+    }
+
+}
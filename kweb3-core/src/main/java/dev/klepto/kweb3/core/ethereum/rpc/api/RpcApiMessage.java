@@ -1,18 +1,14 @@
 package dev.klepto.kweb3.core.ethereum.rpc.api;
 
 import com.google.gson.Gson;
-import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import dev.klepto.kweb3.core.ethereum.rpc.RpcMessage;
-import lombok.val;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.ArrayList;
+import java.io.StringReader;
 import java.util.List;
 
-import static dev.klepto.kweb3.core.util.Conditions.require;
-
 /**
  * @author <a href="http://github.com/klepto">Augustinas R.</a>
  */
@@ -29,11 +25,12 @@ public interface RpcApiMessage extends RpcMessage {
     String JSON_VERSION = "2.0";
 
     /**
-     * Returns the message id, or <code>-1</code> if the message does not have an id.
+     * Returns the message id, or <code>null</code> if the message does not have an id.
      *
-     * @return the message id or <code>-1</code>
+     * @return the message id or <code>null</code>
      */
     @Nullable
+    @Override
     Long id();
 
     /**
@@ -54,7 +51,7 @@ public interface RpcApiMessage extends RpcMessage {
      */
     @NotNull
     default String serialize() {
-        return GSON.toJson(this);
+        return RpcApiMessageWriter.write(this);
     }
 
     /**
@@ -65,7 +62,7 @@ public interface RpcApiMessage extends RpcMessage {
      */
     @NotNull
     static String encode(RpcApiMessage request) {
-        return GSON.toJson(request);
+        return RpcApiMessageWriter.write(request);
     }
 
     /**
@@ -76,7 +73,7 @@ public interface RpcApiMessage extends RpcMessage {
      */
     @NotNull
     static String encode(List<RpcApiMessage> requests) {
-        return GSON.toJson(requests);
+        return RpcApiMessageWriter.write(requests);
     }
 
     /**
@@ -87,18 +84,7 @@ public interface RpcApiMessage extends RpcMessage {
      */
     @NotNull
     static List<RpcApiMessage> decode(String response) {
-        val element = GSON.fromJson(response, JsonElement.class);
-        if (element.isJsonObject()) {
-            return List.of(decode(element.getAsJsonObject()));
-        }
-
-        require(element.isJsonArray(), "Response is not a valid JSON array.");
-        val array = element.getAsJsonArray();
-        val messages = new ArrayList<RpcApiMessage>(array.size());
-        for (int i = 0; i < array.size(); i++) {
-            messages.add(decode(array.get(i).getAsJsonObject()));
-        }
-        return messages;
+        return RpcApiMessageDecoder.decode(new StringReader(response), RpcApiMessageDecoder.TypeResolver.NONE);
     }
 
     /**
@@ -0,0 +1,151 @@
+package dev.klepto.kweb3.core.ethereum.rpc.api;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import dev.klepto.kweb3.core.Web3Error;
+import lombok.val;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+
+import static dev.klepto.kweb3.core.ethereum.rpc.api.RpcApiMessage.GSON;
+import static dev.klepto.kweb3.core.ethereum.rpc.api.RpcApiMessage.JSON_VERSION;
+
+/**
+ * Streaming decoder of JSON-RPC messages. Messages are read token by token with {@link JsonReader}, the
+ * <code>id</code> of a response is used to look up the type of its <code>result</code>, which is then decoded straight
+ * from the stream without building an intermediate {@link JsonElement} tree. Results of unknown type, results that
+ * precede the <code>id</code> and request parameters are kept as JSON trees.
+ *
+ * @author <a href="http://github.com/klepto">Augustinas R.</a>
+ */
+public final class RpcApiMessageDecoder {
+
+    private RpcApiMessageDecoder() {
+    }
+
+    /**
+     * Decodes a single message or a batch of messages from the reader.
+     *
+     * @param reader      the reader of the response
+     * @param resultTypes the resolver of result types by message id
+     * @return a messages list
+     * @throws Web3Error if the response is not a valid JSON-RPC response
+     */
+    @NotNull
+    public static List<RpcApiMessage> decode(@NotNull Reader reader, @NotNull TypeResolver resultTypes) {
+        try (val json = new JsonReader(reader)) {
+            val token = json.peek();
+            if (token == JsonToken.BEGIN_OBJECT) {
+                return List.of(decodeMessage(json, resultTypes));
+            }
+
+            if (token != JsonToken.BEGIN_ARRAY) {
+                throw new Web3Error("Response is not a valid JSON array.");
+            }
+
+            val messages = new ArrayList<RpcApiMessage>();
+            json.beginArray();
+            while (json.hasNext()) {
+                messages.add(decodeMessage(json, resultTypes));
+            }
+            json.endArray();
+            return messages;
+        } catch (IOException | JsonParseException | IllegalStateException | NumberFormatException cause) {
+            throw new Web3Error("Malformed JSON-RPC response: {}", cause.getMessage());
+        }
+    }
+
+    /**
+     * Decodes a single message object from the reader.
+     *
+     * @param json        the json reader positioned at the beginning of the message object
+     * @param resultTypes the resolver of result types by message id
+     * @return an RPC message object
+     */
+    @NotNull
+    private static RpcApiMessage decodeMessage(@NotNull JsonReader json,
+                                               @NotNull TypeResolver resultTypes) throws IOException {
+        var jsonrpc = JSON_VERSION;
+        Long id = null;
+        String method = null;
+        JsonElement params = null;
+        JsonElement result = null;
+        Object decoded = null;
+        RpcApiResponseMessage.Error error = null;
+
+        json.beginObject();
+        while (json.hasNext()) {
+            switch (json.nextName()) {
+                case "jsonrpc" -> jsonrpc = json.nextString();
+                case "id" -> id = nextId(json);
+                case "method" -> method = json.nextString();
+                case "params" -> params = JsonParser.parseReader(json);
+                case "error" -> error = GSON.fromJson(json, RpcApiResponseMessage.Error.class);
+                case "result" -> {
+                    val type = id != null ? resultTypes.resultType(id) : null;
+                    if (type != null) {
+                        decoded = GSON.fromJson(json, type);
+                    } else {
+                        result = JsonParser.parseReader(json);
+                    }
+                }
+                default -> json.skipValue();
+            }
+        }
+        json.endObject();
+
+        if (method != null) {
+            return new RpcApiRequestMessage(jsonrpc, id, method, params != null ? params : new JsonArray());
+        }
+        return new RpcApiResponseMessage(jsonrpc, id, result, decoded, error);
+    }
+
+    /**
+     * Reads the message id, which is <code>null</code> for notifications.
+     *
+     * @param json the json reader positioned at the id value
+     * @return the message id or <code>null</code>
+     */
+    @Nullable
+    private static Long nextId(@NotNull JsonReader json) throws IOException {
+        if (json.peek() == JsonToken.NULL) {
+            json.nextNull();
+            return null;
+        }
+        return json.nextLong();
+    }
+
+    /**
+     * Resolves the type a response <code>result</code> is decoded into.
+     */
+    @FunctionalInterface
+    public interface TypeResolver {
+
+        /**
+         * Resolver that keeps every result as a JSON tree.
+         */
+        TypeResolver NONE = id -> null;
+
+        /**
+         * Returns the result type of the response with the given id, or <code>null</code> if the result should be
+         * kept as a JSON tree.
+         *
+         * @param id the message id
+         * @return the result type, or <code>null</code>
+         */
+        @Nullable
+        Type resultType(long id);
+
+    }
+
+}
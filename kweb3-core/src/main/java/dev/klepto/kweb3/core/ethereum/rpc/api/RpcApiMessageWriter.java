@@ -0,0 +1,272 @@
+package dev.klepto.kweb3.core.ethereum.rpc.api;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonPrimitive;
+import lombok.val;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collection;
+import java.util.List;
+
+import static dev.klepto.kweb3.core.ethereum.rpc.api.RpcApiMessage.GSON;
+
+/**
+ * Reflection-free serializer of JSON-RPC messages. The fixed message envelope and parameter trees are written by hand
+ * into a per-thread buffer that is reused between messages. Parameters of unknown types and messages other than
+ * requests and responses fall back to {@link RpcApiMessage#GSON}.
+ *
+ * @author <a href="http://github.com/klepto">Augustinas R.</a>
+ */
+public final class RpcApiMessageWriter {
+
+    /**
+     * The maximum capacity of a buffer kept for reuse, larger buffers are released after writing.
+     */
+    public static final int MAX_BUFFER_CAPACITY = 64 * 1024;
+
+    private static final ThreadLocal<StringBuilder> BUFFERS = ThreadLocal.withInitial(() -> new StringBuilder(1024));
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private RpcApiMessageWriter() {
+    }
+
+    /**
+     * Serializes the message into a JSON string.
+     *
+     * @param message the message
+     * @return the JSON string representation of the message
+     */
+    @NotNull
+    public static String write(@NotNull RpcApiMessage message) {
+        val buffer = buffer();
+        writeMessage(buffer, message);
+        return release(buffer);
+    }
+
+    /**
+     * Serializes the messages into a JSON array string.
+     *
+     * @param messages the messages
+     * @return the JSON array string containing all messages
+     */
+    @NotNull
+    public static String write(@NotNull List<? extends RpcApiMessage> messages) {
+        val buffer = buffer();
+        buffer.append('[');
+        for (var i = 0; i < messages.size(); i++) {
+            if (i > 0) {
+                buffer.append(',');
+            }
+            writeMessage(buffer, messages.get(i));
+        }
+        buffer.append(']');
+        return release(buffer);
+    }
+
+    /**
+     * Converts request parameters into a JSON array. Strings, numbers, booleans, arrays, collections, JSON elements
+     * and {@link RpcApiParameter} objects are converted without reflection.
+     *
+     * @param params the parameters
+     * @return the JSON array of parameters
+     */
+    @NotNull
+    public static JsonArray toJson(@NotNull Object[] params) {
+        val array = new JsonArray(params.length);
+        for (val param : params) {
+            array.add(toJson(param));
+        }
+        return array;
+    }
+
+    /**
+     * Converts a single parameter into JSON.
+     *
+     * @param value the parameter value
+     * @return the JSON representation of the value
+     */
+    @NotNull
+    private static JsonElement toJson(@Nullable Object value) {
+        if (value == null) {
+            return JsonNull.INSTANCE;
+        } else if (value instanceof JsonElement element) {
+            return element;
+        } else if (value instanceof RpcApiParameter parameter) {
+            return parameter.toJson();
+        } else if (value instanceof String string) {
+            return new JsonPrimitive(string);
+        } else if (value instanceof Number number) {
+            return new JsonPrimitive(number);
+        } else if (value instanceof Boolean bool) {
+            return new JsonPrimitive(bool);
+        } else if (value instanceof Object[] values) {
+            return toJson(values);
+        } else if (value instanceof Collection<?> values) {
+            return toJson(values.toArray());
+        }
+        return GSON.toJsonTree(value);
+    }
+
+    /**
+     * Writes a message into the buffer.
+     *
+     * @param buffer  the buffer
+     * @param message the message
+     */
+    private static void writeMessage(@NotNull StringBuilder buffer, @NotNull RpcApiMessage message) {
+        if (message instanceof RpcApiRequestMessage request) {
+            writeEnvelope(buffer, request.jsonrpc(), request.id());
+            buffer.append(",\"method\":");
+            writeString(buffer, request.method());
+            if (request.params() != null && !request.params().isJsonNull()) {
+                buffer.append(",\"params\":");
+                writeElement(buffer, request.params());
+            }
+            buffer.append('}');
+        } else if (message instanceof RpcApiResponseMessage response) {
+            writeEnvelope(buffer, response.jsonrpc(), response.id());
+            if (response.result() != null && !response.result().isJsonNull()) {
+                buffer.append(",\"result\":");
+                writeElement(buffer, response.result());
+            } else if (response.decoded() != null) {
+                buffer.append(",\"result\":");
+                writeElement(buffer, GSON.toJsonTree(response.decoded()));
+            }
+            if (response.error() != null) {
+                buffer.append(",\"error\":{\"code\":").append(response.error().code()).append(",\"message\":");
+                writeString(buffer, response.error().message());
+                buffer.append('}');
+            }
+            buffer.append('}');
+        } else {
+            buffer.append(GSON.toJson(message));
+        }
+    }
+
+    /**
+     * Writes the opening of a message object with its version and id.
+     *
+     * @param buffer  the buffer
+     * @param jsonrpc the json rpc version
+     * @param id      the message id, or <code>null</code>
+     */
+    private static void writeEnvelope(@NotNull StringBuilder buffer, @NotNull String jsonrpc, @Nullable Long id) {
+        buffer.append("{\"jsonrpc\":");
+        writeString(buffer, jsonrpc);
+        if (id != null) {
+            buffer.append(",\"id\":").append(id.longValue());
+        }
+    }
+
+    /**
+     * Writes a JSON element into the buffer. Object members with <code>null</code> values are omitted.
+     *
+     * @param buffer  the buffer
+     * @param element the element
+     */
+    private static void writeElement(@NotNull StringBuilder buffer, @NotNull JsonElement element) {
+        if (element.isJsonPrimitive()) {
+            val primitive = element.getAsJsonPrimitive();
+            if (primitive.isString()) {
+                writeString(buffer, primitive.getAsString());
+            } else if (primitive.isBoolean()) {
+                buffer.append(primitive.getAsBoolean());
+            } else {
+                buffer.append(primitive.getAsNumber());
+            }
+        } else if (element.isJsonArray()) {
+            val array = element.getAsJsonArray();
+            buffer.append('[');
+            for (var i = 0; i < array.size(); i++) {
+                if (i > 0) {
+                    buffer.append(',');
+                }
+                writeElement(buffer, array.get(i));
+            }
+            buffer.append(']');
+        } else if (element.isJsonObject()) {
+            buffer.append('{');
+            var first = true;
+            for (val entry : element.getAsJsonObject().entrySet()) {
+                if (entry.getValue().isJsonNull()) {
+                    continue;
+                }
+                if (!first) {
+                    buffer.append(',');
+                }
+                first = false;
+                writeString(buffer, entry.getKey());
+                buffer.append(':');
+                writeElement(buffer, entry.getValue());
+            }
+            buffer.append('}');
+        } else {
+            buffer.append("null");
+        }
+    }
+
+    /**
+     * Writes a quoted and escaped JSON string into the buffer.
+     *
+     * @param buffer the buffer
+     * @param value  the string value
+     */
+    private static void writeString(@NotNull StringBuilder buffer, @NotNull String value) {
+        buffer.append('"');
+        var start = 0;
+        for (var i = 0; i < value.length(); i++) {
+            val c = value.charAt(i);
+            if (c >= 0x20 && c != '"' && c != '\\' && c != 0x2028 && c != 0x2029) {
+                continue;
+            }
+
+            buffer.append(value, start, i);
+            start = i + 1;
+            switch (c) {
+                case '"' -> buffer.append("\\\"");
+                case '\\' -> buffer.append("\\\\");
+                case '\n' -> buffer.append("\\n");
+                case '\r' -> buffer.append("\\r");
+                case '\t' -> buffer.append("\\t");
+                default -> buffer.append("\\u")
+                        .append(HEX[(c >> 12) & 0xF])
+                        .append(HEX[(c >> 8) & 0xF])
+                        .append(HEX[(c >> 4) & 0xF])
+                        .append(HEX[c & 0xF]);
+            }
+        }
+        buffer.append(value, start, value.length());
+        buffer.append('"');
+    }
+
+    /**
+     * Returns the empty buffer of the current thread.
+     *
+     * @return the buffer
+     */
+    @NotNull
+    private static StringBuilder buffer() {
+        val buffer = BUFFERS.get();
+        buffer.setLength(0);
+        return buffer;
+    }
+
+    /**
+     * Returns the contents of the buffer, releasing the buffer if it grew over {@link #MAX_BUFFER_CAPACITY}.
+     *
+     * @param buffer the buffer
+     * @return the contents of the buffer
+     */
+    @NotNull
+    private static String release(@NotNull StringBuilder buffer) {
+        val result = buffer.toString();
+        if (buffer.capacity() > MAX_BUFFER_CAPACITY) {
+            BUFFERS.remove();
+        }
+        return result;
+    }
+
+}
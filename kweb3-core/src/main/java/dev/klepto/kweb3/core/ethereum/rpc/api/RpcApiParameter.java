@@ -0,0 +1,46 @@
+package dev.klepto.kweb3.core.ethereum.rpc.api;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import lombok.val;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Represents a JSON-RPC request parameter object that converts itself into JSON without reflection. Parameters that
+ * don't implement this interface are converted by {@link RpcApiMessage#GSON}. Members with <code>null</code> values are
+ * omitted when the message is serialized.
+ *
+ * @author <a href="http://github.com/klepto">Augustinas R.</a>
+ */
+public interface RpcApiParameter {
+
+    /**
+     * Converts this parameter into JSON.
+     *
+     * @return the JSON representation of this parameter
+     */
+    @NotNull
+    JsonElement toJson();
+
+    /**
+     * Converts an array of strings into a JSON array.
+     *
+     * @param values the values, or <code>null</code>
+     * @return the JSON array, or {@link JsonNull} if values are <code>null</code>
+     */
+    @NotNull
+    static JsonElement array(@Nullable String[] values) {
+        if (values == null) {
+            return JsonNull.INSTANCE;
+        }
+
+        val array = new JsonArray(values.length);
+        for (val value : values) {
+            array.add(value);
+        }
+        return array;
+    }
+
+}
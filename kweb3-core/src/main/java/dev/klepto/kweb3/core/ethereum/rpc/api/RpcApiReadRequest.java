@@ -0,0 +1,21 @@
+package dev.klepto.kweb3.core.ethereum.rpc.api;
+
+/**
+ * Base of API requests that only read chain state. Such requests have no side effects, so they are idempotent and
+ * can be hedged or shared between identical in-flight requests.
+ *
+ * @author <a href="http://github.com/klepto">Augustinas R.</a>
+ */
+public abstract class RpcApiReadRequest extends RpcApiRequest {
+
+    /**
+     * Returns true, reading chain state can be repeated on any node without changing it.
+     *
+     * @return true
+     */
+    @Override
+    public final boolean isIdempotent() {
+        return true;
+    }
+
+}
@@ -8,6 +8,11 @@ import dev.klepto.kweb3.core.ethereum.rpc.RpcRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.val;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.reflect.Type;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static dev.klepto.kweb3.core.util.Conditions.require;
 
@@ -18,6 +23,9 @@ import static dev.klepto.kweb3.core.util.Conditions.require;
 public abstract class RpcApiRequest implements RpcRequest {
 
     private final Web3Result<RpcApiResponseMessage> result = new Web3Result<>();
+    private final AtomicInteger attempts = new AtomicInteger(1);
+    private volatile long id = -1;
+    private volatile String method = "unknown";
 
     /**
      * Encodes this request into a {@link RpcApiMessage}.
@@ -27,12 +35,23 @@ public abstract class RpcApiRequest implements RpcRequest {
     public abstract RpcApiRequestMessage encode();
 
     /**
-     * Returns the ID of this request.
+     * Returns the ID of this request, or <code>-1</code> if the request hasn't been sent yet.
      *
      * @return the ID of this request
      */
     public long id() {
-        return hashCode();
+        return id;
+    }
+
+    /**
+     * Returns the RPC method of this request, or <code>unknown</code> if the request hasn't been sent yet.
+     *
+     * @return the RPC method
+     */
+    @NotNull
+    @Override
+    public String method() {
+        return method;
     }
 
     /**
@@ -57,12 +76,15 @@ public abstract class RpcApiRequest implements RpcRequest {
      * Sends this request to the specified {@link RpcClient}.
      *
      * @param client the client to send the request to
+     * @param id     the client-generated id of this request
      * @return true if the request was successfully sent
      */
     @Override
-    public boolean send(@NotNull RpcClient client) {
+    public boolean send(@NotNull RpcClient client, long id) {
+        this.id = id;
         val message = encode();
-        return client.send(message.withId(id()));
+        this.method = message.method();
+        return client.send(message.withId(id));
     }
 
     /**
@@ -75,38 +97,148 @@ public abstract class RpcApiRequest implements RpcRequest {
      */
     @Override
     public boolean isComplete(@NotNull RpcClient client, @NotNull RpcMessage message) {
+        return complete(client, message, id);
+    }
+
+    /**
+     * Called when an error occurs while processing this request. Request is failed with the error, unless a hedged
+     * duplicate of this request is still awaiting a response.
+     *
+     * @param client the client that received the error
+     * @param error  the error that occurred
+     * @return always true
+     */
+    @Override
+    public boolean onError(@NotNull RpcClient client, @NotNull Throwable error) {
+        fail(client, error);
+        return true;
+    }
+
+    /**
+     * Creates a duplicate of this request that completes this request once answered, if this request is idempotent
+     * and not yet complete.
+     *
+     * @return the duplicate request, or <code>null</code> if this request cannot be hedged
+     */
+    @Nullable
+    @Override
+    public RpcRequest hedge() {
+        if (!isIdempotent() || result.isDone()) {
+            return null;
+        }
+        attempts.incrementAndGet();
+        return new Hedge(this);
+    }
+
+    /**
+     * Completes the result with the response message if the message id matches the expected id. Response is accepted
+     * from whichever attempt of this request is answered first, later responses are ignored. An error response only
+     * fails its own attempt, so an outstanding hedge can still complete the result. Result is completed on the
+     * completion executor of the client, if it has one.
+     *
+     * @param client     the client that received the message
+     * @param message    the message
+     * @param expectedId the id of the attempt
+     * @return true if the message was a response to the attempt
+     */
+    private boolean complete(@NotNull RpcClient client, @NotNull RpcMessage message, long expectedId) {
         if (!(message instanceof RpcApiMessage apiMessage)) {
             return false;
         }
 
         val id = apiMessage.id();
-        if (id == null || id != id()) {
+        if (id == null || id != expectedId) {
             return false;
         }
 
         require(message instanceof RpcApiResponseMessage, "Received message is not a response.");
         val responseMessage = (RpcApiResponseMessage) message;
         if (responseMessage.error() != null) {
-            result.completeExceptionally(new Web3Error(responseMessage.error().message()));
+            fail(client, new Web3Error(responseMessage.error().message()));
             return true;
         }
 
-        result.complete(responseMessage);
+        completeOn(client, () -> result.complete(responseMessage));
         return true;
     }
 
     /**
-     * Called when an error occurs while processing this request. Returns true if the request should be marked as
-     * completed.
+     * Fails a single attempt of this request. Result is only failed once all attempts have failed.
      *
-     * @param client the client that received the error
-     * @param error  the error that occurred
-     * @return true if error was a Web3Error, false otherwise
+     * @param client the client the attempt was sent to
+     * @param error  the error of the attempt
      */
-    @Override
-    public boolean onError(@NotNull RpcClient client, @NotNull Throwable error) {
-        result.completeExceptionally(error);
-        return true;
+    private void fail(@NotNull RpcClient client, @NotNull Throwable error) {
+        if (attempts.decrementAndGet() <= 0) {
+            completeOn(client, () -> result.completeExceptionally(error));
+        }
+    }
+
+    /**
+     * Runs the completion on the completion executor of the client, or directly if the client has no executor.
+     *
+     * @param client     the client
+     * @param completion the completion of the result
+     */
+    private static void completeOn(@NotNull RpcClient client, @NotNull Runnable completion) {
+        val executor = client.completionExecutor();
+        if (executor == null) {
+            completion.run();
+            return;
+        }
+
+        try {
+            executor.execute(completion);
+        } catch (RejectedExecutionException cause) {
+            completion.run();
+        }
+    }
+
+    /**
+     * Duplicate of a request that is sent to another node under its own id and completes the original request.
+     */
+    private static final class Hedge implements RpcRequest {
+
+        private final RpcApiRequest request;
+        private volatile long id = -1;
+
+        private Hedge(@NotNull RpcApiRequest request) {
+            this.request = request;
+        }
+
+        @Override
+        public boolean send(@NotNull RpcClient client, long id) {
+            this.id = id;
+            return client.send(request.encode().withId(id));
+        }
+
+        @Override
+        public boolean isComplete(@NotNull RpcClient client, @NotNull RpcMessage message) {
+            return request.complete(client, message, id);
+        }
+
+        @Override
+        public boolean onError(@NotNull RpcClient client, @NotNull Throwable error) {
+            request.fail(client, error);
+            return true;
+        }
+
+        @Override
+        public boolean isIdempotent() {
+            return true;
+        }
+
+        @NotNull
+        @Override
+        public String method() {
+            return request.method();
+        }
+
+        @Override
+        public Type resultType() {
+            return request.resultType();
+        }
+
     }
 
 }
@@ -27,12 +27,13 @@ public record RpcApiRequestMessage(@NotNull String jsonrpc,
     }
 
     /**
-     * Parameters builder that uses var-args for less-verbose request building.
+     * Parameters builder that uses var-args for less-verbose request building. Parameters are converted by
+     * {@link RpcApiMessageWriter#toJson(Object[])}.
      *
      * @param params the request parameter objects
      * @return a new request containing given parameter objects
      */
     public RpcApiRequestMessage withParams(Object... params) {
-        return new RpcApiRequestMessage(jsonrpc, id, method, GSON.toJsonTree(params));
+        return new RpcApiRequestMessage(jsonrpc, id, method, RpcApiMessageWriter.toJson(params));
     }
 }
\ No newline at end of file
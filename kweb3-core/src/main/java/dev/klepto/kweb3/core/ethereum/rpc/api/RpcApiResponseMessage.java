@@ -1,5 +1,6 @@
 package dev.klepto.kweb3.core.ethereum.rpc.api;
 
+import com.google.common.reflect.TypeToken;
 import com.google.gson.JsonElement;
 import lombok.With;
 import org.jetbrains.annotations.NotNull;
@@ -12,15 +13,33 @@ import java.lang.reflect.Type;
  *
  * @param jsonrpc the json rpc version
  * @param id      the unique identifier of the request this response is responding to
- * @param result  the response result or null if error occurred
+ * @param result  the response result or null if error occurred or the result was decoded while reading the response
+ * @param decoded the result decoded into {@link dev.klepto.kweb3.core.ethereum.rpc.RpcRequest#resultType()} while
+ *                reading the response, or null if the result is kept as a JSON tree
  * @param error   the error of the request or null if no error occurred
  */
 @With
 public record RpcApiResponseMessage(@NotNull String jsonrpc,
                                     @Nullable Long id,
                                     @Nullable JsonElement result,
+                                    @Nullable Object decoded,
                                     @Nullable Error error) implements RpcApiMessage {
 
+    /**
+     * Constructs a new {@link RpcApiResponseMessage} with the result kept as a JSON tree.
+     *
+     * @param jsonrpc the json rpc version
+     * @param id      the unique identifier of the request this response is responding to
+     * @param result  the response result or null if error occurred
+     * @param error   the error of the request or null if no error occurred
+     */
+    public RpcApiResponseMessage(@NotNull String jsonrpc,
+                                 @Nullable Long id,
+                                 @Nullable JsonElement result,
+                                 @Nullable Error error) {
+        this(jsonrpc, id, result, null, error);
+    }
+
     /**
      * Returns the result as string.
      *
@@ -28,6 +47,9 @@ public record RpcApiResponseMessage(@NotNull String jsonrpc,
      */
     @Nullable
     public String resultAsString() {
+        if (decoded != null) {
+            return decoded instanceof String string ? string : GSON.toJson(decoded);
+        }
         if (result == null) {
             return null;
         }
@@ -38,23 +60,32 @@ public record RpcApiResponseMessage(@NotNull String jsonrpc,
     }
 
     /**
-     * Returns the result as the specified type.
+     * Returns the result as the specified type. Result that was already decoded while reading the response is returned
+     * as is if it's an instance of the type.
      *
      * @param type the class type to convert the result to
      * @return the result as the specified type
      */
     public <T> T resultAs(Class<T> type) {
-        return GSON.fromJson(result, type);
+        return resultAs((Type) type);
     }
 
     /**
-     * Returns the result as the specified type.
+     * Returns the result as the specified type. Result that was already decoded while reading the response is returned
+     * as is if it's an instance of the raw type.
      *
      * @param type the type to convert the result to
      * @return the result as the specified type
      */
+    @SuppressWarnings("unchecked")
     public <T> T resultAs(Type type) {
-        return GSON.fromJson(result, type);
+        if (decoded == null) {
+            return GSON.fromJson(result, type);
+        }
+        if (TypeToken.of(type).getRawType().isInstance(decoded)) {
+            return (T) decoded;
+        }
+        return GSON.fromJson(GSON.toJsonTree(decoded), type);
     }
 
     /**
@@ -2,10 +2,18 @@ package dev.klepto.kweb3.core.ethereum.rpc.io;
 
 import dev.klepto.kweb3.core.chain.Web3Endpoint;
 import dev.klepto.kweb3.core.ethereum.rpc.RpcMessage;
-import dev.klepto.kweb3.core.ethereum.rpc.api.RpcApiMessage;
+import dev.klepto.kweb3.core.ethereum.rpc.api.RpcApiMessageDecoder;
+import dev.klepto.kweb3.core.ethereum.rpc.api.RpcApiRequestMessage;
+import dev.klepto.kweb3.core.metrics.Metrics;
+import dev.klepto.kweb3.core.metrics.jfr.RpcTransferEvent;
+import lombok.val;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
 import java.util.function.Consumer;
 
 /**
@@ -20,6 +28,7 @@ public abstract class AuthorizedRpcConnection implements RpcConnection {
     private final Consumer<RpcMessage> messageCallback;
     private final Consumer<Throwable> errorCallback;
     private final Runnable closeCallback;
+    private volatile RpcApiMessageDecoder.TypeResolver resultTypes = RpcApiMessageDecoder.TypeResolver.NONE;
 
     /**
      * Constructs a new {@link AuthorizedRpcConnection} for the specified endpoint.
@@ -61,23 +70,51 @@ public abstract class AuthorizedRpcConnection implements RpcConnection {
     }
 
     /**
-     * Asynchronously sends a message to the remote server.
+     * Asynchronously sends a message to the remote server. Size of the serialized message is reported to
+     * {@link Metrics} and flight recorder.
      *
      * @param message the message
      */
     @Override
     public void send(RpcMessage message) {
-        send(message.serialize());
+        val event = RpcTransferEvent.start();
+        val payload = message.serialize();
+        Metrics.get().bytesSent(endpoint, payload.length());
+        send(message, payload);
+        val method = message instanceof RpcApiRequestMessage request ? request.method() : null;
+        event.sent(endpoint, method, message.id(), payload.length());
     }
 
     /**
-     * Sends a message directly to the remote server, bypassing the internal executor. This method will not respect
-     * endpoint throttling constrains and may be blocking depending on the underlying implementation of the connection.
+     * Sends a message directly to the remote server. Endpoint throttling is applied by {@link ThrottledRpcConnection},
+     * calling this method directly bypasses it. May be blocking depending on the underlying implementation of the
+     * connection.
      *
      * @param message the message
      */
     public abstract void send(String message);
 
+    /**
+     * Sends the serialized message to the remote server. Connections that can attribute errors to the message that
+     * caused them override this method, by default the payload is sent with {@link #send(String)}.
+     *
+     * @param message the message
+     * @param payload the serialized message
+     */
+    protected void send(@NotNull RpcMessage message, @NotNull String payload) {
+        send(payload);
+    }
+
+
+    /**
+     * Sets the resolver of result types used to decode response results while reading them.
+     *
+     * @param resultTypes the resolver of result types by message id
+     */
+    @Override
+    public void resultTypes(@NotNull RpcApiMessageDecoder.TypeResolver resultTypes) {
+        this.resultTypes = resultTypes;
+    }
 
     /**
      * Receives a response from the remote server.
@@ -85,8 +122,43 @@ public abstract class AuthorizedRpcConnection implements RpcConnection {
      * @param response the response
      */
     public void receive(String response) {
+        val event = RpcTransferEvent.start();
+        Metrics.get().bytesReceived(endpoint, response.length());
+        decode(new StringReader(response));
+        event.received(endpoint, response.length());
+    }
+
+    /**
+     * Receives a response from the remote server, decoding messages while the response is being read. Results of
+     * responses are decoded straight into the types given by the result type resolver. If metrics or flight recorder
+     * events are enabled, the size of the response is counted while it's being read.
+     *
+     * @param response the response reader
+     */
+    public void receive(Reader response) {
+        val event = RpcTransferEvent.start();
+        if (!Metrics.isEnabled() && !event.isEnabled()) {
+            decode(response);
+            return;
+        }
+
+        val counter = new CountingReader(response);
+        try {
+            decode(counter);
+        } finally {
+            Metrics.get().bytesReceived(endpoint, counter.count);
+            event.received(endpoint, counter.count);
+        }
+    }
+
+    /**
+     * Decodes messages of the response and passes them to the message callback.
+     *
+     * @param response the response reader
+     */
+    private void decode(Reader response) {
         if (messageCallback != null) {
-            RpcApiMessage.decode(response)
+            RpcApiMessageDecoder.decode(response, resultTypes)
                     .forEach(this::messageCallback);
         }
     }
@@ -130,4 +202,42 @@ public abstract class AuthorizedRpcConnection implements RpcConnection {
         }
     }
 
+    /**
+     * Reader that counts the characters read from the underlying reader.
+     */
+    private static final class CountingReader extends FilterReader {
+
+        private long count;
+
+        private CountingReader(@NotNull Reader reader) {
+            super(reader);
+        }
+
+        @Override
+        public int read() throws IOException {
+            val read = super.read();
+            if (read >= 0) {
+                count++;
+            }
+            return read;
+        }
+
+        @Override
+        public int read(char @NotNull [] buffer, int offset, int length) throws IOException {
+            val read = super.read(buffer, offset, length);
+            if (read > 0) {
+                count += read;
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            val skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+
+    }
+
 }
@@ -0,0 +1,200 @@
+package dev.klepto.kweb3.core.ethereum.rpc.io;
+
+import dev.klepto.kweb3.core.chain.Web3Endpoint;
+import dev.klepto.kweb3.core.ethereum.rpc.RpcMessage;
+import dev.klepto.kweb3.core.ethereum.rpc.api.RpcApiBatchMessage;
+import dev.klepto.kweb3.core.ethereum.rpc.api.RpcApiMessage;
+import dev.klepto.kweb3.core.ethereum.rpc.api.RpcApiMessageDecoder;
+import dev.klepto.kweb3.core.util.Threads;
+import lombok.val;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static dev.klepto.kweb3.core.util.Conditions.require;
+
+/**
+ * Implementation of {@link RpcConnection} that coalesces messages sent within a time window into a single JSON-RPC
+ * batch. Batch is sent either once the window elapses, or once the batch reaches its maximum size, whichever comes
+ * first. Batch responses are decoded by the underlying connection and routed to each request by its id. Batches sent
+ * once the window elapses are written on the shared executor, since writing to the connection may block. If a batch
+ * can't be sent, the error callback receives a {@link RpcSendError} carrying the ids of every request in the batch.
+ *
+ * @author <a href="http://github.com/klepto">Augustinas R.</a>
+ */
+public class BatchingRpcConnection implements RpcConnection {
+
+    private final RpcConnection connection;
+    private final Consumer<Throwable> errorCallback;
+    private final long windowNanos;
+    private final int maxSize;
+
+    private final Object lock = new Object();
+    private List<RpcApiMessage> batch;
+    private ScheduledFuture<?> flushTask;
+
+    /**
+     * Constructs a new {@link BatchingRpcConnection} on top of the given connection.
+     *
+     * @param connection    the underlying connection batches are sent to
+     * @param errorCallback the callback for errors that occur while sending batches
+     * @param window        the duration to collect messages for before sending them
+     * @param maxSize       the maximum number of messages in a single batch
+     */
+    public BatchingRpcConnection(@NotNull RpcConnection connection,
+                                 @Nullable Consumer<Throwable> errorCallback,
+                                 @NotNull Duration window,
+                                 int maxSize) {
+        require(maxSize > 0, "Batch size must be positive: {}", maxSize);
+        this.connection = connection;
+        this.errorCallback = errorCallback;
+        this.windowNanos = window.toNanos();
+        this.maxSize = maxSize;
+        this.batch = new ArrayList<>(maxSize);
+    }
+
+    /**
+     * Returns the endpoint of the underlying connection.
+     *
+     * @return the endpoint
+     */
+    @Override
+    public Web3Endpoint endpoint() {
+        return connection.endpoint();
+    }
+
+    /**
+     * Sets the resolver of result types of the underlying connection.
+     *
+     * @param resultTypes the resolver of result types by message id
+     */
+    @Override
+    public void resultTypes(@NotNull RpcApiMessageDecoder.TypeResolver resultTypes) {
+        connection.resultTypes(resultTypes);
+    }
+
+    /**
+     * Notifies the underlying connection that the request is no longer awaited.
+     *
+     * @param id the request id
+     */
+    @Override
+    public void untrack(long id) {
+        connection.untrack(id);
+    }
+
+    /**
+     * Adds the message to the current batch. Sends the batch immediately if it's full, otherwise schedules the batch
+     * to be sent once the batch window elapses. Messages that cannot be batched are sent directly.
+     *
+     * @param message the message
+     */
+    @Override
+    public void send(RpcMessage message) {
+        if (!(message instanceof RpcApiMessage apiMessage)) {
+            connection.send(message);
+            return;
+        }
+
+        List<RpcApiMessage> fullBatch = null;
+        synchronized (lock) {
+            batch.add(apiMessage);
+            if (batch.size() >= maxSize) {
+                fullBatch = drain();
+            } else if (batch.size() == 1) {
+                flushTask = Threads.scheduler().schedule(
+                        () -> Threads.executor().execute(this::flush),
+                        windowNanos,
+                        TimeUnit.NANOSECONDS
+                );
+            }
+        }
+
+        if (fullBatch != null) {
+            send(fullBatch);
+        }
+    }
+
+    /**
+     * Sends all currently collected messages.
+     */
+    public void flush() {
+        List<RpcApiMessage> messages;
+        synchronized (lock) {
+            messages = drain();
+        }
+        send(messages);
+    }
+
+    /**
+     * Takes all collected messages and cancels the scheduled flush, must be called while holding the lock.
+     *
+     * @return the collected messages
+     */
+    private List<RpcApiMessage> drain() {
+        if (flushTask != null) {
+            flushTask.cancel(false);
+            flushTask = null;
+        }
+        val messages = batch;
+        batch = new ArrayList<>(maxSize);
+        return messages;
+    }
+
+    /**
+     * Sends the given messages to the underlying connection. Single messages are sent as is, to avoid wrapping them in
+     * an array. If the underlying connection fails to send, requests of all given messages are failed through the
+     * error callback, as the batch was already taken from the caller that triggered it.
+     *
+     * @param messages the messages to send
+     */
+    private void send(@NotNull List<RpcApiMessage> messages) {
+        if (messages.isEmpty()) {
+            return;
+        }
+
+        val message = messages.size() == 1
+                ? messages.get(0)
+                : new RpcApiBatchMessage(messages);
+        try {
+            connection.send(message);
+        } catch (Throwable cause) {
+            if (errorCallback != null) {
+                errorCallback.accept(new RpcSendError(message, cause));
+            }
+        }
+    }
+
+    /**
+     * Sends any remaining messages and closes the underlying connection.
+     */
+    @Override
+    public void close() {
+        flush();
+        connection.close();
+    }
+
+    /**
+     * Wraps the connection in {@link BatchingRpcConnection} if batching is enabled in the endpoint settings.
+     *
+     * @param connection    the connection
+     * @param errorCallback the callback for errors that occur while sending batches
+     * @return the batching connection, or given connection if batching is disabled
+     */
+    @NotNull
+    public static RpcConnection wrap(@NotNull RpcConnection connection, @Nullable Consumer<Throwable> errorCallback) {
+        val settings = connection.endpoint().settings();
+        val window = settings.batchWindow();
+        if (window == null) {
+            return connection;
+        }
+        return new BatchingRpcConnection(connection, errorCallback, window, settings.batchSize());
+    }
+
+}
@@ -0,0 +1,159 @@
+package dev.klepto.kweb3.core.ethereum.rpc.io;
+
+import dev.klepto.kweb3.core.chain.Web3Endpoint;
+import dev.klepto.kweb3.core.ethereum.rpc.RpcMessage;
+import dev.klepto.kweb3.core.util.Threads;
+import lombok.val;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.StringWriter;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Implementation of {@link AuthorizedRpcConnection} for HTTP connections built on top of JDK {@link HttpClient}.
+ * Requests are multiplexed over HTTP/2 streams when the server supports it, falling back to HTTP/1.1 otherwise. All
+ * connections to the same endpoint share a single {@link HttpClient} and its connection pool, custom clients with
+ * different executors or connection settings can be registered with
+ * {@link #configure(Web3Endpoint, HttpClient)}.
+ * <p>
+ * Every request is an independent exchange, so a failed exchange is reported as {@link RpcSendError} of the message
+ * it carried and doesn't affect requests still in flight on other streams.
+ *
+ * @author <a href="http://github.com/klepto">Augustinas R.</a>
+ */
+public class Http2RpcConnection extends AuthorizedRpcConnection {
+
+    /**
+     * The connect timeout of default clients.
+     */
+    public static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(10);
+
+    private static final Map<String, HttpClient> CLIENTS = new ConcurrentHashMap<>();
+
+    private final HttpClient client;
+    private final URI uri;
+
+    /**
+     * Constructs a new {@link Http2RpcConnection} for the specified endpoint.
+     *
+     * @param endpoint        the endpoint
+     * @param messageCallback the message callback
+     * @param errorCallback   the error callback
+     * @param closeCallback   the close callback
+     */
+    public Http2RpcConnection(@NotNull Web3Endpoint endpoint,
+                              @Nullable Consumer<RpcMessage> messageCallback,
+                              @Nullable Consumer<Throwable> errorCallback,
+                              @Nullable Runnable closeCallback) {
+        super(endpoint, messageCallback, errorCallback, closeCallback);
+        this.client = client(endpoint);
+        this.uri = URI.create(authorizedEndpoint().url());
+    }
+
+    /**
+     * Sends the message to the endpoint using the shared {@link HttpClient} of the endpoint. Errors of the exchange
+     * are reported as errors of the connection.
+     *
+     * @param message the message
+     */
+    @Override
+    public void send(String message) {
+        exchange(message, null);
+    }
+
+    /**
+     * Sends the message to the endpoint using the shared {@link HttpClient} of the endpoint. Errors of the exchange
+     * fail only the requests carried by the message.
+     *
+     * @param message the message
+     * @param payload the serialized message
+     */
+    @Override
+    protected void send(@NotNull RpcMessage message, @NotNull String payload) {
+        exchange(payload, message);
+    }
+
+    /**
+     * Posts the payload to the endpoint. Response body is decoded while it's being read from the stream, without
+     * buffering it into a string.
+     *
+     * @param payload the serialized message
+     * @param message the message, or <code>null</code> if errors should be reported as errors of the connection
+     */
+    private void exchange(@NotNull String payload, @Nullable RpcMessage message) {
+        val builder = HttpRequest.newBuilder(uri)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(payload))
+                .timeout(endpoint().settings().requestTimeout());
+
+        val body = HttpResponse.BodyHandlers.ofInputStream();
+        client.sendAsync(builder.build(), body).whenComplete((response, throwable) -> {
+            if (throwable != null) {
+                fail(message, throwable);
+                return;
+            }
+
+            try (val reader = new InputStreamReader(response.body(), StandardCharsets.UTF_8)) {
+                if (response.statusCode() / 100 != 2) {
+                    val error = new StringWriter();
+                    reader.transferTo(error);
+                    fail(message, new IOException("HTTP " + response.statusCode() + ": " + error));
+                } else {
+                    receive(reader);
+                }
+            } catch (Throwable cause) {
+                fail(message, cause);
+            }
+        });
+    }
+
+    /**
+     * Passes the error of an exchange to the error callback.
+     *
+     * @param message the message of the exchange, or <code>null</code> if unknown
+     * @param cause   the error of the exchange
+     */
+    private void fail(@Nullable RpcMessage message, @NotNull Throwable cause) {
+        errorCallback(message != null ? new RpcSendError(message, cause) : cause);
+    }
+
+    /**
+     * Returns the shared {@link HttpClient} of the endpoint, creating a default HTTP/2 client on the shared executor
+     * if no client is configured.
+     *
+     * @param endpoint the endpoint
+     * @return the shared http client
+     */
+    @NotNull
+    public static HttpClient client(@NotNull Web3Endpoint endpoint) {
+        return CLIENTS.computeIfAbsent(endpoint.url(), url -> HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(CONNECT_TIMEOUT)
+                .executor(Threads.executor())
+                .build()
+        );
+    }
+
+    /**
+     * Registers a custom {@link HttpClient} for the endpoint, allowing to control its executor, connection pool and
+     * protocol version. Only affects connections created after the client is registered.
+     *
+     * @param endpoint the endpoint
+     * @param client   the http client
+     */
+    public static void configure(@NotNull Web3Endpoint endpoint, @NotNull HttpClient client) {
+        CLIENTS.put(endpoint.url(), client);
+    }
+
+}
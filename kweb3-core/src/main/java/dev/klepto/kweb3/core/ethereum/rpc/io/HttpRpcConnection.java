@@ -40,14 +40,10 @@ public class HttpRpcConnection extends AuthorizedRpcConnection {
     @Override
     public void send(String message) {
         val endpoint = authorizedEndpoint();
-        var request = Unirest.post(endpoint.url())
+        val request = Unirest.post(endpoint.url())
                 .contentType(ContentType.APPLICATION_JSON)
-                .body(message);
-
-        val timeout = endpoint.settings().requestTimeout();
-        if (timeout != null) {
-            request = request.requestTimeout((int) timeout.toMillis());
-        }
+                .body(message)
+                .requestTimeout((int) endpoint.settings().requestTimeout().toMillis());
 
         request.asStringAsync().whenComplete((response, throwable) -> {
             if (response instanceof FailedResponse<String> failure) {
@@ -3,6 +3,7 @@ package dev.klepto.kweb3.core.ethereum.rpc.io;
 import dev.klepto.kweb3.core.chain.Web3Endpoint;
 import dev.klepto.kweb3.core.chain.Web3Transport;
 import dev.klepto.kweb3.core.ethereum.rpc.RpcMessage;
+import dev.klepto.kweb3.core.ethereum.rpc.api.RpcApiMessageDecoder;
 import lombok.val;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -20,9 +21,15 @@ import static dev.klepto.kweb3.core.util.Conditions.require;
 public interface RpcConnection extends Closeable {
 
     /**
-     * Creates a new connection from the given endpoint.
+     * Creates a new connection from the given endpoint. If request cooldown is set in endpoint settings, the connection
+     * is wrapped in {@link ThrottledRpcConnection}. If batching is enabled in endpoint settings, the connection is
+     * wrapped in {@link BatchingRpcConnection}, so that a single batch only consumes a single request of the rate
+     * limit.
      *
-     * @param endpoint the endpoint
+     * @param endpoint        the endpoint
+     * @param messageCallback the message callback
+     * @param errorCallback   the error callback
+     * @param closeCallback   the close callback
      * @return the connection
      */
     static RpcConnection create(@NotNull Web3Endpoint endpoint,
@@ -31,13 +38,17 @@ public interface RpcConnection extends Closeable {
                                 @Nullable Runnable closeCallback) {
         val transport = endpoint.transport();
         require(transport == Web3Transport.WEBSOCKET
-                        || transport == Web3Transport.HTTP,
+                        || transport == Web3Transport.HTTP
+                        || transport == Web3Transport.HTTP2,
                 "Unsupported transport: {}", transport
         );
 
-        return transport == Web3Transport.WEBSOCKET
-                ? new WebsocketRpcConnection(endpoint, messageCallback, errorCallback, closeCallback)
-                : new HttpRpcConnection(endpoint, messageCallback, errorCallback, closeCallback);
+        val connection = switch (transport) {
+            case WEBSOCKET -> new WebsocketRpcConnection(endpoint, messageCallback, errorCallback, closeCallback);
+            case HTTP2 -> new Http2RpcConnection(endpoint, messageCallback, errorCallback, closeCallback);
+            default -> new HttpRpcConnection(endpoint, messageCallback, errorCallback, closeCallback);
+        };
+        return BatchingRpcConnection.wrap(ThrottledRpcConnection.wrap(connection, errorCallback), errorCallback);
     }
 
     /**
@@ -54,9 +65,51 @@ public interface RpcConnection extends Closeable {
      */
     void send(RpcMessage message);
 
+    /**
+     * Sets the resolver of result types the connection uses to decode response results while reading them. Connections
+     * that don't support streaming decoding ignore the resolver.
+     *
+     * @param resultTypes the resolver of result types by message id
+     */
+    default void resultTypes(@NotNull RpcApiMessageDecoder.TypeResolver resultTypes) {
+    }
+
+    /**
+     * Notifies the connection that the request with the given id is no longer awaited, because it was answered,
+     * failed or expired. Connections that keep track of sent requests stop tracking it.
+     *
+     * @param id the request id
+     */
+    default void untrack(long id) {
+    }
+
     /**
      * Closes the connection.
      */
     void close();
 
+    /**
+     * Creates connections for a {@link dev.klepto.kweb3.core.ethereum.rpc.RpcClient}. Default implementation is
+     * {@link RpcConnection#create(Web3Endpoint, Consumer, Consumer, Runnable)}, custom factories can be used to supply
+     * alternative transports or in-memory connections.
+     */
+    @FunctionalInterface
+    interface Factory {
+
+        /**
+         * Creates a new connection from the given endpoint.
+         *
+         * @param endpoint        the endpoint
+         * @param messageCallback the message callback
+         * @param errorCallback   the error callback
+         * @param closeCallback   the close callback
+         * @return the connection
+         */
+        RpcConnection create(@NotNull Web3Endpoint endpoint,
+                             @Nullable Consumer<RpcMessage> messageCallback,
+                             @Nullable Consumer<Throwable> errorCallback,
+                             @Nullable Runnable closeCallback);
+
+    }
+
 }
@@ -0,0 +1,77 @@
+package dev.klepto.kweb3.core.ethereum.rpc.io;
+
+import dev.klepto.kweb3.core.Web3Error;
+import dev.klepto.kweb3.core.ethereum.rpc.RpcMessage;
+import dev.klepto.kweb3.core.ethereum.rpc.api.RpcApiBatchMessage;
+import lombok.val;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Represents an error of a single message that could not be sent. Passed to the error callback of a connection, so
+ * that only the requests carried by the message are failed rather than all pending requests of the connection.
+ *
+ * @author <a href="http://github.com/klepto">Augustinas R.</a>
+ */
+public class RpcSendError extends Web3Error {
+
+    private final List<Long> ids;
+
+    /**
+     * Constructs a new send error of the message with a given cause.
+     *
+     * @param message the message that could not be sent
+     * @param cause   the cause of the error
+     */
+    public RpcSendError(@NotNull RpcMessage message, @NotNull Throwable cause) {
+        super(cause);
+        this.ids = ids(message);
+    }
+
+    /**
+     * Constructs a new send error of the message with a given error message.
+     *
+     * @param message the message that could not be sent
+     * @param error   the message of the error
+     * @param args    the error message arguments
+     */
+    public RpcSendError(@NotNull RpcMessage message, @NotNull String error, @Nullable Object... args) {
+        super(error, args);
+        this.ids = ids(message);
+    }
+
+    /**
+     * Returns the ids of the requests carried by the message that could not be sent.
+     *
+     * @return the request ids
+     */
+    @NotNull
+    public List<Long> ids() {
+        return ids;
+    }
+
+    /**
+     * Collects the ids of the requests carried by the message, including messages of a batch.
+     *
+     * @param message the message
+     * @return the request ids
+     */
+    @NotNull
+    private static List<Long> ids(@NotNull RpcMessage message) {
+        if (!(message instanceof RpcApiBatchMessage batch)) {
+            return message.id() != null ? List.of(message.id()) : List.of();
+        }
+
+        val ids = new ArrayList<Long>(batch.messages().size());
+        for (val batchMessage : batch.messages()) {
+            if (batchMessage.id() != null) {
+                ids.add(batchMessage.id());
+            }
+        }
+        return ids;
+    }
+
+}
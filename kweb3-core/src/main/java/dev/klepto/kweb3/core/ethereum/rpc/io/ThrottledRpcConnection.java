@@ -0,0 +1,211 @@
+package dev.klepto.kweb3.core.ethereum.rpc.io;
+
+import dev.klepto.kweb3.core.chain.Web3Endpoint;
+import dev.klepto.kweb3.core.ethereum.rpc.RpcMessage;
+import dev.klepto.kweb3.core.ethereum.rpc.api.RpcApiMessageDecoder;
+import dev.klepto.kweb3.core.util.Threads;
+import dev.klepto.kweb3.core.util.TokenBucket;
+import lombok.val;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Implementation of {@link RpcConnection} that limits the rate of messages sent to the underlying connection
+ * according to {@link Web3Endpoint.Settings#requestCooldown()} and {@link Web3Endpoint.Settings#requestBurst()}.
+ * Messages that exceed the rate are kept in a bounded send queue and sent in order once the rate allows it. Sending a
+ * message while the queue is full or after the connection is closed fails with {@link RpcSendError}, carrying the ids
+ * of every request in the message. If a queued message can't be sent, or the connection is closed while messages are
+ * queued, the error callback receives a {@link RpcSendError} carrying the ids of the affected requests only.
+ *
+ * @author <a href="http://github.com/klepto">Augustinas R.</a>
+ */
+public class ThrottledRpcConnection implements RpcConnection {
+
+    private final RpcConnection connection;
+    private final Consumer<Throwable> errorCallback;
+    private final TokenBucket bucket;
+    private final BlockingQueue<RpcMessage> queue;
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private volatile boolean closed;
+
+    /**
+     * Constructs a new {@link ThrottledRpcConnection} on top of the given connection.
+     *
+     * @param connection    the underlying connection messages are sent to
+     * @param errorCallback the callback for errors that occur while sending queued messages
+     * @param cooldown      the minimum duration between messages once the burst is exhausted
+     * @param burst         the maximum number of messages that can be sent without waiting for the cooldown
+     * @param queueSize     the maximum number of messages waiting to be sent
+     */
+    public ThrottledRpcConnection(@NotNull RpcConnection connection,
+                                  @Nullable Consumer<Throwable> errorCallback,
+                                  @NotNull Duration cooldown,
+                                  int burst,
+                                  int queueSize) {
+        this.connection = connection;
+        this.errorCallback = errorCallback;
+        this.bucket = new TokenBucket(cooldown, burst);
+        this.queue = new ArrayBlockingQueue<>(queueSize);
+    }
+
+    /**
+     * Returns the endpoint of the underlying connection.
+     *
+     * @return the endpoint
+     */
+    @Override
+    public Web3Endpoint endpoint() {
+        return connection.endpoint();
+    }
+
+    /**
+     * Sets the resolver of result types of the underlying connection.
+     *
+     * @param resultTypes the resolver of result types by message id
+     */
+    @Override
+    public void resultTypes(@NotNull RpcApiMessageDecoder.TypeResolver resultTypes) {
+        connection.resultTypes(resultTypes);
+    }
+
+    /**
+     * Notifies the underlying connection that the request is no longer awaited.
+     *
+     * @param id the request id
+     */
+    @Override
+    public void untrack(long id) {
+        connection.untrack(id);
+    }
+
+    /**
+     * Returns the number of messages waiting to be sent.
+     *
+     * @return the number of queued messages
+     */
+    public int queueSize() {
+        return queue.size();
+    }
+
+    /**
+     * Sends the message immediately if no other messages are waiting and the rate allows it, otherwise adds the
+     * message to the send queue.
+     *
+     * @param message the message
+     * @throws RpcSendError if the connection is closed or the send queue is full
+     */
+    @Override
+    public void send(RpcMessage message) {
+        if (closed) {
+            throw new RpcSendError(message, "Connection to {} is closed.", endpoint().url());
+        }
+
+        if (queue.isEmpty() && bucket.tryAcquire()) {
+            connection.send(message);
+            return;
+        }
+
+        if (!queue.offer(message)) {
+            throw new RpcSendError(message, "Send queue of {} is full ({} messages).", endpoint().url(), queue.size());
+        }
+        scheduleDrain();
+    }
+
+    /**
+     * Starts draining the send queue on the shared executor, unless it's already being drained.
+     */
+    private void scheduleDrain() {
+        if (draining.compareAndSet(false, true)) {
+            Threads.executor().execute(this::drain);
+        }
+    }
+
+    /**
+     * Sends queued messages while tokens are available. Once the bucket is empty, draining is resumed after the next
+     * token becomes available.
+     */
+    private void drain() {
+        while (!closed) {
+            if (queue.isEmpty()) {
+                draining.set(false);
+                // Message could have been queued after the check, in which case the sender failed to start draining.
+                if (queue.isEmpty() || !draining.compareAndSet(false, true)) {
+                    return;
+                }
+                continue;
+            }
+
+            if (!bucket.tryAcquire()) {
+                val delay = Math.max(bucket.nanosUntilAvailable(), 1);
+                Threads.scheduler().schedule(
+                        () -> Threads.executor().execute(this::drain),
+                        delay,
+                        TimeUnit.NANOSECONDS
+                );
+                return;
+            }
+
+            val message = queue.poll();
+            try {
+                connection.send(message);
+            } catch (Throwable cause) {
+                fail(new RpcSendError(message, cause));
+            }
+        }
+    }
+
+    /**
+     * Passes the error of a queued message to the error callback.
+     *
+     * @param error the send error
+     */
+    private void fail(@NotNull RpcSendError error) {
+        if (errorCallback != null) {
+            errorCallback.accept(error);
+        }
+    }
+
+    /**
+     * Fails requests of queued messages and closes the underlying connection.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        RpcMessage message;
+        while ((message = queue.poll()) != null) {
+            fail(new RpcSendError(message, "Connection to {} is closed.", endpoint().url()));
+        }
+        connection.close();
+    }
+
+    /**
+     * Wraps the connection in {@link ThrottledRpcConnection} if request cooldown is set in the endpoint settings.
+     *
+     * @param connection    the connection
+     * @param errorCallback the callback for errors that occur while sending queued messages
+     * @return the throttled connection, or given connection if cooldown is not set
+     */
+    @NotNull
+    public static RpcConnection wrap(@NotNull RpcConnection connection, @Nullable Consumer<Throwable> errorCallback) {
+        val settings = connection.endpoint().settings();
+        val cooldown = settings.requestCooldown();
+        if (cooldown == null) {
+            return connection;
+        }
+        return new ThrottledRpcConnection(
+                connection,
+                errorCallback,
+                cooldown,
+                settings.requestBurst(),
+                settings.sendQueueSize()
+        );
+    }
+
+}
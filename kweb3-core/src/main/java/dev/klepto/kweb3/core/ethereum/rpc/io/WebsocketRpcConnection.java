@@ -1,23 +1,84 @@
 package dev.klepto.kweb3.core.ethereum.rpc.io;
 
+import com.google.gson.JsonObject;
+import dev.klepto.kweb3.core.Web3Error;
 import dev.klepto.kweb3.core.chain.Web3Endpoint;
 import dev.klepto.kweb3.core.ethereum.rpc.RpcMessage;
+import dev.klepto.kweb3.core.ethereum.rpc.api.RpcApiBatchMessage;
+import dev.klepto.kweb3.core.ethereum.rpc.api.RpcApiMessage;
+import dev.klepto.kweb3.core.ethereum.rpc.api.RpcApiRequestMessage;
+import dev.klepto.kweb3.core.ethereum.rpc.api.RpcApiResponseMessage;
+import dev.klepto.kweb3.core.metrics.jfr.WebsocketReconnectEvent;
+import dev.klepto.kweb3.core.util.Threads;
+import lombok.val;
 import org.java_websocket.client.WebSocketClient;
 import org.java_websocket.handshake.ServerHandshake;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Consumer;
 
 /**
  * Implementation of {@link AuthorizedRpcConnection} for WebSocket connections.
+ * <p>
+ * Connection is established in the background and automatically re-established with exponential backoff and jitter
+ * whenever the socket drops. Messages sent while the socket is down are buffered and sent once it's back up. Requests
+ * that were sent but not yet answered when the socket dropped are re-sent under their original ids, and active
+ * <code>eth_subscribe</code> subscriptions are re-established. Notifications of re-established subscriptions are
+ * delivered under their original subscription ids, so that the drop is invisible to the consumer.
+ * <p>
+ * Requests wait for the socket to come back up for as long as {@link Web3Endpoint.Settings#requestTimeout()} allows,
+ * expired requests are no longer re-sent.
  *
  * @author <a href="http://github.com/klepto">Augustinas R.</a>
  */
 public class WebsocketRpcConnection extends AuthorizedRpcConnection {
 
-    private final Client client = new Client();
+    /**
+     * The delay before the first reconnection attempt.
+     */
+    public static final Duration MIN_RECONNECT_DELAY = Duration.ofMillis(100);
+
+    /**
+     * The maximum delay between reconnection attempts.
+     */
+    public static final Duration MAX_RECONNECT_DELAY = Duration.ofSeconds(30);
+
+    /**
+     * The maximum duration of a single connection attempt.
+     */
+    public static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(10);
+
+    private final Object lock = new Object();
+    private final Queue<Outgoing> buffer = new ArrayDeque<>();
+    private final Map<Long, RpcMessage> inFlight = new ConcurrentSkipListMap<>();
+    private final Map<Long, RpcApiRequestMessage> subscribeRequests = new ConcurrentHashMap<>();
+    private final Map<String, RpcApiRequestMessage> subscriptions = new ConcurrentHashMap<>();
+    private final Map<String, String> serverIds = new ConcurrentHashMap<>();
+    private final Map<String, String> clientIds = new ConcurrentHashMap<>();
+    private final Map<Long, String> resubscribes = new ConcurrentHashMap<>();
+    private final AtomicLong internalIds = new AtomicLong(-1);
+    private final LongAdder reconnects = new LongAdder();
+
+    // Fields below are guarded by the lock.
+    private Client client;
+    private boolean open;
+    private boolean connecting;
+    private int attempts;
+    private long disconnectTime;
+    private volatile boolean closed;
 
     /**
      * Constructs new {@link WebsocketRpcConnection} for the specified endpoint.
@@ -35,42 +96,433 @@ public class WebsocketRpcConnection extends AuthorizedRpcConnection {
     }
 
     /**
-     * Ensures that the websocket connection is open.
+     * Returns the number of times the connection was re-established after a drop.
+     *
+     * @return the number of reconnects
      */
-    private void ensureOpen() {
-        if (client.isOpen()) {
-            return;
+    public long reconnectCount() {
+        return reconnects.sum();
+    }
+
+    /**
+     * Sends the message to the endpoint, or buffers it if the socket is currently down. Requests are tracked until
+     * they're answered, so that they can be re-sent if the socket drops.
+     *
+     * @param message the message
+     * @throws Web3Error if the connection is closed or the buffer is full
+     */
+    @Override
+    public void send(RpcMessage message) {
+        val prepared = prepare(message);
+        send(new Outgoing(prepared, prepared.serialize()));
+    }
+
+    /**
+     * Sends the message to the endpoint, or buffers it if the socket is currently down. Messages sent using this method
+     * are not tracked and will not be re-sent if the socket drops.
+     *
+     * @param message the message
+     * @throws Web3Error if the connection is closed or the buffer is full
+     */
+    @Override
+    public void send(String message) {
+        send(new Outgoing(null, message));
+    }
+
+    /**
+     * Writes the message to the socket if it's open, otherwise adds it to the buffer and starts connecting if not
+     * connecting already.
+     *
+     * @param outgoing the outgoing message
+     */
+    private void send(@NotNull Outgoing outgoing) {
+        synchronized (lock) {
+            if (closed) {
+                throw new Web3Error("Connection to {} is closed.", endpoint().url());
+            }
+            if (open && buffer.isEmpty() && write(outgoing)) {
+                return;
+            }
+
+            val capacity = endpoint().settings().sendQueueSize();
+            if (buffer.size() >= capacity) {
+                throw new Web3Error("Reconnect buffer of {} is full ({} messages).", endpoint().url(), capacity);
+            }
+            buffer.add(outgoing);
+            if (!connecting) {
+                if (open) {
+                    // Write failed, socket dropped before its close was reported.
+                    disconnectTime = System.nanoTime();
+                }
+                open = false;
+                connecting = true;
+                Threads.executor().execute(this::connect);
+            }
+        }
+    }
+
+    /**
+     * Writes the message to the current socket, tracking its requests as in-flight. Must be called while holding the
+     * lock.
+     *
+     * @param outgoing the outgoing message
+     * @return true if message was written, false if the socket is not open
+     */
+    private boolean write(@NotNull Outgoing outgoing) {
+        if (outgoing.message() != null) {
+            track(outgoing.message());
         }
         try {
-            client.connectBlocking();
+            client.send(outgoing.payload());
+            return true;
         } catch (Throwable cause) {
-            errorCallback(cause);
+            if (outgoing.message() != null) {
+                untrack(outgoing.message());
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Rewrites subscription ids in <code>eth_unsubscribe</code> requests to the ids of re-established subscriptions,
+     * and records <code>eth_subscribe</code> requests in order to re-establish them later.
+     *
+     * @param message the message
+     * @return the message with rewritten subscription ids
+     */
+    @NotNull
+    private RpcMessage prepare(@NotNull RpcMessage message) {
+        if (message instanceof RpcApiBatchMessage batch) {
+            return new RpcApiBatchMessage(batch.messages().stream().map(this::prepare).toList());
+        }
+        if (message instanceof RpcApiMessage apiMessage) {
+            return prepare(apiMessage);
+        }
+        return message;
+    }
+
+    /**
+     * Rewrites subscription ids in <code>eth_unsubscribe</code> requests to the ids of re-established subscriptions,
+     * and records <code>eth_subscribe</code> requests in order to re-establish them later.
+     *
+     * @param message the message
+     * @return the message with rewritten subscription ids
+     */
+    @NotNull
+    private RpcApiMessage prepare(@NotNull RpcApiMessage message) {
+        if (!(message instanceof RpcApiRequestMessage request) || request.id() == null) {
+            return message;
+        }
+
+        if (request.method().equals("eth_subscribe")) {
+            subscribeRequests.put(request.id(), request);
+        } else if (request.method().equals("eth_unsubscribe") && request.params().isJsonArray()) {
+            val params = request.params().getAsJsonArray();
+            if (params.isEmpty()) {
+                return request;
+            }
+
+            val clientId = params.get(0).getAsString();
+            subscriptions.remove(clientId);
+            val serverId = serverIds.remove(clientId);
+            if (serverId != null) {
+                clientIds.remove(serverId);
+                if (!serverId.equals(clientId)) {
+                    return request.withParams(serverId);
+                }
+            }
         }
+        return request;
     }
 
     /**
-     * Sends the message to the endpoint using WebSocket client.
+     * Marks requests contained in the message as in-flight.
      *
      * @param message the message
      */
+    private void track(@NotNull RpcMessage message) {
+        if (message instanceof RpcApiBatchMessage batch) {
+            batch.messages().forEach(this::track);
+        } else if (message.id() != null) {
+            inFlight.put(message.id(), message);
+        }
+    }
+
+    /**
+     * Removes requests contained in the message from in-flight requests.
+     *
+     * @param message the message
+     */
+    private void untrack(@NotNull RpcMessage message) {
+        if (message instanceof RpcApiBatchMessage batch) {
+            batch.messages().forEach(this::untrack);
+        } else if (message.id() != null) {
+            inFlight.remove(message.id());
+        }
+    }
+
+    /**
+     * Stops tracking the request, so that it's not re-sent once the socket is re-established. The request is also
+     * discarded from the buffer if it wasn't written yet.
+     *
+     * @param id the request id
+     */
     @Override
-    public void send(String message) {
-        ensureOpen();
+    public void untrack(long id) {
+        inFlight.remove(id);
+        subscribeRequests.remove(id);
+        synchronized (lock) {
+            if (!buffer.isEmpty()) {
+                buffer.removeIf(outgoing -> outgoing.message() != null && Objects.equals(outgoing.message().id(), id));
+            }
+        }
+    }
 
+    /**
+     * Attempts to open a new socket. On success re-establishes subscriptions, re-sends in-flight requests and flushes
+     * the buffer. On failure schedules another attempt after a backoff delay.
+     */
+    private void connect() {
+        if (closed) {
+            return;
+        }
+
+        val newClient = new Client();
+        var connected = false;
         try {
-            client.send(message);
-        } catch (Throwable cause) {
-            errorCallback(cause);
+            connected = newClient.connectBlocking(CONNECT_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException cause) {
+            Thread.currentThread().interrupt();
+        } catch (Throwable ignored) {
+            // Treated as a failed attempt.
+        }
+
+        synchronized (lock) {
+            if (closed) {
+                newClient.close();
+                return;
+            }
+            if (!connected) {
+                newClient.close();
+                scheduleConnect();
+                return;
+            }
+
+            val reconnect = client != null;
+            if (reconnect) {
+                reconnects.increment();
+            }
+            client = newClient;
+            val connectAttempts = attempts;
+            val replayed = inFlight.size();
+            attempts = 0;
+            if (!resubscribe() || !replay() || !flush()) {
+                // Socket dropped again while recovering.
+                newClient.close();
+                scheduleConnect();
+                return;
+            }
+            open = true;
+            connecting = false;
+            if (reconnect) {
+                val outage = System.nanoTime() - disconnectTime;
+                WebsocketReconnectEvent.commit(endpoint(), outage, connectAttempts, subscriptions.size(), replayed);
+            }
+        }
+    }
+
+    /**
+     * Schedules the next connection attempt with exponential backoff and jitter. Must be called while holding the
+     * lock.
+     */
+    private void scheduleConnect() {
+        val exponent = Math.min(attempts++, 20);
+        val maxDelay = Math.min(MIN_RECONNECT_DELAY.toNanos() << exponent, MAX_RECONNECT_DELAY.toNanos());
+        val delay = maxDelay / 2 + ThreadLocalRandom.current().nextLong(maxDelay / 2 + 1);
+        Threads.scheduler().schedule(() -> Threads.executor().execute(this::connect), delay, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Re-sends <code>eth_subscribe</code> requests of all active subscriptions under internal ids. Must be called while
+     * holding the lock.
+     *
+     * @return true if all requests were written
+     */
+    private boolean resubscribe() {
+        resubscribes.clear();
+        for (val entry : subscriptions.entrySet()) {
+            val id = internalIds.decrementAndGet();
+            resubscribes.put(id, entry.getKey());
+            if (!write(new Outgoing(null, entry.getValue().withId(id).serialize()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Re-sends all requests that were not answered before the socket dropped, in the order they were originally sent.
+     * Must be called while holding the lock.
+     *
+     * @return true if all requests were written
+     */
+    private boolean replay() {
+        for (val message : inFlight.values()) {
+            // Already tracked, must stay tracked if the write fails.
+            if (!write(new Outgoing(null, message.serialize()))) {
+                return false;
+            }
         }
+        return true;
     }
 
     /**
-     * Closes the connection.
+     * Writes all buffered messages in order. Must be called while holding the lock.
+     *
+     * @return true if all messages were written
+     */
+    private boolean flush() {
+        Outgoing outgoing;
+        while ((outgoing = buffer.peek()) != null) {
+            if (!write(outgoing)) {
+                return false;
+            }
+            buffer.poll();
+        }
+        return true;
+    }
+
+    /**
+     * Handles a message received from the endpoint. Completes in-flight requests, records subscription ids and maps
+     * notifications of re-established subscriptions back to their original subscription ids.
+     *
+     * @param message the message
+     */
+    @Override
+    public void messageCallback(RpcMessage message) {
+        val id = message.id();
+        if (id != null && id < 0) {
+            onResubscribe(id, message);
+            return;
+        }
+
+        if (id != null) {
+            inFlight.remove(id);
+            val subscribe = subscribeRequests.remove(id);
+            if (subscribe != null && message instanceof RpcApiResponseMessage response && response.error() == null) {
+                val subscriptionId = response.resultAsString();
+                if (subscriptionId != null) {
+                    subscriptions.put(subscriptionId, subscribe);
+                    serverIds.put(subscriptionId, subscriptionId);
+                    clientIds.put(subscriptionId, subscriptionId);
+                }
+            }
+        } else if (message instanceof RpcApiRequestMessage notification) {
+            message = remapNotification(notification);
+        }
+
+        super.messageCallback(message);
+    }
+
+    /**
+     * Records the new subscription id of a re-established subscription.
+     *
+     * @param id      the internal id of the <code>eth_subscribe</code> request
+     * @param message the response message
+     */
+    private void onResubscribe(long id, @NotNull RpcMessage message) {
+        val clientId = resubscribes.remove(id);
+        if (clientId == null || !(message instanceof RpcApiResponseMessage response) || response.error() != null) {
+            return;
+        }
+
+        val serverId = response.resultAsString();
+        if (serverId == null || !subscriptions.containsKey(clientId)) {
+            return;
+        }
+
+        val previousId = serverIds.put(clientId, serverId);
+        if (previousId != null) {
+            clientIds.remove(previousId);
+        }
+        clientIds.put(serverId, clientId);
+    }
+
+    /**
+     * Replaces the subscription id of an <code>eth_subscription</code> notification with the original subscription
+     * id, if the subscription was re-established.
+     *
+     * @param notification the notification
+     * @return the notification carrying the original subscription id
+     */
+    @NotNull
+    private RpcMessage remapNotification(@NotNull RpcApiRequestMessage notification) {
+        if (!notification.method().equals("eth_subscription") || !notification.params().isJsonObject()) {
+            return notification;
+        }
+
+        val params = notification.params().getAsJsonObject();
+        val subscription = params.get("subscription");
+        if (subscription == null) {
+            return notification;
+        }
+
+        val serverId = subscription.getAsString();
+        val clientId = clientIds.get(serverId);
+        if (clientId == null || clientId.equals(serverId)) {
+            return notification;
+        }
+
+        val newParams = new JsonObject();
+        params.entrySet().forEach(entry -> newParams.add(entry.getKey(), entry.getValue()));
+        newParams.addProperty("subscription", clientId);
+        return new RpcApiRequestMessage(notification.jsonrpc(), null, notification.method(), newParams);
+    }
+
+    /**
+     * Handles the socket of the given client being closed, starts reconnecting unless the connection was closed or is
+     * already reconnecting.
+     *
+     * @param closedClient the client whose socket was closed
+     */
+    private void onSocketClose(@NotNull Client closedClient) {
+        synchronized (lock) {
+            if (closed || closedClient != client || !open) {
+                return;
+            }
+            open = false;
+            connecting = true;
+            disconnectTime = System.nanoTime();
+            scheduleConnect();
+        }
+    }
+
+    /**
+     * Closes the connection, discarding buffered messages.
      */
     @Override
     public void close() {
+        synchronized (lock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            open = false;
+            buffer.clear();
+            if (client != null) {
+                client.close();
+            }
+        }
         super.close();
-        client.close();
+    }
+
+    /**
+     * Message waiting to be written to the socket.
+     *
+     * @param message the message, or <code>null</code> if the message is not tracked
+     * @param payload the serialized message
+     */
+    private record Outgoing(@Nullable RpcMessage message, @NotNull String payload) {
     }
 
     /**
@@ -97,17 +549,17 @@ public class WebsocketRpcConnection extends AuthorizedRpcConnection {
          */
         @Override
         public void onMessage(String message) {
-            WebsocketRpcConnection.super.receive(message);
+            WebsocketRpcConnection.this.receive(message);
         }
 
         /**
-         * Invoked when an error occurs.
+         * Invoked when an error occurs. Socket errors are followed by {@link #onClose(int, String, boolean)}, which
+         * starts reconnecting, so they're not propagated to pending requests.
          *
          * @param ex the exception
          */
         @Override
         public void onError(Exception ex) {
-            WebsocketRpcConnection.super.errorCallback(ex);
         }
 
         /**
@@ -119,7 +571,7 @@ public class WebsocketRpcConnection extends AuthorizedRpcConnection {
          */
         @Override
         public void onClose(int code, String reason, boolean remote) {
-            WebsocketRpcConnection.super.closeCallback();
+            onSocketClose(this);
         }
     }
 }
@@ -0,0 +1,378 @@
+package dev.klepto.kweb3.core.ethereum.store;
+
+import dev.klepto.kweb3.core.Web3Error;
+import dev.klepto.kweb3.core.ethereum.rpc.api.EthBlockRequest.BlockResponse;
+import dev.klepto.kweb3.core.ethereum.rpc.api.EthGetLogsRequest.LogResponse;
+import lombok.val;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static dev.klepto.kweb3.core.ethereum.rpc.api.RpcApiMessage.GSON;
+
+/**
+ * Persistent store of finalized blocks and logs backed by memory-mapped, append-only files. Blocks are indexed by
+ * hash, and blocks known to be canonical are also indexed by number. A block fetched by hash may have been orphaned by
+ * a reorg, so it's only indexed by hash and never answers a request by number. Logs are stored per filter and block
+ * range and indexed by the range they cover, so a request for a range is answered if the stored ranges of the same
+ * filter cover it. Indexes are kept in memory and rebuilt from the files when the store is opened, records that were
+ * partially written before a crash are discarded.
+ * <p>
+ * Only blocks and logs at or below {@link #finalizedBlock()} are stored, since those can no longer change. The
+ * finalized block number isn't written separately, it's recovered as the highest block number of stored canonical
+ * blocks and log ranges when the store is opened. Reads are lock-free and safe from any number of threads.
+ *
+ * @author <a href="http://github.com/klepto">Augustinas R.</a>
+ */
+public class BlockStore implements Closeable {
+
+    /**
+     * The default size of mapped regions of store files in bytes.
+     */
+    public static final int DEFAULT_REGION_SIZE = 64 * 1024 * 1024;
+
+    private final MappedLog blocks;
+    private final MappedLog logs;
+    private final Map<Long, Long> blockNumbers = new ConcurrentHashMap<>();
+    private final Map<String, Long> blockHashes = new ConcurrentHashMap<>();
+    private final Map<String, ConcurrentSkipListMap<Long, LogRange>> logRanges = new ConcurrentHashMap<>();
+    private final AtomicLong finalizedBlock = new AtomicLong(-1);
+
+    /**
+     * Opens the store in the given directory with {@link #DEFAULT_REGION_SIZE}, creating it if it doesn't exist.
+     *
+     * @param directory the store directory
+     */
+    public BlockStore(@NotNull Path directory) {
+        this(directory, DEFAULT_REGION_SIZE);
+    }
+
+    /**
+     * Opens the store in the given directory, creating it if it doesn't exist.
+     *
+     * @param directory  the store directory
+     * @param regionSize the size of mapped regions of store files in bytes
+     */
+    public BlockStore(@NotNull Path directory, int regionSize) {
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException cause) {
+            throw new Web3Error(cause);
+        }
+        this.blocks = new MappedLog(directory.resolve("blocks.dat"), regionSize, this::indexBlock);
+        this.logs = new MappedLog(directory.resolve("logs.dat"), regionSize, this::indexLogs);
+    }
+
+    /**
+     * Returns the highest block number that is considered final, or <code>-1</code> if not known. Until advanced, it's
+     * the highest block number of stored records.
+     *
+     * @return the finalized block number
+     */
+    public long finalizedBlock() {
+        return finalizedBlock.get();
+    }
+
+    /**
+     * Advances the highest block number that is considered final. Lower block numbers are ignored.
+     *
+     * @param blockNumber the finalized block number
+     */
+    public void setFinalizedBlock(long blockNumber) {
+        finalizedBlock.accumulateAndGet(blockNumber, Math::max);
+    }
+
+    /**
+     * Returns the number of stored blocks.
+     *
+     * @return the number of blocks
+     */
+    public int blockCount() {
+        return blockHashes.size();
+    }
+
+    /**
+     * Returns the stored block with the given number.
+     *
+     * @param blockNumber the block number
+     * @return the block, or <code>null</code> if not stored
+     */
+    @Nullable
+    public BlockResponse block(long blockNumber) {
+        val offset = blockNumbers.get(blockNumber);
+        return offset != null ? readBlock(offset) : null;
+    }
+
+    /**
+     * Returns the stored block with the given hash.
+     *
+     * @param blockHash the block hash
+     * @return the block, or <code>null</code> if not stored
+     */
+    @Nullable
+    public BlockResponse block(@NotNull String blockHash) {
+        val offset = blockHashes.get(blockHash.toLowerCase());
+        return offset != null ? readBlock(offset) : null;
+    }
+
+    /**
+     * Stores the canonical block if it's final and isn't stored yet. The block is indexed by both number and hash.
+     *
+     * @param block the block, fetched by its number
+     * @return true if the block was stored
+     */
+    public boolean putBlock(@NotNull BlockResponse block) {
+        return putBlock(block, true);
+    }
+
+    /**
+     * Stores the block if it's final and isn't stored yet. Blocks fetched by number are canonical and indexed by both
+     * number and hash. Blocks fetched by hash may have been orphaned, so they're only indexed by hash.
+     *
+     * @param block     the block
+     * @param canonical true if the block was fetched by its number
+     * @return true if the block was stored
+     */
+    public boolean putBlock(@NotNull BlockResponse block, boolean canonical) {
+        val number = parseBlockNumber(block.number());
+        if (block.hash() == null || number > finalizedBlock() || isStored(number, block.hash(), canonical)) {
+            return false;
+        }
+
+        val hash = block.hash().getBytes(StandardCharsets.UTF_8);
+        val json = GSON.toJson(block).getBytes(StandardCharsets.UTF_8);
+        val payload = ByteBuffer.allocate(8 + 4 + hash.length + json.length)
+                .putLong(canonical ? number : -1)
+                .putInt(hash.length)
+                .put(hash)
+                .put(json);
+        synchronized (blocks) {
+            if (isStored(number, block.hash(), canonical)) {
+                return false;
+            }
+            indexBlock(blocks.append(payload.array()), payload.flip());
+        }
+        return true;
+    }
+
+    /**
+     * Checks if the block is already stored in the index it would be added to.
+     *
+     * @param number    the block number
+     * @param hash      the block hash
+     * @param canonical true if the block would be indexed by number
+     * @return true if the block is already stored
+     */
+    private boolean isStored(long number, @NotNull String hash, boolean canonical) {
+        return canonical ? blockNumbers.containsKey(number) : blockHashes.containsKey(hash.toLowerCase());
+    }
+
+    /**
+     * Returns stored logs matching the filter within the given block range, if stored ranges of the same filter cover
+     * the whole range.
+     *
+     * @param addresses the array of smart contract address filters or <code>null</code>
+     * @param topics    the array of topics filters or <code>null</code>
+     * @param fromBlock the first block of the range
+     * @param toBlock   the last block of the range, inclusive
+     * @return the logs, or <code>null</code> if the range is not fully stored
+     */
+    @Nullable
+    public List<LogResponse> logs(@Nullable String[] addresses,
+                                  @Nullable String[] topics,
+                                  long fromBlock,
+                                  long toBlock) {
+        val ranges = logRanges.get(filterKey(addresses, topics));
+        if (ranges == null) {
+            return null;
+        }
+
+        val covering = new ArrayList<LogRange>();
+        var cursor = fromBlock;
+        while (cursor <= toBlock) {
+            val entry = ranges.floorEntry(cursor);
+            if (entry == null || entry.getValue().toBlock() < cursor) {
+                return null;
+            }
+            covering.add(entry.getValue());
+            cursor = entry.getValue().toBlock() + 1;
+        }
+
+        val result = new ArrayList<LogResponse>();
+        var from = fromBlock;
+        for (val range : covering) {
+            val to = Math.min(range.toBlock(), toBlock);
+            for (val log : readLogs(range.offset())) {
+                val number = parseBlockNumber(log.blockNumber());
+                if (number >= from && number <= to) {
+                    result.add(log);
+                }
+            }
+            from = to + 1;
+        }
+        return result;
+    }
+
+    /**
+     * Stores logs matching the filter within the given block range if the whole range is final.
+     *
+     * @param addresses the array of smart contract address filters or <code>null</code>
+     * @param topics    the array of topics filters or <code>null</code>
+     * @param fromBlock the first block of the range
+     * @param toBlock   the last block of the range, inclusive
+     * @param logs      all logs matching the filter within the range
+     * @return true if the logs were stored
+     */
+    public boolean putLogs(@Nullable String[] addresses,
+                           @Nullable String[] topics,
+                           long fromBlock,
+                           long toBlock,
+                           @NotNull List<LogResponse> logs) {
+        if (fromBlock > toBlock || toBlock > finalizedBlock()) {
+            return false;
+        }
+
+        val key = filterKey(addresses, topics).getBytes(StandardCharsets.UTF_8);
+        val json = GSON.toJson(logs).getBytes(StandardCharsets.UTF_8);
+        val payload = ByteBuffer.allocate(8 + 8 + 4 + key.length + json.length)
+                .putLong(fromBlock)
+                .putLong(toBlock)
+                .putInt(key.length)
+                .put(key)
+                .put(json);
+        synchronized (this.logs) {
+            indexLogs(this.logs.append(payload.array()), payload.flip());
+        }
+        return true;
+    }
+
+    /**
+     * Forces stored records to be written to the storage device.
+     */
+    public void flush() {
+        blocks.flush();
+        logs.flush();
+    }
+
+    /**
+     * Flushes and closes the store files.
+     */
+    @Override
+    public void close() {
+        blocks.close();
+        logs.close();
+    }
+
+    /**
+     * Adds a block record to the block hash index, and to the block number index unless the block was stored by hash
+     * only, in which case the record carries <code>-1</code> in place of the number. Stored canonical blocks are final,
+     * so the finalized block number is advanced to the block number.
+     *
+     * @param offset  the record offset
+     * @param payload the record payload
+     */
+    private void indexBlock(long offset, @NotNull ByteBuffer payload) {
+        val number = payload.getLong(0);
+        val hash = new byte[payload.getInt(8)];
+        payload.get(12, hash);
+        blockHashes.put(new String(hash, StandardCharsets.UTF_8).toLowerCase(), offset);
+        if (number >= 0) {
+            blockNumbers.put(number, offset);
+            setFinalizedBlock(number);
+        }
+    }
+
+    /**
+     * Adds a logs record to the log range index of its filter. Of the ranges starting at the same block, the widest
+     * one is kept. Stored ranges are final, so the finalized block number is advanced to the end of the range.
+     *
+     * @param offset  the record offset
+     * @param payload the record payload
+     */
+    private void indexLogs(long offset, @NotNull ByteBuffer payload) {
+        val range = new LogRange(payload.getLong(0), payload.getLong(8), offset);
+        val key = new byte[payload.getInt(16)];
+        payload.get(20, key);
+        logRanges.computeIfAbsent(new String(key, StandardCharsets.UTF_8), k -> new ConcurrentSkipListMap<>())
+                .merge(range.fromBlock(), range, (previous, next) -> next.toBlock() >= previous.toBlock()
+                        ? next
+                        : previous);
+        setFinalizedBlock(range.toBlock());
+    }
+
+    /**
+     * Reads the block record at the given offset.
+     *
+     * @param offset the record offset
+     * @return the block
+     */
+    private BlockResponse readBlock(long offset) {
+        val payload = blocks.read(offset);
+        val json = payload.position(12 + payload.getInt(8));
+        return GSON.fromJson(StandardCharsets.UTF_8.decode(json).toString(), BlockResponse.class);
+    }
+
+    /**
+     * Reads the logs record at the given offset.
+     *
+     * @param offset the record offset
+     * @return the logs
+     */
+    private List<LogResponse> readLogs(long offset) {
+        val payload = logs.read(offset);
+        val json = payload.position(20 + payload.getInt(16));
+        return GSON.fromJson(StandardCharsets.UTF_8.decode(json).toString(), LogResponse.LIST_TYPE);
+    }
+
+    /**
+     * Returns the key that identifies logs of the same filter. Addresses are compared case-insensitively and in any
+     * order, topics are positional.
+     *
+     * @param addresses the array of smart contract address filters or <code>null</code>
+     * @param topics    the array of topics filters or <code>null</code>
+     * @return the filter key
+     */
+    private static String filterKey(@Nullable String[] addresses, @Nullable String[] topics) {
+        val normalized = addresses != null
+                ? Arrays.stream(addresses).map(String::toLowerCase).sorted().toArray(String[]::new)
+                : new String[0];
+        val topicValues = topics != null
+                ? Arrays.stream(topics).map(topic -> topic != null ? topic.toLowerCase() : "null").toArray()
+                : new Object[0];
+        return String.join(",", normalized) + ";" + Arrays.toString(topicValues);
+    }
+
+    /**
+     * Parses a hexadecimal block number.
+     *
+     * @param blockNumber the block number in hexadecimal format
+     * @return the block number
+     */
+    private static long parseBlockNumber(@NotNull String blockNumber) {
+        return Long.parseLong(blockNumber.startsWith("0x") ? blockNumber.substring(2) : blockNumber, 16);
+    }
+
+    /**
+     * Represents a stored range of logs of a single filter.
+     *
+     * @param fromBlock the first block of the range
+     * @param toBlock   the last block of the range, inclusive
+     * @param offset    the offset of the logs record
+     */
+    private record LogRange(long fromBlock, long toBlock, long offset) {
+    }
+
+}
@@ -0,0 +1,220 @@
+package dev.klepto.kweb3.core.ethereum.store;
+
+import dev.klepto.kweb3.core.Web3Error;
+import lombok.val;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.function.BiConsumer;
+import java.util.zip.CRC32;
+
+import static dev.klepto.kweb3.core.util.Conditions.require;
+
+/**
+ * Append-only file of records that is memory-mapped in regions. Every record is prefixed with its length and CRC32
+ * checksum, the length is written last so that a record becomes visible only once it's complete. Records never span
+ * regions, a region that cannot fit the next record is closed with an end-of-region marker and a new region is mapped
+ * after it. Records larger than the region size get a region of their own.
+ * <p>
+ * When the file is opened, records are scanned until the first missing, torn or corrupted record, which becomes the
+ * append position, so records that were partially written before a crash are discarded. Appends are serialized, reads
+ * are lock-free and safe from any number of threads.
+ *
+ * @author <a href="http://github.com/klepto">Augustinas R.</a>
+ */
+class MappedLog implements Closeable {
+
+    private static final int HEADER_SIZE = 8;
+    private static final int END_OF_REGION = -1;
+
+    private final FileChannel channel;
+    private final int regionSize;
+    private volatile Region[] regions = new Region[0];
+    private Region current;
+    private int position;
+
+    /**
+     * Opens the log file, creating it if it doesn't exist, and passes every intact record to the recovery callback.
+     *
+     * @param file       the log file
+     * @param regionSize the size of mapped regions in bytes
+     * @param recovered  the callback that receives the offset and payload of every intact record
+     */
+    MappedLog(@NotNull Path file, int regionSize, @NotNull BiConsumer<Long, ByteBuffer> recovered) {
+        require(regionSize > HEADER_SIZE, "Region size is too small: {}", regionSize);
+        this.regionSize = regionSize;
+        try {
+            this.channel = FileChannel.open(file,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            recover(recovered);
+        } catch (IOException cause) {
+            throw new Web3Error(cause);
+        }
+    }
+
+    /**
+     * Scans regions of the file for intact records and positions the log after the last one.
+     *
+     * @param recovered the callback that receives the offset and payload of every intact record
+     * @throws IOException if the file cannot be read or mapped
+     */
+    private void recover(@NotNull BiConsumer<Long, ByteBuffer> recovered) throws IOException {
+        val fileSize = channel.size();
+        var start = 0L;
+        while (start + HEADER_SIZE <= fileSize) {
+            val header = ByteBuffer.allocate(4);
+            channel.read(header, start);
+            val firstLength = header.flip().getInt();
+            var size = (long) regionSize;
+            if (firstLength > regionSize - HEADER_SIZE && start + HEADER_SIZE + firstLength <= fileSize) {
+                size = HEADER_SIZE + firstLength;
+            }
+
+            val region = map(start, (int) Math.min(size, fileSize - start));
+            current = region;
+            position = 0;
+            val buffer = region.buffer();
+            while (position + HEADER_SIZE <= buffer.capacity()) {
+                val length = buffer.getInt(position);
+                if (length == END_OF_REGION) {
+                    break;
+                }
+                if (length <= 0 || position + HEADER_SIZE + (long) length > buffer.capacity()) {
+                    return;
+                }
+
+                val payload = buffer.slice(position + HEADER_SIZE, length);
+                if (checksum(payload) != buffer.getInt(position + 4)) {
+                    return;
+                }
+                recovered.accept(start + position, payload.asReadOnlyBuffer());
+                position += HEADER_SIZE + length;
+            }
+            start += buffer.capacity();
+        }
+        position = current != null ? current.buffer().capacity() : 0;
+    }
+
+    /**
+     * Appends a record to the log.
+     *
+     * @param payload the record payload
+     * @return the offset of the record
+     */
+    synchronized long append(byte @NotNull [] payload) {
+        val length = HEADER_SIZE + payload.length;
+        if (current == null || position + (long) length > current.buffer().capacity()) {
+            if (current != null && position + 4 <= current.buffer().capacity()) {
+                current.buffer().putInt(position, END_OF_REGION);
+            }
+            val start = current != null ? current.start() + current.buffer().capacity() : 0;
+            try {
+                current = map(start, Math.max(regionSize, length));
+            } catch (IOException cause) {
+                throw new Web3Error(cause);
+            }
+            position = 0;
+        }
+
+        val buffer = current.buffer();
+        buffer.put(position + HEADER_SIZE, payload);
+        buffer.putInt(position + 4, checksum(ByteBuffer.wrap(payload)));
+        buffer.putInt(position, payload.length);
+        val offset = current.start() + position;
+        position += length;
+        return offset;
+    }
+
+    /**
+     * Returns a read-only view of the payload of the record at the given offset.
+     *
+     * @param offset the record offset returned by {@link #append(byte[])} or passed to the recovery callback
+     * @return the record payload
+     */
+    @NotNull
+    ByteBuffer read(long offset) {
+        val regions = this.regions;
+        var low = 0;
+        var high = regions.length - 1;
+        while (low < high) {
+            val middle = (low + high + 1) >>> 1;
+            if (regions[middle].start() <= offset) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+
+        require(regions.length > 0 && offset >= regions[low].start(), "Invalid record offset: {}", offset);
+        val buffer = regions[low].buffer();
+        val position = (int) (offset - regions[low].start());
+        return buffer.slice(position + HEADER_SIZE, buffer.getInt(position)).asReadOnlyBuffer();
+    }
+
+    /**
+     * Forces appended records to be written to the storage device.
+     */
+    void flush() {
+        for (val region : regions) {
+            region.buffer().force();
+        }
+    }
+
+    /**
+     * Flushes appended records and closes the file. Mapped regions stay valid until they are garbage collected.
+     */
+    @Override
+    public synchronized void close() {
+        flush();
+        try {
+            channel.close();
+        } catch (IOException cause) {
+            throw new Web3Error(cause);
+        }
+    }
+
+    /**
+     * Maps a new region of the file, extending the file if needed.
+     *
+     * @param start the offset of the region
+     * @param size  the size of the region
+     * @return the mapped region
+     * @throws IOException if the region cannot be mapped
+     */
+    private Region map(long start, int size) throws IOException {
+        val region = new Region(start, channel.map(FileChannel.MapMode.READ_WRITE, start, size));
+        val regions = Arrays.copyOf(this.regions, this.regions.length + 1);
+        regions[regions.length - 1] = region;
+        this.regions = regions;
+        return region;
+    }
+
+    /**
+     * Computes the CRC32 checksum of the remaining bytes of the buffer.
+     *
+     * @param buffer the buffer
+     * @return the checksum
+     */
+    private static int checksum(@NotNull ByteBuffer buffer) {
+        val crc = new CRC32();
+        crc.update(buffer.duplicate());
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Represents a mapped region of the file.
+     *
+     * @param start  the offset of the region in the file
+     * @param buffer the mapped buffer
+     */
+    private record Region(long start, @NotNull MappedByteBuffer buffer) {
+    }
+
+}
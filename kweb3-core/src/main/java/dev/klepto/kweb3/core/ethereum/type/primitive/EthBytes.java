@@ -73,6 +73,25 @@ public class EthBytes implements EthValue, EthNumericValue<EthBytes>, EthSizedVa
         return size;
     }
 
+    /**
+     * Returns the number of bytes in this <code>ethereum bytes</code> array value.
+     *
+     * @return the number of bytes
+     */
+    public int length() {
+        return arrayValue.length;
+    }
+
+    /**
+     * Returns the byte at the specified index of this <code>ethereum bytes</code> without copying the array value.
+     *
+     * @param index the byte index
+     * @return the byte value
+     */
+    public byte byteAt(int index) {
+        return arrayValue[index];
+    }
+
     /**
      * Returns string representation of this <code>ethereum bytes</code>.
      *
@@ -0,0 +1,126 @@
+package dev.klepto.kweb3.core.metrics;
+
+import lombok.val;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import static dev.klepto.kweb3.core.util.Conditions.require;
+
+/**
+ * Concurrent histogram of non-negative values with power-of-two buckets. Bucket <code>i</code> counts values in range
+ * <code>[2^(i-1), 2^i)</code>, so percentiles are accurate within a factor of two, which is enough to tell latency
+ * distributions apart while recording stays a couple of uncontended additions without allocation.
+ *
+ * @author <a href="http://github.com/klepto">Augustinas R.</a>
+ */
+public final class Histogram {
+
+    private static final int BUCKETS = 64;
+
+    private final LongAdder[] buckets = new LongAdder[BUCKETS];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Constructs a new empty {@link Histogram}.
+     */
+    public Histogram() {
+        for (var i = 0; i < BUCKETS; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Records a value, negative values are recorded as zero.
+     *
+     * @param value the value
+     */
+    public void record(long value) {
+        val clamped = Math.max(value, 0);
+        buckets[BUCKETS - Long.numberOfLeadingZeros(clamped)].increment();
+        count.increment();
+        sum.add(clamped);
+        max.accumulate(clamped);
+    }
+
+    /**
+     * Returns the number of recorded values.
+     *
+     * @return the number of values
+     */
+    public long count() {
+        return count.sum();
+    }
+
+    /**
+     * Returns the sum of recorded values.
+     *
+     * @return the sum of values
+     */
+    public long sum() {
+        return sum.sum();
+    }
+
+    /**
+     * Returns the largest recorded value.
+     *
+     * @return the largest value, or <code>0</code> if no values were recorded
+     */
+    public long max() {
+        return max.get();
+    }
+
+    /**
+     * Returns the mean of recorded values.
+     *
+     * @return the mean, or <code>0</code> if no values were recorded
+     */
+    public double mean() {
+        val count = count();
+        return count > 0 ? (double) sum() / count : 0;
+    }
+
+    /**
+     * Returns an upper bound of the value at the given percentile, the bound is at most twice the actual value.
+     *
+     * @param percentile the percentile in range <code>[0, 1]</code>
+     * @return the upper bound of the percentile value, or <code>0</code> if no values were recorded
+     */
+    public long percentile(double percentile) {
+        require(percentile >= 0 && percentile <= 1, "Percentile must be in range [0, 1]: {}", percentile);
+        val counts = new long[BUCKETS];
+        var total = 0L;
+        for (var i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets[i].sum();
+            total += counts[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+
+        val rank = Math.max(1, (long) Math.ceil(percentile * total));
+        var seen = 0L;
+        for (var i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(i == 0 ? 0 : (1L << i) - 1, max());
+            }
+        }
+        return max();
+    }
+
+    /**
+     * Clears all recorded values.
+     */
+    public void reset() {
+        for (val bucket : buckets) {
+            bucket.reset();
+        }
+        count.reset();
+        sum.reset();
+        max.reset();
+    }
+
+}
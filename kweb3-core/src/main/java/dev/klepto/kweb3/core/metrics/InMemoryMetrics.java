@@ -0,0 +1,429 @@
+package dev.klepto.kweb3.core.metrics;
+
+import dev.klepto.kweb3.core.chain.Web3Endpoint;
+import dev.klepto.kweb3.core.contract.ContractFunction;
+import lombok.val;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Implementation of {@link Web3Metrics} that keeps metrics in memory. Requests are aggregated both per RPC method and
+ * per endpoint url, contract functions are aggregated per function selector. Statistics are created on first use,
+ * after that recording only updates counters and histograms.
+ *
+ * @author <a href="http://github.com/klepto">Augustinas R.</a>
+ */
+public class InMemoryMetrics implements Web3Metrics {
+
+    private final Map<String, RequestStats> methods = new ConcurrentHashMap<>();
+    private final Map<String, EndpointStats> endpoints = new ConcurrentHashMap<>();
+    private final Map<String, FunctionStats> functions = new ConcurrentHashMap<>();
+
+    /**
+     * Returns statistics of requests per RPC method.
+     *
+     * @return the unmodifiable map of statistics by method
+     */
+    @NotNull
+    public Map<String, RequestStats> methods() {
+        return Collections.unmodifiableMap(methods);
+    }
+
+    /**
+     * Returns statistics of requests per endpoint.
+     *
+     * @return the unmodifiable map of statistics by endpoint url
+     */
+    @NotNull
+    public Map<String, EndpointStats> endpoints() {
+        return Collections.unmodifiableMap(endpoints);
+    }
+
+    /**
+     * Returns statistics of contract function calls per function.
+     *
+     * @return the unmodifiable map of statistics by function selector
+     */
+    @NotNull
+    public Map<String, FunctionStats> functions() {
+        return Collections.unmodifiableMap(functions);
+    }
+
+    /**
+     * Returns statistics of the RPC method.
+     *
+     * @param method the RPC method
+     * @return the method statistics, or <code>null</code> if no requests were recorded
+     */
+    @Nullable
+    public RequestStats method(@NotNull String method) {
+        return methods.get(method);
+    }
+
+    /**
+     * Returns statistics of the endpoint.
+     *
+     * @param endpoint the endpoint
+     * @return the endpoint statistics, or <code>null</code> if no requests were recorded
+     */
+    @Nullable
+    public EndpointStats endpoint(@NotNull Web3Endpoint endpoint) {
+        return endpoints.get(endpoint.url());
+    }
+
+    /**
+     * Returns statistics of the contract function.
+     *
+     * @param function the contract function
+     * @return the function statistics, or <code>null</code> if no calls were recorded
+     */
+    @Nullable
+    public FunctionStats function(@NotNull ContractFunction function) {
+        return functions.get(function.signature());
+    }
+
+    /**
+     * Clears all recorded metrics.
+     */
+    public void reset() {
+        methods.clear();
+        endpoints.clear();
+        functions.clear();
+    }
+
+    /**
+     * Increments in-flight requests of the method and the endpoint.
+     *
+     * @param endpoint the endpoint the request was sent to
+     * @param method   the RPC method of the request
+     */
+    @Override
+    public void requestSent(@NotNull Web3Endpoint endpoint, @NotNull String method) {
+        methodStats(method).sent();
+        endpointStats(endpoint).sent();
+    }
+
+    /**
+     * Records latency and error of the request for the method and the endpoint.
+     *
+     * @param endpoint the endpoint the request was sent to
+     * @param method   the RPC method of the request
+     * @param nanos    the request latency in nanoseconds
+     * @param error    the type of error, or <code>null</code> if the request succeeded
+     */
+    @Override
+    public void requestCompleted(@NotNull Web3Endpoint endpoint,
+                                 @NotNull String method,
+                                 long nanos,
+                                 @Nullable ErrorType error) {
+        methodStats(method).completed(nanos, error);
+        endpointStats(endpoint).completed(nanos, error);
+    }
+
+    /**
+     * Records a rejected request for the method and the endpoint.
+     *
+     * @param endpoint the endpoint the request was sent to
+     * @param method   the RPC method of the request
+     */
+    @Override
+    public void requestRejected(@NotNull Web3Endpoint endpoint, @NotNull String method) {
+        methodStats(method).rejected();
+        endpointStats(endpoint).rejected();
+    }
+
+    /**
+     * Adds to the bytes sent to the endpoint.
+     *
+     * @param endpoint the endpoint
+     * @param bytes    the size of the message
+     */
+    @Override
+    public void bytesSent(@NotNull Web3Endpoint endpoint, long bytes) {
+        endpointStats(endpoint).bytesSent.add(bytes);
+    }
+
+    /**
+     * Adds to the bytes received from the endpoint.
+     *
+     * @param endpoint the endpoint
+     * @param bytes    the size of the response
+     */
+    @Override
+    public void bytesReceived(@NotNull Web3Endpoint endpoint, long bytes) {
+        endpointStats(endpoint).bytesReceived.add(bytes);
+    }
+
+    /**
+     * Records the encoding time of the function.
+     *
+     * @param function the contract function
+     * @param nanos    the encoding time in nanoseconds
+     */
+    @Override
+    public void functionEncoded(@NotNull ContractFunction function, long nanos) {
+        functionStats(function).encodeTime.record(nanos);
+    }
+
+    /**
+     * Records latency and failure of the function request.
+     *
+     * @param function the contract function
+     * @param nanos    the request latency in nanoseconds
+     * @param failed   true if the request failed
+     */
+    @Override
+    public void functionCompleted(@NotNull ContractFunction function, long nanos, boolean failed) {
+        val stats = functionStats(function);
+        stats.latency.record(nanos);
+        if (failed) {
+            stats.errors.increment();
+        }
+    }
+
+    /**
+     * Records the decoding time of the function.
+     *
+     * @param function the contract function
+     * @param nanos    the decoding time in nanoseconds
+     */
+    @Override
+    public void functionDecoded(@NotNull ContractFunction function, long nanos) {
+        functionStats(function).decodeTime.record(nanos);
+    }
+
+    /**
+     * Returns statistics of the RPC method, creating them on first use.
+     *
+     * @param method the RPC method
+     * @return the method statistics
+     */
+    private RequestStats methodStats(@NotNull String method) {
+        val stats = methods.get(method);
+        return stats != null ? stats : methods.computeIfAbsent(method, key -> new RequestStats());
+    }
+
+    /**
+     * Returns statistics of the endpoint, creating them on first use.
+     *
+     * @param endpoint the endpoint
+     * @return the endpoint statistics
+     */
+    private EndpointStats endpointStats(@NotNull Web3Endpoint endpoint) {
+        val stats = endpoints.get(endpoint.url());
+        return stats != null ? stats : endpoints.computeIfAbsent(endpoint.url(), key -> new EndpointStats());
+    }
+
+    /**
+     * Returns statistics of the contract function, creating them on first use.
+     *
+     * @param function the contract function
+     * @return the function statistics
+     */
+    private FunctionStats functionStats(@NotNull ContractFunction function) {
+        val stats = functions.get(function.signature());
+        return stats != null ? stats : functions.computeIfAbsent(
+                function.signature(),
+                key -> new FunctionStats(function.name())
+        );
+    }
+
+    /**
+     * Statistics of requests.
+     */
+    public static class RequestStats {
+
+        private final Histogram latency = new Histogram();
+        private final LongAdder inFlight = new LongAdder();
+        private final LongAdder[] errors = new LongAdder[ErrorType.values().length];
+
+        private RequestStats() {
+            for (var i = 0; i < errors.length; i++) {
+                errors[i] = new LongAdder();
+            }
+        }
+
+        /**
+         * Returns the histogram of request latencies in nanoseconds.
+         *
+         * @return the latency histogram
+         */
+        @NotNull
+        public Histogram latency() {
+            return latency;
+        }
+
+        /**
+         * Returns the number of requests that have been sent and are not yet completed.
+         *
+         * @return the number of in-flight requests
+         */
+        public long inFlight() {
+            return inFlight.sum();
+        }
+
+        /**
+         * Returns the number of completed requests.
+         *
+         * @return the number of completed requests
+         */
+        public long requestCount() {
+            return latency.count();
+        }
+
+        /**
+         * Returns the number of requests that failed with the given type of error.
+         *
+         * @param type the error type
+         * @return the number of errors
+         */
+        public long errorCount(@NotNull ErrorType type) {
+            return errors[type.ordinal()].sum();
+        }
+
+        /**
+         * Returns the number of failed requests.
+         *
+         * @return the number of errors of all types
+         */
+        public long errorCount() {
+            var count = 0L;
+            for (val error : errors) {
+                count += error.sum();
+            }
+            return count;
+        }
+
+        /**
+         * Records a sent request.
+         */
+        void sent() {
+            inFlight.increment();
+        }
+
+        /**
+         * Records a completed request.
+         *
+         * @param nanos the request latency in nanoseconds
+         * @param error the type of error, or <code>null</code> if the request succeeded
+         */
+        void completed(long nanos, @Nullable ErrorType error) {
+            inFlight.decrement();
+            latency.record(nanos);
+            if (error != null) {
+                errors[error.ordinal()].increment();
+            }
+        }
+
+        /**
+         * Records a rejected request.
+         */
+        void rejected() {
+            errors[ErrorType.REJECTED.ordinal()].increment();
+        }
+
+    }
+
+    /**
+     * Statistics of requests sent to an endpoint.
+     */
+    public static class EndpointStats extends RequestStats {
+
+        private final LongAdder bytesSent = new LongAdder();
+        private final LongAdder bytesReceived = new LongAdder();
+
+        private EndpointStats() {
+        }
+
+        /**
+         * Returns the total size of messages sent to the endpoint.
+         *
+         * @return the number of bytes sent
+         */
+        public long bytesSent() {
+            return bytesSent.sum();
+        }
+
+        /**
+         * Returns the total size of responses received from the endpoint.
+         *
+         * @return the number of bytes received
+         */
+        public long bytesReceived() {
+            return bytesReceived.sum();
+        }
+
+    }
+
+    /**
+     * Statistics of contract function calls.
+     */
+    public static class FunctionStats {
+
+        private final String name;
+        private final Histogram encodeTime = new Histogram();
+        private final Histogram decodeTime = new Histogram();
+        private final Histogram latency = new Histogram();
+        private final LongAdder errors = new LongAdder();
+
+        private FunctionStats(@NotNull String name) {
+            this.name = name;
+        }
+
+        /**
+         * Returns the name of the function.
+         *
+         * @return the function name
+         */
+        @NotNull
+        public String name() {
+            return name;
+        }
+
+        /**
+         * Returns the histogram of call data encoding times in nanoseconds.
+         *
+         * @return the encoding time histogram
+         */
+        @NotNull
+        public Histogram encodeTime() {
+            return encodeTime;
+        }
+
+        /**
+         * Returns the histogram of result decoding times in nanoseconds.
+         *
+         * @return the decoding time histogram
+         */
+        @NotNull
+        public Histogram decodeTime() {
+            return decodeTime;
+        }
+
+        /**
+         * Returns the histogram of RPC request latencies in nanoseconds.
+         *
+         * @return the latency histogram
+         */
+        @NotNull
+        public Histogram latency() {
+            return latency;
+        }
+
+        /**
+         * Returns the number of failed RPC requests.
+         *
+         * @return the number of errors
+         */
+        public long errorCount() {
+            return errors.sum();
+        }
+
+    }
+
+}
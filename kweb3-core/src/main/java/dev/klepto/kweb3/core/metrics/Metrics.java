@@ -0,0 +1,52 @@
+package dev.klepto.kweb3.core.metrics;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ServiceLoader;
+
+/**
+ * Holds the {@link Web3Metrics} implementation used by kweb3. The initial implementation is the first
+ * {@link Web3Metrics} service found by {@link ServiceLoader}, or {@link Web3Metrics#NONE} if there is none.
+ *
+ * @author <a href="http://github.com/klepto">Augustinas R.</a>
+ */
+public final class Metrics {
+
+    private static volatile Web3Metrics metrics = ServiceLoader.load(Web3Metrics.class)
+            .findFirst()
+            .orElse(Web3Metrics.NONE);
+
+    private Metrics() {
+    }
+
+    /**
+     * Returns the active metrics implementation.
+     *
+     * @return the active metrics implementation
+     */
+    @NotNull
+    public static Web3Metrics get() {
+        return metrics;
+    }
+
+    /**
+     * Sets the active metrics implementation.
+     *
+     * @param metrics the metrics implementation, or <code>null</code> to disable metrics
+     */
+    public static void set(@Nullable Web3Metrics metrics) {
+        Metrics.metrics = metrics != null ? metrics : Web3Metrics.NONE;
+    }
+
+    /**
+     * Returns true if metrics are recorded, hooks that need extra work to gather their values can be skipped
+     * otherwise.
+     *
+     * @return true if the active implementation is not {@link Web3Metrics#NONE}
+     */
+    public static boolean isEnabled() {
+        return metrics != Web3Metrics.NONE;
+    }
+
+}
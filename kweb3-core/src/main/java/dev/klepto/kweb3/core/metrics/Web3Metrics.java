@@ -0,0 +1,131 @@
+package dev.klepto.kweb3.core.metrics;
+
+import dev.klepto.kweb3.core.chain.Web3Endpoint;
+import dev.klepto.kweb3.core.contract.ContractFunction;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Service provider interface for recording metrics of RPC requests, connections and contract function execution.
+ * Hooks are called on the hot path of every request, implementations must be thread-safe, must not block and should
+ * not allocate. All methods have no-op defaults, so implementations only override the hooks they're interested in.
+ * <p>
+ * The active implementation is resolved by {@link Metrics#get()}. For an implementation that keeps metrics in memory,
+ * see {@link InMemoryMetrics}.
+ *
+ * @author <a href="http://github.com/klepto">Augustinas R.</a>
+ */
+public interface Web3Metrics {
+
+    /**
+     * Implementation that records nothing.
+     */
+    Web3Metrics NONE = new Web3Metrics() {
+    };
+
+    /**
+     * Called after a request has been sent to the endpoint.
+     *
+     * @param endpoint the endpoint the request was sent to
+     * @param method   the RPC method of the request
+     */
+    default void requestSent(@NotNull Web3Endpoint endpoint, @NotNull String method) {
+    }
+
+    /**
+     * Called once a sent request is completed, either by a response or by an error.
+     *
+     * @param endpoint the endpoint the request was sent to
+     * @param method   the RPC method of the request
+     * @param nanos    the time between sending the request and its completion in nanoseconds
+     * @param error    the type of error the request failed with, or <code>null</code> if the request succeeded
+     */
+    default void requestCompleted(@NotNull Web3Endpoint endpoint,
+                                  @NotNull String method,
+                                  long nanos,
+                                  @Nullable ErrorType error) {
+    }
+
+    /**
+     * Called when a request could not be sent, for example because the send queue of the connection is full.
+     *
+     * @param endpoint the endpoint the request was sent to
+     * @param method   the RPC method of the request
+     */
+    default void requestRejected(@NotNull Web3Endpoint endpoint, @NotNull String method) {
+    }
+
+    /**
+     * Called when a message is written to the endpoint.
+     *
+     * @param endpoint the endpoint
+     * @param bytes    the size of the message
+     */
+    default void bytesSent(@NotNull Web3Endpoint endpoint, long bytes) {
+    }
+
+    /**
+     * Called when a response is read from the endpoint.
+     *
+     * @param endpoint the endpoint
+     * @param bytes    the size of the response
+     */
+    default void bytesReceived(@NotNull Web3Endpoint endpoint, long bytes) {
+    }
+
+    /**
+     * Called after call data of a contract function has been encoded.
+     *
+     * @param function the contract function
+     * @param nanos    the encoding time in nanoseconds
+     */
+    default void functionEncoded(@NotNull ContractFunction function, long nanos) {
+    }
+
+    /**
+     * Called once the RPC request of a contract function call is completed.
+     *
+     * @param function the contract function
+     * @param nanos    the time between creating the request and its completion in nanoseconds
+     * @param failed   true if the request failed
+     */
+    default void functionCompleted(@NotNull ContractFunction function, long nanos, boolean failed) {
+    }
+
+    /**
+     * Called after the result of a contract function has been decoded.
+     *
+     * @param function the contract function
+     * @param nanos    the decoding time in nanoseconds
+     */
+    default void functionDecoded(@NotNull ContractFunction function, long nanos) {
+    }
+
+    /**
+     * Represents the type of error a request failed with.
+     */
+    enum ErrorType {
+
+        /**
+         * The node answered with a JSON-RPC error.
+         */
+        RESPONSE,
+
+        /**
+         * The request didn't receive a response within the request timeout.
+         */
+        TIMEOUT,
+
+        /**
+         * The connection to the node failed.
+         */
+        CONNECTION,
+
+        /**
+         * The request could not be sent.
+         */
+        REJECTED
+
+    }
+
+}
@@ -0,0 +1,81 @@
+package dev.klepto.kweb3.core.metrics.jfr;
+
+import jdk.jfr.*;
+import lombok.val;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Flight recorder event of encoding or decoding ABI data. Disabled by default, enable
+ * <code>dev.klepto.kweb3.Codec</code> in the recording settings.
+ *
+ * @author <a href="http://github.com/klepto">Augustinas R.</a>
+ */
+@Name("dev.klepto.kweb3.Codec")
+@Label("ABI Codec")
+@Category({"kweb3", "Codec"})
+@Description("ABI data encoded or decoded by the codec")
+@Enabled(false)
+@StackTrace(false)
+public final class CodecEvent extends Event {
+
+    @Label("Operation")
+    private String operation;
+
+    @Label("Descriptor")
+    private String descriptor;
+
+    @Label("Size")
+    @DataAmount
+    private long bytes;
+
+    /**
+     * Creates an event and starts timing it.
+     *
+     * @return the started event
+     */
+    @NotNull
+    public static CodecEvent start() {
+        val event = new CodecEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Commits this event for encoded data if the event is enabled.
+     *
+     * @param descriptor the ABI descriptor of the data
+     * @param bytes      the size of the encoded data
+     */
+    public void encoded(@NotNull String descriptor, long bytes) {
+        complete("ENCODE", descriptor, bytes);
+    }
+
+    /**
+     * Commits this event for decoded data if the event is enabled.
+     *
+     * @param descriptor the ABI descriptor of the data
+     * @param bytes      the size of the decoded data
+     */
+    public void decoded(@NotNull String descriptor, long bytes) {
+        complete("DECODE", descriptor, bytes);
+    }
+
+    /**
+     * Fills in and commits this event if the event is enabled and exceeds the recording threshold.
+     *
+     * @param operation  the codec operation
+     * @param descriptor the ABI descriptor of the data
+     * @param bytes      the size of the data
+     */
+    private void complete(@NotNull String operation, @NotNull String descriptor, long bytes) {
+        end();
+        if (!shouldCommit()) {
+            return;
+        }
+        this.operation = operation;
+        this.descriptor = descriptor;
+        this.bytes = bytes;
+        commit();
+    }
+
+}
@@ -0,0 +1,68 @@
+package dev.klepto.kweb3.core.metrics.jfr;
+
+import dev.klepto.kweb3.core.ethereum.type.primitive.EthAddress;
+import jdk.jfr.*;
+import lombok.val;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Flight recorder event of a contract interface method call, from invocation of the proxy until the executor returns.
+ * For asynchronous return types the duration doesn't include waiting for the result. Disabled by default, enable
+ * <code>dev.klepto.kweb3.ContractCall</code> in the recording settings.
+ *
+ * @author <a href="http://github.com/klepto">Augustinas R.</a>
+ */
+@Name("dev.klepto.kweb3.ContractCall")
+@Label("Contract Call")
+@Category({"kweb3", "Contract"})
+@Description("Contract interface method call executed by the contract proxy")
+@Enabled(false)
+@StackTrace(false)
+public final class ContractCallEvent extends Event {
+
+    @Label("Contract Type")
+    private Class<?> type;
+
+    @Label("Contract Address")
+    private String address;
+
+    @Label("Function")
+    private String function;
+
+    @Label("Failed")
+    private boolean failed;
+
+    /**
+     * Creates an event and starts timing it.
+     *
+     * @return the started event
+     */
+    @NotNull
+    public static ContractCallEvent start() {
+        val event = new ContractCallEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Commits this event if the event is enabled and exceeds the recording threshold.
+     *
+     * @param type     the contract interface
+     * @param address  the contract address
+     * @param function the contract function name
+     * @param failed   true if the call threw an exception
+     */
+    public void complete(@NotNull Class<?> type, @NotNull EthAddress address, @NotNull String function,
+                         boolean failed) {
+        end();
+        if (!shouldCommit()) {
+            return;
+        }
+        this.type = type;
+        this.address = address.toHex();
+        this.function = function;
+        this.failed = failed;
+        commit();
+    }
+
+}
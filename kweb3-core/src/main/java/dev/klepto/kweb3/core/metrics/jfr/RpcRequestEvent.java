@@ -0,0 +1,66 @@
+package dev.klepto.kweb3.core.metrics.jfr;
+
+import dev.klepto.kweb3.core.chain.Web3Endpoint;
+import dev.klepto.kweb3.core.metrics.Web3Metrics.ErrorType;
+import jdk.jfr.*;
+import lombok.val;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Flight recorder event of a completed RPC request, committed once the request receives a response, fails or times
+ * out. Disabled by default, enable <code>dev.klepto.kweb3.RpcRequest</code> in the recording settings.
+ *
+ * @author <a href="http://github.com/klepto">Augustinas R.</a>
+ */
+@Name("dev.klepto.kweb3.RpcRequest")
+@Label("RPC Request")
+@Category({"kweb3", "RPC"})
+@Description("Completed RPC request and its latency")
+@Enabled(false)
+@StackTrace(false)
+public final class RpcRequestEvent extends Event {
+
+    @Label("Endpoint")
+    private String endpoint;
+
+    @Label("Method")
+    private String method;
+
+    @Label("Request Id")
+    private long id;
+
+    @Label("Latency")
+    @Timespan(Timespan.NANOSECONDS)
+    private long latency;
+
+    @Label("Error")
+    private String error;
+
+    /**
+     * Commits an event for the completed request if the event is enabled.
+     *
+     * @param endpoint the endpoint the request was sent to
+     * @param method   the RPC method
+     * @param id       the request id
+     * @param latency  the time between sending the request and its completion in nanoseconds
+     * @param error    the type of error the request failed with, or <code>null</code> if the request succeeded
+     */
+    public static void commit(@NotNull Web3Endpoint endpoint,
+                              @NotNull String method,
+                              long id,
+                              long latency,
+                              @Nullable ErrorType error) {
+        val event = new RpcRequestEvent();
+        if (!event.shouldCommit()) {
+            return;
+        }
+        event.endpoint = endpoint.url();
+        event.method = method;
+        event.id = id;
+        event.latency = latency;
+        event.error = error != null ? error.name() : null;
+        event.commit();
+    }
+
+}
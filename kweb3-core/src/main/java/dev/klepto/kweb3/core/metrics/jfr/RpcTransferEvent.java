@@ -0,0 +1,100 @@
+package dev.klepto.kweb3.core.metrics.jfr;
+
+import dev.klepto.kweb3.core.chain.Web3Endpoint;
+import jdk.jfr.*;
+import lombok.val;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Flight recorder event of a message written to, or a response read from an RPC endpoint. The duration of the event
+ * covers serializing and writing the message, or reading and decoding the response. Disabled by default, enable
+ * <code>dev.klepto.kweb3.RpcTransfer</code> in the recording settings.
+ *
+ * @author <a href="http://github.com/klepto">Augustinas R.</a>
+ */
+@Name("dev.klepto.kweb3.RpcTransfer")
+@Label("RPC Transfer")
+@Category({"kweb3", "RPC"})
+@Description("Message sent to or response received from an RPC endpoint")
+@Enabled(false)
+@StackTrace(false)
+public final class RpcTransferEvent extends Event {
+
+    @Label("Endpoint")
+    private String endpoint;
+
+    @Label("Direction")
+    private String direction;
+
+    @Label("Method")
+    private String method;
+
+    @Label("Request Id")
+    private long id;
+
+    @Label("Size")
+    @DataAmount
+    private long bytes;
+
+    /**
+     * Creates an event and starts timing it.
+     *
+     * @return the started event
+     */
+    @NotNull
+    public static RpcTransferEvent start() {
+        val event = new RpcTransferEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Commits this event for a sent message if the event is enabled.
+     *
+     * @param endpoint the endpoint
+     * @param method   the RPC method of the message, or <code>null</code> if the message is not a request
+     * @param id       the id of the message, or <code>null</code> if the message has no id
+     * @param bytes    the size of the message
+     */
+    public void sent(@NotNull Web3Endpoint endpoint, @Nullable String method, @Nullable Long id, long bytes) {
+        complete(endpoint, "SEND", method, id, bytes);
+    }
+
+    /**
+     * Commits this event for a received response if the event is enabled.
+     *
+     * @param endpoint the endpoint
+     * @param bytes    the size of the response
+     */
+    public void received(@NotNull Web3Endpoint endpoint, long bytes) {
+        complete(endpoint, "RECEIVE", null, null, bytes);
+    }
+
+    /**
+     * Fills in and commits this event if the event is enabled and exceeds the recording threshold.
+     *
+     * @param endpoint  the endpoint
+     * @param direction the transfer direction
+     * @param method    the RPC method, or <code>null</code>
+     * @param id        the message id, or <code>null</code>
+     * @param bytes     the size of the message
+     */
+    private void complete(@NotNull Web3Endpoint endpoint,
+                          @NotNull String direction,
+                          @Nullable String method,
+                          @Nullable Long id,
+                          long bytes) {
+        end();
+        if (!shouldCommit()) {
+            return;
+        }
+        this.endpoint = endpoint.url();
+        this.direction = direction;
+        this.method = method;
+        this.id = id != null ? id : -1;
+        this.bytes = bytes;
+        commit();
+    }
+
+}
@@ -0,0 +1,61 @@
+package dev.klepto.kweb3.core.metrics.jfr;
+
+import dev.klepto.kweb3.core.chain.Web3Endpoint;
+import jdk.jfr.*;
+import lombok.val;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Flight recorder event of a websocket connection re-established after a drop. Disabled by default, enable
+ * <code>dev.klepto.kweb3.WebsocketReconnect</code> in the recording settings.
+ *
+ * @author <a href="http://github.com/klepto">Augustinas R.</a>
+ */
+@Name("dev.klepto.kweb3.WebsocketReconnect")
+@Label("Websocket Reconnect")
+@Category({"kweb3", "RPC"})
+@Description("Websocket connection re-established after a drop")
+@Enabled(false)
+@StackTrace(false)
+public final class WebsocketReconnectEvent extends Event {
+
+    @Label("Endpoint")
+    private String endpoint;
+
+    @Label("Outage")
+    @Timespan(Timespan.NANOSECONDS)
+    private long outage;
+
+    @Label("Attempts")
+    private int attempts;
+
+    @Label("Subscriptions")
+    private int subscriptions;
+
+    @Label("Replayed Requests")
+    private int replayed;
+
+    /**
+     * Commits an event for the reconnect if the event is enabled.
+     *
+     * @param endpoint      the endpoint
+     * @param outage        the time the connection was down in nanoseconds
+     * @param attempts      the number of connection attempts
+     * @param subscriptions the number of re-established subscriptions
+     * @param replayed      the number of re-sent in-flight requests
+     */
+    public static void commit(@NotNull Web3Endpoint endpoint, long outage, int attempts, int subscriptions,
+                              int replayed) {
+        val event = new WebsocketReconnectEvent();
+        if (!event.shouldCommit()) {
+            return;
+        }
+        event.endpoint = endpoint.url();
+        event.outage = outage;
+        event.attempts = attempts;
+        event.subscriptions = subscriptions;
+        event.replayed = replayed;
+        event.commit();
+    }
+
+}
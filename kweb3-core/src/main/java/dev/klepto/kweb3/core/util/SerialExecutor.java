@@ -0,0 +1,86 @@
+package dev.klepto.kweb3.core.util;
+
+import lombok.val;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Executor that runs tasks one at a time in the order they were submitted, on threads of an underlying executor.
+ * Tasks of different serial executors sharing the same underlying executor run concurrently. Exceptions thrown by
+ * tasks are passed to the uncaught exception handler of the running thread and don't prevent later tasks from running.
+ *
+ * @author <a href="http://github.com/klepto">Augustinas R.</a>
+ */
+public class SerialExecutor implements Executor {
+
+    private final Executor executor;
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    /**
+     * Constructs a new {@link SerialExecutor} on top of the given executor.
+     *
+     * @param executor the executor tasks are run on
+     */
+    public SerialExecutor(@NotNull Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Queues the task to be run after all previously submitted tasks.
+     *
+     * @param task the task
+     */
+    @Override
+    public void execute(@NotNull Runnable task) {
+        tasks.add(task);
+        schedule();
+    }
+
+    /**
+     * Returns the number of tasks waiting to be run.
+     *
+     * @return the number of queued tasks
+     */
+    public int queueSize() {
+        return tasks.size();
+    }
+
+    /**
+     * Starts running queued tasks on the underlying executor, unless they're already being run.
+     */
+    private void schedule() {
+        if (running.compareAndSet(false, true)) {
+            executor.execute(this::run);
+        }
+    }
+
+    /**
+     * Runs queued tasks until the queue is empty.
+     */
+    private void run() {
+        while (true) {
+            val task = tasks.poll();
+            if (task == null) {
+                running.set(false);
+                // Task could have been queued after the poll, in which case the submitter failed to start running.
+                if (tasks.isEmpty() || !running.compareAndSet(false, true)) {
+                    return;
+                }
+                continue;
+            }
+
+            try {
+                task.run();
+            } catch (Throwable cause) {
+                val thread = Thread.currentThread();
+                thread.getUncaughtExceptionHandler().uncaughtException(thread, cause);
+            }
+        }
+    }
+
+}
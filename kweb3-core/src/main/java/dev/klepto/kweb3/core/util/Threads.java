@@ -0,0 +1,107 @@
+package dev.klepto.kweb3.core.util;
+
+import lombok.val;
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Utility methods for threads and executors used internally by kweb3.
+ *
+ * @author <a href="http://github.com/klepto">Augustinas R.</a>
+ */
+public final class Threads {
+
+    private static final ScheduledExecutorService SCHEDULER =
+            Executors.newSingleThreadScheduledExecutor(daemonFactory("kweb3-scheduler"));
+    private static final ExecutorService EXECUTOR =
+            Executors.newCachedThreadPool(daemonFactory("kweb3-worker"));
+
+    private Threads() {
+    }
+
+    /**
+     * Returns the shared scheduler for short, non-blocking periodic and delayed tasks. Tasks submitted to this
+     * scheduler must never block as they're executed on a single thread.
+     *
+     * @return the shared scheduler
+     */
+    @NotNull
+    public static ScheduledExecutorService scheduler() {
+        return SCHEDULER;
+    }
+
+    /**
+     * Returns the shared executor for tasks that may block, such as writing to a connection.
+     *
+     * @return the shared executor
+     */
+    @NotNull
+    public static ExecutorService executor() {
+        return EXECUTOR;
+    }
+
+    /**
+     * Creates an executor that starts a new virtual thread for every task. Virtual threads require Java 21, on earlier
+     * versions the executor falls back to a cached pool of daemon platform threads.
+     *
+     * @return the virtual thread per task executor
+     */
+    @NotNull
+    public static ExecutorService virtualThreadExecutor() {
+        try {
+            val factory = MethodHandles.publicLookup().findStatic(
+                    Executors.class,
+                    "newVirtualThreadPerTaskExecutor",
+                    MethodType.methodType(ExecutorService.class)
+            );
+            return (ExecutorService) factory.invoke();
+        } catch (NoSuchMethodException | IllegalAccessException cause) {
+            return Executors.newCachedThreadPool(daemonFactory("kweb3-virtual"));
+        } catch (Throwable cause) {
+            throw new IllegalStateException("Failed to create virtual thread executor.", cause);
+        }
+    }
+
+    /**
+     * Creates an executor with a fixed number of daemon threads and a bounded task queue. Once the queue is full,
+     * tasks are run on the submitting thread, slowing the submitter down instead of queueing tasks indefinitely.
+     *
+     * @param name      the thread name prefix
+     * @param threads   the number of threads
+     * @param queueSize the maximum number of queued tasks
+     * @return the bounded executor
+     */
+    @NotNull
+    public static ExecutorService boundedExecutor(@NotNull String name, int threads, int queueSize) {
+        return new ThreadPoolExecutor(
+                threads,
+                threads,
+                0,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize),
+                daemonFactory(name),
+                new ThreadPoolExecutor.CallerRunsPolicy()
+        );
+    }
+
+    /**
+     * Creates a thread factory that produces daemon threads with given name prefix.
+     *
+     * @param name the thread name prefix
+     * @return the daemon thread factory
+     */
+    @NotNull
+    public static ThreadFactory daemonFactory(@NotNull String name) {
+        val counter = new AtomicInteger();
+        return runnable -> {
+            val thread = new Thread(runnable, name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+}
@@ -0,0 +1,305 @@
+package dev.klepto.kweb3.core.util;
+
+import lombok.val;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import static dev.klepto.kweb3.core.util.Conditions.require;
+
+/**
+ * Hashed timer wheel for scheduling large amounts of short-lived timeouts that are usually cancelled before they
+ * expire, such as request deadlines. Scheduling and cancellation are constant time and all timeouts are processed by a
+ * single worker thread, regardless of how many timeouts are pending. Timeouts are expired with a precision of a single
+ * tick.
+ *
+ * @author <a href="http://github.com/klepto">Augustinas R.</a>
+ */
+public class TimerWheel implements Closeable {
+
+    private final long tickNanos;
+    private final Bucket[] wheel;
+    private final int mask;
+    private final Queue<Timeout> scheduled = new ConcurrentLinkedQueue<>();
+    private final Queue<Timeout> cancelled = new ConcurrentLinkedQueue<>();
+    private final LongAdder expiredCount = new LongAdder();
+    private final Thread worker;
+    private final long startTime;
+    private volatile boolean closed;
+
+    /**
+     * Creates and starts a new timer wheel.
+     *
+     * @param name      the name of the worker thread
+     * @param tick      the duration of a single tick
+     * @param wheelSize the number of buckets in the wheel, rounded up to the nearest power of two
+     */
+    public TimerWheel(@NotNull String name, @NotNull Duration tick, int wheelSize) {
+        require(!tick.isNegative() && !tick.isZero(), "Tick duration must be positive: {}", tick);
+        require(wheelSize > 0, "Wheel size must be positive: {}", wheelSize);
+        val size = Integer.highestOneBit(wheelSize - 1) << 1;
+        this.tickNanos = tick.toNanos();
+        this.wheel = new Bucket[Math.max(size, 1)];
+        this.mask = wheel.length - 1;
+        for (var i = 0; i < wheel.length; i++) {
+            wheel[i] = new Bucket();
+        }
+
+        this.startTime = System.nanoTime();
+        this.worker = Threads.daemonFactory(name).newThread(this::run);
+        this.worker.start();
+    }
+
+    /**
+     * Schedules the task to be executed after the given delay. Task is executed on the worker thread and must not
+     * block.
+     *
+     * @param task  the task to execute
+     * @param delay the delay after which the task is executed
+     * @return the timeout handle that can be used to cancel the task
+     */
+    @NotNull
+    public Timeout schedule(@NotNull Runnable task, @NotNull Duration delay) {
+        require(!closed, "Timer wheel is closed.");
+        val deadline = System.nanoTime() - startTime + delay.toNanos();
+        val timeout = new Timeout(this, task, deadline);
+        scheduled.add(timeout);
+        return timeout;
+    }
+
+    /**
+     * Returns the number of timeouts that expired since this wheel was created.
+     *
+     * @return the number of expired timeouts
+     */
+    public long expiredCount() {
+        return expiredCount.sum();
+    }
+
+    /**
+     * Stops the worker thread, pending timeouts are discarded without being executed.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        LockSupport.unpark(worker);
+    }
+
+    /**
+     * Worker thread loop, processes newly scheduled and cancelled timeouts and expires the current bucket once per
+     * tick.
+     */
+    private void run() {
+        var tick = 0L;
+        while (!closed) {
+            val deadline = tickNanos * (tick + 1);
+            var sleepNanos = deadline - (System.nanoTime() - startTime);
+            while (sleepNanos > 0 && !closed) {
+                LockSupport.parkNanos(this, sleepNanos);
+                sleepNanos = deadline - (System.nanoTime() - startTime);
+            }
+
+            removeCancelled();
+            transferScheduled(tick);
+            wheel[(int) (tick & mask)].expire();
+            tick++;
+        }
+    }
+
+    /**
+     * Moves newly scheduled timeouts into their buckets.
+     *
+     * @param tick the current tick
+     */
+    private void transferScheduled(long tick) {
+        Timeout timeout;
+        while ((timeout = scheduled.poll()) != null) {
+            if (timeout.state != Timeout.PENDING) {
+                continue;
+            }
+
+            val ticks = timeout.deadline / tickNanos;
+            timeout.rounds = (ticks - tick) / wheel.length;
+
+            // Deadlines that already passed are put into the current bucket and expire on this tick.
+            val bucketTick = Math.max(ticks, tick);
+            wheel[(int) (bucketTick & mask)].add(timeout);
+        }
+    }
+
+    /**
+     * Unlinks cancelled timeouts from their buckets.
+     */
+    private void removeCancelled() {
+        Timeout timeout;
+        while ((timeout = cancelled.poll()) != null) {
+            if (timeout.bucket != null) {
+                timeout.bucket.remove(timeout);
+            }
+        }
+    }
+
+    /**
+     * Handle of a scheduled task.
+     */
+    public static final class Timeout {
+
+        private static final int PENDING = 0;
+        private static final int CANCELLED = 1;
+        private static final int EXPIRED = 2;
+        private static final AtomicIntegerFieldUpdater<Timeout> STATE =
+                AtomicIntegerFieldUpdater.newUpdater(Timeout.class, "state");
+
+        private final TimerWheel timer;
+        private final Runnable task;
+        private final long deadline;
+        private volatile int state = PENDING;
+
+        // Fields below are only accessed by the worker thread.
+        private long rounds;
+        private Bucket bucket;
+        private Timeout previous;
+        private Timeout next;
+
+        private Timeout(TimerWheel timer, Runnable task, long deadline) {
+            this.timer = timer;
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        /**
+         * Cancels the timeout, if it hasn't expired yet.
+         *
+         * @return true if the timeout was cancelled, false if it already expired or was cancelled before
+         */
+        public boolean cancel() {
+            if (!STATE.compareAndSet(this, PENDING, CANCELLED)) {
+                return false;
+            }
+            timer.cancelled.add(this);
+            return true;
+        }
+
+        /**
+         * Returns true if the timeout was cancelled.
+         *
+         * @return true if the timeout was cancelled
+         */
+        public boolean isCancelled() {
+            return state == CANCELLED;
+        }
+
+        /**
+         * Returns true if the timeout expired and its task was executed.
+         *
+         * @return true if the timeout expired
+         */
+        public boolean isExpired() {
+            return state == EXPIRED;
+        }
+
+        /**
+         * Expires the timeout and executes the task.
+         */
+        private void expire() {
+            if (!STATE.compareAndSet(this, PENDING, EXPIRED)) {
+                return;
+            }
+
+            timer.expiredCount.increment();
+            try {
+                task.run();
+            } catch (Throwable ignored) {
+                // Tasks are responsible for their own error handling, worker thread must keep running.
+            }
+        }
+
+    }
+
+    /**
+     * Doubly-linked list of timeouts that belong to a single wheel slot.
+     */
+    private static final class Bucket {
+
+        private Timeout head;
+        private Timeout tail;
+
+        /**
+         * Appends the timeout to this bucket.
+         *
+         * @param timeout the timeout
+         */
+        private void add(Timeout timeout) {
+            timeout.bucket = this;
+            if (head == null) {
+                head = tail = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.previous = tail;
+                tail = timeout;
+            }
+        }
+
+        /**
+         * Unlinks the timeout from this bucket.
+         *
+         * @param timeout the timeout
+         */
+        private void remove(Timeout timeout) {
+            val next = timeout.next;
+            if (timeout.previous != null) {
+                timeout.previous.next = next;
+            }
+            if (next != null) {
+                next.previous = timeout.previous;
+            }
+            if (timeout == head) {
+                head = next;
+            }
+            if (timeout == tail) {
+                tail = timeout.previous;
+            }
+            timeout.previous = null;
+            timeout.next = null;
+            timeout.bucket = null;
+        }
+
+        /**
+         * Expires all timeouts in this bucket that have no remaining rounds, the rest are kept for later rounds.
+         */
+        private void expire() {
+            var timeout = head;
+            while (timeout != null) {
+                val next = timeout.next;
+                if (timeout.rounds <= 0) {
+                    remove(timeout);
+                    timeout.expire();
+                } else if (timeout.isCancelled()) {
+                    remove(timeout);
+                } else {
+                    timeout.rounds--;
+                }
+                timeout = next;
+            }
+        }
+
+    }
+
+    /**
+     * Creates a timer wheel with a tick of <code>10 milliseconds</code> and <code>512</code> buckets.
+     *
+     * @param name the name of the worker thread
+     * @return the timer wheel
+     */
+    @NotNull
+    public static TimerWheel create(@NotNull String name) {
+        return new TimerWheel(name, Duration.ofMillis(10), 512);
+    }
+
+}
@@ -0,0 +1,92 @@
+package dev.klepto.kweb3.core.util;
+
+import lombok.val;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+
+import static dev.klepto.kweb3.core.util.Conditions.require;
+
+/**
+ * Token bucket rate limiter. Bucket refills one token per interval and holds at most <code>capacity</code> tokens,
+ * allowing short bursts of up to <code>capacity</code> operations followed by a steady rate of one operation per
+ * interval.
+ *
+ * @author <a href="http://github.com/klepto">Augustinas R.</a>
+ */
+public class TokenBucket {
+
+    private final long intervalNanos;
+    private final long capacity;
+    private long tokens;
+    private long lastRefill;
+
+    /**
+     * Creates a new, full token bucket.
+     *
+     * @param interval the duration it takes to refill a single token
+     * @param capacity the maximum amount of tokens in the bucket
+     */
+    public TokenBucket(@NotNull Duration interval, long capacity) {
+        require(!interval.isNegative(), "Token bucket interval must not be negative: {}", interval);
+        require(capacity > 0, "Token bucket capacity must be positive: {}", capacity);
+        this.intervalNanos = interval.toNanos();
+        this.capacity = capacity;
+        this.tokens = capacity;
+        this.lastRefill = System.nanoTime();
+    }
+
+    /**
+     * Takes a token from the bucket if one is available.
+     *
+     * @return true if token was taken, false if the bucket is empty
+     */
+    public synchronized boolean tryAcquire() {
+        refill();
+        if (tokens == 0) {
+            return false;
+        }
+        tokens--;
+        return true;
+    }
+
+    /**
+     * Returns the amount of nanoseconds until the next token is available, or <code>0</code> if the bucket has a token
+     * available now.
+     *
+     * @return the nanoseconds until the next token is available
+     */
+    public synchronized long nanosUntilAvailable() {
+        refill();
+        if (tokens > 0) {
+            return 0;
+        }
+        return Math.max(0, lastRefill + intervalNanos - System.nanoTime());
+    }
+
+    /**
+     * Adds tokens accumulated since the last refill.
+     */
+    private void refill() {
+        val now = System.nanoTime();
+        if (intervalNanos == 0) {
+            tokens = capacity;
+            lastRefill = now;
+            return;
+        }
+
+        val accumulated = (now - lastRefill) / intervalNanos;
+        if (accumulated <= 0) {
+            return;
+        }
+
+        if (tokens + accumulated >= capacity) {
+            tokens = capacity;
+            lastRefill = now;
+        } else {
+            tokens += accumulated;
+            lastRefill += accumulated * intervalNanos;
+        }
+    }
+
+}
@@ -0,0 +1,87 @@
+package dev.klepto.kweb3.contract;
+
+import dev.klepto.kweb3.core.Web3Error;
+import dev.klepto.kweb3.core.contract.ContractCodec;
+import dev.klepto.kweb3.core.contract.event.EventLogCodec;
+import dev.klepto.kweb3.core.contract.event.Web3EventLog;
+import dev.klepto.kweb3.core.contract.type.ContainerAccessor;
+import dev.klepto.kweb3.core.contract.type.EthStructContainer;
+import dev.klepto.kweb3.core.ethereum.type.primitive.EthAddress;
+import dev.klepto.kweb3.core.ethereum.type.primitive.EthBool;
+import dev.klepto.kweb3.core.ethereum.type.primitive.EthBytes;
+import dev.klepto.kweb3.core.ethereum.type.primitive.EthUint;
+import dev.klepto.unreflect.UnreflectType;
+import lombok.val;
+import org.junit.jupiter.api.Test;
+
+import static dev.klepto.kweb3.core.ethereum.type.primitive.EthAddress.address;
+import static dev.klepto.kweb3.core.ethereum.type.primitive.EthBool.bool;
+import static dev.klepto.kweb3.core.ethereum.type.primitive.EthBytes.bytes;
+import static dev.klepto.kweb3.core.ethereum.type.primitive.EthTuple.tuple;
+import static dev.klepto.kweb3.core.ethereum.type.primitive.EthUint.uint256;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link ContainerAccessor}.
+ *
+ * @author <a href="http://github.com/klepto">Augustinas R.</a>
+ */
+public class ContainerAccessorTest {
+
+    private static final EthAddress TOKEN = address("0xc02aaa39b223fe8d0a0e5c4f27ead9083c756cc2");
+    private static final EthAddress ACCOUNT = address("0xd8da6bf26964af9d7eed9e03e53415d37aa96045");
+
+    @Test
+    public void testStructContainer() {
+        val accessor = ContainerAccessor.of(Call.class);
+        assertSame(accessor, ContainerAccessor.of(Call.class));
+        assertEquals(3, accessor.size());
+
+        val call = new Call(TOKEN, bool(true), bytes("0x70a08231"));
+        assertEquals(TOKEN, accessor.get(call, 0));
+        assertEquals(call, accessor.create(TOKEN, bool(true), bytes("0x70a08231")));
+        assertThrows(Web3Error.class, () -> accessor.fields().get(0).set(call, ACCOUNT));
+
+        val tuple = tuple(TOKEN, bool(true), bytes("0x70a08231"));
+        assertEquals(tuple, ContractCodec.encodeTupleContainerValue(call));
+        assertEquals(call, ContractCodec.decodeTupleContainer(UnreflectType.of(Call.class), tuple));
+    }
+
+    @Test
+    public void testEventLog() {
+        val descriptor = EventLogCodec.parseDescriptor(Transfer.class);
+        assertEquals("0xddf252ad1be2c89b69c2b068fc378daa952ba7f163c4a11628f55a4df523b3ef", descriptor.signature());
+
+        val data = "0x000000000000000000000000000000000000000000000000000000000000002a";
+        val log = (Transfer) EventLogCodec.decode(descriptor, new String[]{descriptor.signature()}, data,
+                TOKEN.toHex());
+        assertEquals(uint256(42), log.value);
+        assertEquals(TOKEN, log.contract);
+    }
+
+    /**
+     * Struct container used by the tests.
+     */
+    public record Call(EthAddress target, EthBool allowFailure, EthBytes callData) implements EthStructContainer {
+    }
+
+    /**
+     * Event log container used by the tests.
+     */
+    @Web3EventLog.Event("Transfer")
+    public static class Transfer implements Web3EventLog {
+
+        @Indexed
+        private EthAddress from;
+
+        @Indexed
+        private EthAddress to;
+
+        private EthUint value;
+
+        @Address
+        private EthAddress contract;
+
+    }
+
+}
@@ -0,0 +1,165 @@
+package dev.klepto.kweb3.contract;
+
+import dev.klepto.kweb3.core.Web3Client;
+import dev.klepto.kweb3.core.Web3Error;
+import dev.klepto.kweb3.core.Web3Result;
+import dev.klepto.kweb3.core.chain.endpoint.PublicNode;
+import dev.klepto.kweb3.core.contract.*;
+import dev.klepto.kweb3.core.contract.annotation.Transaction;
+import dev.klepto.kweb3.core.contract.annotation.View;
+import dev.klepto.kweb3.core.contract.type.EthVoid;
+import dev.klepto.kweb3.core.ethereum.type.primitive.EthAddress;
+import dev.klepto.kweb3.core.ethereum.type.primitive.EthUint;
+import lombok.val;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+
+import static dev.klepto.kweb3.core.ethereum.type.primitive.EthAddress.address;
+import static dev.klepto.kweb3.core.ethereum.type.primitive.EthUint.uint256;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link HiddenClassContractProvider}.
+ *
+ * @author <a href="http://github.com/klepto">Augustinas R.</a>
+ */
+public class HiddenClassContractProviderTest {
+
+    private static final EthAddress TOKEN = address("0xc02aaa39b223fe8d0a0e5c4f27ead9083c756cc2");
+    private static final EthAddress ACCOUNT = address("0xd8da6bf26964af9d7eed9e03e53415d37aa96045");
+
+    @Test
+    public void testContractClass() {
+        val executor = new RecordingContractExecutor();
+        try (val client = client(executor)) {
+            val token = client.contract(Token.class, TOKEN);
+            assertFalse(Proxy.isProxyClass(token.getClass()));
+            assertTrue(token.getClass().isHidden());
+            assertInstanceOf(ContractBinding.class, token);
+            assertSame(token.getClass(), client.contract(Token.class, ACCOUNT).getClass());
+
+            assertEquals(Token.class, token.getContractClass());
+            assertEquals(TOKEN, token.getAddress());
+            assertSame(client, token.getClient());
+            assertEquals(client.contract(Token.class, TOKEN), token);
+            assertEquals("Token(" + TOKEN.toHex() + ")", token.toString());
+        }
+    }
+
+    @Test
+    public void testExecution() throws NoSuchMethodException {
+        val executor = new RecordingContractExecutor();
+        try (val client = client(executor)) {
+            val token = client.contract(Token.class, TOKEN);
+            val balance = new Web3Result<EthUint>();
+            balance.complete(uint256(42));
+            executor.result = balance;
+            assertSame(balance, token.balanceOf(ACCOUNT));
+            assertEquals(uint256(84), token.doubleBalanceOf(ACCOUNT));
+            token.setLimit(7, ACCOUNT);
+
+            val calls = executor.calls;
+            assertEquals(3, calls.size());
+            val balanceOf = Token.class.getMethod("balanceOf", EthAddress.class);
+            assertSame(client.getContractParser().parseFunction(balanceOf), calls.get(0).function());
+            assertArrayEquals(new Object[]{ACCOUNT}, calls.get(0).args());
+            assertEquals("setLimit", calls.get(2).function().name());
+            assertArrayEquals(new Object[]{7L, ACCOUNT}, calls.get(2).args());
+            assertSame(token.getProxy(), calls.get(2).proxy());
+
+            executor.error = new Web3Error("Execution failed.");
+            assertThrows(Web3Error.class, () -> token.balanceOf(ACCOUNT));
+        }
+    }
+
+    @Test
+    public void testInvalidMethod() {
+        try (val client = client(new RecordingContractExecutor())) {
+            // Functions are resolved on first call, so only the invalid method fails.
+            val token = client.contract(PartialToken.class, TOKEN);
+            assertTrue(token.getClass().isHidden());
+            assertNull(token.balanceOf(ACCOUNT));
+            assertThrows(Web3Error.class, token::totalSupply);
+        }
+    }
+
+    /**
+     * Creates a client that executes contract calls with given executor.
+     *
+     * @param executor the contract executor
+     * @return the client
+     */
+    private static Web3Client client(ContractExecutor executor) {
+        return new Web3Client(new HiddenClassContractProvider(), executor, new ReflectionContractParser(),
+                PublicNode.ETHEREUM);
+    }
+
+    /**
+     * Contract interface used by the tests.
+     */
+    public interface Token extends Web3Contract {
+
+        @View
+        Web3Result<EthUint> balanceOf(EthAddress account);
+
+        @Transaction
+        Web3Result<EthVoid> setLimit(long limit, EthAddress account);
+
+        default EthUint doubleBalanceOf(EthAddress account) {
+            return balanceOf(account).get().times(2);
+        }
+
+    }
+
+    /**
+     * Contract interface with a method that can't be parsed.
+     */
+    public interface PartialToken extends Web3Contract {
+
+        @View
+        Web3Result<EthUint> balanceOf(EthAddress account);
+
+        @View
+        EthUint totalSupply();
+
+    }
+
+    /**
+     * Executor that records contract calls without executing them.
+     */
+    private static class RecordingContractExecutor implements ContractExecutor {
+
+        private final List<ContractCall> calls = new ArrayList<>();
+        private Object result;
+        private Web3Error error;
+
+        @Override
+        public Object execute(ContractCall call) {
+            calls.add(call);
+            if (error != null) {
+                throw error;
+            }
+            return result;
+        }
+
+        @Override
+        public String encode(ContractCall call) {
+            return "";
+        }
+
+        @Override
+        public Web3Result<String> request(ContractCall call, String data) {
+            return new Web3Result<>();
+        }
+
+        @Override
+        public Object decode(ContractCall call, Web3Result<String> result) {
+            return null;
+        }
+
+    }
+
+}
@@ -0,0 +1,71 @@
+package dev.klepto.kweb3.contract;
+
+import dev.klepto.kweb3.core.Web3Result;
+import dev.klepto.kweb3.core.contract.ReflectionContractParser;
+import dev.klepto.kweb3.core.contract.Web3Contract;
+import dev.klepto.kweb3.core.contract.annotation.View;
+import dev.klepto.kweb3.core.ethereum.type.EthValue;
+import dev.klepto.kweb3.core.ethereum.type.primitive.EthAddress;
+import dev.klepto.kweb3.core.ethereum.type.primitive.EthUint;
+import dev.klepto.unreflect.UnreflectType;
+import lombok.val;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link ReflectionContractParser}.
+ *
+ * @author <a href="http://github.com/klepto">Augustinas R.</a>
+ */
+public class ReflectionContractParserTest {
+
+    @Test
+    public void testFunctionCache() throws NoSuchMethodException {
+        val method = Token.class.getMethod("balanceOf", EthAddress.class);
+        val function = new ReflectionContractParser().parseFunction(method);
+        assertEquals("balanceOf", function.name());
+        assertEquals("0x70a08231", function.signature());
+
+        // Functions are shared by all parser instances.
+        assertSame(function, new ReflectionContractParser().parseFunction(method));
+        val created = new ReflectionContractParser().createFunction(method);
+        assertNotSame(function, created);
+        assertEquals(function.signature(), created.signature());
+    }
+
+    @Test
+    public void testParserClasses() throws NoSuchMethodException {
+        val method = Token.class.getMethod("totalSupply");
+        val overriding = new ReflectionContractParser() {
+            @Override
+            public @NotNull UnreflectType parseReturnType(@NotNull Method method) {
+                return UnreflectType.of(EthValue.class);
+            }
+        };
+
+        // Parser that resolves the method first must not decide the function of the other parser.
+        val function = overriding.parseFunction(method);
+        val defaultFunction = new ReflectionContractParser().parseFunction(method);
+        assertTrue(function.returnType().matchesExact(EthValue.class));
+        assertTrue(defaultFunction.returnType().matchesExact(EthUint.class));
+        assertSame(function, overriding.parseFunction(method));
+    }
+
+    /**
+     * Contract interface used by the tests.
+     */
+    public interface Token extends Web3Contract {
+
+        @View
+        Web3Result<EthUint> balanceOf(EthAddress account);
+
+        @View
+        Web3Result<EthUint> totalSupply();
+
+    }
+
+}
@@ -0,0 +1,158 @@
+package dev.klepto.kweb3.ethereum;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import dev.klepto.kweb3.core.chain.Web3Endpoint;
+import dev.klepto.kweb3.core.chain.Web3Transport;
+import dev.klepto.kweb3.core.chain.endpoint.PublicNode;
+import dev.klepto.kweb3.core.ethereum.HeadTracker;
+import dev.klepto.kweb3.core.ethereum.HeadTracker.Reorg;
+import dev.klepto.kweb3.core.ethereum.rpc.RpcClient;
+import dev.klepto.kweb3.core.ethereum.rpc.RpcMessage;
+import dev.klepto.kweb3.core.ethereum.rpc.api.RpcApiRequestMessage;
+import dev.klepto.kweb3.core.ethereum.rpc.api.RpcApiResponseMessage;
+import dev.klepto.kweb3.core.ethereum.rpc.io.RpcConnection;
+import lombok.val;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link HeadTracker}.
+ *
+ * @author <a href="http://github.com/klepto">Augustinas R.</a>
+ */
+public class HeadTrackerTest {
+
+    private static final Web3Endpoint ENDPOINT = PublicNode.ETHEREUM.toBuilder()
+            .transport(Web3Transport.HTTP)
+            .settings(Web3Endpoint.Settings.builder().pollingInterval(Duration.ofMillis(10)).build())
+            .build();
+
+    @Test
+    public void testReorg() throws InterruptedException {
+        val node = new ChainConnection(ENDPOINT);
+        val client = node.client();
+        for (var i = 1; i <= 5; i++) {
+            node.mine(i, "a", "a");
+        }
+        node.advance("a", 5);
+
+        val reorgs = new LinkedBlockingQueue<Reorg>();
+        val heads = new LinkedBlockingQueue<HeadTracker.Header>();
+        try (val tracker = new HeadTracker(client, 16)) {
+            tracker.onReorg(reorgs::add);
+            tracker.onHead(heads::add);
+            tracker.start();
+            awaitHead(tracker, 5);
+            assertEquals(5, tracker.blockNumber());
+            assertEquals(5, tracker.timestamp());
+            assertEquals(hash("a", 5), heads.poll(5, TimeUnit.SECONDS).hash());
+
+            // Blocks 6 and 7 are mined between polls, the gap is filled by parent hash.
+            node.mine(6, "a", "a");
+            node.mine(7, "a", "a");
+            node.advance("a", 7);
+            awaitHead(tracker, 7);
+            assertEquals(hash("a", 6), tracker.header(6).hash());
+            assertEquals(6, heads.poll(5, TimeUnit.SECONDS).number());
+            assertEquals(7, heads.poll(5, TimeUnit.SECONDS).number());
+
+            // Blocks 6 and 7 are replaced by blocks 6 to 8 of a fork.
+            node.mine(6, "b", "a");
+            node.mine(7, "b", "b");
+            node.mine(8, "b", "b");
+            node.advance("b", 8);
+            val reorg = reorgs.poll(5, TimeUnit.SECONDS);
+            assertNotNull(reorg);
+            assertEquals(hash("a", 5), reorg.ancestor().hash());
+            assertEquals(2, reorg.removed().size());
+            assertEquals(hash("a", 6), reorg.removed().get(0).hash());
+            assertEquals(3, reorg.added().size());
+            assertEquals(hash("b", 8), reorg.added().get(2).hash());
+            awaitHead(tracker, 8);
+            assertEquals(hash("b", 6), tracker.header(6).hash());
+            assertEquals(hash("a", 5), tracker.header(5).hash());
+            assertNull(tracker.header(4));
+            assertEquals(1, tracker.reorgCount());
+        }
+        client.close();
+    }
+
+    private static void awaitHead(HeadTracker tracker, long number) throws InterruptedException {
+        val deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (tracker.blockNumber() != number && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(number, tracker.blockNumber());
+    }
+
+    private static String hash(String fork, long number) {
+        return String.format("0x%s%063x", fork, number);
+    }
+
+    /**
+     * Connection that serves blocks of a chain that can be extended and reorganized.
+     */
+    private static class ChainConnection implements RpcConnection {
+
+        private final Web3Endpoint endpoint;
+        private final Map<String, JsonObject> blocks = new ConcurrentHashMap<>();
+        private volatile JsonObject latest;
+        private Consumer<RpcMessage> messageCallback;
+
+        private ChainConnection(Web3Endpoint endpoint) {
+            this.endpoint = endpoint;
+        }
+
+        private RpcClient client() {
+            return new RpcClient(endpoint, (endpoint, messageCallback, errorCallback, closeCallback) -> {
+                this.messageCallback = messageCallback;
+                return this;
+            });
+        }
+
+        private void mine(long number, String fork, String parentFork) {
+            val block = new JsonObject();
+            block.addProperty("number", "0x" + Long.toHexString(number));
+            block.addProperty("hash", hash(fork, number));
+            block.addProperty("parentHash", hash(parentFork, number - 1));
+            block.addProperty("timestamp", "0x" + Long.toHexString(number));
+            blocks.put(hash(fork, number), block);
+        }
+
+        private void advance(String fork, long number) {
+            latest = blocks.get(hash(fork, number));
+        }
+
+        @Override
+        public Web3Endpoint endpoint() {
+            return endpoint;
+        }
+
+        @Override
+        public void send(RpcMessage message) {
+            val request = (RpcApiRequestMessage) message;
+            JsonElement result = switch (request.method()) {
+                case "eth_getBlockByNumber" -> latest;
+                case "eth_getBlockByHash" -> blocks.get(request.params().getAsJsonArray().get(0).getAsString());
+                default -> JsonNull.INSTANCE;
+            };
+            messageCallback.accept(new RpcApiResponseMessage("2.0", request.id(), result, null));
+        }
+
+        @Override
+        public void close() {
+        }
+
+    }
+
+}
@@ -0,0 +1,126 @@
+package dev.klepto.kweb3.ethereum;
+
+import com.google.gson.JsonArray;
+import dev.klepto.kweb3.core.chain.Web3Endpoint;
+import dev.klepto.kweb3.core.chain.endpoint.PublicNode;
+import dev.klepto.kweb3.core.ethereum.EthereumClient;
+import dev.klepto.kweb3.core.ethereum.LogsBloomFilter;
+import dev.klepto.kweb3.core.ethereum.rpc.RpcClient;
+import dev.klepto.kweb3.core.ethereum.rpc.RpcMessage;
+import dev.klepto.kweb3.core.ethereum.rpc.api.EthBlockRequest.BlockResponse;
+import dev.klepto.kweb3.core.ethereum.rpc.api.RpcApiRequestMessage;
+import dev.klepto.kweb3.core.ethereum.rpc.api.RpcApiResponseMessage;
+import dev.klepto.kweb3.core.ethereum.rpc.io.RpcConnection;
+import dev.klepto.kweb3.core.ethereum.type.data.EthBlock;
+import dev.klepto.kweb3.core.util.Hex;
+import dev.klepto.kweb3.core.util.hash.Keccak;
+import lombok.val;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+
+import static dev.klepto.kweb3.core.ethereum.type.primitive.EthBytes.bytes;
+import static dev.klepto.kweb3.core.ethereum.type.primitive.EthUint.uint256;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link LogsBloomFilter}.
+ *
+ * @author <a href="http://github.com/klepto">Augustinas R.</a>
+ */
+public class LogsBloomFilterTest {
+
+    private static final String ADDRESS = "0x5c69bee701ef814a2b6a3edd4b1652cb9cc5aa6f";
+    private static final String OTHER_ADDRESS = "0xc02aaa39b223fe8d0a0e5c4f27ead9083c756cc2";
+    private static final String TRANSFER = "0xddf252ad1be2c89b69c2b068fc378daa952ba7f163c4a11628f55a4df523b3ef";
+    private static final String APPROVAL = "0x8c5be1e5ebec7d5bd14f71427d1e84f3dd0314c0f7b2291e5b200ac8c7c3b925";
+
+    @Test
+    public void testMightMatch() {
+        val bloom = bloom(ADDRESS, TRANSFER);
+        val bloomBytes = bytes(bloom);
+
+        val byAddress = new LogsBloomFilter(new String[]{OTHER_ADDRESS, ADDRESS}, null);
+        assertTrue(byAddress.mightMatch(bloom));
+        assertTrue(byAddress.mightMatch(bloomBytes));
+
+        val byTopic = new LogsBloomFilter(null, new String[]{TRANSFER});
+        assertTrue(byTopic.mightMatch(bloom));
+        assertTrue(byTopic.mightMatch(bloomBytes));
+
+        val byBoth = new LogsBloomFilter(new String[]{ADDRESS}, new String[]{TRANSFER, null});
+        assertTrue(byBoth.mightMatch(bloom));
+        assertTrue(byBoth.mightMatch(bloomBytes));
+
+        val otherAddress = new LogsBloomFilter(new String[]{OTHER_ADDRESS}, new String[]{TRANSFER});
+        assertFalse(otherAddress.mightMatch(bloom));
+        assertFalse(otherAddress.mightMatch(bloomBytes));
+
+        val otherTopic = new LogsBloomFilter(new String[]{ADDRESS}, new String[]{APPROVAL});
+        assertFalse(otherTopic.mightMatch(bloom));
+        assertFalse(otherTopic.mightMatch(bloomBytes));
+
+        val empty = bloom();
+        assertFalse(byAddress.mightMatch(empty));
+        assertTrue(new LogsBloomFilter(null, null).mightMatch(empty));
+    }
+
+    @Test
+    public void testPendingBlockLogs() {
+        val requests = new ArrayList<RpcApiRequestMessage>();
+        val rpc = new RpcClient(PublicNode.ETHEREUM, (endpoint, messageCallback, errorCallback, closeCallback) ->
+                new RpcConnection() {
+                    @Override
+                    public Web3Endpoint endpoint() {
+                        return endpoint;
+                    }
+
+                    @Override
+                    public void send(RpcMessage message) {
+                        requests.add((RpcApiRequestMessage) message);
+                        messageCallback.accept(new RpcApiResponseMessage("2.0", message.id(), new JsonArray(), null));
+                    }
+
+                    @Override
+                    public void close() {
+                    }
+                });
+
+        try (val client = new EthereumClient(rpc)) {
+            val filter = new LogsBloomFilter(new String[]{ADDRESS}, null);
+            assertTrue(client.logs(pendingBlock(bloom()), filter).get().isEmpty());
+            assertTrue(requests.isEmpty());
+
+            // Pending block has no hash, logs are requested by its number.
+            assertTrue(client.logs(pendingBlock(bloom(ADDRESS, TRANSFER)), filter).get().isEmpty());
+            assertEquals(1, requests.size());
+            val parameters = requests.get(0).params().getAsJsonArray().get(0).getAsJsonObject();
+            assertEquals(uint256(0x10).toHex(), parameters.get("fromBlock").getAsString());
+            assertEquals(uint256(0x10).toHex(), parameters.get("toBlock").getAsString());
+            assertTrue(parameters.get("blockHash").isJsonNull());
+        }
+    }
+
+    private static EthBlock pendingBlock(String logsBloom) {
+        val hash = String.format("0x%064x", 0);
+        return EthBlock.parse(new BlockResponse("0x1", "0x0", "0x", "0x1c9c380", "0x0", null, logsBloom, null, hash,
+                null, "0x10", hash, hash, hash, "0x220", hash, "0x10", "0x0", new String[0], hash, new String[0]));
+    }
+
+    /**
+     * Builds a bloom as specified by the yellow paper: for each value, the low 11 bits of the first three pairs of
+     * bytes of its Keccak-256 hash are set in the 2048-bit big-endian bloom.
+     */
+    private static String bloom(String... values) {
+        var bloom = BigInteger.ZERO;
+        for (val value : values) {
+            val hash = new Keccak(256).digest(Hex.toByteArray(value));
+            for (var i = 0; i < 6; i += 2) {
+                bloom = bloom.setBit(new BigInteger(1, new byte[]{hash[i], hash[i + 1]}).intValue() % 2048);
+            }
+        }
+        return "0x" + String.format("%512x", bloom).replace(' ', '0');
+    }
+
+}
@@ -0,0 +1,67 @@
+package dev.klepto.kweb3.metrics;
+
+import dev.klepto.kweb3.core.ethereum.abi.HeadlongCodec;
+import dev.klepto.kweb3.core.ethereum.abi.descriptor.EthSizedTypeDescriptor;
+import dev.klepto.kweb3.core.ethereum.type.primitive.EthUint;
+import dev.klepto.kweb3.core.metrics.jfr.CodecEvent;
+import jdk.jfr.EventType;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import lombok.val;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import static dev.klepto.kweb3.core.ethereum.type.primitive.EthUint.uint256;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for flight recorder events of {@link dev.klepto.kweb3.core.metrics.jfr}.
+ *
+ * @author <a href="http://github.com/klepto">Augustinas R.</a>
+ */
+public class FlightRecorderEventsTest {
+
+    private static final String CODEC_EVENT = "dev.klepto.kweb3.Codec";
+
+    @Test
+    public void testDisabledByDefault() {
+        assertFalse(EventType.getEventType(CodecEvent.class).isEnabled());
+    }
+
+    @Test
+    public void testCodecEvents(@TempDir Path directory) throws IOException {
+        val codec = new HeadlongCodec();
+        val descriptor = new EthSizedTypeDescriptor(EthUint.class, 256);
+        val file = directory.resolve("codec.jfr");
+        try (val recording = new Recording()) {
+            recording.enable(CODEC_EVENT).withoutThreshold();
+            recording.start();
+            val abi = codec.encode(uint256(42), descriptor);
+            codec.decode(abi, descriptor);
+            recording.stop();
+            recording.dump(file);
+        }
+
+        val events = RecordingFile.readAllEvents(file).stream()
+                .filter(event -> event.getEventType().getName().equals(CODEC_EVENT))
+                .toList();
+        assertEquals(List.of("ENCODE", "DECODE"), operations(events));
+        for (val event : events) {
+            assertEquals("(uint256)", event.getString("descriptor"));
+            assertEquals(32, event.getLong("bytes"));
+        }
+    }
+
+    /**
+     * Returns the operations of recorded events in recording order.
+     */
+    private static List<String> operations(List<RecordedEvent> events) {
+        return events.stream().map(event -> event.getString("operation")).toList();
+    }
+
+}
@@ -0,0 +1,128 @@
+package dev.klepto.kweb3.metrics;
+
+import com.google.gson.JsonPrimitive;
+import dev.klepto.kweb3.core.Web3Error;
+import dev.klepto.kweb3.core.chain.Web3Endpoint;
+import dev.klepto.kweb3.core.chain.endpoint.PublicNode;
+import dev.klepto.kweb3.core.ethereum.rpc.RpcClient;
+import dev.klepto.kweb3.core.ethereum.rpc.RpcMessage;
+import dev.klepto.kweb3.core.ethereum.rpc.api.RpcApiRequestMessage;
+import dev.klepto.kweb3.core.ethereum.rpc.api.RpcApiResponseMessage;
+import dev.klepto.kweb3.core.ethereum.rpc.io.RpcConnection;
+import dev.klepto.kweb3.core.metrics.Histogram;
+import dev.klepto.kweb3.core.metrics.InMemoryMetrics;
+import dev.klepto.kweb3.core.metrics.Metrics;
+import dev.klepto.kweb3.core.metrics.Web3Metrics.ErrorType;
+import lombok.val;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link InMemoryMetrics}.
+ *
+ * @author <a href="http://github.com/klepto">Augustinas R.</a>
+ */
+public class InMemoryMetricsTest {
+
+    @AfterEach
+    public void disableMetrics() {
+        Metrics.set(null);
+    }
+
+    @Test
+    public void testRequestMetrics() {
+        val metrics = new InMemoryMetrics();
+        Metrics.set(metrics);
+        assertTrue(Metrics.isEnabled());
+
+        val connection = new AnsweringConnection(PublicNode.ETHEREUM);
+        val client = connection.client();
+        for (var i = 0; i < 3; i++) {
+            assertEquals("0x10", client.ethBlockNumber().get());
+        }
+        assertThrows(Web3Error.class, () -> client.ethGasPrice().get());
+
+        val blockNumber = metrics.method("eth_blockNumber");
+        assertNotNull(blockNumber);
+        assertEquals(3, blockNumber.requestCount());
+        assertEquals(0, blockNumber.inFlight());
+        assertEquals(0, blockNumber.errorCount());
+
+        val gasPrice = metrics.method("eth_gasPrice");
+        assertNotNull(gasPrice);
+        assertEquals(1, gasPrice.errorCount(ErrorType.RESPONSE));
+
+        val endpoint = metrics.endpoint(PublicNode.ETHEREUM);
+        assertNotNull(endpoint);
+        assertEquals(4, endpoint.requestCount());
+        assertEquals(1, endpoint.errorCount());
+        client.close();
+    }
+
+    @Test
+    public void testHistogram() {
+        val histogram = new Histogram();
+        for (var i = 1; i <= 1000; i++) {
+            histogram.record(i);
+        }
+        assertEquals(1000, histogram.count());
+        assertEquals(500_500, histogram.sum());
+        assertEquals(1000, histogram.max());
+
+        val median = histogram.percentile(0.5);
+        assertTrue(median >= 500 && median < 1000, "median: " + median);
+        assertEquals(1000, histogram.percentile(1));
+        assertEquals(1, histogram.percentile(0));
+
+        histogram.reset();
+        assertEquals(0, histogram.count());
+        assertEquals(0, histogram.percentile(0.99));
+    }
+
+    /**
+     * Connection that answers <code>eth_blockNumber</code> and fails every other request.
+     */
+    private static class AnsweringConnection implements RpcConnection {
+
+        private final Web3Endpoint endpoint;
+        private Consumer<RpcMessage> messageCallback;
+
+        private AnsweringConnection(Web3Endpoint endpoint) {
+            this.endpoint = endpoint;
+        }
+
+        private RpcClient client() {
+            return new RpcClient(endpoint, (endpoint, messageCallback, errorCallback, closeCallback) -> {
+                this.messageCallback = messageCallback;
+                return this;
+            });
+        }
+
+        @Override
+        public Web3Endpoint endpoint() {
+            return endpoint;
+        }
+
+        @Override
+        public void send(RpcMessage message) {
+            val request = (RpcApiRequestMessage) message;
+            if (request.method().equals("eth_blockNumber")) {
+                val result = new JsonPrimitive("0x10");
+                messageCallback.accept(new RpcApiResponseMessage("2.0", request.id(), result, null));
+            } else {
+                val error = new RpcApiResponseMessage.Error(-32601, "method not found");
+                messageCallback.accept(new RpcApiResponseMessage("2.0", request.id(), null, error));
+            }
+        }
+
+        @Override
+        public void close() {
+        }
+
+    }
+
+}
@@ -0,0 +1,183 @@
+package dev.klepto.kweb3.rpc;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import dev.klepto.kweb3.core.chain.Web3Endpoint;
+import dev.klepto.kweb3.core.chain.endpoint.PublicNode;
+import dev.klepto.kweb3.core.ethereum.rpc.RpcClient;
+import dev.klepto.kweb3.core.ethereum.rpc.RpcMessage;
+import dev.klepto.kweb3.core.ethereum.rpc.api.RpcApiBatchMessage;
+import dev.klepto.kweb3.core.ethereum.rpc.api.RpcApiRequestMessage;
+import dev.klepto.kweb3.core.ethereum.rpc.io.AuthorizedRpcConnection;
+import dev.klepto.kweb3.core.ethereum.rpc.io.BatchingRpcConnection;
+import dev.klepto.kweb3.core.ethereum.rpc.io.RpcConnection;
+import lombok.val;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link BatchingRpcConnection}.
+ *
+ * @author <a href="http://github.com/klepto">Augustinas R.</a>
+ */
+public class BatchingRpcConnectionTest {
+
+    private final BlockingQueue<RpcMessage> sent = new LinkedBlockingQueue<>();
+    private final BlockingQueue<String> threads = new LinkedBlockingQueue<>();
+
+    @Test
+    public void testWindowFlush() throws InterruptedException {
+        val connection = new BatchingRpcConnection(recording(), null, Duration.ofMillis(20), 10);
+        connection.send(request(1));
+        connection.send(request(2));
+        assertTrue(sent.isEmpty());
+
+        val batch = (RpcApiBatchMessage) poll(sent);
+        assertEquals(List.of(1L, 2L), batch.messages().stream().map(RpcMessage::id).toList());
+        assertFalse(poll(threads).startsWith("kweb3-scheduler"));
+
+        // Batch of a single message is sent as is.
+        connection.send(request(3));
+        assertInstanceOf(RpcApiRequestMessage.class, poll(sent));
+        connection.close();
+    }
+
+    @Test
+    public void testSizeFlush() {
+        val connection = new BatchingRpcConnection(recording(), null, Duration.ofSeconds(10), 3);
+        connection.send(request(1));
+        connection.send(request(2));
+        assertTrue(sent.isEmpty());
+        connection.send(request(3));
+
+        val batch = (RpcApiBatchMessage) sent.poll();
+        assertNotNull(batch);
+        assertEquals(3, batch.messages().size());
+        assertEquals(Thread.currentThread().getName(), threads.poll());
+        connection.close();
+        assertTrue(sent.isEmpty());
+    }
+
+    @Test
+    public void testResponseFanOut() throws Exception {
+        val endpoint = PublicNode.ETHEREUM;
+        try (val client = new RpcClient(endpoint, (e, messageCallback, errorCallback, closeCallback) ->
+                new BatchingRpcConnection(new EchoConnection(e, messageCallback, errorCallback, closeCallback),
+                        errorCallback, Duration.ofMillis(20), 10))) {
+            val first = client.ethBlockNumber();
+            val second = client.ethGasPrice();
+            val third = client.ethBlockNumber();
+            assertEquals("eth_blockNumber:1", first.toCompletableFuture().get(5, TimeUnit.SECONDS));
+            assertEquals("eth_gasPrice:2", second.toCompletableFuture().get(5, TimeUnit.SECONDS));
+            assertEquals("eth_blockNumber:3", third.toCompletableFuture().get(5, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    public void testBatchSendError() {
+        val endpoint = PublicNode.ETHEREUM;
+        try (val client = new RpcClient(endpoint, (e, messageCallback, errorCallback, closeCallback) ->
+                new BatchingRpcConnection(failing(), errorCallback, Duration.ofSeconds(10), 3))) {
+            val first = client.ethBlockNumber().toCompletableFuture();
+            val second = client.ethGasPrice().toCompletableFuture();
+            val third = client.ethBlockNumber().toCompletableFuture();
+            assertThrows(ExecutionException.class, () -> first.get(5, TimeUnit.SECONDS));
+            assertThrows(ExecutionException.class, () -> second.get(5, TimeUnit.SECONDS));
+            assertThrows(ExecutionException.class, () -> third.get(5, TimeUnit.SECONDS));
+        }
+    }
+
+    /**
+     * Creates an in-memory connection that records sent messages and the threads they were sent on.
+     */
+    private RpcConnection recording() {
+        return new RpcConnection() {
+            @Override
+            public Web3Endpoint endpoint() {
+                return PublicNode.ETHEREUM;
+            }
+
+            @Override
+            public void send(RpcMessage message) {
+                threads.add(Thread.currentThread().getName());
+                sent.add(message);
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+
+    /**
+     * Creates an in-memory connection that fails to send every message.
+     */
+    private static RpcConnection failing() {
+        return new RpcConnection() {
+            @Override
+            public Web3Endpoint endpoint() {
+                return PublicNode.ETHEREUM;
+            }
+
+            @Override
+            public void send(RpcMessage message) {
+                throw new IllegalStateException("Connection is closed.");
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+
+    private static RpcMessage request(long id) {
+        return new RpcApiRequestMessage().withMethod("eth_blockNumber").withId(id);
+    }
+
+    private static <T> T poll(BlockingQueue<T> queue) throws InterruptedException {
+        val element = queue.poll(5, TimeUnit.SECONDS);
+        assertNotNull(element);
+        return element;
+    }
+
+    /**
+     * Connection that answers a batch with a single JSON array of responses in reverse order, each result naming the
+     * method and id of its request.
+     */
+    private static class EchoConnection extends AuthorizedRpcConnection {
+
+        private EchoConnection(Web3Endpoint endpoint,
+                               Consumer<RpcMessage> messageCallback,
+                               Consumer<Throwable> errorCallback,
+                               Runnable closeCallback) {
+            super(endpoint, messageCallback, errorCallback, closeCallback);
+        }
+
+        @Override
+        public void send(String message) {
+            val requests = JsonParser.parseString(message).getAsJsonArray();
+            val responses = new JsonArray();
+            for (var i = requests.size() - 1; i >= 0; i--) {
+                val request = requests.get(i).getAsJsonObject();
+                val response = new JsonObject();
+                response.addProperty("jsonrpc", "2.0");
+                response.add("id", request.get("id"));
+                response.addProperty("result", request.get("method").getAsString() + ":" + request.get("id"));
+                responses.add(response);
+            }
+            receive(responses.toString());
+        }
+
+    }
+
+}
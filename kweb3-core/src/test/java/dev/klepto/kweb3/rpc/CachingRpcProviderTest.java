@@ -0,0 +1,146 @@
+package dev.klepto.kweb3.rpc;
+
+import com.google.gson.JsonPrimitive;
+import dev.klepto.kweb3.core.chain.Web3Endpoint;
+import dev.klepto.kweb3.core.chain.endpoint.PublicNode;
+import dev.klepto.kweb3.core.ethereum.rpc.CachingRpcProvider;
+import dev.klepto.kweb3.core.ethereum.rpc.RpcClient;
+import dev.klepto.kweb3.core.ethereum.rpc.RpcMessage;
+import dev.klepto.kweb3.core.ethereum.rpc.api.EthGetLogsRequest.LogResponse;
+import dev.klepto.kweb3.core.ethereum.rpc.api.RpcApiRequestMessage;
+import dev.klepto.kweb3.core.ethereum.rpc.api.RpcApiResponseMessage;
+import dev.klepto.kweb3.core.ethereum.rpc.io.RpcConnection;
+import lombok.val;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link CachingRpcProvider}.
+ *
+ * @author <a href="http://github.com/klepto">Augustinas R.</a>
+ */
+public class CachingRpcProviderTest {
+
+    private static final String TO = "0x5c69bee701ef814a2b6a3edd4b1652cb9cc5aa6f";
+
+    @Test
+    public void testPinned() {
+        val connection = new CountingConnection(PublicNode.ETHEREUM);
+        try (val cache = new CachingRpcProvider(connection.client(), 1024 * 1024)) {
+            assertEquals("0x1", cache.ethCall(null, TO, null, null, null, "0x01", "0x10").get());
+            assertEquals("0x1", cache.ethCall(null, TO, null, null, null, "0x01", "0x10").get());
+            assertEquals("0x2", cache.ethCall(null, TO, null, null, null, "0x01", "0x11").get());
+            cache.advanceHead(0x20);
+            assertEquals("0x1", cache.ethCall(null, TO, null, null, null, "0x01", "0x10").get());
+
+            assertEquals(2, connection.requests);
+            assertEquals(2, cache.hitCount());
+            assertEquals(2, cache.missCount());
+            assertEquals(0.5, cache.hitRate());
+        }
+    }
+
+    @Test
+    public void testLatest() {
+        val connection = new CountingConnection(PublicNode.ETHEREUM);
+        try (val cache = new CachingRpcProvider(connection.client(), 1024 * 1024)) {
+            assertEquals("0x1", cache.ethCall(null, TO, null, null, null, "0x01", "latest").get());
+            assertEquals("0x1", cache.ethCall(null, TO, null, null, null, "0x01", "latest").get());
+
+            // eth_blockNumber responses advance the head and invalidate latest responses.
+            assertEquals("0x2", cache.ethBlockNumber().get());
+            assertEquals(2, cache.head());
+            assertEquals("0x3", cache.ethCall(null, TO, null, null, null, "0x01", "latest").get());
+            assertEquals("0x3", cache.ethCall(null, TO, null, null, null, "0x01", "latest").get());
+
+            cache.advanceHead(3);
+            assertEquals("0x4", cache.ethCall(null, TO, null, null, null, "0x01", "latest").get());
+
+            assertEquals("0x5", cache.ethCall(null, TO, null, null, null, "0x01", "pending").get());
+            assertEquals("0x6", cache.ethCall(null, TO, null, null, null, "0x01", "pending").get());
+        }
+    }
+
+    @Test
+    public void testEviction() {
+        val connection = new CountingConnection(PublicNode.ETHEREUM);
+        try (val cache = new CachingRpcProvider(connection.client(), 4096)) {
+            for (var i = 0; i < 100; i++) {
+                cache.ethCall(null, TO, null, null, null, "0x01", "0x" + Integer.toHexString(i)).get();
+            }
+            assertTrue(cache.evictionCount() > 0);
+            assertTrue(cache.size() < 100);
+        }
+    }
+
+    @Test
+    public void testImmutableLogs() {
+        val connection = new CountingConnection(PublicNode.ETHEREUM);
+        try (val cache = new CachingRpcProvider(connection.client(), 1024 * 1024)) {
+            val logs = cache.ethGetLogs(new String[]{TO}, "0x10", "0x11", null, null).get();
+            assertEquals(2, logs.size());
+            logs.clear();
+
+            val cached = cache.ethGetLogs(new String[]{TO}, "0x10", "0x11", null, null).get();
+            assertEquals(2, cached.size());
+            assertThrows(UnsupportedOperationException.class, cached::clear);
+            assertEquals(1, connection.requests);
+        }
+    }
+
+    /**
+     * Connection that synchronously answers every request with the number of requests sent so far, and
+     * <code>eth_getLogs</code> requests with a mutable list of two logs.
+     */
+    private static class CountingConnection implements RpcConnection {
+
+        private final Web3Endpoint endpoint;
+        private Consumer<RpcMessage> messageCallback;
+        private int requests;
+
+        private CountingConnection(Web3Endpoint endpoint) {
+            this.endpoint = endpoint;
+        }
+
+        private RpcClient client() {
+            return new RpcClient(endpoint, (endpoint, messageCallback, errorCallback, closeCallback) -> {
+                this.messageCallback = messageCallback;
+                return this;
+            });
+        }
+
+        @Override
+        public Web3Endpoint endpoint() {
+            return endpoint;
+        }
+
+        @Override
+        public void send(RpcMessage message) {
+            val request = (RpcApiRequestMessage) message;
+            if (request.method().equals("eth_getLogs")) {
+                requests++;
+                val logs = new ArrayList<>(List.of(log(0x10), log(0x11)));
+                messageCallback.accept(new RpcApiResponseMessage("2.0", request.id(), null, logs, null));
+                return;
+            }
+            val result = new JsonPrimitive("0x" + Integer.toHexString(++requests));
+            messageCallback.accept(new RpcApiResponseMessage("2.0", request.id(), result, null));
+        }
+
+        @Override
+        public void close() {
+        }
+
+        private static LogResponse log(long blockNumber) {
+            val hex = "0x" + Long.toHexString(blockNumber);
+            return new LogResponse(TO, new String[0], "0x", hex, "0x00", "0x0", "0x00", "0x0", false);
+        }
+
+    }
+
+}
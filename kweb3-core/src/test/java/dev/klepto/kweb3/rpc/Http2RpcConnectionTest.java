@@ -0,0 +1,79 @@
+package dev.klepto.kweb3.rpc;
+
+import com.google.gson.JsonParser;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import dev.klepto.kweb3.core.chain.Web3Endpoint;
+import dev.klepto.kweb3.core.chain.Web3Transport;
+import dev.klepto.kweb3.core.chain.endpoint.PublicNode;
+import dev.klepto.kweb3.core.ethereum.rpc.RpcClient;
+import dev.klepto.kweb3.core.ethereum.rpc.io.Http2RpcConnection;
+import lombok.val;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link Http2RpcConnection}.
+ *
+ * @author <a href="http://github.com/klepto">Augustinas R.</a>
+ */
+public class Http2RpcConnectionTest {
+
+    @Test
+    public void testFailedExchange() throws Exception {
+        val failed = new CountDownLatch(1);
+        val server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/", exchange -> {
+            val request = JsonParser.parseString(new String(exchange.getRequestBody().readAllBytes(),
+                    StandardCharsets.UTF_8)).getAsJsonObject();
+            if (request.get("method").getAsString().equals("eth_gasPrice")) {
+                respond(exchange, 500, "Internal error");
+                failed.countDown();
+                return;
+            }
+
+            // Answers the healthy request only once the other exchange has failed.
+            try {
+                failed.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException cause) {
+                Thread.currentThread().interrupt();
+            }
+            respond(exchange, 200, "{\"jsonrpc\":\"2.0\",\"id\":" + request.get("id") + ",\"result\":\"0x1\"}");
+        });
+        server.start();
+
+        val endpoint = Web3Endpoint.builder()
+                .chain(PublicNode.ETHEREUM.chain())
+                .url("http://127.0.0.1:" + server.getAddress().getPort())
+                .transport(Web3Transport.HTTP2)
+                .settings(new Web3Endpoint.Settings())
+                .build();
+        try (val client = new RpcClient(endpoint)) {
+            val blockNumber = client.ethBlockNumber().toCompletableFuture();
+            val gasPrice = client.ethGasPrice().toCompletableFuture();
+            assertThrows(ExecutionException.class, () -> gasPrice.get(5, TimeUnit.SECONDS));
+            assertEquals("0x1", blockNumber.get(5, TimeUnit.SECONDS));
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        val bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (val output = exchange.getResponseBody()) {
+            output.write(bytes);
+        }
+    }
+
+}
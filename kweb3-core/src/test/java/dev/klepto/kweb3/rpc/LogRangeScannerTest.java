@@ -0,0 +1,177 @@
+package dev.klepto.kweb3.rpc;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import dev.klepto.kweb3.core.chain.Web3Endpoint;
+import dev.klepto.kweb3.core.chain.endpoint.PublicNode;
+import dev.klepto.kweb3.core.ethereum.rpc.LogRangeScanner;
+import dev.klepto.kweb3.core.ethereum.rpc.RpcClient;
+import dev.klepto.kweb3.core.ethereum.rpc.RpcMessage;
+import dev.klepto.kweb3.core.ethereum.rpc.api.EthGetLogsRequest.LogResponse;
+import dev.klepto.kweb3.core.ethereum.rpc.api.RpcApiRequestMessage;
+import dev.klepto.kweb3.core.ethereum.rpc.api.RpcApiResponseMessage;
+import dev.klepto.kweb3.core.ethereum.rpc.io.RpcConnection;
+import lombok.val;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link LogRangeScanner}.
+ *
+ * @author <a href="http://github.com/klepto">Augustinas R.</a>
+ */
+public class LogRangeScannerTest {
+
+    @Test
+    public void testScan() throws InterruptedException {
+        val connection = new LogsConnection(PublicNode.ETHEREUM, 300);
+        val client = connection.client();
+        val scanner = new LogRangeScanner(client, null, null, 1000, 5999, 4, 1000, 200);
+        val subscriber = new TestSubscriber(64);
+        scanner.subscribe(subscriber);
+
+        assertTrue(subscriber.done.await(10, TimeUnit.SECONDS));
+        assertNull(subscriber.error);
+        assertEquals(5000, subscriber.received.size());
+        for (var i = 0; i < 5000; i++) {
+            assertEquals("0x" + Long.toHexString(1000 + i), subscriber.received.get(i).blockNumber());
+        }
+        assertTrue(scanner.splitCount() > 0);
+        assertTrue(connection.maxInFlight.get() <= 4);
+        client.close();
+        connection.executor.shutdown();
+    }
+
+    @Test
+    public void testSingleBlockFailure() throws InterruptedException {
+        val connection = new LogsConnection(PublicNode.ETHEREUM, 0);
+        val client = connection.client();
+        val subscriber = new TestSubscriber(Long.MAX_VALUE);
+        client.scanLogs(null, null, 0, 10).subscribe(subscriber);
+
+        assertTrue(subscriber.done.await(10, TimeUnit.SECONDS));
+        assertNotNull(subscriber.error);
+        client.close();
+        connection.executor.shutdown();
+    }
+
+    /**
+     * Subscriber that requests logs in batches and records them.
+     */
+    private static class TestSubscriber implements Flow.Subscriber<LogResponse> {
+
+        private final long batchSize;
+        private final List<LogResponse> received = new CopyOnWriteArrayList<>();
+        private final CountDownLatch done = new CountDownLatch(1);
+        private Flow.Subscription subscription;
+        private long outstanding;
+        private volatile Throwable error;
+
+        private TestSubscriber(long batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            outstanding = batchSize;
+            subscription.request(batchSize);
+        }
+
+        @Override
+        public void onNext(LogResponse item) {
+            received.add(item);
+            if (--outstanding == 0) {
+                outstanding = batchSize;
+                subscription.request(batchSize);
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+            done.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            done.countDown();
+        }
+
+    }
+
+    /**
+     * Connection that answers <code>eth_getLogs</code> with one log per block, rejecting ranges wider than the limit.
+     */
+    private static class LogsConnection implements RpcConnection {
+
+        private final Web3Endpoint endpoint;
+        private final int maxRange;
+        private final ExecutorService executor = Executors.newFixedThreadPool(8);
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger maxInFlight = new AtomicInteger();
+        private Consumer<RpcMessage> messageCallback;
+
+        private LogsConnection(Web3Endpoint endpoint, int maxRange) {
+            this.endpoint = endpoint;
+            this.maxRange = maxRange;
+        }
+
+        private RpcClient client() {
+            return new RpcClient(endpoint, (endpoint, messageCallback, errorCallback, closeCallback) -> {
+                this.messageCallback = messageCallback;
+                return this;
+            });
+        }
+
+        @Override
+        public Web3Endpoint endpoint() {
+            return endpoint;
+        }
+
+        @Override
+        public void send(RpcMessage message) {
+            val request = (RpcApiRequestMessage) message;
+            val filter = request.params().getAsJsonArray().get(0).getAsJsonObject();
+            val from = Long.decode(filter.get("fromBlock").getAsString());
+            val to = Long.decode(filter.get("toBlock").getAsString());
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            executor.execute(() -> {
+                inFlight.decrementAndGet();
+                if (to - from + 1 > maxRange) {
+                    val error = new RpcApiResponseMessage.Error(-32005, "block range is too large");
+                    messageCallback.accept(new RpcApiResponseMessage("2.0", request.id(), null, error));
+                    return;
+                }
+
+                val logs = new JsonArray();
+                for (var block = from; block <= to; block++) {
+                    val log = new JsonObject();
+                    log.addProperty("address", "0x5c69bee701ef814a2b6a3edd4b1652cb9cc5aa6f");
+                    log.add("topics", new JsonArray());
+                    log.addProperty("data", "0x");
+                    log.addProperty("blockNumber", "0x" + Long.toHexString(block));
+                    log.addProperty("transactionHash", "0x00");
+                    log.addProperty("transactionIndex", "0x0");
+                    log.addProperty("blockHash", "0x00");
+                    log.addProperty("logIndex", "0x0");
+                    log.addProperty("removed", false);
+                    logs.add(log);
+                }
+                messageCallback.accept(new RpcApiResponseMessage("2.0", request.id(), logs, null));
+            });
+        }
+
+        @Override
+        public void close() {
+        }
+
+    }
+
+}
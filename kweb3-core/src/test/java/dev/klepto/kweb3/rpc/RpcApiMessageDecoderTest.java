@@ -0,0 +1,66 @@
+package dev.klepto.kweb3.rpc;
+
+import dev.klepto.kweb3.core.ethereum.rpc.api.EthGetLogsRequest;
+import dev.klepto.kweb3.core.ethereum.rpc.api.RpcApiMessageDecoder;
+import dev.klepto.kweb3.core.ethereum.rpc.api.RpcApiRequestMessage;
+import dev.klepto.kweb3.core.ethereum.rpc.api.RpcApiResponseMessage;
+import lombok.val;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link RpcApiMessageDecoder} streaming decoding.
+ *
+ * @author <a href="http://github.com/klepto">Augustinas R.</a>
+ */
+public class RpcApiMessageDecoderTest {
+
+    private static final String LOG = "{\"address\":\"0x1\",\"topics\":[\"0x2\"],\"data\":\"0x\",\"blockNumber\":\"0x3\","
+            + "\"transactionHash\":\"0x4\",\"transactionIndex\":\"0x0\",\"blockHash\":\"0x5\",\"logIndex\":\"0x0\","
+            + "\"removed\":false}";
+
+    @Test
+    public void testDecodeResultByType() {
+        val response = "[{\"jsonrpc\":\"2.0\",\"id\":1,\"result\":[" + LOG + "]},"
+                + "{\"jsonrpc\":\"2.0\",\"id\":2,\"result\":\"0x10\"},"
+                + "{\"jsonrpc\":\"2.0\",\"result\":[" + LOG + "],\"id\":3},"
+                + "{\"jsonrpc\":\"2.0\",\"id\":4,\"error\":{\"code\":-32000,\"message\":\"failed\"}},"
+                + "{\"jsonrpc\":\"2.0\",\"method\":\"eth_subscription\",\"params\":{\"subscription\":\"0x6\"}}]";
+        val messages = RpcApiMessageDecoder.decode(
+                new StringReader(response),
+                id -> id == 2 ? null : EthGetLogsRequest.LogResponse.LIST_TYPE
+        );
+        assertEquals(5, messages.size());
+
+        // Result following the id is decoded while reading.
+        val logs = (RpcApiResponseMessage) messages.get(0);
+        assertNull(logs.result());
+        assertInstanceOf(List.class, logs.decoded());
+        List<EthGetLogsRequest.LogResponse> decoded = logs.resultAs(EthGetLogsRequest.LogResponse.LIST_TYPE);
+        assertEquals("0x3", decoded.get(0).blockNumber());
+
+        // Result of unknown type is kept as a tree.
+        val blockNumber = (RpcApiResponseMessage) messages.get(1);
+        assertNull(blockNumber.decoded());
+        assertEquals("0x10", blockNumber.resultAsString());
+
+        // Result preceding the id is kept as a tree and decoded on access.
+        val unordered = (RpcApiResponseMessage) messages.get(2);
+        assertNotNull(unordered.result());
+        List<EthGetLogsRequest.LogResponse> converted = unordered.resultAs(EthGetLogsRequest.LogResponse.LIST_TYPE);
+        assertEquals("0x4", converted.get(0).transactionHash());
+
+        val error = (RpcApiResponseMessage) messages.get(3);
+        assertEquals(4L, error.id());
+        assertEquals("failed", error.error().message());
+
+        val notification = (RpcApiRequestMessage) messages.get(4);
+        assertNull(notification.id());
+        assertEquals("0x6", notification.params().getAsJsonObject().get("subscription").getAsString());
+    }
+
+}
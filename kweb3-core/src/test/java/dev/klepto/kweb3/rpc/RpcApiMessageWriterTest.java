@@ -0,0 +1,47 @@
+package dev.klepto.kweb3.rpc;
+
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+import dev.klepto.kweb3.core.ethereum.rpc.api.*;
+import lombok.val;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static dev.klepto.kweb3.core.ethereum.rpc.api.RpcApiMessage.GSON;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests for {@link RpcApiMessageWriter} against the output of {@link RpcApiMessage#GSON}.
+ *
+ * @author <a href="http://github.com/klepto">Augustinas R.</a>
+ */
+public class RpcApiMessageWriterTest {
+
+    @Test
+    public void testWriteRequests() {
+        val call = new EthCallRequest(null, "0x1", 100000, null, null, "0x70a08231", null).encode().withId(1L);
+        val logs = new EthGetLogsRequest(new String[]{"0x2"}, "0x1", "latest", null, null).encode().withId(2L);
+        val subscribe = new EthSubscribeRequest("logs", "0x3", new String[]{"0x4", null}).encode().withId(3L);
+        val escaped = new RpcApiRequestMessage().withMethod("m").withParams("\"\\\n\u0001 ", true, 1.5, null);
+
+        assertSameJson(GSON.toJson(call), call.serialize());
+        assertSameJson(GSON.toJson(logs), logs.serialize());
+        assertSameJson(GSON.toJson(subscribe), subscribe.serialize());
+        assertSameJson(GSON.toJson(escaped), escaped.serialize());
+        assertSameJson(GSON.toJson(List.of(call, logs)), RpcApiMessage.encode(List.of(call, logs)));
+    }
+
+    @Test
+    public void testWriteResponse() {
+        val result = new RpcApiResponseMessage("2.0", 1L, new JsonPrimitive("0x1"), null);
+        val error = new RpcApiResponseMessage("2.0", 2L, null, new RpcApiResponseMessage.Error(-1, "failed"));
+        assertSameJson(GSON.toJson(result), result.serialize());
+        assertSameJson(GSON.toJson(error), error.serialize());
+    }
+
+    private static void assertSameJson(String expected, String actual) {
+        assertEquals(JsonParser.parseString(expected), JsonParser.parseString(actual));
+    }
+
+}
@@ -0,0 +1,180 @@
+package dev.klepto.kweb3.rpc;
+
+import com.google.gson.JsonPrimitive;
+import dev.klepto.kweb3.core.chain.Web3Endpoint;
+import dev.klepto.kweb3.core.chain.endpoint.PublicNode;
+import dev.klepto.kweb3.core.ethereum.rpc.RpcClient;
+import dev.klepto.kweb3.core.ethereum.rpc.RpcClientPool;
+import dev.klepto.kweb3.core.ethereum.rpc.RpcClientPool.PooledEndpoint;
+import dev.klepto.kweb3.core.ethereum.rpc.RpcMessage;
+import dev.klepto.kweb3.core.ethereum.rpc.api.EthBlockNumberRequest;
+import dev.klepto.kweb3.core.ethereum.rpc.api.RpcApiRequestMessage;
+import dev.klepto.kweb3.core.ethereum.rpc.api.RpcApiResponseMessage;
+import dev.klepto.kweb3.core.ethereum.rpc.io.RpcConnection;
+import lombok.val;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link RpcClientPool}.
+ *
+ * @author <a href="http://github.com/klepto">Augustinas R.</a>
+ */
+public class RpcClientPoolTest {
+
+    private static final Web3Endpoint FIRST = PublicNode.ETHEREUM.toBuilder().url("wss://first").build();
+    private static final Web3Endpoint SECOND = PublicNode.ETHEREUM.toBuilder().url("wss://second").build();
+
+    private final Set<Web3Endpoint> failing = ConcurrentHashMap.newKeySet();
+    private final Set<Web3Endpoint> silent = ConcurrentHashMap.newKeySet();
+    private final Map<Web3Endpoint, Consumer<Throwable>> errorCallbacks = new ConcurrentHashMap<>();
+    private final Map<String, Web3Endpoint> unsubscribes = new ConcurrentHashMap<>();
+
+    @Test
+    public void testEjectAndReinstate() throws InterruptedException {
+        failing.add(FIRST);
+        silent.add(SECOND);
+        try (val pool = new RpcClientPool(List.of(FIRST, SECOND), this::connect)) {
+            val failingEndpoint = pool.endpoints().get(0);
+            val silentEndpoint = pool.endpoints().get(1);
+
+            for (var i = 0; i < RpcClientPool.ERROR_THRESHOLD; i++) {
+                assertFalse(failingEndpoint.isEjected());
+                assertTrue(pool.ethBlockNumber().toCompletableFuture().isCompletedExceptionally());
+            }
+            assertTrue(failingEndpoint.isEjected());
+
+            pool.ethBlockNumber();
+            pool.ethBlockNumber();
+            assertEquals(2, silentEndpoint.inFlight());
+
+            failing.remove(FIRST);
+            Thread.sleep(RpcClientPool.MIN_EJECT_DURATION.toMillis() + 500);
+            assertFalse(failingEndpoint.isEjected());
+            assertEquals("0x1", pool.ethBlockNumber().get());
+        }
+    }
+
+    @Test
+    public void testConnectionErrorCountedOnce() {
+        silent.add(FIRST);
+        try (val pool = new RpcClientPool(List.of(FIRST), this::connect)) {
+            val results = List.of(pool.ethBlockNumber(), pool.ethBlockNumber(), pool.ethBlockNumber());
+            errorCallbacks.get(FIRST).accept(new IOException("Connection reset."));
+            results.forEach(result -> assertTrue(result.toCompletableFuture().isCompletedExceptionally()));
+            assertFalse(pool.endpoints().get(0).isEjected());
+        }
+    }
+
+    @Test
+    public void testUnsubscribePinned() throws InterruptedException, ExecutionException {
+        try (val pool = new RpcClientPool(List.of(FIRST, SECOND), this::connect)) {
+            val subscriptionId = pool.ethSubscribe("newHeads", null, null, result -> {
+            }).get();
+            val subscriber = pool.endpoints().stream()
+                    .filter(endpoint -> endpoint.client().subscriptions().contains(subscriptionId))
+                    .findFirst()
+                    .orElseThrow();
+
+            // Load the subscriber with unanswered requests, so that routing prefers the other endpoint.
+            silent.add(FIRST);
+            silent.add(SECOND);
+            while (pool.endpoint() == subscriber.client().endpoint()) {
+                pool.ethBlockNumber();
+            }
+
+            pool.ethUnsubscribe(subscriptionId);
+            assertEquals(subscriber.client().endpoint(), unsubscribes.get(subscriptionId));
+        }
+    }
+
+    @Test
+    public void testHedge() throws InterruptedException {
+        try (val pool = new RpcClientPool(List.of(FIRST, SECOND), this::connect)) {
+            pool.setHedging(true);
+            PooledEndpoint primary;
+            do {
+                pool.ethBlockNumber().get();
+                primary = pool.endpoints().stream()
+                        .filter(endpoint -> endpoint.client().endpoint() == pool.endpoint())
+                        .findFirst()
+                        .orElseThrow();
+            } while (primary.latencyPercentile95() == null);
+
+            silent.add(primary.client().endpoint());
+            assertEquals("0x1", pool.ethBlockNumber().toCompletableFuture().get(1, TimeUnit.SECONDS));
+            assertEquals(1, pool.hedgedCount());
+
+            val transaction = pool.ethSendRawTransaction("0x00");
+            Thread.sleep(100);
+            assertFalse(transaction.isDone());
+            assertEquals(1, pool.hedgedCount());
+        } catch (ExecutionException | TimeoutException cause) {
+            fail(cause);
+        }
+    }
+
+    @Test
+    public void testHedgeAfterErrorResponse() {
+        silent.add(FIRST);
+        try (val client = new RpcClient(FIRST, this::connect)) {
+            val request = new EthBlockNumberRequest();
+            val hedge = request.hedge();
+            assertNotNull(hedge);
+            request.send(client, 1);
+            hedge.send(client, 2);
+
+            val error = new RpcApiResponseMessage.Error(-32000, "header not found");
+            assertTrue(request.isComplete(client, new RpcApiResponseMessage("2.0", 1L, null, error)));
+            assertFalse(request.result().isDone());
+
+            val response = new RpcApiResponseMessage("2.0", 2L, new JsonPrimitive("0x1"), null);
+            assertTrue(hedge.isComplete(client, response));
+            assertEquals("0x1", request.resultAsString().get());
+        }
+    }
+
+    /**
+     * Creates an in-memory connection that fails every message, ignores every message or responds to every message.
+     */
+    private RpcConnection connect(Web3Endpoint endpoint,
+                                  Consumer<RpcMessage> messageCallback,
+                                  Consumer<Throwable> errorCallback,
+                                  Runnable closeCallback) {
+        errorCallbacks.put(endpoint, errorCallback);
+        return new RpcConnection() {
+            @Override
+            public Web3Endpoint endpoint() {
+                return endpoint;
+            }
+
+            @Override
+            public void send(RpcMessage message) {
+                if (message instanceof RpcApiRequestMessage request && request.method().equals("eth_unsubscribe")) {
+                    unsubscribes.put(request.params().getAsJsonArray().get(0).getAsString(), endpoint);
+                }
+                if (failing.contains(endpoint)) {
+                    errorCallback.accept(new IOException("Endpoint unavailable."));
+                } else if (!silent.contains(endpoint)) {
+                    messageCallback.accept(new RpcApiResponseMessage("2.0", message.id(), new JsonPrimitive("0x1"), null));
+                }
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+
+}
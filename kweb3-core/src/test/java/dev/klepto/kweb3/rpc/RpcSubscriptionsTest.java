@@ -0,0 +1,215 @@
+package dev.klepto.kweb3.rpc;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import dev.klepto.kweb3.core.chain.Web3Endpoint;
+import dev.klepto.kweb3.core.chain.endpoint.PublicNode;
+import dev.klepto.kweb3.core.ethereum.rpc.RpcClient;
+import dev.klepto.kweb3.core.ethereum.rpc.RpcMessage;
+import dev.klepto.kweb3.core.ethereum.rpc.SubscriptionPublisher;
+import dev.klepto.kweb3.core.ethereum.rpc.SubscriptionPublisher.OverflowPolicy;
+import dev.klepto.kweb3.core.ethereum.rpc.api.RpcApiRequestMessage;
+import dev.klepto.kweb3.core.ethereum.rpc.api.RpcApiResponseMessage;
+import dev.klepto.kweb3.core.ethereum.rpc.io.RpcConnection;
+import lombok.val;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link dev.klepto.kweb3.core.ethereum.rpc.RpcSubscriptions} notification dispatch and
+ * {@link dev.klepto.kweb3.core.ethereum.rpc.SubscriptionPublisher} backpressure.
+ *
+ * @author <a href="http://github.com/klepto">Augustinas R.</a>
+ */
+public class RpcSubscriptionsTest {
+
+    @Test
+    public void testDispatch() throws InterruptedException {
+        val connection = new EchoConnection(PublicNode.ETHEREUM);
+        val client = connection.client();
+
+        val blocked = new CountDownLatch(1);
+        val heads = new CopyOnWriteArrayList<String>();
+        val logs = new CountDownLatch(1);
+        val readerThread = Thread.currentThread();
+        assertEquals("0xsub1", client.ethSubscribe("newHeads", null, null, result -> {
+            assertNotSame(readerThread, Thread.currentThread());
+            awaitQuietly(blocked);
+            heads.add(result.getAsString());
+        }).get());
+        assertEquals("0xsub2", client.ethSubscribe("logs", null, null, result -> logs.countDown()).get());
+        assertEquals(2, client.subscriptions().size());
+
+        for (var i = 0; i < 100; i++) {
+            connection.publish("0xsub1", new JsonPrimitive(String.valueOf(i)));
+        }
+        connection.publish("0xsub2", new JsonObject());
+        connection.publish("0xunknown", new JsonObject());
+
+        // Blocked newHeads handler must not delay logs notifications.
+        assertTrue(logs.await(5, TimeUnit.SECONDS));
+        blocked.countDown();
+
+        assertTrue(client.ethUnsubscribe("0xsub1").get());
+        assertFalse(client.subscriptions().contains("0xsub1"));
+        val deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (heads.size() < 100 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        for (var i = 0; i < 100; i++) {
+            assertEquals(String.valueOf(i), heads.get(i));
+        }
+        client.close();
+    }
+
+    @Test
+    public void testPublisherDropOldest() throws InterruptedException {
+        val connection = new EchoConnection(PublicNode.ETHEREUM);
+        val client = connection.client();
+        val received = new LinkedBlockingQueue<String>();
+        val subscription = new AtomicReference<Flow.Subscription>();
+        val publisher = client.pendingTransactionsPublisher(4, OverflowPolicy.DROP_OLDEST);
+        publisher.subscribe(new TestSubscriber(subscription, received));
+        awaitSubscription(client);
+
+        for (var i = 0; i < 10; i++) {
+            connection.publish("0xsub1", new JsonPrimitive("0x" + i));
+        }
+
+        // Nothing was requested yet, only the last 4 notifications fit into the buffer.
+        val deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (((SubscriptionPublisher<?>) publisher).droppedCount() < 6 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        subscription.get().request(10);
+        for (var i = 6; i < 10; i++) {
+            assertEquals("0x" + i, received.poll(5, TimeUnit.SECONDS));
+        }
+
+        subscription.get().cancel();
+        assertEquals("eth_unsubscribe", connection.methods.poll(5, TimeUnit.SECONDS));
+        assertEquals(0, client.subscriptions().size());
+        client.close();
+    }
+
+    @Test
+    public void testPublisherCancelOnOverflow() throws InterruptedException {
+        val connection = new EchoConnection(PublicNode.ETHEREUM);
+        val client = connection.client();
+        val received = new LinkedBlockingQueue<String>();
+        val subscription = new AtomicReference<Flow.Subscription>();
+        val publisher = client.pendingTransactionsPublisher(4, OverflowPolicy.CANCEL);
+        publisher.subscribe(new TestSubscriber(subscription, received));
+        awaitSubscription(client);
+
+        for (var i = 0; i < 5; i++) {
+            connection.publish("0xsub1", new JsonPrimitive("0x" + i));
+        }
+        assertEquals("error", received.poll(5, TimeUnit.SECONDS));
+        assertEquals("eth_unsubscribe", connection.methods.poll(5, TimeUnit.SECONDS));
+        client.close();
+    }
+
+    private static void awaitSubscription(RpcClient client) throws InterruptedException {
+        val deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (client.subscriptions().size() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, client.subscriptions().size());
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Subscriber that records received values, and <code>error</code> once the subscription fails.
+     */
+    private record TestSubscriber(AtomicReference<Flow.Subscription> subscription,
+                                  BlockingQueue<String> received) implements Flow.Subscriber<String> {
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription.set(subscription);
+        }
+
+        @Override
+        public void onNext(String item) {
+            received.add(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            received.add("error");
+        }
+
+        @Override
+        public void onComplete() {
+        }
+
+    }
+
+    /**
+     * Connection that answers subscription requests synchronously on the sending thread.
+     */
+    private static class EchoConnection implements RpcConnection {
+
+        private final Web3Endpoint endpoint;
+        private final BlockingQueue<String> methods = new LinkedBlockingQueue<>();
+        private Consumer<RpcMessage> messageCallback;
+        private int subscriptions;
+
+        private EchoConnection(Web3Endpoint endpoint) {
+            this.endpoint = endpoint;
+        }
+
+        private RpcClient client() {
+            return new RpcClient(endpoint, (endpoint, messageCallback, errorCallback, closeCallback) -> {
+                this.messageCallback = messageCallback;
+                return this;
+            });
+        }
+
+        @Override
+        public Web3Endpoint endpoint() {
+            return endpoint;
+        }
+
+        @Override
+        public void send(RpcMessage message) {
+            val request = (RpcApiRequestMessage) message;
+            if (!request.method().equals("eth_subscribe")) {
+                methods.add(request.method());
+            }
+            JsonElement result = switch (request.method()) {
+                case "eth_subscribe" -> new JsonPrimitive("0xsub" + ++subscriptions);
+                case "eth_unsubscribe" -> new JsonPrimitive(true);
+                default -> fail("Unexpected method: " + request.method());
+            };
+            messageCallback.accept(new RpcApiResponseMessage("2.0", request.id(), result, null));
+        }
+
+        private void publish(String subscription, JsonElement result) {
+            val params = new JsonObject();
+            params.addProperty("subscription", subscription);
+            params.add("result", result);
+            messageCallback.accept(new RpcApiRequestMessage("2.0", null, "eth_subscription", params));
+        }
+
+        @Override
+        public void close() {
+        }
+
+    }
+
+}
@@ -0,0 +1,135 @@
+package dev.klepto.kweb3.rpc;
+
+import com.google.gson.JsonPrimitive;
+import dev.klepto.kweb3.core.Web3Result;
+import dev.klepto.kweb3.core.chain.Web3Endpoint;
+import dev.klepto.kweb3.core.chain.endpoint.PublicNode;
+import dev.klepto.kweb3.core.ethereum.rpc.RpcClient;
+import dev.klepto.kweb3.core.ethereum.rpc.RpcMessage;
+import dev.klepto.kweb3.core.ethereum.rpc.api.RpcApiRequestMessage;
+import dev.klepto.kweb3.core.ethereum.rpc.api.RpcApiResponseMessage;
+import dev.klepto.kweb3.core.ethereum.rpc.io.RpcConnection;
+import lombok.val;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link dev.klepto.kweb3.core.ethereum.rpc.SingleFlight} request deduplication.
+ *
+ * @author <a href="http://github.com/klepto">Augustinas R.</a>
+ */
+public class SingleFlightTest {
+
+    private static final String TO = "0x5c69bee701ef814a2b6a3edd4b1652cb9cc5aa6f";
+
+    @Test
+    public void testDeduplication() throws InterruptedException {
+        val connection = new HeldConnection(PublicNode.ETHEREUM);
+        val client = connection.client();
+        client.singleFlight().setEnabled(true);
+
+        val results = new ArrayList<Web3Result<String>>();
+        for (var i = 0; i < 10; i++) {
+            results.add(client.ethCall(null, TO, null, null, null, "0x01", "latest"));
+        }
+        results.add(client.ethCall(null, TO, null, null, null, "0x02", "latest"));
+        results.add(client.ethCall(null, TO, null, null, null, "0x01", "0x10"));
+
+        assertEquals(3, connection.sent.size());
+        assertEquals(9, client.singleFlight().hitCount());
+        assertEquals(3, client.singleFlight().missCount());
+        assertEquals(3, client.singleFlight().size());
+
+        connection.answerAll();
+        for (var i = 0; i < 10; i++) {
+            assertEquals("0x1", results.get(i).get());
+        }
+        assertEquals("0x2", results.get(10).get());
+        assertEquals("0x3", results.get(11).get());
+        assertEquals(0, client.singleFlight().size());
+
+        // Completed requests are no longer shared.
+        val next = client.ethCall(null, TO, null, null, null, "0x01", "latest");
+        assertEquals(1, connection.sent.size());
+        connection.answerAll();
+        assertEquals("0x4", next.get());
+        client.close();
+    }
+
+    @Test
+    public void testNonIdempotent() {
+        val connection = new HeldConnection(PublicNode.ETHEREUM);
+        val client = connection.client();
+        client.singleFlight().setEnabled(true);
+
+        client.ethSendRawTransaction("0x00");
+        client.ethSendRawTransaction("0x00");
+        assertEquals(2, connection.sent.size());
+        assertEquals(0, client.singleFlight().hitCount() + client.singleFlight().missCount());
+        client.close();
+    }
+
+    @Test
+    public void testDisabled() {
+        val connection = new HeldConnection(PublicNode.ETHEREUM);
+        val client = connection.client();
+
+        client.ethBlockNumber();
+        client.ethBlockNumber();
+        assertEquals(2, connection.sent.size());
+        client.close();
+    }
+
+    /**
+     * Connection that holds requests until they are answered, each answer is a sequentially increasing number.
+     */
+    private static class HeldConnection implements RpcConnection {
+
+        private final Web3Endpoint endpoint;
+        private final BlockingQueue<RpcApiRequestMessage> sent = new LinkedBlockingQueue<>();
+        private Consumer<RpcMessage> messageCallback;
+        private int answers;
+
+        private HeldConnection(Web3Endpoint endpoint) {
+            this.endpoint = endpoint;
+        }
+
+        private RpcClient client() {
+            return new RpcClient(endpoint, (endpoint, messageCallback, errorCallback, closeCallback) -> {
+                this.messageCallback = messageCallback;
+                return this;
+            });
+        }
+
+        private void answerAll() {
+            val requests = new ArrayList<RpcApiRequestMessage>();
+            sent.drainTo(requests);
+            for (val request : requests) {
+                val result = new JsonPrimitive("0x" + Integer.toHexString(++answers));
+                messageCallback.accept(new RpcApiResponseMessage("2.0", request.id(), result, null));
+            }
+        }
+
+        @Override
+        public Web3Endpoint endpoint() {
+            return endpoint;
+        }
+
+        @Override
+        public void send(RpcMessage message) {
+            sent.add((RpcApiRequestMessage) message);
+        }
+
+        @Override
+        public void close() {
+        }
+
+    }
+
+}
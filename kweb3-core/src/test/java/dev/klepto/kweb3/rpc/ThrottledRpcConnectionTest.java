@@ -0,0 +1,115 @@
+package dev.klepto.kweb3.rpc;
+
+import dev.klepto.kweb3.core.Web3Error;
+import dev.klepto.kweb3.core.chain.Web3Endpoint;
+import dev.klepto.kweb3.core.chain.endpoint.PublicNode;
+import dev.klepto.kweb3.core.ethereum.rpc.RpcMessage;
+import dev.klepto.kweb3.core.ethereum.rpc.api.RpcApiRequestMessage;
+import dev.klepto.kweb3.core.ethereum.rpc.io.RpcConnection;
+import dev.klepto.kweb3.core.ethereum.rpc.io.RpcSendError;
+import dev.klepto.kweb3.core.ethereum.rpc.io.ThrottledRpcConnection;
+import lombok.val;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link ThrottledRpcConnection}.
+ *
+ * @author <a href="http://github.com/klepto">Augustinas R.</a>
+ */
+public class ThrottledRpcConnectionTest {
+
+    private final BlockingQueue<RpcMessage> sent = new LinkedBlockingQueue<>();
+    private final BlockingQueue<Throwable> errors = new LinkedBlockingQueue<>();
+
+    @Test
+    public void testOrderAndOverflow() throws InterruptedException {
+        val connection = throttle(Duration.ofMillis(20), 2);
+        connection.send(request(1));
+        connection.send(request(2));
+        connection.send(request(3));
+        val overflow = assertThrows(RpcSendError.class, () -> connection.send(request(4)));
+        assertEquals(List.of(4L), overflow.ids());
+
+        for (var id = 1L; id <= 3; id++) {
+            assertEquals(id, poll(sent).id());
+        }
+        assertEquals(0, connection.queueSize());
+        assertTrue(errors.isEmpty());
+        connection.close();
+    }
+
+    @Test
+    public void testFailedMessage() throws InterruptedException {
+        val connection = throttle(Duration.ofMillis(20), 2);
+        connection.send(request(1));
+        connection.send(request(-2));
+        connection.send(request(3));
+
+        // Only the request of the message that failed to send is reported.
+        assertEquals(1L, poll(sent).id());
+        assertEquals(List.of(-2L), ((RpcSendError) poll(errors)).ids());
+        assertEquals(3L, poll(sent).id());
+        assertTrue(errors.isEmpty());
+        connection.close();
+    }
+
+    @Test
+    public void testClose() throws InterruptedException {
+        val connection = throttle(Duration.ofSeconds(10), 2);
+        connection.send(request(1));
+        connection.send(request(2));
+        connection.send(request(3));
+        connection.close();
+
+        assertEquals(1L, poll(sent).id());
+        assertEquals(List.of(2L), ((RpcSendError) poll(errors)).ids());
+        assertEquals(List.of(3L), ((RpcSendError) poll(errors)).ids());
+        val closed = assertThrows(RpcSendError.class, () -> connection.send(request(4)));
+        assertEquals(List.of(4L), closed.ids());
+    }
+
+    /**
+     * Creates a throttled connection on top of an in-memory connection that records sent messages and fails messages
+     * with negative ids.
+     */
+    private ThrottledRpcConnection throttle(Duration cooldown, int queueSize) {
+        val connection = new RpcConnection() {
+            @Override
+            public Web3Endpoint endpoint() {
+                return PublicNode.ETHEREUM;
+            }
+
+            @Override
+            public void send(RpcMessage message) {
+                if (message.id() < 0) {
+                    throw new Web3Error("Message {} failed.", message.id());
+                }
+                sent.add(message);
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        return new ThrottledRpcConnection(connection, errors::add, cooldown, 1, queueSize);
+    }
+
+    private static RpcMessage request(long id) {
+        return new RpcApiRequestMessage().withMethod("eth_blockNumber").withId(id);
+    }
+
+    private static <T> T poll(BlockingQueue<T> queue) throws InterruptedException {
+        val element = queue.poll(5, TimeUnit.SECONDS);
+        assertNotNull(element);
+        return element;
+    }
+
+}
@@ -0,0 +1,173 @@
+package dev.klepto.kweb3.rpc;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import dev.klepto.kweb3.core.chain.endpoint.PublicNode;
+import dev.klepto.kweb3.core.ethereum.rpc.RpcMessage;
+import dev.klepto.kweb3.core.ethereum.rpc.api.RpcApiRequestMessage;
+import dev.klepto.kweb3.core.ethereum.rpc.api.RpcApiResponseMessage;
+import dev.klepto.kweb3.core.ethereum.rpc.io.WebsocketRpcConnection;
+import lombok.val;
+import org.java_websocket.WebSocket;
+import org.java_websocket.handshake.ClientHandshake;
+import org.java_websocket.server.WebSocketServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link WebsocketRpcConnection} reconnection against a local websocket server.
+ *
+ * @author <a href="http://github.com/klepto">Augustinas R.</a>
+ */
+public class WebsocketRpcConnectionTest {
+
+    private final BlockingQueue<RpcMessage> received = new LinkedBlockingQueue<>();
+    private Server server;
+
+    @BeforeEach
+    public void start() throws InterruptedException {
+        server = new Server();
+        server.start();
+        assertTrue(server.started.await(5, TimeUnit.SECONDS));
+    }
+
+    @AfterEach
+    public void stop() throws InterruptedException {
+        server.stop();
+    }
+
+    @Test
+    public void testReconnect() throws InterruptedException {
+        val endpoint = PublicNode.ETHEREUM.toBuilder().url("ws://127.0.0.1:" + server.getPort()).build();
+        val connection = new WebsocketRpcConnection(endpoint, received::add, null, null);
+        try {
+            connection.send(new RpcApiRequestMessage().withMethod("eth_subscribe").withParams("newHeads").withId(1L));
+            val subscribed = (RpcApiResponseMessage) poll();
+            assertEquals(1L, subscribed.id());
+            assertEquals("0xsub1", subscribed.resultAsString());
+            assertEquals("0xsub1", subscription(poll()));
+
+            // Server drops the connection instead of answering, request must be re-sent after reconnecting.
+            connection.send(new RpcApiRequestMessage().withMethod("eth_blockNumber").withId(2L));
+            val notification = poll();
+            val response = poll();
+            assertEquals("0xsub1", subscription(notification));
+            assertEquals(2L, response.id());
+            assertEquals("0x1", ((RpcApiResponseMessage) response).resultAsString());
+            assertEquals(1, connection.reconnectCount());
+            assertTrue(received.isEmpty());
+        } finally {
+            connection.close();
+        }
+    }
+
+    @Test
+    public void testUntrackedNotReplayed() throws InterruptedException {
+        val endpoint = PublicNode.ETHEREUM.toBuilder().url("ws://127.0.0.1:" + server.getPort()).build();
+        val connection = new WebsocketRpcConnection(endpoint, received::add, null, null);
+        try {
+            // First request expires before it's written, second one is re-sent after the server drops the connection.
+            connection.send(new RpcApiRequestMessage().withMethod("eth_blockNumber").withId(1L));
+            connection.untrack(1L);
+            connection.send(new RpcApiRequestMessage().withMethod("eth_blockNumber").withId(2L));
+            assertEquals(2L, poll().id());
+            assertNull(received.poll(200, TimeUnit.MILLISECONDS));
+            assertEquals(1, connection.reconnectCount());
+        } finally {
+            connection.close();
+        }
+    }
+
+    private RpcMessage poll() throws InterruptedException {
+        val message = received.poll(5, TimeUnit.SECONDS);
+        assertNotNull(message);
+        return message;
+    }
+
+    private static String subscription(RpcMessage message) {
+        val notification = (RpcApiRequestMessage) message;
+        assertEquals("eth_subscription", notification.method());
+        return notification.params().getAsJsonObject().get("subscription").getAsString();
+    }
+
+    /**
+     * Server that answers <code>eth_subscribe</code> with a new subscription id per connection followed by a
+     * notification, and drops the first connection on <code>eth_blockNumber</code>.
+     */
+    private static class Server extends WebSocketServer {
+
+        private final CountDownLatch started = new CountDownLatch(1);
+        private final AtomicInteger connections = new AtomicInteger();
+
+        private Server() {
+            super(new InetSocketAddress("127.0.0.1", 0));
+        }
+
+        @Override
+        public void onOpen(WebSocket connection, ClientHandshake handshake) {
+            connection.setAttachment(connections.incrementAndGet());
+        }
+
+        @Override
+        public void onMessage(WebSocket connection, String message) {
+            val request = JsonParser.parseString(message).getAsJsonObject();
+            val id = request.get("id").getAsLong();
+            int number = connection.getAttachment();
+            switch (request.get("method").getAsString()) {
+                case "eth_subscribe" -> {
+                    val subscription = "0xsub" + number;
+                    connection.send(response(id, subscription));
+                    val params = new JsonObject();
+                    params.addProperty("subscription", subscription);
+                    params.addProperty("result", "0xhead");
+                    val notification = new JsonObject();
+                    notification.addProperty("jsonrpc", "2.0");
+                    notification.addProperty("method", "eth_subscription");
+                    notification.add("params", params);
+                    connection.send(notification.toString());
+                }
+                case "eth_blockNumber" -> {
+                    if (number == 1) {
+                        connection.close();
+                    } else {
+                        connection.send(response(id, "0x1"));
+                    }
+                }
+                default -> fail("Unexpected method: " + message);
+            }
+        }
+
+        private static String response(long id, String result) {
+            val response = new JsonObject();
+            response.addProperty("jsonrpc", "2.0");
+            response.addProperty("id", id);
+            response.addProperty("result", result);
+            return response.toString();
+        }
+
+        @Override
+        public void onClose(WebSocket connection, int code, String reason, boolean remote) {
+        }
+
+        @Override
+        public void onError(WebSocket connection, Exception ex) {
+        }
+
+        @Override
+        public void onStart() {
+            started.countDown();
+        }
+
+    }
+
+}
@@ -0,0 +1,227 @@
+package dev.klepto.kweb3.store;
+
+import dev.klepto.kweb3.core.chain.Web3Endpoint;
+import dev.klepto.kweb3.core.chain.Web3Transport;
+import dev.klepto.kweb3.core.chain.endpoint.PublicNode;
+import dev.klepto.kweb3.core.ethereum.EthereumClient;
+import dev.klepto.kweb3.core.ethereum.rpc.RpcClient;
+import dev.klepto.kweb3.core.ethereum.rpc.RpcMessage;
+import dev.klepto.kweb3.core.ethereum.rpc.api.EthBlockRequest.BlockResponse;
+import dev.klepto.kweb3.core.ethereum.rpc.api.EthGetLogsRequest.LogResponse;
+import dev.klepto.kweb3.core.ethereum.rpc.api.RpcApiRequestMessage;
+import dev.klepto.kweb3.core.ethereum.rpc.api.RpcApiResponseMessage;
+import dev.klepto.kweb3.core.ethereum.rpc.io.RpcConnection;
+import dev.klepto.kweb3.core.ethereum.store.BlockStore;
+import lombok.val;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static dev.klepto.kweb3.core.ethereum.rpc.api.RpcApiMessage.GSON;
+import static dev.klepto.kweb3.core.ethereum.type.primitive.EthUint.uint256;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link BlockStore}.
+ *
+ * @author <a href="http://github.com/klepto">Augustinas R.</a>
+ */
+public class BlockStoreTest {
+
+    private static final String[] ADDRESSES = {"0x5C69bEe701ef814a2B6a3EDD4B1652CB9cc5aA6f"};
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void testBlocks() {
+        try (val store = new BlockStore(directory, 4096)) {
+            assertFalse(store.putBlock(block(1)));
+            store.setFinalizedBlock(100);
+            for (var i = 0; i <= 100; i++) {
+                assertTrue(store.putBlock(block(i)));
+            }
+            assertFalse(store.putBlock(block(101)));
+            assertFalse(store.putBlock(block(50)));
+            assertEquals(101, store.blockCount());
+        }
+
+        try (val store = new BlockStore(directory, 4096)) {
+            assertEquals(101, store.blockCount());
+            assertEquals("0x32", store.block(50).number());
+            assertEquals("0x32", store.block(hash(50).toUpperCase().replace("0X", "0x")).number());
+            assertNull(store.block(101));
+        }
+    }
+
+    @Test
+    public void testBlocksByHash() {
+        try (val store = new BlockStore(directory, 4096)) {
+            store.setFinalizedBlock(100);
+            assertTrue(store.putBlock(block(50), false));
+            assertFalse(store.putBlock(block(50), false));
+            assertNull(store.block(50));
+        }
+
+        try (val store = new BlockStore(directory, 4096)) {
+            // Block stored by hash is never indexed by number, even after restart.
+            assertNull(store.block(50));
+            assertEquals("0x32", store.block(hash(50)).number());
+            store.setFinalizedBlock(100);
+            assertTrue(store.putBlock(block(50)));
+            assertEquals("0x32", store.block(50).number());
+            assertEquals(1, store.blockCount());
+        }
+    }
+
+    @Test
+    public void testTornRecord() throws IOException {
+        try (val store = new BlockStore(directory, 4096)) {
+            store.setFinalizedBlock(10);
+            store.putBlock(block(1));
+            store.putBlock(block(2));
+        }
+
+        // Simulate a crash in the middle of writing the third record.
+        try (val channel = FileChannel.open(directory.resolve("blocks.dat"),
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            val offset = findEnd(channel);
+            channel.write(ByteBuffer.allocate(8).putInt(1000).putInt(12345).flip(), offset);
+        }
+
+        try (val store = new BlockStore(directory, 4096)) {
+            assertEquals(2, store.blockCount());
+            store.setFinalizedBlock(10);
+            assertTrue(store.putBlock(block(3)));
+        }
+        try (val store = new BlockStore(directory, 4096)) {
+            assertEquals(3, store.blockCount());
+            assertEquals("0x3", store.block(3).number());
+        }
+    }
+
+    @Test
+    public void testLogRanges() {
+        try (val store = new BlockStore(directory, 4096)) {
+            store.setFinalizedBlock(1000);
+            assertTrue(store.putLogs(ADDRESSES, null, 0, 99, logs(0, 99)));
+            assertTrue(store.putLogs(ADDRESSES, null, 100, 199, logs(100, 199)));
+            assertTrue(store.putLogs(ADDRESSES, null, 150, 299, logs(150, 299)));
+            assertFalse(store.putLogs(ADDRESSES, null, 900, 1001, logs(900, 1001)));
+        }
+
+        try (val store = new BlockStore(directory, 4096)) {
+            val addresses = new String[]{ADDRESSES[0].toLowerCase()};
+            val logs = store.logs(addresses, null, 50, 250);
+            assertNotNull(logs);
+            assertEquals(201, logs.size());
+            for (var i = 0; i < logs.size(); i++) {
+                assertEquals("0x" + Long.toHexString(50 + i), logs.get(i).blockNumber());
+            }
+            assertNull(store.logs(addresses, null, 250, 300));
+            assertNull(store.logs(addresses, new String[]{"0x01"}, 50, 250));
+        }
+    }
+
+    @Test
+    public void testEthereumClient() throws InterruptedException {
+        val endpoint = PublicNode.ETHEREUM.toBuilder()
+                .transport(Web3Transport.HTTP)
+                .settings(Web3Endpoint.Settings.builder().pollingInterval(Duration.ofMillis(10)).build())
+                .build();
+        try (val store = new BlockStore(directory, 4096);
+             val client = new EthereumClient(new RpcClient(endpoint, BlockStoreTest::connect))) {
+            client.setBlockStore(store);
+            val deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (store.finalizedBlock() != 100 && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            assertEquals(100, store.finalizedBlock());
+
+            assertEquals(50, client.blockByNumber(uint256(50)).get().number().longValue());
+            assertEquals(200, client.blockByNumber(uint256(200)).get().number().longValue());
+            assertNotNull(store.block(50));
+            assertNull(store.block(200));
+        }
+
+        // Finalized block number is recovered from the stored block.
+        try (val store = new BlockStore(directory, 4096)) {
+            assertEquals(50, store.finalizedBlock());
+            assertEquals("0x32", store.block(50).number());
+        }
+    }
+
+    /**
+     * Creates an in-memory connection that serves blocks by number, with block 100 being the finalized block.
+     */
+    private static RpcConnection connect(Web3Endpoint endpoint,
+                                         Consumer<RpcMessage> messageCallback,
+                                         Consumer<Throwable> errorCallback,
+                                         Runnable closeCallback) {
+        return new RpcConnection() {
+            @Override
+            public Web3Endpoint endpoint() {
+                return endpoint;
+            }
+
+            @Override
+            public void send(RpcMessage message) {
+                val request = (RpcApiRequestMessage) message;
+                val tag = request.params().getAsJsonArray().get(0).getAsString();
+                val number = tag.equals("finalized") ? 100 : Long.parseLong(tag.substring(2), 16);
+                val result = GSON.toJsonTree(block(number));
+                messageCallback.accept(new RpcApiResponseMessage("2.0", request.id(), result, null));
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+
+    private static long findEnd(FileChannel channel) throws IOException {
+        var position = 0L;
+        val header = ByteBuffer.allocate(4);
+        while (true) {
+            header.clear();
+            channel.read(header, position);
+            val length = header.flip().getInt();
+            if (length == 0) {
+                return position;
+            }
+            position += 8 + length;
+        }
+    }
+
+    private static String hash(long number) {
+        return String.format("0x%064x", number);
+    }
+
+    private static BlockResponse block(long number) {
+        val hex = "0x" + Long.toHexString(number);
+        return new BlockResponse("0x1", "0x0", "0x", "0x1c9c380", "0x0", hash(number), "0x00", null, hash(0), null,
+                hex, hash(Math.max(0, number - 1)), hash(0), hash(0), "0x220", hash(0), hex, "0x0",
+                new String[0], hash(0), new String[0]);
+    }
+
+    private static List<LogResponse> logs(long fromBlock, long toBlock) {
+        val logs = new ArrayList<LogResponse>();
+        for (var number = fromBlock; number <= toBlock; number++) {
+            val hex = "0x" + Long.toHexString(number);
+            logs.add(new LogResponse(ADDRESSES[0], new String[]{hash(1)}, "0x", hex, hash(number), "0x0",
+                    hash(number), "0x0", false));
+        }
+        return logs;
+    }
+
+}
@@ -0,0 +1,62 @@
+package dev.klepto.kweb3.util;
+
+import dev.klepto.kweb3.core.util.TimerWheel;
+import lombok.val;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link TimerWheel}.
+ *
+ * @author <a href="http://github.com/klepto">Augustinas R.</a>
+ */
+public class TimerWheelTest {
+
+    private final TimerWheel timer = new TimerWheel("timer-wheel-test", Duration.ofMillis(1), 8);
+
+    @AfterEach
+    public void close() {
+        timer.close();
+    }
+
+    @Test
+    public void testExpire() throws InterruptedException {
+        val latch = new CountDownLatch(1);
+        val timeout = timer.schedule(latch::countDown, Duration.ofMillis(20));
+        assertTrue(latch.await(1, TimeUnit.SECONDS));
+        assertTrue(timeout.isExpired());
+        assertEquals(1, timer.expiredCount());
+    }
+
+    @Test
+    public void testExpireAfterMultipleRounds() throws InterruptedException {
+        val latch = new CountDownLatch(1);
+        val start = System.nanoTime();
+        timer.schedule(latch::countDown, Duration.ofMillis(50));
+        assertTrue(latch.await(1, TimeUnit.SECONDS));
+        assertTrue(System.nanoTime() - start >= Duration.ofMillis(50).toNanos());
+    }
+
+    @Test
+    public void testCancel() throws InterruptedException {
+        val expired = new AtomicInteger();
+        val cancelled = timer.schedule(expired::incrementAndGet, Duration.ofMillis(200));
+        val latch = new CountDownLatch(1);
+        timer.schedule(latch::countDown, Duration.ofMillis(300));
+
+        assertTrue(cancelled.cancel());
+        assertFalse(cancelled.cancel());
+        assertTrue(latch.await(1, TimeUnit.SECONDS));
+        assertEquals(0, expired.get());
+        assertTrue(cancelled.isCancelled());
+        assertEquals(1, timer.expiredCount());
+    }
+
+}
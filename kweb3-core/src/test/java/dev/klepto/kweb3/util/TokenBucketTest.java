@@ -0,0 +1,57 @@
+package dev.klepto.kweb3.util;
+
+import dev.klepto.kweb3.core.util.TokenBucket;
+import lombok.val;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link TokenBucket}.
+ *
+ * @author <a href="http://github.com/klepto">Augustinas R.</a>
+ */
+public class TokenBucketTest {
+
+    @Test
+    public void testBurst() {
+        val bucket = new TokenBucket(Duration.ofSeconds(10), 3);
+        for (var i = 0; i < 3; i++) {
+            assertTrue(bucket.tryAcquire());
+        }
+        assertFalse(bucket.tryAcquire());
+        val wait = bucket.nanosUntilAvailable();
+        assertTrue(wait > 0 && wait <= Duration.ofSeconds(10).toNanos());
+    }
+
+    @Test
+    public void testRefill() throws InterruptedException {
+        val bucket = new TokenBucket(Duration.ofMillis(100), 2);
+        assertTrue(bucket.tryAcquire());
+        assertTrue(bucket.tryAcquire());
+        assertFalse(bucket.tryAcquire());
+
+        Thread.sleep(150);
+        assertEquals(0, bucket.nanosUntilAvailable());
+        assertTrue(bucket.tryAcquire());
+        assertFalse(bucket.tryAcquire());
+
+        // Tokens accumulated over a long pause are capped at capacity.
+        Thread.sleep(500);
+        assertTrue(bucket.tryAcquire());
+        assertTrue(bucket.tryAcquire());
+        assertFalse(bucket.tryAcquire());
+    }
+
+    @Test
+    public void testZeroInterval() {
+        val bucket = new TokenBucket(Duration.ZERO, 1);
+        for (var i = 0; i < 100; i++) {
+            assertTrue(bucket.tryAcquire());
+        }
+        assertEquals(0, bucket.nanosUntilAvailable());
+    }
+
+}
@@ -13,7 +13,7 @@ import dev.klepto.kweb3.core.ethereum.type.primitive.EthAddress
  */
 open class CoroutineWeb3Client(
     endpoint: Web3Endpoint,
-    contractProvider: ContractProvider = ContractProxyProvider(),
+    contractProvider: ContractProvider = HiddenClassContractProvider(),
     contractExecutor: ContractExecutor = CoroutineContractExecutor(),
     contractParser: ContractParser = CoroutineContractParser(),
 ) :
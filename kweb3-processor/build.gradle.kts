@@ -0,0 +1,4 @@
+dependencies {
+    implementation(projects.kweb3Core)
+    implementation(libs.jetbrains.annotations)
+}
\ No newline at end of file
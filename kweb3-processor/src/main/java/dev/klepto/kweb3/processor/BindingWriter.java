@@ -0,0 +1,231 @@
+package dev.klepto.kweb3.processor;
+
+import dev.klepto.kweb3.core.contract.ContractBinding;
+import dev.klepto.kweb3.core.contract.ContractFunction;
+import dev.klepto.kweb3.core.contract.ContractProxy;
+import lombok.val;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.*;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Writes the source file of a generated {@link ContractBinding}. All types are written with their fully qualified
+ * names so that the generated source doesn't need imports.
+ *
+ * @author <a href="http://github.com/klepto">Augustinas R.</a>
+ */
+class BindingWriter {
+
+    private static final String INDENT = "    ";
+
+    private final ProcessingEnvironment environment;
+    private final TypeElement contract;
+    private final String packageName;
+    private final String bindingName;
+    private final String generator;
+    private final StringBuilder source = new StringBuilder();
+
+    /**
+     * Creates a new writer for the binding of a contract interface.
+     *
+     * @param environment the processing environment
+     * @param contract    the contract interface
+     * @param packageName the package of the contract interface
+     * @param bindingName the binary name of the binding
+     * @param generator   the name of the generating processor
+     */
+    BindingWriter(ProcessingEnvironment environment, TypeElement contract, String packageName, String bindingName,
+                  String generator) {
+        this.environment = environment;
+        this.contract = contract;
+        this.packageName = packageName;
+        this.bindingName = bindingName;
+        this.generator = generator;
+    }
+
+    /**
+     * Generates the binding source and writes it with the {@link javax.annotation.processing.Filer}.
+     *
+     * @param functions the contract functions of the interface
+     * @throws IOException if the source file can't be written
+     */
+    void write(List<Function> functions) throws IOException {
+        val contractName = contract.getQualifiedName().toString();
+        val simpleName = bindingName.substring(bindingName.lastIndexOf('.') + 1);
+
+        if (!packageName.isEmpty()) {
+            line(0, "package " + packageName + ";");
+            line(0, "");
+        }
+        line(0, "/**");
+        line(0, " * Contract binding of {@link " + contractName + "}, generated at compile time.");
+        line(0, " */");
+        if (environment.getElementUtils().getTypeElement("javax.annotation.processing.Generated") != null) {
+            line(0, "@javax.annotation.processing.Generated(\"" + generator + "\")");
+        }
+        line(0, "public final class " + simpleName + " extends " + ContractBinding.class.getName()
+                + " implements " + contractName + " {");
+
+        for (val function : functions) {
+            val constant = function.constant();
+            val method = function.method();
+            line(0, "");
+            line(1, "public static final String " + constant + "_SIGNATURE = \"" + function.signature() + "\";");
+            line(1, "public static final String " + constant + "_SELECTOR = \"" + function.selector() + "\";");
+            line(1, "private static final " + Method.class.getName() + " " + constant + "_METHOD = method("
+                    + contractName + ".class, \"" + method.getSimpleName() + "\"" + parameterClasses(method) + ");");
+        }
+
+        line(0, "");
+        for (val function : functions) {
+            line(1, "private " + ContractFunction.class.getName() + " " + function.identifier() + ";");
+        }
+
+        line(0, "");
+        line(1, "public " + simpleName + "(" + ContractProxy.class.getName() + " proxy) {");
+        line(2, "super(proxy);");
+        line(1, "}");
+
+        for (val function : functions) {
+            writeMethod(function);
+        }
+        line(0, "");
+        line(0, "}");
+
+        val file = environment.getFiler().createSourceFile(bindingName, contract);
+        try (val writer = file.openWriter()) {
+            writer.write(source.toString());
+        }
+    }
+
+    /**
+     * Writes the implementation of a contract function method. The contract function is resolved into its field on the
+     * first call, so that a method the runtime parser rejects only fails once it's called. The resolved function is
+     * checked against the selector inferred at compile time.
+     *
+     * @param function the contract function
+     */
+    private void writeMethod(Function function) {
+        val method = function.method();
+        val parameters = method.getParameters();
+        val declarations = new StringBuilder();
+        for (var i = 0; i < parameters.size(); i++) {
+            val type = parameters.get(i).asType();
+            val varargs = method.isVarArgs() && i == parameters.size() - 1;
+            declarations.append(i > 0 ? ", " : "")
+                    .append(varargs ? typeName(((ArrayType) type).getComponentType()) + "..." : typeName(type))
+                    .append(" ")
+                    .append(parameters.get(i).getSimpleName());
+        }
+        val arguments = parameters.stream()
+                .map(parameter -> parameter.getSimpleName().toString())
+                .collect(Collectors.joining(", "));
+        val thrown = method.getThrownTypes().stream().map(this::typeName).collect(Collectors.joining(", "));
+        val returnType = typeName(method.getReturnType());
+        var local = "function";
+        while (arguments.matches("(.*, )?" + local + "(, .*)?")) {
+            local += "_";
+        }
+
+        line(0, "");
+        line(1, "@Override");
+        line(1, "@SuppressWarnings(\"unchecked\")");
+        line(1, "public " + returnType + " " + method.getSimpleName() + "(" + declarations + ")"
+                + (thrown.isEmpty() ? "" : " throws " + thrown) + " {");
+        line(2, ContractFunction.class.getName() + " " + local + " = this." + function.identifier() + ";");
+        line(2, "if (" + local + " == null) {");
+        line(3, local + " = this." + function.identifier() + " = function(" + function.constant() + "_METHOD, "
+                + function.constant() + "_SELECTOR);");
+        line(2, "}");
+        line(2, "return (" + returnType + ") execute(" + local + ", new Object[]{" + arguments + "});");
+        line(1, "}");
+    }
+
+    /**
+     * Returns the class literals of the erased parameter types of a method, each prefixed with a comma.
+     *
+     * @param method the method
+     * @return the class literals of the parameter types
+     */
+    private String parameterClasses(ExecutableElement method) {
+        val types = environment.getTypeUtils();
+        return method.getParameters().stream()
+                .map(parameter -> ", " + typeName(types.erasure(parameter.asType())) + ".class")
+                .collect(Collectors.joining());
+    }
+
+    /**
+     * Returns the source representation of a type. Unlike {@link TypeMirror#toString()}, type annotations are left out
+     * since they can't precede a fully qualified name.
+     *
+     * @param type the type
+     * @return the source representation of the type
+     */
+    private String typeName(TypeMirror type) {
+        if (type.getKind().isPrimitive() || type.getKind() == TypeKind.VOID) {
+            return type.getKind().name().toLowerCase();
+        }
+        if (type instanceof ArrayType array) {
+            return typeName(array.getComponentType()) + "[]";
+        }
+        if (type instanceof WildcardType wildcard) {
+            return wildcard.getExtendsBound() != null ? "? extends " + typeName(wildcard.getExtendsBound())
+                    : wildcard.getSuperBound() != null ? "? super " + typeName(wildcard.getSuperBound())
+                    : "?";
+        }
+        if (type instanceof DeclaredType declared) {
+            val name = ((TypeElement) declared.asElement()).getQualifiedName().toString();
+            if (declared.getTypeArguments().isEmpty()) {
+                return name;
+            }
+            return name + declared.getTypeArguments().stream()
+                    .map(this::typeName)
+                    .collect(Collectors.joining(", ", "<", ">"));
+        }
+        if (type instanceof TypeVariable variable) {
+            return variable.asElement().getSimpleName().toString();
+        }
+        return type.toString();
+    }
+
+    /**
+     * Appends an indented line to the source.
+     *
+     * @param indent the indentation level
+     * @param line   the line
+     */
+    private void line(int indent, String line) {
+        if (!line.isEmpty()) {
+            source.append(INDENT.repeat(indent)).append(line);
+        }
+        source.append('\n');
+    }
+
+    /**
+     * Contract function implemented by the binding.
+     *
+     * @param method     the contract interface method
+     * @param identifier the unique identifier of the function within the binding
+     * @param signature  the ABI signature of the function
+     * @param selector   the function selector
+     */
+    record Function(ExecutableElement method, String identifier, String signature, String selector) {
+
+        /**
+         * Returns the upper snake case prefix of the constants generated for this function.
+         *
+         * @return the constant name prefix
+         */
+        String constant() {
+            return identifier.replaceAll("([a-z0-9])([A-Z])", "$1_$2").toUpperCase();
+        }
+
+    }
+
+}
@@ -0,0 +1,387 @@
+package dev.klepto.kweb3.processor;
+
+import dev.klepto.kweb3.core.Web3Result;
+import dev.klepto.kweb3.core.contract.ContractBinding;
+import dev.klepto.kweb3.core.contract.Web3Contract;
+import dev.klepto.kweb3.core.contract.annotation.*;
+import dev.klepto.kweb3.core.contract.type.EthTupleContainer;
+import dev.klepto.kweb3.core.contract.type.EthVoid;
+import dev.klepto.kweb3.core.ethereum.type.EthSizedValue;
+import dev.klepto.kweb3.core.ethereum.type.EthValue;
+import dev.klepto.kweb3.core.ethereum.type.primitive.*;
+import lombok.val;
+import org.jetbrains.annotations.NotNull;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static dev.klepto.kweb3.core.util.hash.Keccak256.keccak256;
+
+/**
+ * Generates a {@link ContractBinding} for every contract interface with {@link View} or {@link Transaction} functions.
+ * Function names, ABI signatures and selectors are inferred at compile time from the same annotations and types that
+ * {@link dev.klepto.kweb3.core.contract.ReflectionContractParser} uses at runtime, and written to the binding as
+ * constants. Interfaces whose functions can't be described at compile time are skipped with a warning and keep using
+ * the {@link java.lang.reflect.Proxy} based contract proxy.
+ *
+ * @author <a href="http://github.com/klepto">Augustinas R.</a>
+ */
+@SupportedAnnotationTypes({
+        "dev.klepto.kweb3.core.contract.annotation.View",
+        "dev.klepto.kweb3.core.contract.annotation.Transaction"
+})
+public class ContractProcessor extends AbstractProcessor {
+
+    private static final Map<String, String> SOLIDITY_NAMES = EthValue.SOLIDITY_NAMES.entrySet().stream()
+            .collect(Collectors.toMap(entry -> entry.getKey().getName(), Map.Entry::getValue));
+
+    private static final Set<String> VOID_TYPES = Set.of(
+            "void", "java.lang.Void", "kotlin.Unit", EthVoid.class.getName()
+    );
+
+    private final Set<String> generated = new HashSet<>();
+
+    /**
+     * Returns the latest source version supported by the compiler, contract interfaces don't depend on any language
+     * feature.
+     *
+     * @return the latest supported source version
+     */
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    /**
+     * Collects contract interfaces declaring annotated functions and generates their bindings.
+     *
+     * @param annotations the annotation types requested to be processed
+     * @param environment the environment of the current round
+     * @return false, annotations are left for other processors
+     */
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment environment) {
+        val contracts = new LinkedHashSet<TypeElement>();
+        for (val annotation : annotations) {
+            for (val element : environment.getElementsAnnotatedWith(annotation)) {
+                if (element.getEnclosingElement() instanceof TypeElement type && isContract(type)) {
+                    contracts.add(type);
+                }
+            }
+        }
+
+        for (val contract : contracts) {
+            try {
+                generate(contract);
+            } catch (UnsupportedContractException exception) {
+                warning(contract, "Skipping contract binding of " + contract + ": " + exception.getMessage());
+            } catch (IOException exception) {
+                processingEnv.getMessager().printMessage(
+                        Diagnostic.Kind.ERROR,
+                        "Couldn't write contract binding of " + contract + ": " + exception.getMessage(),
+                        contract
+                );
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Parses the functions of a contract interface and writes its binding source file.
+     *
+     * @param contract the contract interface
+     * @throws UnsupportedContractException if the binding can't be generated
+     * @throws IOException                  if the source file can't be written
+     */
+    private void generate(TypeElement contract) throws IOException {
+        val elements = processingEnv.getElementUtils();
+        val packageName = elements.getPackageOf(contract).getQualifiedName().toString();
+        val bindingName = ContractBinding.bindingName(packageName, elements.getBinaryName(contract).toString());
+        if (!generated.add(bindingName)) {
+            return;
+        }
+
+        if (!contract.getTypeParameters().isEmpty()) {
+            throw new UnsupportedContractException("generic contract interfaces aren't supported");
+        }
+        for (Element element = contract; element instanceof TypeElement; element = element.getEnclosingElement()) {
+            if (!element.getModifiers().contains(Modifier.PUBLIC)) {
+                throw new UnsupportedContractException("contract interface must be public");
+            }
+        }
+
+        val methods = contractMethods(contract);
+        val names = new HashMap<String, Integer>();
+        methods.forEach(method -> names.merge(method.getSimpleName().toString(), 1, Integer::sum));
+
+        val functions = new ArrayList<BindingWriter.Function>();
+        for (var i = 0; i < methods.size(); i++) {
+            val method = methods.get(i);
+            if (!method.getTypeParameters().isEmpty()) {
+                throw new UnsupportedContractException("generic contract method " + method + " isn't supported");
+            }
+            val methodName = method.getSimpleName().toString();
+            val identifier = names.get(methodName) > 1 ? methodName + i : methodName;
+            val signature = parseFunctionName(method) + parseParameters(method);
+            val selector = "0x" + keccak256(signature).substring(0, 8).toLowerCase();
+            parseReturnType(method);
+            functions.add(new BindingWriter.Function(method, identifier, signature, selector));
+        }
+
+        val writer = new BindingWriter(processingEnv, contract, packageName, bindingName, getClass().getName());
+        writer.write(functions);
+    }
+
+    /**
+     * Returns true if a type is an interface extending {@link Web3Contract}.
+     *
+     * @param type the type element
+     * @return true if the type is a contract interface
+     */
+    private boolean isContract(TypeElement type) {
+        val contract = processingEnv.getElementUtils().getTypeElement(Web3Contract.class.getName());
+        return type.getKind() == ElementKind.INTERFACE
+                && contract != null
+                && processingEnv.getTypeUtils().isAssignable(type.asType(), contract.asType());
+    }
+
+    /**
+     * Returns the abstract methods of a contract interface that are contract functions, including inherited ones. The
+     * methods of {@link Web3Contract} are implemented by {@link ContractBinding} and are excluded.
+     *
+     * @param contract the contract interface
+     * @return the list of contract function methods
+     */
+    private List<ExecutableElement> contractMethods(TypeElement contract) {
+        val members = processingEnv.getElementUtils().getAllMembers(contract);
+        return ElementFilter.methodsIn(members).stream()
+                .filter(method -> method.getModifiers().contains(Modifier.ABSTRACT))
+                .filter(method -> !method.getEnclosingElement().toString().equals(Web3Contract.class.getName()))
+                .toList();
+    }
+
+    /**
+     * Parses function name either from method annotations, or the method name if name isn't explicitly specified.
+     *
+     * @param method the contract interface method
+     * @return the contract function name
+     */
+    private String parseFunctionName(ExecutableElement method) {
+        val view = method.getAnnotation(View.class);
+        val transaction = method.getAnnotation(Transaction.class);
+        val name = view != null ? view.value() : transaction != null ? transaction.value() : "";
+        return !name.isBlank() ? name : method.getSimpleName().toString();
+    }
+
+    /**
+     * Parses the ABI descriptor of contract function parameters. Cost parameters and parameters that aren't
+     * {@link EthValue} are not part of the function signature.
+     *
+     * @param method the contract interface method
+     * @return the ABI tuple descriptor of the parameters
+     */
+    private String parseParameters(ExecutableElement method) {
+        val descriptors = new ArrayList<String>();
+        for (val parameter : method.getParameters()) {
+            if (parameter.getAnnotation(Cost.class) != null || !isSubtype(parameter.asType(), EthValue.class)) {
+                continue;
+            }
+            descriptors.add(parseDescriptor(parameter));
+        }
+        return "(" + String.join(",", descriptors) + ")";
+    }
+
+    /**
+     * Validates that the contract function returns {@link Web3Result} with a type that can be decoded.
+     *
+     * @param method the contract interface method
+     */
+    private void parseReturnType(ExecutableElement method) {
+        val type = method.getReturnType();
+        if (!isType(type, Web3Result.class) || ((DeclaredType) type).getTypeArguments().isEmpty()) {
+            throw new UnsupportedContractException("contract method " + method + " must return Web3Result");
+        }
+        parseDescriptor(type, valueSize(method), arraySize(method));
+    }
+
+    /**
+     * Parses the ABI descriptor of an annotated parameter, field or method.
+     *
+     * @param element the element
+     * @return the ABI type descriptor
+     */
+    private String parseDescriptor(Element element) {
+        return parseDescriptor(element.asType(), valueSize(element), arraySize(element));
+    }
+
+    /**
+     * Parses the ABI descriptor of a type with a given value size and array size, the same way
+     * {@link dev.klepto.kweb3.core.contract.ContractCodec} does at runtime.
+     *
+     * @param type      the ethereum data type
+     * @param valueSize the value size, or -1 if size is not specified
+     * @param arraySize the array size, or -1 if size is not specified
+     * @return the ABI type descriptor
+     */
+    private String parseDescriptor(TypeMirror type, int valueSize, int arraySize) {
+        if (isType(type, Web3Result.class)) {
+            return parseDescriptor(typeArgument(type), valueSize, arraySize);
+        }
+
+        if (type.getKind() == TypeKind.VOID || VOID_TYPES.contains(erasedName(type))) {
+            return "";
+        }
+
+        if (isSubtype(type, EthSizedValue.class)) {
+            if (valueSize == -1 && (isSubtype(type, EthUint.class) || isSubtype(type, EthInt.class))) {
+                valueSize = 256;
+            }
+            return solidityName(type) + (valueSize > 0 ? valueSize : "");
+        }
+
+        if (isSubtype(type, EthBool.class) || isSubtype(type, EthString.class) || isSubtype(type, EthAddress.class)) {
+            return solidityName(type);
+        }
+
+        if (isSubtype(type, EthArray.class)) {
+            val component = parseDescriptor(typeArgument(type), valueSize, arraySize);
+            return component + "[" + (arraySize > 0 ? arraySize : "") + "]";
+        }
+
+        if (isSubtype(type, EthTupleContainer.class)) {
+            val element = processingEnv.getTypeUtils().asElement(type);
+            val fields = ElementFilter.fieldsIn(element.getEnclosedElements()).stream()
+                    .filter(field -> !field.getModifiers().contains(Modifier.STATIC))
+                    .map(this::parseDescriptor)
+                    .collect(Collectors.joining(","));
+            return "(" + fields + ")";
+        }
+
+        throw new UnsupportedContractException("couldn't parse descriptor for type " + type);
+    }
+
+    /**
+     * Returns the value size annotated on an element.
+     *
+     * @param element the annotated element
+     * @return the value size, or -1 if size is not specified
+     */
+    private static int valueSize(Element element) {
+        val annotation = element.getAnnotation(ValueSize.class);
+        return annotation != null ? annotation.value() : -1;
+    }
+
+    /**
+     * Returns the array size annotated on an element.
+     *
+     * @param element the annotated element
+     * @return the array size, or -1 if size is not specified
+     */
+    private static int arraySize(Element element) {
+        val annotation = element.getAnnotation(ArraySize.class);
+        return annotation != null ? annotation.value() : -1;
+    }
+
+    /**
+     * Returns the solidity name of an ethereum value type, or an empty string if the type doesn't have one.
+     *
+     * @param type the ethereum value type
+     * @return the solidity name of the type
+     */
+    private String solidityName(TypeMirror type) {
+        return SOLIDITY_NAMES.getOrDefault(erasedName(type), "");
+    }
+
+    /**
+     * Returns the first type argument of a generic type.
+     *
+     * @param type the generic type
+     * @return the first type argument
+     */
+    private static TypeMirror typeArgument(TypeMirror type) {
+        val arguments = ((DeclaredType) type).getTypeArguments();
+        if (arguments.isEmpty()) {
+            throw new UnsupportedContractException("couldn't infer generic type of " + type);
+        }
+        return arguments.get(0);
+    }
+
+    /**
+     * Returns true if the erasure of a type is exactly given class.
+     *
+     * @param type  the type
+     * @param clazz the class
+     * @return true if the type is the class
+     */
+    private boolean isType(TypeMirror type, Class<?> clazz) {
+        return type.getKind() == TypeKind.DECLARED && erasedName(type).equals(clazz.getName());
+    }
+
+    /**
+     * Returns true if a type is assignable to given class.
+     *
+     * @param type  the type
+     * @param clazz the class
+     * @return true if the type is a subtype of the class
+     */
+    private boolean isSubtype(TypeMirror type, Class<?> clazz) {
+        val element = processingEnv.getElementUtils().getTypeElement(clazz.getCanonicalName());
+        if (element == null || type.getKind() != TypeKind.DECLARED) {
+            return false;
+        }
+        val types = processingEnv.getTypeUtils();
+        return types.isAssignable(types.erasure(type), types.erasure(element.asType()));
+    }
+
+    /**
+     * Returns the binary name of the erasure of a declared type, or the type name of other types.
+     *
+     * @param type the type
+     * @return the erased type name
+     */
+    private String erasedName(TypeMirror type) {
+        if (type.getKind() != TypeKind.DECLARED) {
+            return type.getKind().name().toLowerCase();
+        }
+        val element = (TypeElement) ((DeclaredType) type).asElement();
+        return processingEnv.getElementUtils().getBinaryName(element).toString();
+    }
+
+    /**
+     * Reports a warning on an element.
+     *
+     * @param element the element
+     * @param message the warning message
+     */
+    private void warning(@NotNull Element element, @NotNull String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING, message, element);
+    }
+
+    /**
+     * Thrown when a contract interface can't be described at compile time.
+     */
+    private static class UnsupportedContractException extends RuntimeException {
+
+        /**
+         * Creates a new exception with a message.
+         *
+         * @param message the reason the contract is unsupported
+         */
+        UnsupportedContractException(String message) {
+            super(message);
+        }
+
+    }
+
+}
@@ -3,4 +3,5 @@ rootProject.name = "kweb3"
 enableFeaturePreview("TYPESAFE_PROJECT_ACCESSORS")
 include("kweb3-core")
 include("kweb3-kotlin")
-include("kweb3-contracts")
\ No newline at end of file
+include("kweb3-contracts")
+include("kweb3-processor")
\ No newline at end of file